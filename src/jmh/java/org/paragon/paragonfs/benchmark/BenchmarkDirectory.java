@@ -0,0 +1,73 @@
+package org.paragon.paragonfs.benchmark;
+
+import org.apache.commons.io.FileUtils;
+import org.paragon.paragonfs.ParagonFS;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Creates the directories the benchmarks run against. By default these are created in /dev/shm, which is a tmpfs on
+ * Linux, so the benchmarks measure ParagonFS itself rather than the disk underneath it. Set the
+ * <code>paragonfs.benchmark.dir</code> system property to benchmark against a specific device instead.
+ */
+public final class BenchmarkDirectory
+{
+	public static final String DIR_PROPERTY = "paragonfs.benchmark.dir";
+
+	private static final String TMPFS_DIR = "/dev/shm";
+
+	private static final String PREFIX = "paragonfs-benchmark";
+
+	private BenchmarkDirectory()
+	{
+	}
+
+	/**
+	 * Opens a {@link ParagonFS} within a new, empty directory.
+	 *
+	 * @return The {@link ParagonFS}.
+	 * @throws IOException Thrown if the directory could not be created.
+	 */
+	public static ParagonFS open() throws IOException
+	{
+		return new ParagonFS(Files.createTempDirectory(getBaseDir().toPath(), PREFIX).toFile());
+	}
+
+	/**
+	 * Closes the {@link ParagonFS} and removes its directory.
+	 *
+	 * @param paragonFS The {@link ParagonFS} opened with {@link #open()}.
+	 * @throws IOException Thrown if the directory could not be removed.
+	 */
+	public static void close(final ParagonFS paragonFS) throws IOException
+	{
+		if (paragonFS == null) {
+			return;
+		}
+
+		paragonFS.close();
+		FileUtils.deleteDirectory(paragonFS.getDir());
+	}
+
+	/**
+	 * Returns the directory the benchmark directories are created within.
+	 *
+	 * @return The base directory.
+	 */
+	private static File getBaseDir()
+	{
+		final String configured = System.getProperty(DIR_PROPERTY);
+		if (configured != null) {
+			return new File(configured);
+		}
+
+		final File tmpfs = new File(TMPFS_DIR);
+		if (tmpfs.isDirectory() && tmpfs.canWrite()) {
+			return tmpfs;
+		}
+
+		return new File(System.getProperty("java.io.tmpdir"));
+	}
+}
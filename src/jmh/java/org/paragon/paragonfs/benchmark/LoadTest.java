@@ -0,0 +1,377 @@
+package org.paragon.paragonfs.benchmark;
+
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.metrics.LatencyHistogram;
+import org.paragon.paragonfs.paradigm.Paradigm;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A load test which drives a {@link ParagonFS} with a mix of operations shaped like production traffic, in the style
+ * of YCSB, rather than measuring a single operation in isolation as the JMH benchmarks do. It is built into
+ * target/benchmarks.jar by the <code>benchmark</code> profile and run with:
+ * <pre>
+ *     java -cp target/benchmarks.jar org.paragon.paragonfs.benchmark.LoadTest read=0.5 update=0.5 threads=16
+ * </pre>
+ * See {@link Workload} for the settings. The rows are loaded first, then the workload runs for the time given, with
+ * the throughput and the latency percentiles of each operation reported at every interval and once more at the end.
+ * It runs against the directory chosen by {@link BenchmarkDirectory}, which is removed once it is done.<br />
+ * <br />
+ * With a target throughput each thread issues its operations on a fixed schedule, and each latency is measured from
+ * when the operation was due rather than when it was issued, so a stall is reported for every operation it held up,
+ * not just the one it happened to. Reads, updates and scans choose among the rows loaded up front, while the rows
+ * created as the workload runs only add to its writes.
+ */
+public class LoadTest
+{
+	/**
+	 * The operations a workload is made up of.
+	 */
+	public enum Operation
+	{
+		/**
+		 * Reads every key of a row.
+		 */
+		READ,
+
+		/**
+		 * Writes one key of a row.
+		 */
+		UPDATE,
+
+		/**
+		 * Creates a row.
+		 */
+		CREATE,
+
+		/**
+		 * Reads consecutive rows, in the order of their identifiers.
+		 */
+		SCAN
+	}
+
+	private static final String ARCHETYPE_NAME = "usertable";
+
+	private static final long NANOS_PER_MICRO = 1000;
+
+	private final ParagonFS paragonFS;
+
+	private final Workload workload;
+
+	private final PrintStream out;
+
+	private Archetype archetype;
+
+	/**
+	 * The rows loaded up front, sorted, which the workload chooses from.
+	 */
+	private String[] paradigmIds;
+
+	private ZipfianGenerator zipfian;
+
+	/**
+	 * The latencies of the current interval, which the reporter swaps for new ones at the end of each interval.
+	 */
+	private final AtomicReference<Map<Operation, LatencyHistogram>> interval = new AtomicReference<>(newHistograms());
+
+	/**
+	 * The latencies of the whole run.
+	 */
+	private final Map<Operation, LatencyHistogram> total = newHistograms();
+
+	private final AtomicLong errors = new AtomicLong();
+
+	/**
+	 * Initializes the {@link LoadTest}.
+	 *
+	 * @param paragonFS The {@link ParagonFS} to drive, which should be empty.
+	 * @param workload  The {@link Workload}.
+	 * @param out       The stream to report to.
+	 */
+	public LoadTest(final ParagonFS paragonFS, final Workload workload, final PrintStream out)
+	{
+		this.paragonFS = paragonFS;
+		this.workload = workload;
+		this.out = out;
+	}
+
+	public static void main(final String[] args) throws Exception
+	{
+		final Workload workload = Workload.parse(args);
+		final ParagonFS paragonFS = BenchmarkDirectory.open();
+
+		try
+		{
+			new LoadTest(paragonFS, workload, System.out).run();
+		}
+		finally
+		{
+			BenchmarkDirectory.close(paragonFS);
+		}
+	}
+
+	/**
+	 * Loads the rows, then runs the workload, reporting as it goes.
+	 *
+	 * @throws Exception Thrown if the rows could not be loaded, or a thread failed.
+	 */
+	public void run() throws Exception
+	{
+		out.println("Workload " + workload + " in " + paragonFS.getDir());
+		load();
+
+		final int seconds = workload.getSeconds();
+		final long start = System.nanoTime();
+		final long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+		final ExecutorService threads = Executors.newFixedThreadPool(workload.getThreads());
+
+		try
+		{
+			final List<Future<?>> workers = new ArrayList<>();
+			for (int thread = 0; thread < workload.getThreads(); thread++)
+			{
+				workers.add(threads.submit(() -> work(deadline)));
+			}
+
+			long reported = start;
+			while (reported < deadline)
+			{
+				final long reportAt = Math.min(reported + TimeUnit.SECONDS.toNanos(workload.getIntervalSeconds()),
+					deadline);
+				for (long wait; (wait = reportAt - System.nanoTime()) > 0; )
+				{
+					LockSupport.parkNanos(wait);
+				}
+
+				report(reportAt - start, reportAt - reported, interval.getAndSet(newHistograms()));
+				reported = reportAt;
+			}
+
+			for (final Future<?> worker : workers)
+			{
+				worker.get();
+			}
+		}
+		finally
+		{
+			threads.shutdownNow();
+		}
+
+		final long elapsed = System.nanoTime() - start;
+		out.println("Total");
+		report(elapsed, elapsed, total);
+	}
+
+	/**
+	 * Creates the rows the workload chooses from, across every thread.
+	 *
+	 * @throws Exception Thrown if a row could not be created.
+	 */
+	private void load() throws Exception
+	{
+		archetype = paragonFS.create(ARCHETYPE_NAME);
+
+		final long start = System.nanoTime();
+		final AtomicInteger remaining = new AtomicInteger(workload.getRecordCount());
+		final ExecutorService threads = Executors.newFixedThreadPool(workload.getThreads());
+
+		try
+		{
+			final List<Future<Void>> loaders = new ArrayList<>();
+			for (int thread = 0; thread < workload.getThreads(); thread++)
+			{
+				loaders.add(threads.submit(() -> {
+					while (remaining.getAndDecrement() > 0)
+					{
+						archetype.create().setValues(Rows.of(workload.getWidth()));
+					}
+
+					return null;
+				}));
+			}
+
+			for (final Future<Void> loader : loaders)
+			{
+				loader.get();
+			}
+		}
+		finally
+		{
+			threads.shutdownNow();
+		}
+
+		paradigmIds = archetype.listParadigmIds().toArray(new String[0]);
+		zipfian = new ZipfianGenerator(paradigmIds.length, workload.getZipfianConstant());
+
+		final double elapsed = (System.nanoTime() - start) / 1e9;
+		out.printf("Loaded %d rows in %.1f s (%.0f rows/s)%n", paradigmIds.length, elapsed,
+			paradigmIds.length / elapsed);
+	}
+
+	/**
+	 * Issues operations until the deadline, on a schedule if there is a target throughput.
+	 *
+	 * @param deadline The time to stop at, as given by {@link System#nanoTime()}.
+	 */
+	private void work(final long deadline)
+	{
+		final double target = workload.getTargetThroughput();
+		final long period = target > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * workload.getThreads() / target) : 0;
+
+		// Spread the threads' schedules across the period, so they don't all issue their operations at once.
+		long due = System.nanoTime() + (period > 0 ? ThreadLocalRandom.current().nextLong(period) : 0);
+		while (true)
+		{
+			if (period > 0) {
+				LockSupport.parkNanos(due - System.nanoTime());
+			}
+			else {
+				due = System.nanoTime();
+			}
+
+			if (due >= deadline || Thread.currentThread().isInterrupted()) {
+				return;
+			}
+
+			final Operation operation = choose();
+			try
+			{
+				execute(operation);
+			}
+			catch (final ParagonFSException | RuntimeException e)
+			{
+				errors.incrementAndGet();
+			}
+
+			final long latency = System.nanoTime() - due;
+			interval.get().get(operation).record(latency);
+			total.get(operation).record(latency);
+			due += period;
+		}
+	}
+
+	/**
+	 * Chooses the next operation, by the proportions of the workload.
+	 *
+	 * @return The {@link Operation}.
+	 */
+	private Operation choose()
+	{
+		double chosen = ThreadLocalRandom.current().nextDouble();
+		if ((chosen -= workload.getReadProportion()) < 0) {
+			return Operation.READ;
+		}
+		else if ((chosen -= workload.getUpdateProportion()) < 0) {
+			return Operation.UPDATE;
+		}
+		else if ((chosen -= workload.getCreateProportion()) < 0) {
+			return Operation.CREATE;
+		}
+
+		return workload.getScanProportion() > 0 ? Operation.SCAN : Operation.READ;
+	}
+
+	/**
+	 * Executes an operation against a row chosen by the workload's distribution.
+	 *
+	 * @param operation The {@link Operation}.
+	 * @throws ParagonFSException Thrown if the operation failed.
+	 */
+	private void execute(final Operation operation) throws ParagonFSException
+	{
+		switch (operation)
+		{
+			case READ:
+				archetype.get(paradigmIds[chooseRow()]).getCurrentSnapshot();
+				break;
+
+			case UPDATE:
+				final Paradigm paradigm = archetype.get(paradigmIds[chooseRow()]);
+				final int key = ThreadLocalRandom.current().nextInt(workload.getWidth());
+				paradigm.setValue(Rows.key(key), Rows.value(key));
+				break;
+
+			case CREATE:
+				archetype.create().setValues(Rows.of(workload.getWidth()));
+				break;
+
+			case SCAN:
+				final int from = chooseRow();
+				final int to = Math.min(from + workload.getScanLength(), paradigmIds.length);
+				archetype.getAll(Arrays.asList(paradigmIds).subList(from, to));
+				break;
+
+			default:
+				throw new IllegalStateException("Unknown operation " + operation + ".");
+		}
+	}
+
+	/**
+	 * Chooses a row, by the workload's distribution.
+	 *
+	 * @return The index of the row within {@link #paradigmIds}.
+	 */
+	private int chooseRow()
+	{
+		if (workload.getDistribution() == Workload.Distribution.ZIPFIAN) {
+			return (int) zipfian.next();
+		}
+
+		return ThreadLocalRandom.current().nextInt(paradigmIds.length);
+	}
+
+	/**
+	 * Prints the throughput and the latency percentiles of each operation run within a span of time.
+	 *
+	 * @param elapsedNanos The time since the workload started.
+	 * @param spanNanos    The span of time the operations were run within.
+	 * @param histograms   The latencies of the operations.
+	 */
+	private void report(final long elapsedNanos, final long spanNanos, final Map<Operation, LatencyHistogram> histograms)
+	{
+		final StringBuilder line = new StringBuilder();
+		long operations = 0;
+		for (final Map.Entry<Operation, LatencyHistogram> entry : histograms.entrySet())
+		{
+			final LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+			if (snapshot.getCount() == 0) {
+				continue;
+			}
+
+			operations += snapshot.getCount();
+			line.append(String.format(" | %s %d p50=%d p99=%d p99.9=%d max=%d us", entry.getKey(),
+				snapshot.getCount(), snapshot.getP50() / NANOS_PER_MICRO, snapshot.getP99() / NANOS_PER_MICRO,
+				snapshot.getP999() / NANOS_PER_MICRO, snapshot.getMax() / NANOS_PER_MICRO));
+		}
+
+		out.printf("[%5d s] %.0f ops/s, %d errors%s%n", TimeUnit.NANOSECONDS.toSeconds(elapsedNanos),
+			operations / (spanNanos / 1e9), errors.get(), line);
+	}
+
+	private static Map<Operation, LatencyHistogram> newHistograms()
+	{
+		final Map<Operation, LatencyHistogram> histograms = new EnumMap<>(Operation.class);
+		for (final Operation operation : Operation.values())
+		{
+			histograms.put(operation, new LatencyHistogram());
+		}
+
+		return histograms;
+	}
+}
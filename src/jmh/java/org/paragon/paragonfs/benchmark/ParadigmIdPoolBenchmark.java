@@ -0,0 +1,66 @@
+package org.paragon.paragonfs.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.paradigm.ParadigmIdPool;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ParadigmIdPool#getNextParadigmId()} with several threads contending for the pool. Override the
+ * thread count with <code>-t</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class ParadigmIdPoolBenchmark
+{
+	/**
+	 * The number of archetypes within the file system, each of which is checked when refilling the pool.
+	 */
+	@Param({"1", "16"})
+	public int archetypes;
+
+	private ParagonFS paragonFS;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException, ParagonFSException
+	{
+		paragonFS = BenchmarkDirectory.open();
+		for (int index = 0; index < archetypes; index++)
+		{
+			paragonFS.create("benchmark" + index);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException
+	{
+		BenchmarkDirectory.close(paragonFS);
+	}
+
+	@Benchmark
+	public String getNextParadigmId()
+	{
+		return paragonFS.getParadigmIdPool().getNextParadigmId();
+	}
+}
@@ -0,0 +1,57 @@
+package org.paragon.paragonfs.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.paradigm.Paradigm;
+import org.paragon.paragonfs.paradigm.ParadigmPool;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ParadigmPool#create()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParadigmPoolBenchmark
+{
+	private ParagonFS paragonFS;
+
+	private Archetype archetype;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException
+	{
+		paragonFS = BenchmarkDirectory.open();
+		archetype = paragonFS.create("benchmark");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException
+	{
+		BenchmarkDirectory.close(paragonFS);
+	}
+
+	@Benchmark
+	public Paradigm create() throws ParagonFSException
+	{
+		return archetype.create();
+	}
+}
@@ -0,0 +1,86 @@
+package org.paragon.paragonfs.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.data.type.DataTypeIF;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.paradigm.Paradigm;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading from a {@link Paradigm}. The warm benchmarks read a Paradigm which is already loaded, which is
+ * what every thread reading the same hot row sees, while the cold benchmark loads the Paradigm from its file first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParadigmReadBenchmark
+{
+	/**
+	 * The number of keys within the row.
+	 */
+	@Param({"1", "10", "100"})
+	public int width;
+
+	private ParagonFS paragonFS;
+
+	private Archetype archetype;
+
+	private Paradigm paradigm;
+
+	private String key;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException, ParagonFSException
+	{
+		paragonFS = BenchmarkDirectory.open();
+		archetype = paragonFS.create("benchmark");
+
+		paradigm = archetype.create();
+		paradigm.setValues(Rows.of(width));
+		key = Rows.key(width - 1);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException
+	{
+		BenchmarkDirectory.close(paragonFS);
+	}
+
+	@Benchmark
+	public DataTypeIF getValueWarm() throws ParagonFSException
+	{
+		return paradigm.getValue(key);
+	}
+
+	@Benchmark
+	public DataTypeIF getValueCold() throws ParagonFSException
+	{
+		return new Paradigm(archetype, paradigm.getFile(), paradigm.getId()).getValue(key);
+	}
+
+	@Benchmark
+	public Set<String> keySet() throws ParagonFSException
+	{
+		return paradigm.keySet();
+	}
+}
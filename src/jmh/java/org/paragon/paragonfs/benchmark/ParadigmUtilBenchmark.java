@@ -0,0 +1,80 @@
+package org.paragon.paragonfs.benchmark;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.paradigm.ParadigmUtil;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ParadigmUtil#exists(String)}, which checks every archetype in turn, with an increasing number of
+ * archetypes. The missing case is the worst case, and is what {@link org.paragon.paragonfs.paradigm.ParadigmIdPool}
+ * runs for every identifier it hands out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParadigmUtilBenchmark
+{
+	/**
+	 * The number of archetypes within the file system.
+	 */
+	@Param({"1", "16", "128"})
+	public int archetypes;
+
+	private ParagonFS paragonFS;
+
+	private String existingId;
+
+	private String missingId;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException, ParagonFSException
+	{
+		paragonFS = BenchmarkDirectory.open();
+		for (int index = 0; index < archetypes; index++)
+		{
+			paragonFS.create("benchmark" + index);
+		}
+
+		// The existing Paradigm lives in the last archetype, so finding it also checks every other archetype.
+		existingId = paragonFS.get("benchmark" + (archetypes - 1)).create().getId();
+		missingId = RandomStringUtils.randomAlphanumeric(existingId.length());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException
+	{
+		BenchmarkDirectory.close(paragonFS);
+	}
+
+	@Benchmark
+	public boolean existsPresent()
+	{
+		return paragonFS.getParadigmUtil().exists(existingId);
+	}
+
+	@Benchmark
+	public boolean existsMissing()
+	{
+		return paragonFS.getParadigmUtil().exists(missingId);
+	}
+}
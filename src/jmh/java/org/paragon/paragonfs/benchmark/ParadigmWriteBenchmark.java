@@ -0,0 +1,99 @@
+package org.paragon.paragonfs.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.data.type.DataTypeIF;
+import org.paragon.paragonfs.data.type.IntegerType;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.paradigm.Paradigm;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Paradigm#setValue(String, DataTypeIF)} and {@link Paradigm#setValues(Map)} on rows of varying
+ * widths. Every thread writes to its own {@link Paradigm}, so running with <code>-t</code> measures how writes to
+ * different rows scale.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParadigmWriteBenchmark
+{
+	@State(Scope.Benchmark)
+	public static class FileSystemState
+	{
+		private ParagonFS paragonFS;
+
+		private Archetype archetype;
+
+		@Setup(Level.Trial)
+		public void setUp() throws IOException
+		{
+			paragonFS = BenchmarkDirectory.open();
+			archetype = paragonFS.create("benchmark");
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException
+		{
+			BenchmarkDirectory.close(paragonFS);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class RowState
+	{
+		/**
+		 * The number of keys within the row.
+		 */
+		@Param({"1", "10", "100"})
+		public int width;
+
+		private Paradigm paradigm;
+
+		private Map<String, DataTypeIF> values;
+
+		private IntegerType counter;
+
+		@Setup(Level.Trial)
+		public void setUp(final FileSystemState fileSystem) throws ParagonFSException
+		{
+			values = Rows.of(width);
+			counter = new IntegerType();
+			counter.setValue(0);
+
+			paradigm = fileSystem.archetype.create();
+			paradigm.setValues(values);
+		}
+	}
+
+	@Benchmark
+	public void setValue(final RowState row) throws ParagonFSException
+	{
+		row.counter.setValue((int) row.counter.getValue() + 1);
+		row.paradigm.setValue(Rows.key(0), row.counter);
+	}
+
+	@Benchmark
+	public void setValues(final RowState row) throws ParagonFSException
+	{
+		row.paradigm.setValues(row.values);
+	}
+}
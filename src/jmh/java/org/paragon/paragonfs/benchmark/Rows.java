@@ -0,0 +1,60 @@
+package org.paragon.paragonfs.benchmark;
+
+import org.paragon.paragonfs.data.type.DataTypeIF;
+import org.paragon.paragonfs.data.type.IntegerType;
+import org.paragon.paragonfs.data.type.StringType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds the rows written by the benchmarks.
+ */
+public final class Rows
+{
+	private Rows()
+	{
+	}
+
+	/**
+	 * Returns the name of a key within a row.
+	 *
+	 * @param index The index of the key.
+	 * @return The key name.
+	 */
+	public static String key(final int index)
+	{
+		return "key" + index;
+	}
+
+	/**
+	 * Builds a row with the number of keys, alternating between strings and integers.
+	 *
+	 * @param width The number of keys in the row.
+	 * @return A map of keys to their values.
+	 */
+	public static Map<String, DataTypeIF> of(final int width)
+	{
+		final Map<String, DataTypeIF> values = new LinkedHashMap<>();
+		for (int index = 0; index < width; index++)
+		{
+			values.put(key(index), value(index));
+		}
+
+		return values;
+	}
+
+	/**
+	 * Builds the value of a key within a row, which is a string for the even keys and an integer for the odd ones.
+	 *
+	 * @param index The index of the key.
+	 * @return The value.
+	 */
+	public static DataTypeIF value(final int index)
+	{
+		final DataTypeIF value = index % 2 == 0 ? new StringType() : new IntegerType();
+		value.setValue(index % 2 == 0 ? "value of " + key(index) : index);
+
+		return value;
+	}
+}
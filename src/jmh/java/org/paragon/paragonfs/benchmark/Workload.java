@@ -0,0 +1,184 @@
+package org.paragon.paragonfs.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The settings of a {@link LoadTest}, each given on the command line as <code>name=value</code>, in the style of
+ * YCSB's workload properties. Any setting left out keeps its default, which is a read-heavy workload close to YCSB's
+ * workload B.
+ */
+public class Workload
+{
+	/**
+	 * The distribution the rows read, updated and scanned are chosen by.
+	 */
+	public enum Distribution
+	{
+		/**
+		 * Every row is as likely to be chosen.
+		 */
+		UNIFORM,
+
+		/**
+		 * A few rows are chosen far more often than the rest, see {@link ZipfianGenerator}.
+		 */
+		ZIPFIAN
+	}
+
+	private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+	static
+	{
+		DEFAULTS.put("records", "100000");
+		DEFAULTS.put("width", "10");
+		DEFAULTS.put("read", "0.95");
+		DEFAULTS.put("update", "0.05");
+		DEFAULTS.put("create", "0");
+		DEFAULTS.put("scan", "0");
+		DEFAULTS.put("scanLength", "100");
+		DEFAULTS.put("distribution", "zipfian");
+		DEFAULTS.put("zipfianConstant", Double.toString(ZipfianGenerator.DEFAULT_CONSTANT));
+		DEFAULTS.put("threads", "8");
+		DEFAULTS.put("target", "0");
+		DEFAULTS.put("seconds", "60");
+		DEFAULTS.put("interval", "10");
+	}
+
+	private final Map<String, String> settings = new LinkedHashMap<>(DEFAULTS);
+
+	/**
+	 * Parses the settings from the command line.
+	 *
+	 * @param args The arguments, each <code>name=value</code>.
+	 * @return The {@link Workload}.
+	 */
+	public static Workload parse(final String... args)
+	{
+		final Workload workload = new Workload();
+		for (final String arg : args)
+		{
+			final int separator = arg.indexOf('=');
+			if (separator < 1 || !DEFAULTS.containsKey(arg.substring(0, separator))) {
+				throw new IllegalArgumentException("Unknown setting " + arg + ", expected one of " + DEFAULTS.keySet()
+					+ " as name=value.");
+			}
+
+			workload.settings.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+
+		final double total = workload.getReadProportion() + workload.getUpdateProportion()
+			+ workload.getCreateProportion() + workload.getScanProportion();
+		if (Math.abs(total - 1.0) > 1e-9) {
+			throw new IllegalArgumentException("The read, update, create and scan proportions must add up to 1.");
+		}
+		else if (workload.getRecordCount() < 1 || workload.getWidth() < 1 || workload.getThreads() < 1
+			|| workload.getScanLength() < 1 || workload.getSeconds() < 1 || workload.getIntervalSeconds() < 1) {
+			throw new IllegalArgumentException("The records, width, threads, scan length, seconds and interval must "
+				+ "be positive.");
+		}
+
+		return workload;
+	}
+
+	/**
+	 * Returns the number of rows loaded before the workload is run.
+	 *
+	 * @return The number of rows.
+	 */
+	public int getRecordCount()
+	{
+		return Integer.parseInt(settings.get("records"));
+	}
+
+	/**
+	 * Returns the number of keys within each row.
+	 *
+	 * @return The number of keys.
+	 */
+	public int getWidth()
+	{
+		return Integer.parseInt(settings.get("width"));
+	}
+
+	public double getReadProportion()
+	{
+		return Double.parseDouble(settings.get("read"));
+	}
+
+	public double getUpdateProportion()
+	{
+		return Double.parseDouble(settings.get("update"));
+	}
+
+	public double getCreateProportion()
+	{
+		return Double.parseDouble(settings.get("create"));
+	}
+
+	public double getScanProportion()
+	{
+		return Double.parseDouble(settings.get("scan"));
+	}
+
+	/**
+	 * Returns the number of consecutive rows each scan reads.
+	 *
+	 * @return The number of rows.
+	 */
+	public int getScanLength()
+	{
+		return Integer.parseInt(settings.get("scanLength"));
+	}
+
+	public Distribution getDistribution()
+	{
+		return Distribution.valueOf(settings.get("distribution").toUpperCase());
+	}
+
+	public double getZipfianConstant()
+	{
+		return Double.parseDouble(settings.get("zipfianConstant"));
+	}
+
+	public int getThreads()
+	{
+		return Integer.parseInt(settings.get("threads"));
+	}
+
+	/**
+	 * Returns the number of operations per second to aim for, across every thread.
+	 *
+	 * @return The target throughput, or 0 to run as fast as possible.
+	 */
+	public double getTargetThroughput()
+	{
+		return Double.parseDouble(settings.get("target"));
+	}
+
+	/**
+	 * Returns how long the workload runs for, once the rows have been loaded.
+	 *
+	 * @return The number of seconds.
+	 */
+	public int getSeconds()
+	{
+		return Integer.parseInt(settings.get("seconds"));
+	}
+
+	/**
+	 * Returns how often the throughput and latencies are reported while the workload runs.
+	 *
+	 * @return The number of seconds.
+	 */
+	public int getIntervalSeconds()
+	{
+		return Integer.parseInt(settings.get("interval"));
+	}
+
+	@Override
+	public String toString()
+	{
+		return settings.toString();
+	}
+}
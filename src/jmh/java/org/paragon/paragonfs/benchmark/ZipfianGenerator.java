@@ -0,0 +1,77 @@
+package org.paragon.paragonfs.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses items from 0 to n - 1 following a Zipfian distribution, so a few items are chosen far more often than the
+ * rest, as the hot rows of a real workload are. Item 0 is the most popular, then item 1, and so on.<br />
+ * <br />
+ * This is the algorithm from Gray et al., "Quickly Generating Billion-Record Synthetic Databases", which YCSB uses.
+ * The zeta constant is computed once up front, so choosing an item takes constant time and is safe from any thread.
+ */
+public class ZipfianGenerator
+{
+	/**
+	 * The skew YCSB uses by default.
+	 */
+	public static final double DEFAULT_CONSTANT = 0.99;
+
+	private final long items;
+
+	private final double theta;
+
+	private final double alpha;
+
+	private final double zetaN;
+
+	private final double eta;
+
+	/**
+	 * Initializes the {@link ZipfianGenerator}.
+	 *
+	 * @param items    The number of items to choose from.
+	 * @param constant The skew, where higher values make the popular items more popular.
+	 */
+	public ZipfianGenerator(final long items, final double constant)
+	{
+		if (items < 1) {
+			throw new IllegalArgumentException("There must be at least one item.");
+		}
+
+		this.items = items;
+		this.theta = constant;
+		this.alpha = 1.0 / (1.0 - theta);
+		this.zetaN = zeta(items, theta);
+		this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+	}
+
+	/**
+	 * Chooses the next item.
+	 *
+	 * @return The item, from 0 to n - 1.
+	 */
+	public long next()
+	{
+		final double u = ThreadLocalRandom.current().nextDouble();
+		final double uz = u * zetaN;
+		if (uz < 1.0) {
+			return 0;
+		}
+		else if (uz < 1.0 + Math.pow(0.5, theta)) {
+			return Math.min(1, items - 1);
+		}
+
+		return Math.min((long) (items * Math.pow(eta * u - eta + 1, alpha)), items - 1);
+	}
+
+	private static double zeta(final long n, final double theta)
+	{
+		double sum = 0;
+		for (long i = 1; i <= n; i++)
+		{
+			sum += 1 / Math.pow(i, theta);
+		}
+
+		return sum;
+	}
+}
@@ -1,23 +1,105 @@
 package org.paragon.paragonfs;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.backup.SnapshotManifest;
+import org.paragon.paragonfs.backup.Snapshotter;
+import org.paragon.paragonfs.feed.ChangeFeed;
+import org.paragon.paragonfs.io.AtomicFileWriter;
+import org.paragon.paragonfs.io.BackgroundSyncer;
+import org.paragon.paragonfs.io.Durability;
+import org.paragon.paragonfs.io.FlushMode;
+import org.paragon.paragonfs.io.IoScheduler;
+import org.paragon.paragonfs.io.Volume;
+import org.paragon.paragonfs.io.WriteGate;
+import org.paragon.paragonfs.metrics.ParagonFSMetrics;
+import org.paragon.paragonfs.paradigm.CacheWarmer;
 import org.paragon.paragonfs.paradigm.Paradigm;
+import org.paragon.paragonfs.paradigm.ParadigmCompactor;
 import org.paragon.paragonfs.paradigm.ParadigmIdPool;
+import org.paragon.paragonfs.paradigm.ParadigmReaper;
+import org.paragon.paragonfs.paradigm.ParadigmTierMigrator;
 import org.paragon.paragonfs.paradigm.ParadigmUtil;
+import org.paragon.paragonfs.paradigm.ReadView;
+import org.paragon.paragonfs.paradigm.VersionClock;
+import org.paragon.paragonfs.paradigm.WriteBackFlusher;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * {@link ParagonFS} represents the Paragon file system.
  */
-public class ParagonFS
+public class ParagonFS implements Closeable
 {
+	private static final Log LOG = LogFactory.getLog(ParagonFS.class);
+
+	/**
+	 * The number of seconds between each run of the {@link ParadigmCompactor}.
+	 */
+	private static final long COMPACTION_INTERVAL_SECONDS = 30;
+
+	/**
+	 * The number of milliseconds between each run of the {@link BackgroundSyncer}.
+	 */
+	private static final long SYNC_INTERVAL_MILLIS = 1000;
+
+	/**
+	 * The number of seconds between each run of the {@link ParadigmTierMigrator}.
+	 */
+	private static final long MIGRATION_INTERVAL_SECONDS = 60;
+
+	/**
+	 * The number of milliseconds between each run of the {@link VersionClock}'s garbage collection.
+	 */
+	private static final long VERSION_GC_INTERVAL_MILLIS = 1000;
+
+	/**
+	 * The number of milliseconds between each run of the {@link ParadigmReaper}, which its throttle is per.
+	 */
+	private static final long REAP_INTERVAL_MILLIS = 1000;
+
+	/**
+	 * The number of seconds between each time the {@link CacheWarmer} writes the hottest Paradigms.
+	 */
+	private static final long HOT_LIST_INTERVAL_SECONDS = 60;
+
+	/**
+	 * The number of seconds {@link #close()} waits for the background tasks in flight to finish.
+	 */
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+	/**
+	 * The file, within the root directory, holding the path of the cold tier.
+	 */
+	public static final String COLD_TIER_FILE = ".tier";
+
+	/**
+	 * The file, within the root directory, listing the data directories the ParagonFS was created with.
+	 */
+	public static final String VOLUMES_FILE = ".volumes";
+
 	private static final String NIX_PATH_SEPARATOR = "/";
 	private static final String WINDOWS_PATH_SEPARATOR = "\\";
 	public static final String THE_PATH_MUST_NOT_BE_EMPTY = "The path must not be empty.";
@@ -27,6 +109,16 @@ public class ParagonFS
 	 */
 	private final File dir;
 
+	/**
+	 * The metrics registry for this {@link ParagonFS}, which must be initialized before anything that records to it.
+	 */
+	private final ParagonFSMetrics metrics = new ParagonFSMetrics();
+
+	/**
+	 * The {@link IoScheduler} which keeps the background I/O from competing with the foreground reads and writes.
+	 */
+	private final IoScheduler ioScheduler = new IoScheduler(metrics);
+
 	/**
 	 * A {@link ParadigmIdPool} which is used to keep all {@link Paradigm} unique identifiers, well, unique.
 	 */
@@ -40,13 +132,125 @@ public class ParagonFS
 	/**
 	 * The archetype lock used when interacting with archetypes.
 	 */
-	private final Object archetypeLock = new Object();
+	private final ReentrantLock archetypeLock = new ReentrantLock();
 
 	/**
 	 * A map of {@link Archetype}'s, where the key is the archetype name, lowercase.
 	 */
 	private final Map<String, Archetype> archetypes = new LinkedHashMap<>();
 
+	/**
+	 * The {@link ParadigmCompactor} which reclaims deleted {@link Paradigm}'s.
+	 */
+	private final ParadigmCompactor compactor = new ParadigmCompactor(this);
+
+	/**
+	 * The {@link ParadigmTierMigrator} which moves idle {@link Paradigm}'s to the cold tier.
+	 */
+	private final ParadigmTierMigrator tierMigrator = new ParadigmTierMigrator(this);
+
+	/**
+	 * The {@link ParadigmReaper} which deletes expired {@link Paradigm}'s.
+	 */
+	private final ParadigmReaper reaper = new ParadigmReaper(this);
+
+	/**
+	 * The {@link CacheWarmer} which loads the hottest {@link Paradigm}'s back after a restart.
+	 */
+	private final CacheWarmer cacheWarmer = new CacheWarmer(this);
+
+	/**
+	 * The {@link ChangeFeed} which records every change to the {@link Paradigm}'s, once enabled.
+	 */
+	private final ChangeFeed changeFeed = new ChangeFeed();
+
+	/**
+	 * The directory of the cold tier, or null if there is only the one tier.
+	 */
+	private volatile File coldDir;
+
+	/**
+	 * The data directories the {@link Paradigm}'s are striped across, the first of which is {@link #dir}.
+	 */
+	private final List<Volume> volumes = new ArrayList<>();
+
+	/**
+	 * The executor created for the asynchronous API, when one is not provided.
+	 */
+	private final ExecutorService defaultAsyncExecutor = newAsyncExecutor();
+
+	/**
+	 * The executor the asynchronous API runs its operations on.
+	 */
+	private volatile Executor asyncExecutor = defaultAsyncExecutor;
+
+	/**
+	 * The pool which evaluates the chunks of a {@link org.paragon.paragonfs.query.Query}, kept apart from the common
+	 * pool so a large query can't starve, or be starved by, the rest of the JVM.
+	 */
+	private final ForkJoinPool queryPool = newQueryPool();
+
+	/**
+	 * The {@link BackgroundSyncer} which syncs the files written with {@link Durability#ASYNC}.
+	 */
+	private final BackgroundSyncer backgroundSyncer = new BackgroundSyncer(
+		metrics.histogram(ParagonFSMetrics.PARADIGM_FSYNC)
+	);
+
+	/**
+	 * The {@link AtomicFileWriter} used to write {@link Paradigm}'s with {@link FlushMode#ATOMIC_RENAME}.
+	 */
+	private final AtomicFileWriter atomicFileWriter = new AtomicFileWriter(
+		metrics.histogram(ParagonFSMetrics.PARADIGM_FSYNC), backgroundSyncer
+	);
+
+	/**
+	 * The {@link VersionClock} which orders every change, for the {@link ReadView}'s.
+	 */
+	private final VersionClock versionClock = new VersionClock();
+
+	/**
+	 * The {@link WriteGate} every change to the files passes through, which snapshots quiesce.
+	 */
+	private final WriteGate writeGate = new WriteGate();
+
+	/**
+	 * The {@link WriteBackFlusher} which writes the {@link Paradigm}'s updated with {@link Durability#WRITE_BACK}.
+	 */
+	private final WriteBackFlusher writeBackFlusher = new WriteBackFlusher(writeGate);
+
+	/**
+	 * The {@link Snapshotter} which takes snapshots and backups, created once the root directory is known.
+	 */
+	private Snapshotter snapshotter;
+
+	/**
+	 * The default {@link Durability} of writes, for any {@link Archetype} which does not override it.
+	 */
+	private volatile Durability durability = Durability.SYNC;
+
+	/**
+	 * The default {@link FlushMode}, for any {@link Archetype} which does not override it.
+	 */
+	private volatile FlushMode flushMode = FlushMode.IN_PLACE;
+
+	/**
+	 * The executor which runs all background maintenance, such as compaction.
+	 */
+	private final ScheduledExecutorService maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(
+		new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(final Runnable runnable)
+			{
+				final Thread thread = new Thread(runnable, "paragonfs-maintenance");
+				thread.setDaemon(true);
+
+				return thread;
+			}
+		}
+	);
+
 	/**
 	 * Initializes the ParagonFS with the path to where it stores and retrieves data.
 	 *
@@ -63,7 +267,9 @@ public class ParagonFS
 		this.paradigmIdPool = new ParadigmIdPool(this);
 		this.paradigmUtil = new ParadigmUtil(this);
 
-		validateAndInitialize();
+		validateAndInitialize(Collections.<File>emptyList());
+		scheduleMaintenance();
+		metrics.register(this.dir.getAbsolutePath());
 	}
 
 	/**
@@ -73,19 +279,97 @@ public class ParagonFS
 	 * @throws IllegalArgumentException Thrown if the file path does not exist or is not a directory.
 	 */
 	public ParagonFS(final File dir)
+	{
+		this(dir, Collections.<File>emptyList());
+	}
+
+	/**
+	 * Initializes the ParagonFS with the path to where it stores its data, striping the {@link Paradigm}'s across it
+	 * and the other data directories by their unique identifiers. Each data directory is best placed on a separate
+	 * drive, and has its own I/O threads. The Archetypes themselves, along with everything but the Paradigms, remain in
+	 * the first directory.<br />
+	 * <br />
+	 * Where a Paradigm is placed depends on the number of data directories, so a ParagonFS must always be opened with
+	 * the same number of them, in the same order.
+	 *
+	 * @param dir        The path to where ParagonFS will store and retrieve it's data.
+	 * @param volumeDirs The other data directories, which may be empty.
+	 * @throws IllegalArgumentException Thrown if a path does not exist or is not a directory, or if the number of data
+	 *                                  directories differs from when the ParagonFS was created.
+	 */
+	public ParagonFS(final File dir, final List<File> volumeDirs)
 	{
 		this.dir = dir;
 		this.paradigmIdPool = new ParadigmIdPool(this);
 		this.paradigmUtil = new ParadigmUtil(this);
 
-		validateAndInitialize();
+		validateAndInitialize(volumeDirs);
+		scheduleMaintenance();
+		metrics.register(this.dir.getAbsolutePath());
 	}
 
 	/**
-	 * Validates the dir field, ensuring it isn't null and points to a directory. This will also load up all known
-	 * archetypes as well.
+	 * Creates a fixed pool of daemon threads, sized for blocking file I/O.
+	 *
+	 * @param prefix The prefix of the thread names.
+	 * @return The {@link ExecutorService}.
 	 */
-	private void validateAndInitialize()
+	private static ExecutorService newDaemonPool(final String prefix)
+	{
+		final AtomicInteger count = new AtomicInteger();
+
+		return Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2), runnable -> {
+			final Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+
+			return thread;
+		});
+	}
+
+	/**
+	 * Creates the pool of daemon threads which evaluates queries, with a thread per processor.
+	 *
+	 * @return The {@link ForkJoinPool}.
+	 */
+	private static ForkJoinPool newQueryPool()
+	{
+		final AtomicInteger count = new AtomicInteger();
+
+		return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+			final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("paragonfs-query-" + count.incrementAndGet());
+			thread.setDaemon(true);
+
+			return thread;
+		}, null, false);
+	}
+
+	/**
+	 * Creates the default executor of the asynchronous API, which starts a virtual thread per operation when the JVM
+	 * has them, so blocking on file I/O costs next to nothing. Otherwise it falls back to a bounded pool of platform
+	 * threads.
+	 *
+	 * @return The {@link ExecutorService}.
+	 */
+	private static ExecutorService newAsyncExecutor()
+	{
+		try
+		{
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (final ReflectiveOperationException | UnsupportedOperationException e)
+		{
+			return newDaemonPool("paragonfs-async-");
+		}
+	}
+
+	/**
+	 * Validates the dir field, ensuring it isn't null and points to a directory. This will also set up the volumes and
+	 * load up all known archetypes as well.
+	 *
+	 * @param volumeDirs The data directories other than the dir field.
+	 */
+	private void validateAndInitialize(final List<File> volumeDirs)
 	{
 		if (dir == null) {
 			throw new IllegalArgumentException("The directory must not be null.");
@@ -97,6 +381,11 @@ public class ParagonFS
 			throw new IllegalArgumentException("The path does not resolve to a directory.");
 		}
 
+		initializeVolumes(volumeDirs);
+		initializeColdTier();
+		changeFeed.open(new File(dir, ChangeFeed.DIR_NAME));
+		snapshotter = new Snapshotter(this);
+
 		final File[] files = dir.listFiles();
 		if (ArrayUtils.isEmpty(files)) {
 			return;
@@ -104,7 +393,8 @@ public class ParagonFS
 
 		for (final File file : files)
 		{
-			if (!file.isDirectory()) {
+			// Directories starting with a dot, such as the change feed's, are not Archetypes.
+			if (!file.isDirectory() || file.getName().startsWith(".")) {
 				continue;
 			}
 
@@ -112,6 +402,123 @@ public class ParagonFS
 		}
 	}
 
+	/**
+	 * Sets up a {@link Volume} for the dir field and each of the other data directories, ensuring they are the same
+	 * directories, in the same order, as when the ParagonFS was created, as that decides where each Paradigm is.
+	 *
+	 * @param volumeDirs The data directories other than the dir field.
+	 */
+	private void initializeVolumes(final List<File> volumeDirs)
+	{
+		if (volumeDirs == null) {
+			throw new IllegalArgumentException("The data directories must not be null.");
+		}
+
+		for (final File volumeDir : volumeDirs)
+		{
+			if (volumeDir == null || !volumeDir.isDirectory()) {
+				throw new IllegalArgumentException("Every data directory must be an existing directory.");
+			}
+		}
+
+		final File volumesFile = new File(dir, VOLUMES_FILE);
+
+		try
+		{
+			final List<String> paths = new ArrayList<>();
+			for (final File volumeDir : volumeDirs)
+			{
+				paths.add(volumeDir.getCanonicalPath());
+			}
+
+			if (volumesFile.exists())
+			{
+				// Compare the canonical paths, so the same directory reached through another path still matches.
+				final List<String> recorded = new ArrayList<>();
+				for (final String line : FileUtils.readLines(volumesFile, StandardCharsets.UTF_8))
+				{
+					recorded.add(new File(line).getCanonicalPath());
+				}
+
+				if (!recorded.equals(paths)) {
+					throw new IllegalArgumentException(
+						"The data directories must match those the ParagonFS was created with."
+					);
+				}
+			}
+			else if (!paths.isEmpty())
+			{
+				FileUtils.writeLines(volumesFile, StandardCharsets.UTF_8.name(), paths);
+			}
+		}
+		catch (final IOException e)
+		{
+			throw new IllegalArgumentException("The data directories could not be recorded.", e);
+		}
+
+		final int count = volumeDirs.size() + 1;
+		final int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2 / count);
+		volumes.add(new Volume(0, dir, threads));
+		for (int index = 1; index < count; index++)
+		{
+			volumes.add(new Volume(index, volumeDirs.get(index - 1), threads));
+		}
+	}
+
+	/**
+	 * Sets up the cold tier, if one was set when the ParagonFS was last open.
+	 */
+	private void initializeColdTier()
+	{
+		final File coldTierFile = new File(dir, COLD_TIER_FILE);
+		if (!coldTierFile.exists()) {
+			return;
+		}
+
+		try
+		{
+			coldDir = new File(FileUtils.readFileToString(coldTierFile, StandardCharsets.UTF_8).trim());
+		}
+		catch (final IOException e)
+		{
+			throw new IllegalArgumentException("The cold tier could not be read.", e);
+		}
+
+		if (!coldDir.isDirectory()) {
+			throw new IllegalArgumentException("The cold tier directory does not exist.");
+		}
+	}
+
+	/**
+	 * Starts the background maintenance tasks.
+	 */
+	private void scheduleMaintenance()
+	{
+		maintenanceExecutor.scheduleWithFixedDelay(
+			compactor, COMPACTION_INTERVAL_SECONDS, COMPACTION_INTERVAL_SECONDS, TimeUnit.SECONDS
+		);
+		maintenanceExecutor.scheduleWithFixedDelay(
+			tierMigrator, MIGRATION_INTERVAL_SECONDS, MIGRATION_INTERVAL_SECONDS, TimeUnit.SECONDS
+		);
+		maintenanceExecutor.scheduleWithFixedDelay(
+			backgroundSyncer, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS
+		);
+		maintenanceExecutor.scheduleWithFixedDelay(
+			changeFeed::sync, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS
+		);
+		maintenanceExecutor.scheduleWithFixedDelay(
+			versionClock, VERSION_GC_INTERVAL_MILLIS, VERSION_GC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS
+		);
+		maintenanceExecutor.scheduleWithFixedDelay(
+			reaper, REAP_INTERVAL_MILLIS, REAP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS
+		);
+		maintenanceExecutor.scheduleWithFixedDelay(
+			cacheWarmer, HOT_LIST_INTERVAL_SECONDS, HOT_LIST_INTERVAL_SECONDS, TimeUnit.SECONDS
+		);
+		writeBackFlusher.start();
+		cacheWarmer.start();
+	}
+
 	/**
 	 * Creates a new {@link Archetype}, which is the equivalent to a directory, which contains {@link Paradigm}'s.
 	 *
@@ -126,8 +533,13 @@ public class ParagonFS
 		else if (name.contains(NIX_PATH_SEPARATOR) || name.contains(WINDOWS_PATH_SEPARATOR)) {
 			throw new IllegalArgumentException("The archetype name must not contain a forward or backward slash.");
 		}
+		else if (name.startsWith(".")) {
+			throw new IllegalArgumentException("The archetype name must not start with a dot.");
+		}
+
+		archetypeLock.lock();
 
-		synchronized (archetypeLock)
+		try
 		{
 			final File archetypeDir = new File(this.dir, name);
 
@@ -143,6 +555,10 @@ public class ParagonFS
 
 			return archetype;
 		}
+		finally
+		{
+			archetypeLock.unlock();
+		}
 	}
 
 	/**
@@ -157,10 +573,16 @@ public class ParagonFS
 			throw new IllegalArgumentException("The archetype name must not be null.");
 		}
 
-		synchronized (archetypeLock)
+		archetypeLock.lock();
+
+		try
 		{
 			return archetypes.get(name.toLowerCase());
 		}
+		finally
+		{
+			archetypeLock.unlock();
+		}
 	}
 
 	/**
@@ -170,10 +592,16 @@ public class ParagonFS
 	 */
 	public List<Archetype> list()
 	{
-		synchronized (archetypeLock)
+		archetypeLock.lock();
+
+		try
 		{
 			return new ArrayList<>(archetypes.values());
 		}
+		finally
+		{
+			archetypeLock.unlock();
+		}
 	}
 
 	/**
@@ -187,7 +615,9 @@ public class ParagonFS
 			throw new IllegalArgumentException("The archetype name must not be null.");
 		}
 
-		synchronized (archetypeLock)
+		archetypeLock.lock();
+
+		try
 		{
 			final Archetype archetype = archetypes.get(name.toLowerCase());
 
@@ -197,6 +627,395 @@ public class ParagonFS
 
 			// TODO delete and remove archetype from map.
 		}
+		finally
+		{
+			archetypeLock.unlock();
+		}
+	}
+
+	/**
+	 * Reclaims the space of all deleted {@link Paradigm}'s right away, rather than waiting for the next background
+	 * compaction.
+	 */
+	public void compact()
+	{
+		compactor.run();
+	}
+
+	/**
+	 * Opens a {@link ReadView} of every {@link Paradigm} as of now, so a long read such as an export sees a consistent
+	 * snapshot across every {@link Archetype} while the writes carry on.
+	 *
+	 * @return The {@link ReadView}, which must be closed once the reads are done.
+	 */
+	public ReadView openReadView()
+	{
+		return versionClock.open();
+	}
+
+	/**
+	 * Takes a consistent snapshot of every {@link Archetype} into an empty directory, hard linking the
+	 * {@link Paradigm}'s so the writers are only held back for a moment. The directory should be on the same
+	 * filesystem as the data directories, and the snapshot can be opened as a {@link ParagonFS} of its own.
+	 *
+	 * @param targetDir The directory to take the snapshot into.
+	 * @return The {@link SnapshotManifest} of the snapshot.
+	 * @throws IOException Thrown if the snapshot could not be taken.
+	 */
+	public SnapshotManifest snapshot(final File targetDir) throws IOException
+	{
+		return snapshotter.snapshot(targetDir);
+	}
+
+	/**
+	 * Takes a consistent backup into an empty directory on any filesystem, copying only the {@link Paradigm}'s whose
+	 * version has changed since a previous snapshot or backup.
+	 *
+	 * @param targetDir   The directory to back up into.
+	 * @param previousDir The directory of the previous snapshot or backup, or null to copy every Paradigm.
+	 * @return The {@link SnapshotManifest} of the backup.
+	 * @throws IOException Thrown if the backup could not be taken.
+	 */
+	public SnapshotManifest backup(final File targetDir, final File previousDir) throws IOException
+	{
+		return snapshotter.backup(targetDir, previousDir);
+	}
+
+	/**
+	 * Stops all background maintenance, flushes anything written with {@link Durability#WRITE_BACK} and syncs anything
+	 * written with {@link Durability#ASYNC}. Values written with {@link Durability#MEMORY} are not written to disk and
+	 * are lost.
+	 */
+	@Override
+	public void close()
+	{
+		// The tasks in flight use the feed and the volumes, so they must finish before those are closed.
+		maintenanceExecutor.shutdown();
+		defaultAsyncExecutor.shutdown();
+		queryPool.shutdown();
+		awaitTermination(maintenanceExecutor);
+		awaitTermination(defaultAsyncExecutor);
+		awaitTermination(queryPool);
+		cacheWarmer.stop();
+		cacheWarmer.run();
+		writeBackFlusher.stop();
+		backgroundSyncer.run();
+		changeFeed.close();
+		for (final Volume volume : volumes)
+		{
+			volume.shutdown();
+		}
+		metrics.unregister();
+	}
+
+	/**
+	 * Waits for the tasks of an executor which has been shut down to finish, up to {@link #SHUTDOWN_TIMEOUT_SECONDS}.
+	 *
+	 * @param executor The {@link ExecutorService}.
+	 */
+	private static void awaitTermination(final ExecutorService executor)
+	{
+		try
+		{
+			if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				LOG.warn("The background tasks did not finish within " + SHUTDOWN_TIMEOUT_SECONDS + " seconds.");
+			}
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Returns the default {@link Durability} of writes.
+	 *
+	 * @return The default {@link Durability}.
+	 */
+	public Durability getDurability()
+	{
+		return durability;
+	}
+
+	/**
+	 * Sets the default {@link Durability} of writes, which applies to every {@link Archetype} which does not set its
+	 * own.
+	 *
+	 * @param durability The default {@link Durability}.
+	 */
+	public void setDurability(final Durability durability)
+	{
+		if (durability == null) {
+			throw new IllegalArgumentException("The durability must not be null.");
+		}
+
+		this.durability = durability;
+	}
+
+	/**
+	 * Returns the default {@link FlushMode}.
+	 *
+	 * @return The default {@link FlushMode}.
+	 */
+	public FlushMode getFlushMode()
+	{
+		return flushMode;
+	}
+
+	/**
+	 * Sets the default {@link FlushMode}, which applies to every {@link Archetype} which does not set its own.
+	 *
+	 * @param flushMode The default {@link FlushMode}.
+	 */
+	public void setFlushMode(final FlushMode flushMode)
+	{
+		if (flushMode == null) {
+			throw new IllegalArgumentException("The flush mode must not be null.");
+		}
+
+		this.flushMode = flushMode;
+	}
+
+	/**
+	 * Returns the {@link AtomicFileWriter} for this {@link ParagonFS}.
+	 *
+	 * @return {@link AtomicFileWriter}
+	 */
+	public AtomicFileWriter getAtomicFileWriter()
+	{
+		return atomicFileWriter;
+	}
+
+	/**
+	 * Returns the bounded executor used for reads which are fanned out across threads, of the first volume.
+	 *
+	 * @return The I/O {@link ExecutorService}.
+	 * @see Volume#getExecutor()
+	 */
+	public ExecutorService getIoExecutor()
+	{
+		return volumes.get(0).getExecutor();
+	}
+
+	/**
+	 * Returns the pool which evaluates queries.
+	 *
+	 * @return The query {@link ForkJoinPool}.
+	 */
+	public ForkJoinPool getQueryPool()
+	{
+		return queryPool;
+	}
+
+	/**
+	 * Returns the data directories the {@link Paradigm}'s are striped across.
+	 *
+	 * @return An unmodifiable list of the {@link Volume}'s, the first of which is the root directory.
+	 */
+	public List<Volume> getVolumes()
+	{
+		return Collections.unmodifiableList(volumes);
+	}
+
+	/**
+	 * Returns the {@link Volume} the {@link Paradigm} is placed on, by hashing its unique identifier.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 * @return The {@link Volume}.
+	 */
+	public Volume getVolume(final String paradigmId)
+	{
+		if (volumes.size() == 1) {
+			return volumes.get(0);
+		}
+
+		return volumes.get(Math.floorMod(paradigmId.toLowerCase().hashCode(), volumes.size()));
+	}
+
+	/**
+	 * Returns the executor the asynchronous API, such as {@link Archetype#async()}, runs its operations on.
+	 *
+	 * @return The asynchronous {@link Executor}.
+	 */
+	public Executor getAsyncExecutor()
+	{
+		return asyncExecutor;
+	}
+
+	/**
+	 * Sets the executor the asynchronous API runs its operations on. Operations block on file I/O, so this should be
+	 * either a virtual thread executor or one with enough threads for the expected concurrency. An executor set here
+	 * is not shut down when the {@link ParagonFS} is closed.
+	 *
+	 * @param asyncExecutor The asynchronous {@link Executor}.
+	 */
+	public void setAsyncExecutor(final Executor asyncExecutor)
+	{
+		if (asyncExecutor == null) {
+			throw new IllegalArgumentException("The executor must not be null.");
+		}
+
+		this.asyncExecutor = asyncExecutor;
+	}
+
+	/**
+	 * Returns the directory of the cold tier.
+	 *
+	 * @return The cold tier's directory, or null if there is only the one tier.
+	 */
+	public File getColdDir()
+	{
+		return coldDir;
+	}
+
+	/**
+	 * Sets the directory of the cold tier, usually on cheaper and slower storage than the data directories. Once set,
+	 * the {@link ParadigmTierMigrator} moves the {@link Paradigm}'s which have not been read or written for a while to
+	 * it in the background. Reads of a Paradigm in the cold tier are served from it, and writing to one moves it back.<br />
+	 * <br />
+	 * The cold tier is remembered when the ParagonFS is next opened, and can not be changed once set.
+	 *
+	 * @param coldDir The directory of the cold tier.
+	 */
+	public void setColdDir(final File coldDir)
+	{
+		if (coldDir == null || !coldDir.isDirectory()) {
+			throw new IllegalArgumentException("The cold tier must be an existing directory.");
+		}
+
+		archetypeLock.lock();
+
+		try
+		{
+			if (this.coldDir != null)
+			{
+				if (!this.coldDir.getAbsoluteFile().equals(coldDir.getAbsoluteFile())) {
+					throw new IllegalStateException("The cold tier can not be changed once set.");
+				}
+
+				return;
+			}
+
+			FileUtils.writeStringToFile(
+				new File(dir, COLD_TIER_FILE), coldDir.getAbsolutePath(), StandardCharsets.UTF_8
+			);
+			this.coldDir = coldDir.getAbsoluteFile();
+		}
+		catch (final IOException e)
+		{
+			throw new IllegalArgumentException("The cold tier could not be recorded.", e);
+		}
+		finally
+		{
+			archetypeLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the {@link ParadigmTierMigrator} for this {@link ParagonFS}, which can be used to tune how long a
+	 * {@link Paradigm} must be idle before it is moved to the cold tier, or to run a migration on demand.
+	 *
+	 * @return {@link ParadigmTierMigrator}
+	 */
+	public ParadigmTierMigrator getTierMigrator()
+	{
+		return tierMigrator;
+	}
+
+	/**
+	 * Returns the {@link ParadigmReaper} for this {@link ParagonFS}, which can be used to tune how many expired
+	 * {@link Paradigm}'s are deleted per second, or to reap an Archetype on demand.
+	 *
+	 * @return {@link ParadigmReaper}
+	 */
+	public ParadigmReaper getReaper()
+	{
+		return reaper;
+	}
+
+	/**
+	 * Returns the {@link CacheWarmer} for this {@link ParagonFS}, which can be used to tune how many
+	 * {@link Paradigm}'s are loaded back after a restart, and how long and how much reading that may take.
+	 *
+	 * @return {@link CacheWarmer}
+	 */
+	public CacheWarmer getCacheWarmer()
+	{
+		return cacheWarmer;
+	}
+
+	/**
+	 * Returns the {@link VersionClock} for this {@link ParagonFS}, which orders every change for the
+	 * {@link ReadView}'s.
+	 *
+	 * @return {@link VersionClock}
+	 */
+	public VersionClock getVersionClock()
+	{
+		return versionClock;
+	}
+
+	/**
+	 * Returns the {@link IoScheduler} every disk operation of this {@link ParagonFS} goes through, which can be used
+	 * to tune the rate limits of the background I/O.
+	 *
+	 * @return {@link IoScheduler}
+	 */
+	public IoScheduler getIoScheduler()
+	{
+		return ioScheduler;
+	}
+
+	/**
+	 * Returns the {@link WriteGate} every change to the files of this {@link ParagonFS} passes through.
+	 *
+	 * @return {@link WriteGate}
+	 */
+	public WriteGate getWriteGate()
+	{
+		return writeGate;
+	}
+
+	/**
+	 * Returns the {@link Snapshotter} for this {@link ParagonFS}.
+	 *
+	 * @return {@link Snapshotter}
+	 */
+	public Snapshotter getSnapshotter()
+	{
+		return snapshotter;
+	}
+
+	/**
+	 * Returns the {@link ChangeFeed} for this {@link ParagonFS}, which can be enabled to record every change to the
+	 * {@link Paradigm}'s and subscribed to.
+	 *
+	 * @return {@link ChangeFeed}
+	 */
+	public ChangeFeed getChangeFeed()
+	{
+		return changeFeed;
+	}
+
+	/**
+	 * Returns the {@link WriteBackFlusher} for this {@link ParagonFS}, which can be used to tune its interval and
+	 * dirty byte budget.
+	 *
+	 * @return {@link WriteBackFlusher}
+	 */
+	public WriteBackFlusher getWriteBackFlusher()
+	{
+		return writeBackFlusher;
+	}
+
+	/**
+	 * Returns the {@link BackgroundSyncer} for this {@link ParagonFS}.
+	 *
+	 * @return {@link BackgroundSyncer}
+	 */
+	public BackgroundSyncer getBackgroundSyncer()
+	{
+		return backgroundSyncer;
 	}
 
 	/**
@@ -209,6 +1028,16 @@ public class ParagonFS
 		return paradigmIdPool;
 	}
 
+	/**
+	 * Returns the metrics registry for this {@link ParagonFS}.
+	 *
+	 * @return {@link ParagonFSMetrics}
+	 */
+	public ParagonFSMetrics getMetrics()
+	{
+		return metrics;
+	}
+
 	/**
 	 * Returns the {@link ParadigmUtil} for this {@link ParagonFS}.
 	 *
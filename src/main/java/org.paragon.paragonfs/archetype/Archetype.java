@@ -1,19 +1,75 @@
 package org.paragon.paragonfs.archetype;
 
 import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.blob.BlobStore;
+import org.paragon.paragonfs.columnar.ColumnarStore;
+import org.paragon.paragonfs.data.type.DataTypeIF;
 import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.io.Durability;
+import org.paragon.paragonfs.io.FlushMode;
+import org.paragon.paragonfs.io.Volume;
+import org.paragon.paragonfs.metrics.ParagonFSMetrics;
+import org.paragon.paragonfs.paradigm.CompressingParadigmCodec;
+import org.paragon.paragonfs.paradigm.CompressionDictionaries;
+import org.paragon.paragonfs.paradigm.ExpiryBuckets;
+import org.paragon.paragonfs.paradigm.FrozenSegment;
+import org.paragon.paragonfs.paradigm.JsonParadigmCodec;
+import org.paragon.paragonfs.paradigm.KeyDictionary;
 import org.paragon.paragonfs.paradigm.Paradigm;
+import org.paragon.paragonfs.paradigm.ParadigmCodec;
 import org.paragon.paragonfs.paradigm.ParadigmPool;
 import org.paragon.paragonfs.paradigm.ParadigmUtil;
+import org.paragon.paragonfs.paradigm.ReadView;
+import org.paragon.paragonfs.paradigm.SchemaParadigmCodec;
+import org.paragon.paragonfs.paradigm.TombstoneLog;
+import org.paragon.paragonfs.query.Query;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
 
 /**
  * An Archetype is a directory within ParagonFS, which can contain many {@link Paradigm}'s.
  */
 public class Archetype
 {
+	/**
+	 * The number of directories a Paradigm's file is nested within, see {@link ParadigmUtil#getParadigmPath(String)}.
+	 */
+	private static final int PARADIGM_DIR_DEPTH = 3;
+
+	private static final String PARADIGM_SUFFIX = ".json";
+
+	/**
+	 * The name of the file, within the archetype directory, the compression settings are written to.
+	 */
+	public static final String COMPRESSION_FILE_NAME = ".compression";
+
+	/**
+	 * The name of the file, within the archetype directory, the time-to-live is written to.
+	 */
+	public static final String TIME_TO_LIVE_FILE_NAME = ".ttl";
+
+	private static final String COMPRESSION_LEVEL = "level";
+	private static final String COMPRESSION_DICTIONARY = "dictionary";
+
 	/**
 	 * The {@link ParagonFS} this {@link Archetype} belongs to.
 	 */
@@ -29,6 +85,86 @@ public class Archetype
 	 */
 	private final ParadigmPool paradigmPool;
 
+	/**
+	 * The log of deleted Paradigms within this Archetype which have not been reclaimed yet.
+	 */
+	private final TombstoneLog tombstoneLog;
+
+	/**
+	 * The dictionary of the keys used within this Archetype.
+	 */
+	private final KeyDictionary keyDictionary;
+
+	/**
+	 * The number of bytes read from the Paradigms within this Archetype.
+	 */
+	private final LongAdder bytesRead;
+
+	/**
+	 * The number of bytes written to the Paradigms within this Archetype.
+	 */
+	private final LongAdder bytesWritten;
+
+	/**
+	 * The {@link Durability} of writes to this Archetype, or null to use the {@link ParagonFS}'s default.
+	 */
+	private volatile Durability durability;
+
+	/**
+	 * The {@link FlushMode} of writes to this Archetype, or null to use the {@link ParagonFS}'s default.
+	 */
+	private volatile FlushMode flushMode;
+
+	/**
+	 * The {@link Schema} of this Archetype, or null if its Paradigms are schemaless.
+	 */
+	private volatile Schema schema;
+
+	/**
+	 * The {@link ParadigmCodec} the Paradigms within this Archetype are written with, which follows the schema.
+	 */
+	private volatile ParadigmCodec codec;
+
+	/**
+	 * The asynchronous view of this Archetype.
+	 */
+	private final AsyncArchetype async = new AsyncArchetype(this);
+
+	/**
+	 * The preset dictionaries the Paradigms within this Archetype may have been compressed with.
+	 */
+	private final CompressionDictionaries compressionDictionaries;
+
+	/**
+	 * The level Paradigms are compressed at, or {@link Deflater#NO_COMPRESSION} if they are not compressed.
+	 */
+	private volatile int compressionLevel = Deflater.NO_COMPRESSION;
+
+	/**
+	 * The checksum of the preset dictionary Paradigms are compressed with, or null if there is none.
+	 */
+	private volatile Integer compressionDictionary;
+
+	/**
+	 * The columnar copy of this Archetype, built on demand for scans.
+	 */
+	private final ColumnarStore columnarStore;
+
+	/**
+	 * The large values of this Archetype, stored out-of-line.
+	 */
+	private final BlobStore blobStore;
+
+	/**
+	 * The deadlines of the Paradigms within this Archetype, if it has a time-to-live.
+	 */
+	private final ExpiryBuckets expiryBuckets;
+
+	/**
+	 * The number of milliseconds a Paradigm lives for after it was last written, or 0 if Paradigms never expire.
+	 */
+	private volatile long timeToLive;
+
 	/**
 	 * Initializes the {@link Archetype} with the path to the directory.
 	 *
@@ -40,6 +176,28 @@ public class Archetype
 		this.paragonFS = paragonFS;
 		this.dir = dir;
 		this.paradigmPool = new ParadigmPool(this);
+		this.tombstoneLog = new TombstoneLog(new File(dir, TombstoneLog.FILE_NAME));
+		this.keyDictionary = new KeyDictionary(new File(dir, KeyDictionary.FILE_NAME));
+		this.columnarStore = new ColumnarStore(this);
+		this.blobStore = new BlobStore(this);
+		this.compressionDictionaries = new CompressionDictionaries(
+			new File(dir, CompressionDictionaries.DIR_NAME), paragonFS.getAtomicFileWriter()
+		);
+		this.expiryBuckets = new ExpiryBuckets(new File(dir, ExpiryBuckets.DIR_NAME), paragonFS.getBackgroundSyncer());
+
+		try
+		{
+			readCompression();
+			readTimeToLive();
+			this.schema = Schema.read(new File(dir, Schema.FILE_NAME));
+			this.codec = createCodec(schema);
+		}
+		catch (final IOException e)
+		{
+			throw new IllegalStateException("The archetype schema could not be read.", e);
+		}
+		this.bytesRead = paragonFS.getMetrics().counter(dir.getName(), ParagonFSMetrics.BYTES_READ);
+		this.bytesWritten = paragonFS.getMetrics().counter(dir.getName(), ParagonFSMetrics.BYTES_WRITTEN);
 	}
 
 	/**
@@ -51,7 +209,160 @@ public class Archetype
 	 */
 	public boolean exists(final String paradigmId)
 	{
-		return (new File(Paths.get(this.dir.getAbsolutePath(), paragonFS.getParadigmUtil().getParadigmPath(paradigmId)).toString())).exists();
+		final FrozenSegment frozenSegment = paradigmPool.getFrozenSegment();
+		if (frozenSegment != null) {
+			return frozenSegment.indexOf(paradigmId) >= 0;
+		}
+
+		if (tombstoneLog.contains(paradigmId)) {
+			return false;
+		}
+
+		final File coldFile = getColdParadigmFile(paradigmId);
+		return getParadigmFile(paradigmId).exists() || (coldFile != null && coldFile.exists());
+	}
+
+	/**
+	 * Returns the {@link File} in which the {@link Paradigm} is, or would be, stored within this {@link Archetype}, on
+	 * the {@link Volume} the Paradigm is placed on.
+	 *
+	 * @param paradigmId The {@link Paradigm} ID.
+	 * @return The absolute path to the {@link Paradigm}'s file.
+	 */
+	public File getParadigmFile(final String paradigmId)
+	{
+		final File volumeDir = getDir(paragonFS.getVolume(paradigmId));
+
+		return new File(Paths.get(volumeDir.getAbsolutePath(), paragonFS.getParadigmUtil().getParadigmPath(paradigmId)).toString());
+	}
+
+	/**
+	 * Returns the {@link File} in which the {@link Paradigm} is stored once it has been moved to the cold tier.
+	 *
+	 * @param paradigmId The {@link Paradigm} ID.
+	 * @return The absolute path to the {@link Paradigm}'s file in the cold tier, or null if there is no cold tier.
+	 * @see ParagonFS#setColdDir(File)
+	 */
+	public File getColdParadigmFile(final String paradigmId)
+	{
+		final File coldDir = paragonFS.getColdDir();
+		if (coldDir == null) {
+			return null;
+		}
+
+		return new File(Paths.get(coldDir.getAbsolutePath(), dir.getName(), paragonFS.getParadigmUtil().getParadigmPath(paradigmId)).toString());
+	}
+
+	/**
+	 * Returns the directory which holds the {@link Paradigm}'s of this {@link Archetype} placed on the volume. On the
+	 * first volume this is the Archetype's own directory.
+	 *
+	 * @param volume The {@link Volume}.
+	 * @return The directory, which may not exist yet.
+	 */
+	public File getDir(final Volume volume)
+	{
+		return volume.getIndex() == 0 ? dir : new File(volume.getDir(), dir.getName());
+	}
+
+	/**
+	 * Returns the unique identifier of every {@link Paradigm} within this {@link Archetype}, by walking its
+	 * directories on every volume and in the cold tier. Paradigms created or deleted while this runs may or may not
+	 * be included.
+	 *
+	 * @return The Paradigms' unique identifiers, sorted.
+	 */
+	public List<String> listParadigmIds()
+	{
+		final FrozenSegment frozenSegment = paradigmPool.getFrozenSegment();
+		if (frozenSegment != null) {
+			return frozenSegment.getIds();
+		}
+
+		final Set<String> paradigmIds = new TreeSet<>(listHotParadigmIds());
+		final File coldDir = paragonFS.getColdDir();
+		if (coldDir != null) {
+			listParadigmIds(new File(coldDir, dir.getName()), 0, paradigmIds);
+		}
+
+		return new ArrayList<>(paradigmIds);
+	}
+
+	/**
+	 * Returns the unique identifier of every {@link Paradigm} within this {@link Archetype} which may be seen through
+	 * the {@link ReadView}, which adds the Paradigms deleted since it was opened. Paradigms created since it was opened
+	 * are included too, and {@link #get(String, ReadView)} returns null for them.
+	 *
+	 * @param view The {@link ReadView} to read through.
+	 * @return The Paradigms' unique identifiers, sorted.
+	 */
+	public List<String> listParadigmIds(final ReadView view)
+	{
+		final Set<String> paradigmIds = new TreeSet<>(listParadigmIds());
+		paradigmIds.addAll(paradigmPool.getRetiredIds());
+
+		return new ArrayList<>(paradigmIds);
+	}
+
+	/**
+	 * Returns the unique identifier of every {@link Paradigm} within this {@link Archetype} which is not in the cold
+	 * tier, by walking its directories on every volume.
+	 *
+	 * @return The Paradigms' unique identifiers, sorted.
+	 */
+	public List<String> listHotParadigmIds()
+	{
+		final List<String> paradigmIds = new ArrayList<>();
+		for (final Volume volume : paragonFS.getVolumes())
+		{
+			listParadigmIds(getDir(volume), 0, paradigmIds);
+		}
+		paradigmIds.sort(null);
+
+		return paradigmIds;
+	}
+
+	/**
+	 * Adds the identifiers of the Paradigms under the directory, descending through the levels of the directory
+	 * structure laid out by {@link ParadigmUtil#getParadigmPath(String)}.
+	 *
+	 * @param parent      The directory to list.
+	 * @param depth       The number of levels below the Archetype's directory the directory is.
+	 * @param paradigmIds The collection to add the identifiers to.
+	 */
+	private void listParadigmIds(final File parent, final int depth, final Collection<String> paradigmIds)
+	{
+		final File[] files = parent.listFiles();
+		if (files == null) {
+			return;
+		}
+
+		Arrays.sort(files);
+		for (final File file : files)
+		{
+			// Skip the Archetype's own files, such as the tombstone log.
+			if (file.getName().startsWith(".")) {
+				continue;
+			}
+
+			if (depth < PARADIGM_DIR_DEPTH)
+			{
+				if (file.isDirectory()) {
+					listParadigmIds(file, depth + 1, paradigmIds);
+				}
+				continue;
+			}
+
+			final String name = file.getName();
+			if (!name.endsWith(PARADIGM_SUFFIX)) {
+				continue;
+			}
+
+			final String paradigmId = name.substring(0, name.length() - PARADIGM_SUFFIX.length());
+			if (!tombstoneLog.contains(paradigmId)) {
+				paradigmIds.add(paradigmId);
+			}
+		}
 	}
 
 	/**
@@ -74,6 +385,70 @@ public class Archetype
 		return paragonFS;
 	}
 
+	/**
+	 * Returns the counter of bytes read from the {@link Paradigm}'s within this {@link Archetype}.
+	 *
+	 * @return The bytes read counter.
+	 */
+	public LongAdder getBytesRead()
+	{
+		return bytesRead;
+	}
+
+	/**
+	 * Returns the counter of bytes written to the {@link Paradigm}'s within this {@link Archetype}.
+	 *
+	 * @return The bytes written counter.
+	 */
+	public LongAdder getBytesWritten()
+	{
+		return bytesWritten;
+	}
+
+	/**
+	 * Returns the {@link Durability} of writes to the {@link Paradigm}'s within this {@link Archetype}.
+	 *
+	 * @return The {@link Durability} set on this Archetype, otherwise the {@link ParagonFS}'s default.
+	 */
+	public Durability getDurability()
+	{
+		final Durability archetypeDurability = durability;
+
+		return archetypeDurability == null ? paragonFS.getDurability() : archetypeDurability;
+	}
+
+	/**
+	 * Sets the {@link Durability} of writes to the {@link Paradigm}'s within this {@link Archetype}.
+	 *
+	 * @param durability The {@link Durability}, or null to use the {@link ParagonFS}'s default.
+	 */
+	public void setDurability(final Durability durability)
+	{
+		this.durability = durability;
+	}
+
+	/**
+	 * Returns the {@link FlushMode} used to write the {@link Paradigm}'s within this {@link Archetype}.
+	 *
+	 * @return The {@link FlushMode} set on this Archetype, otherwise the {@link ParagonFS}'s default.
+	 */
+	public FlushMode getFlushMode()
+	{
+		final FlushMode archetypeFlushMode = flushMode;
+
+		return archetypeFlushMode == null ? paragonFS.getFlushMode() : archetypeFlushMode;
+	}
+
+	/**
+	 * Sets the {@link FlushMode} used to write the {@link Paradigm}'s within this {@link Archetype}.
+	 *
+	 * @param flushMode The {@link FlushMode}, or null to use the {@link ParagonFS}'s default.
+	 */
+	public void setFlushMode(final FlushMode flushMode)
+	{
+		this.flushMode = flushMode;
+	}
+
 	/**
 	 * Returns the {@link ParadigmPool} for this {@link Archetype}.
 	 *
@@ -84,6 +459,389 @@ public class Archetype
 		return paradigmPool;
 	}
 
+	/**
+	 * Creates the {@link ParadigmCodec} for the schema.
+	 *
+	 * @param schema The {@link Schema}, or null if the Paradigms are schemaless.
+	 * @return The {@link ParadigmCodec}.
+	 * @throws IOException Thrown if the schema's keys could not be added to the {@link KeyDictionary}.
+	 */
+	private ParadigmCodec createCodec(final Schema schema) throws IOException
+	{
+		final ParadigmCodec layout = schema == null
+			? new JsonParadigmCodec(keyDictionary)
+			: new SchemaParadigmCodec(schema, keyDictionary);
+
+		return new CompressingParadigmCodec(layout, compressionLevel, compressionDictionary, compressionDictionaries);
+	}
+
+	/**
+	 * Reads the compression settings, if they have been set.
+	 *
+	 * @throws IOException Thrown if the settings could not be read.
+	 */
+	private void readCompression() throws IOException
+	{
+		final File file = new File(dir, COMPRESSION_FILE_NAME);
+		if (!file.exists()) {
+			return;
+		}
+
+		final Properties properties = new Properties();
+		try (final InputStream in = new FileInputStream(file))
+		{
+			properties.load(in);
+		}
+
+		compressionLevel = Integer.parseInt(properties.getProperty(COMPRESSION_LEVEL, "0"));
+		final String dictionary = properties.getProperty(COMPRESSION_DICTIONARY);
+		compressionDictionary = dictionary == null ? null : (int) Long.parseLong(dictionary, 16);
+	}
+
+	/**
+	 * Writes the compression settings and swaps in a codec which uses them. Paradigms are rewritten with the new
+	 * settings the next time they are updated, while those already written can always be read. The settings are synced
+	 * before the codec is swapped, so no row written with them can outlive them in a crash.
+	 *
+	 * @param level      The compression level.
+	 * @param dictionary The checksum of the preset dictionary, or null if there is none.
+	 * @throws IOException Thrown if the settings could not be written.
+	 */
+	private void writeCompression(final int level, final Integer dictionary) throws IOException
+	{
+		final Properties properties = new Properties();
+		properties.setProperty(COMPRESSION_LEVEL, Integer.toString(level));
+		if (dictionary != null) {
+			properties.setProperty(COMPRESSION_DICTIONARY, String.format("%08x", dictionary));
+		}
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		properties.store(out, null);
+		paragonFS.getAtomicFileWriter().write(new File(dir, COMPRESSION_FILE_NAME), out.toByteArray(), Durability.SYNC);
+
+		compressionLevel = level;
+		compressionDictionary = dictionary;
+		replaceCodec(createCodec(schema));
+	}
+
+	/**
+	 * Swaps in a new codec and closes the one it replaces. A write or read still using the old codec finishes with
+	 * it, as a closed codec still works.
+	 *
+	 * @param nextCodec The {@link ParadigmCodec} to use from now on.
+	 */
+	private void replaceCodec(final ParadigmCodec nextCodec)
+	{
+		final ParadigmCodec previous = codec;
+		codec = nextCodec;
+		if (previous instanceof CompressingParadigmCodec) {
+			((CompressingParadigmCodec) previous).close();
+		}
+	}
+
+	/**
+	 * Returns the level the Paradigms within this {@link Archetype} are compressed at.
+	 *
+	 * @return The level, or {@link Deflater#NO_COMPRESSION} if they are not compressed.
+	 */
+	public int getCompressionLevel()
+	{
+		return compressionLevel;
+	}
+
+	/**
+	 * Sets the level the Paradigms within this {@link Archetype} are compressed at, using the JDK's
+	 * {@link Deflater}. Only rows large enough to be worth it are compressed, and compression backs off on its own if
+	 * the rows don't compress well, see {@link CompressingParadigmCodec}.
+	 *
+	 * @param level The level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}, or
+	 *              {@link Deflater#NO_COMPRESSION} to stop compressing.
+	 * @throws ParagonFSException Thrown if the setting could not be written.
+	 */
+	public void setCompressionLevel(final int level) throws ParagonFSException
+	{
+		if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)
+		{
+			throw new IllegalArgumentException("The compression level must be between 0 and 9.");
+		}
+
+		try
+		{
+			writeCompression(level, compressionDictionary);
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("The compression level could not be written.", e);
+		}
+	}
+
+	/**
+	 * Trains a preset dictionary on a sample of the Paradigms within this {@link Archetype}, which the Paradigms are
+	 * then compressed with. A dictionary lets even small rows compress well, as the keys and type names they all
+	 * repeat are already in it. Earlier dictionaries are kept, so Paradigms compressed with them can still be read.
+	 *
+	 * @param sampleCount The most Paradigms to sample, spread evenly across the Archetype.
+	 * @return The size of the dictionary, in bytes, or 0 if there were no Paradigms to sample.
+	 * @throws ParagonFSException Thrown if a Paradigm could not be read or the dictionary could not be written.
+	 */
+	public int trainCompressionDictionary(final int sampleCount) throws ParagonFSException
+	{
+		if (sampleCount < 1)
+		{
+			throw new IllegalArgumentException("The sample count must be positive.");
+		}
+
+		final List<String> paradigmIds = listParadigmIds();
+		final List<String> sampled = new ArrayList<>();
+		final double step = Math.max(1.0, (double) paradigmIds.size() / sampleCount);
+		for (double index = 0; index < paradigmIds.size() && sampled.size() < sampleCount; index += step)
+		{
+			sampled.add(paradigmIds.get((int) index));
+		}
+
+		try
+		{
+			final ParadigmCodec layout = ((CompressingParadigmCodec) codec).getCodec();
+			final List<byte[]> samples = new ArrayList<>();
+			for (final Paradigm paradigm : getAllUntracked(sampled).values())
+			{
+				samples.add(layout.encode(paradigm.getCurrentSnapshot()));
+			}
+
+			final Integer dictionary = compressionDictionaries.train(samples);
+			if (dictionary == null)
+			{
+				return 0;
+			}
+
+			writeCompression(compressionLevel, dictionary);
+			return compressionDictionaries.get(dictionary).length;
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("The compression dictionary could not be trained.", e);
+		}
+	}
+
+	/**
+	 * Returns the {@link Schema} of this {@link Archetype}.
+	 *
+	 * @return The {@link Schema}, or null if the Paradigms within this Archetype are schemaless.
+	 */
+	public Schema getSchema()
+	{
+		return schema;
+	}
+
+	/**
+	 * Sets the {@link Schema} of this {@link Archetype}, which can only be done while it has no Paradigms. The
+	 * Paradigms are then validated against it whenever their values are set, and written in its fixed layout.
+	 *
+	 * @param schema The {@link Schema}, or null to make the Paradigms schemaless again.
+	 * @throws ParagonFSException Thrown if the schema could not be written.
+	 * @throws IllegalStateException Thrown if the Archetype has Paradigms.
+	 */
+	public void setSchema(final Schema schema) throws ParagonFSException
+	{
+		if (!listParadigmIds().isEmpty())
+		{
+			throw new IllegalStateException("The schema can only be set on an empty archetype.");
+		}
+
+		final Schema copy = schema == null ? null : new Schema(schema);
+		final File schemaFile = new File(dir, Schema.FILE_NAME);
+		try
+		{
+			final ParadigmCodec nextCodec = createCodec(copy);
+			if (copy == null)
+			{
+				Files.deleteIfExists(schemaFile.toPath());
+			}
+			else
+			{
+				copy.write(schemaFile);
+			}
+
+			this.schema = copy;
+			replaceCodec(nextCodec);
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("The schema could not be written.", e);
+		}
+	}
+
+	/**
+	 * Returns the {@link ParadigmCodec} the Paradigms within this {@link Archetype} are written with.
+	 *
+	 * @return {@link ParadigmCodec}
+	 */
+	public ParadigmCodec getCodec()
+	{
+		return codec;
+	}
+
+	/**
+	 * Returns the {@link KeyDictionary} of the keys used within this {@link Archetype}.
+	 *
+	 * @return The {@link KeyDictionary} for this {@link Archetype}.
+	 */
+	public KeyDictionary getKeyDictionary()
+	{
+		return keyDictionary;
+	}
+
+	/**
+	 * Returns the {@link ColumnarStore} of this {@link Archetype}, which scans use to read a key across every
+	 * Paradigm at once.
+	 *
+	 * @return {@link ColumnarStore}
+	 */
+	public ColumnarStore getColumnarStore()
+	{
+		return columnarStore;
+	}
+
+	/**
+	 * Returns the {@link BlobStore} of this {@link Archetype}, which holds the {@link
+	 * org.paragon.paragonfs.data.type.BlobType} values of its Paradigms.
+	 *
+	 * @return {@link BlobStore}
+	 */
+	public BlobStore getBlobStore()
+	{
+		return blobStore;
+	}
+
+	/**
+	 * Returns the {@link TombstoneLog} for this {@link Archetype}.
+	 *
+	 * @return The {@link TombstoneLog} for this {@link Archetype}.
+	 */
+	public TombstoneLog getTombstoneLog()
+	{
+		return tombstoneLog;
+	}
+
+	/**
+	 * Returns the {@link ExpiryBuckets} for this {@link Archetype}.
+	 *
+	 * @return The {@link ExpiryBuckets} for this {@link Archetype}.
+	 */
+	public ExpiryBuckets getExpiryBuckets()
+	{
+		return expiryBuckets;
+	}
+
+	/**
+	 * Returns the number of milliseconds a {@link Paradigm} within this {@link Archetype} lives for after it was last
+	 * written.
+	 *
+	 * @return The time-to-live, in milliseconds, or 0 if Paradigms never expire.
+	 */
+	public long getTimeToLive()
+	{
+		return timeToLive;
+	}
+
+	/**
+	 * Sets the number of milliseconds a {@link Paradigm} within this {@link Archetype} lives for after it was last
+	 * written, or after it was created if it has never been written. Once expired, a Paradigm reads as empty, is left
+	 * out of {@link #getAll(Collection)} and can no longer be written, and it is deleted in the background by the
+	 * {@link org.paragon.paragonfs.paradigm.ParadigmReaper}.<br />
+	 * <br />
+	 * Setting it rebuilds the {@link ExpiryBuckets} from the modification time of every Paradigm's file, so it should
+	 * be set once rather than often.
+	 *
+	 * @param timeToLive The time-to-live, in milliseconds, or 0 so that Paradigms never expire.
+	 * @throws ParagonFSException Thrown if the setting could not be written.
+	 */
+	public void setTimeToLive(final long timeToLive) throws ParagonFSException
+	{
+		if (timeToLive < 0)
+		{
+			throw new IllegalArgumentException("The time-to-live must not be negative.");
+		}
+
+		try
+		{
+			paragonFS.getAtomicFileWriter().write(new File(dir, TIME_TO_LIVE_FILE_NAME),
+				Long.toString(timeToLive).getBytes(StandardCharsets.UTF_8), Durability.SYNC);
+			this.timeToLive = timeToLive;
+
+			// Which rows have expired has changed, so the columnar segment has to be built again.
+			columnarStore.invalidate();
+
+			expiryBuckets.clear();
+			if (timeToLive == 0) {
+				return;
+			}
+
+			// The file's modification time is when the Paradigm was last written, without having to read it.
+			for (final String paradigmId : listParadigmIds())
+			{
+				File paradigmFile = getParadigmFile(paradigmId);
+				if (!paradigmFile.exists()) {
+					paradigmFile = getColdParadigmFile(paradigmId);
+				}
+
+				if (paradigmFile != null && paradigmFile.exists()) {
+					expiryBuckets.record(paradigmId, paradigmFile.lastModified() + timeToLive);
+				}
+			}
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("The time-to-live could not be written.", e);
+		}
+	}
+
+	/**
+	 * Reads the time-to-live, if it has been set.
+	 *
+	 * @throws IOException Thrown if the setting could not be read.
+	 */
+	private void readTimeToLive() throws IOException
+	{
+		final File file = new File(dir, TIME_TO_LIVE_FILE_NAME);
+		if (file.exists()) {
+			timeToLive = Long.parseLong(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim());
+		}
+	}
+
+	/**
+	 * Freezes this {@link Archetype} into a single immutable {@link FrozenSegment}, for a reference table which is
+	 * loaded once and then read many times. While frozen, a Paradigm is looked up in the memory-mapped segment without
+	 * taking any lock or making any system call, and every write is rejected with a {@link ParagonFSException}. The
+	 * Archetype stays frozen across restarts until {@link #thaw()} is invoked.
+	 *
+	 * @throws ParagonFSException Thrown if a Paradigm could not be read or the segment could not be written.
+	 */
+	public void freeze() throws ParagonFSException
+	{
+		paradigmPool.freeze();
+	}
+
+	/**
+	 * Thaws this {@link Archetype}, so it can be written to again.
+	 *
+	 * @throws ParagonFSException Thrown if the segment could not be removed.
+	 */
+	public void thaw() throws ParagonFSException
+	{
+		paradigmPool.thaw();
+	}
+
+	/**
+	 * Determines whether this {@link Archetype} is frozen, see {@link #freeze()}.
+	 *
+	 * @return Returns true if the Archetype is frozen.
+	 */
+	public boolean isFrozen()
+	{
+		return paradigmPool.isFrozen();
+	}
+
 	/**
 	 * Returns the {@link Paradigm} within this {@link Archetype}.
 	 *
@@ -95,6 +853,131 @@ public class Archetype
 		return paradigmPool.get(paradigmId);
 	}
 
+	/**
+	 * Returns the {@link Paradigm} within this {@link Archetype} if it existed when the {@link ReadView} was opened.
+	 * Read it through the same view, with {@link Paradigm#getValue(String, ReadView)}.
+	 *
+	 * @param paradigmId The Paradigm's unique identifier.
+	 * @param view       The {@link ReadView} to read through.
+	 * @return Returns the Paradigm, or null if it did not exist when the view was opened.
+	 * @throws ParagonFSException Thrown if an error occurs while trying to read from the file system.
+	 */
+	public Paradigm get(final String paradigmId, final ReadView view) throws ParagonFSException
+	{
+		return paradigmPool.get(paradigmId, view);
+	}
+
+	/**
+	 * Returns many {@link Paradigm}'s within this {@link Archetype} at once. This is much cheaper than invoking
+	 * {@link #get(String)} for each, see {@link ParadigmPool#getAll(Collection)}.
+	 *
+	 * @param paradigmIds The Paradigms' unique identifiers.
+	 * @return A map of identifiers to their Paradigm, in the order requested, leaving out Paradigms which don't exist
+	 * or have expired.
+	 * @throws ParagonFSException Thrown if an error occurs while loading a Paradigm.
+	 */
+	public Map<String, Paradigm> getAll(final Collection<String> paradigmIds) throws ParagonFSException
+	{
+		return removeExpired(paradigmPool.getAll(paradigmIds));
+	}
+
+	/**
+	 * Returns many {@link Paradigm}'s within this {@link Archetype} at once, like {@link #getAll(Collection)}, without
+	 * counting them as lookups, for internal scans which must not make every Paradigm look hot.
+	 *
+	 * @param paradigmIds The Paradigms' unique identifiers.
+	 * @return A map of identifiers to their Paradigm, in the order requested, leaving out Paradigms which don't exist
+	 * or have expired.
+	 * @throws ParagonFSException Thrown if an error occurs while loading a Paradigm.
+	 * @see ParadigmPool#getAllUntracked(Collection)
+	 */
+	public Map<String, Paradigm> getAllUntracked(final Collection<String> paradigmIds) throws ParagonFSException
+	{
+		return removeExpired(paradigmPool.getAllUntracked(paradigmIds));
+	}
+
+	/**
+	 * Removes the {@link Paradigm}'s which have expired, if this {@link Archetype} has a time-to-live.
+	 *
+	 * @param paradigms A map of identifiers to their Paradigm.
+	 * @return The same map.
+	 * @throws ParagonFSException Thrown if an error occurs while loading a Paradigm.
+	 */
+	private Map<String, Paradigm> removeExpired(final Map<String, Paradigm> paradigms) throws ParagonFSException
+	{
+		if (timeToLive > 0)
+		{
+			final Iterator<Paradigm> iterator = paradigms.values().iterator();
+			while (iterator.hasNext())
+			{
+				if (iterator.next().isExpired())
+				{
+					iterator.remove();
+				}
+			}
+		}
+
+		return paradigms;
+	}
+
+	/**
+	 * Returns the values of only the keys given, for many {@link Paradigm}'s within this {@link Archetype} at once.
+	 *
+	 * @param paradigmIds The Paradigms' unique identifiers.
+	 * @param keys        The keys to return, case-insensitive.
+	 * @return A map of identifiers to a map of the keys and their values, in the order requested, leaving out
+	 * Paradigms which don't exist and keys which the Paradigm does not have.
+	 * @throws ParagonFSException Thrown if an error occurs while loading a Paradigm.
+	 */
+	public Map<String, Map<String, DataTypeIF>> getAll(final Collection<String> paradigmIds,
+													   final Collection<String> keys) throws ParagonFSException
+	{
+		if (keys == null)
+		{
+			throw new IllegalArgumentException("The keys must not be null.");
+		}
+
+		final Map<String, Map<String, DataTypeIF>> result = new LinkedHashMap<>();
+		for (final Map.Entry<String, Paradigm> entry : getAll(paradigmIds).entrySet())
+		{
+			final Map<String, DataTypeIF> values = new LinkedHashMap<>();
+			for (final String key : keys)
+			{
+				final DataTypeIF value = entry.getValue().getValue(key);
+				if (value != null)
+				{
+					values.put(key, value);
+				}
+			}
+
+			result.put(entry.getKey(), values);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Starts a {@link Query} over every {@link Paradigm} within this {@link Archetype}, which is evaluated against its
+	 * columnar segment rather than by reading each Paradigm.
+	 *
+	 * @return A new {@link Query}, which matches every Paradigm until filters are added.
+	 */
+	public Query query()
+	{
+		return new Query(this);
+	}
+
+	/**
+	 * Returns the asynchronous view of this {@link Archetype}, whose operations return a
+	 * {@link java.util.concurrent.CompletableFuture} rather than blocking.
+	 *
+	 * @return {@link AsyncArchetype}
+	 */
+	public AsyncArchetype async()
+	{
+		return async;
+	}
+
 	/**
 	 * Creates a new {@link Paradigm} within this {@link Archetype}.
 	 *
@@ -105,4 +988,17 @@ public class Archetype
 	{
 		return paradigmPool.create();
 	}
+
+	/**
+	 * Deletes the {@link Paradigm} within this {@link Archetype}. The Paradigm is no longer visible once this returns,
+	 * its file is reclaimed in the background.
+	 *
+	 * @param paradigmId The Paradigm's unique identifier.
+	 * @return Returns true if the Paradigm was deleted, false if it did not exist.
+	 * @throws ParagonFSException Thrown if an error occurs while attempting to delete the Paradigm.
+	 */
+	public boolean delete(final String paradigmId) throws ParagonFSException
+	{
+		return paradigmPool.delete(paradigmId);
+	}
 }
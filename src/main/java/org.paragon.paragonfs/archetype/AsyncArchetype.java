@@ -0,0 +1,185 @@
+package org.paragon.paragonfs.archetype;
+
+import org.paragon.paragonfs.data.type.DataTypeIF;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.paradigm.Paradigm;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * An asynchronous view of an {@link Archetype}. Every operation runs on the
+ * {@link org.paragon.paragonfs.ParagonFS#getAsyncExecutor()} and returns a {@link CompletableFuture}, which completes
+ * exceptionally with the {@link ParagonFSException} the blocking operation would have thrown.<br />
+ * <br />
+ * By default the executor starts a virtual thread per operation, so many thousands of concurrent operations only need
+ * a handful of OS threads.
+ */
+public class AsyncArchetype
+{
+	/**
+	 * The {@link Archetype} the operations are made against.
+	 */
+	private final Archetype archetype;
+
+	/**
+	 * Initializes the {@link AsyncArchetype}.
+	 *
+	 * @param archetype The {@link Archetype} the operations are made against.
+	 */
+	AsyncArchetype(final Archetype archetype)
+	{
+		this.archetype = archetype;
+	}
+
+	/**
+	 * Returns the {@link Archetype} the operations are made against.
+	 *
+	 * @return {@link Archetype}
+	 */
+	public Archetype getArchetype()
+	{
+		return archetype;
+	}
+
+	/**
+	 * Returns the {@link Paradigm}, with its values loaded.
+	 *
+	 * @param paradigmId The Paradigm's unique identifier.
+	 * @return A future of the {@link Paradigm}, which is null if it does not exist.
+	 * @see Archetype#get(String)
+	 */
+	public CompletableFuture<Paradigm> get(final String paradigmId)
+	{
+		return supply(() -> {
+			final Paradigm paradigm = archetype.get(paradigmId);
+			if (paradigm != null) {
+				paradigm.getVersion();
+			}
+
+			return paradigm;
+		});
+	}
+
+	/**
+	 * Returns many {@link Paradigm}'s at once.
+	 *
+	 * @param paradigmIds The Paradigms' unique identifiers.
+	 * @return A future of the map of identifiers to their Paradigm.
+	 * @see Archetype#getAll(Collection)
+	 */
+	public CompletableFuture<Map<String, Paradigm>> getAll(final Collection<String> paradigmIds)
+	{
+		return supply(() -> archetype.getAll(paradigmIds));
+	}
+
+	/**
+	 * Returns the values of only the keys given, for many {@link Paradigm}'s at once.
+	 *
+	 * @param paradigmIds The Paradigms' unique identifiers.
+	 * @param keys        The keys to return, case-insensitive.
+	 * @return A future of the map of identifiers to a map of the keys and their values.
+	 * @see Archetype#getAll(Collection, Collection)
+	 */
+	public CompletableFuture<Map<String, Map<String, DataTypeIF>>> getAll(final Collection<String> paradigmIds,
+																		  final Collection<String> keys)
+	{
+		return supply(() -> archetype.getAll(paradigmIds, keys));
+	}
+
+	/**
+	 * Creates a new {@link Paradigm}.
+	 *
+	 * @return A future of the created {@link Paradigm}.
+	 * @see Archetype#create()
+	 */
+	public CompletableFuture<Paradigm> create()
+	{
+		return supply(archetype::create);
+	}
+
+	/**
+	 * Sets the values of the {@link Paradigm}, with the {@link Archetype}'s durability.
+	 *
+	 * @param paradigmId The Paradigm's unique identifier.
+	 * @param values     The keys and their values to set.
+	 * @return A future of the updated {@link Paradigm}, which completes once the write is as durable as configured.
+	 * @see Paradigm#setValues(Map)
+	 */
+	public CompletableFuture<Paradigm> setValues(final String paradigmId, final Map<String, DataTypeIF> values)
+	{
+		return supply(() -> {
+			final Paradigm paradigm = archetype.get(paradigmId);
+			if (paradigm == null) {
+				throw new ParagonFSException("The paradigm does not exist.");
+			}
+
+			paradigm.setValues(values);
+
+			return paradigm;
+		});
+	}
+
+	/**
+	 * Sets a single value of the {@link Paradigm}, with the {@link Archetype}'s durability.
+	 *
+	 * @param paradigmId The Paradigm's unique identifier.
+	 * @param key        The key, case-insensitive.
+	 * @param value      The value.
+	 * @return A future of the updated {@link Paradigm}, which completes once the write is as durable as configured.
+	 * @see Paradigm#setValue(String, DataTypeIF)
+	 */
+	public CompletableFuture<Paradigm> setValue(final String paradigmId, final String key, final DataTypeIF value)
+	{
+		return supply(() -> {
+			final Paradigm paradigm = archetype.get(paradigmId);
+			if (paradigm == null) {
+				throw new ParagonFSException("The paradigm does not exist.");
+			}
+
+			paradigm.setValue(key, value);
+
+			return paradigm;
+		});
+	}
+
+	/**
+	 * Deletes the {@link Paradigm}.
+	 *
+	 * @param paradigmId The Paradigm's unique identifier.
+	 * @return A future of whether the Paradigm was deleted, false if it did not exist.
+	 * @see Archetype#delete(String)
+	 */
+	public CompletableFuture<Boolean> delete(final String paradigmId)
+	{
+		return supply(() -> archetype.delete(paradigmId));
+	}
+
+	/**
+	 * Runs the operation on the asynchronous executor.
+	 *
+	 * @param operation The blocking operation.
+	 * @param <T>       The type of the operation's result.
+	 * @return A future of the operation's result.
+	 */
+	private <T> CompletableFuture<T> supply(final Callable<T> operation)
+	{
+		return CompletableFuture.supplyAsync(() -> {
+			try
+			{
+				return operation.call();
+			}
+			catch (final RuntimeException e)
+			{
+				throw e;
+			}
+			catch (final Exception e)
+			{
+				throw new CompletionException(e);
+			}
+		}, archetype.getParagonFS().getAsyncExecutor());
+	}
+}
@@ -0,0 +1,279 @@
+package org.paragon.paragonfs.archetype;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.paragon.paragonfs.data.type.BlobType;
+import org.paragon.paragonfs.data.type.DataTypeIF;
+import org.paragon.paragonfs.data.type.DateType;
+import org.paragon.paragonfs.data.type.DoubleType;
+import org.paragon.paragonfs.data.type.IntegerType;
+import org.paragon.paragonfs.data.type.StringType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The schema of an {@link Archetype}, declaring the keys its Paradigms may have, the {@link DataTypeIF} of each and
+ * whether it may be null. An Archetype with a schema stores its Paradigms in a fixed binary layout, rather than as
+ * self-describing JSON, and values are validated when they are set.<br />
+ * <br />
+ * A schema is built up with {@link #add(String, Class, boolean)} and then set on the Archetype with
+ * {@link Archetype#setSchema(Schema)}, which takes a copy of it.
+ */
+public class Schema
+{
+	/**
+	 * The name of the file, within the archetype directory, the schema is written to.
+	 */
+	public static final String FILE_NAME = ".schema";
+
+	private static final String NAME = "name";
+	private static final String TYPE = "type";
+	private static final String NULLABLE = "nullable";
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	/**
+	 * The columns of the schema, keyed by their lowercase name, in the order they were added.
+	 */
+	private final Map<String, Column> columns = new LinkedHashMap<>();
+
+	/**
+	 * Initializes an empty {@link Schema}.
+	 */
+	public Schema()
+	{
+	}
+
+	/**
+	 * Initializes a {@link Schema} with the same columns as another.
+	 *
+	 * @param schema The {@link Schema} to copy.
+	 */
+	public Schema(final Schema schema)
+	{
+		columns.putAll(schema.columns);
+	}
+
+	/**
+	 * Adds a column to the schema.
+	 *
+	 * @param name     The key, case-insensitive.
+	 * @param type     The {@link DataTypeIF} of the key's values, which must be one of the built in types.
+	 * @param nullable Whether the key may be null, or left unset.
+	 * @return This {@link Schema}.
+	 */
+	public Schema add(final String name, final Class<? extends DataTypeIF> type, final boolean nullable)
+	{
+		if (StringUtils.isBlank(name)) {
+			throw new IllegalArgumentException("The column name must not be empty.");
+		}
+		else if (type == null) {
+			throw new IllegalArgumentException("The column type must not be null.");
+		}
+		else if (Column.getWidth(type) == 0) {
+			throw new IllegalArgumentException("The column type " + type.getName() + " is not supported.");
+		}
+		else if (columns.containsKey(name.toLowerCase())) {
+			throw new IllegalArgumentException("The column " + name + " already exists.");
+		}
+
+		columns.put(name.toLowerCase(), new Column(name.toLowerCase(), type, nullable));
+
+		return this;
+	}
+
+	/**
+	 * Returns the columns of the schema.
+	 *
+	 * @return An unmodifiable list of the columns, in the order they were added.
+	 */
+	public List<Column> getColumns()
+	{
+		return Collections.unmodifiableList(new ArrayList<>(columns.values()));
+	}
+
+	/**
+	 * Returns the column of the key.
+	 *
+	 * @param name The key, case-insensitive.
+	 * @return The {@link Column}, or null if the schema does not have the key.
+	 */
+	public Column getColumn(final String name)
+	{
+		return columns.get(name.toLowerCase());
+	}
+
+	/**
+	 * Validates the values against the schema.
+	 *
+	 * @param values The keys and their values which are about to be set.
+	 * @throws IllegalArgumentException Thrown if a key is not in the schema, a value is of the wrong type or a key
+	 * which is not nullable is set to null.
+	 */
+	public void validate(final Map<String, DataTypeIF> values)
+	{
+		for (final Map.Entry<String, DataTypeIF> entry : values.entrySet())
+		{
+			final Column column = getColumn(entry.getKey());
+			if (column == null) {
+				throw new IllegalArgumentException("The key " + entry.getKey() + " is not in the schema.");
+			}
+
+			final DataTypeIF value = entry.getValue();
+			if (value == null || value.getValue() == null)
+			{
+				if (!column.isNullable()) {
+					throw new IllegalArgumentException("The key " + entry.getKey() + " must not be null.");
+				}
+			}
+			else if (value.getClass() != column.getType()) {
+				throw new IllegalArgumentException(
+					"The key " + entry.getKey() + " must be a " + column.getType().getSimpleName() + "."
+				);
+			}
+		}
+	}
+
+	/**
+	 * Writes the schema to the file, through a temporary file which is moved over it.
+	 *
+	 * @param file The file to write to.
+	 * @throws IOException Thrown if the schema could not be written.
+	 */
+	void write(final File file) throws IOException
+	{
+		final List<Map<String, Object>> object = new ArrayList<>();
+		for (final Column column : columns.values())
+		{
+			final Map<String, Object> stored = new LinkedHashMap<>();
+			stored.put(NAME, column.getName());
+			stored.put(TYPE, column.getType().getName());
+			stored.put(NULLABLE, column.isNullable());
+			object.add(stored);
+		}
+
+		final File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+		OBJECT_MAPPER.writeValue(temp, object);
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Reads a schema from the file.
+	 *
+	 * @param file The file to read from.
+	 * @return The {@link Schema}, or null if the file does not exist.
+	 * @throws IOException Thrown if the schema could not be read.
+	 */
+	@SuppressWarnings("unchecked")
+	static Schema read(final File file) throws IOException
+	{
+		if (!file.exists()) {
+			return null;
+		}
+
+		final List<Map<String, Object>> object = OBJECT_MAPPER.readValue(
+			file, new TypeReference<List<Map<String, Object>>>()
+			{
+			}
+		);
+
+		final Schema schema = new Schema();
+		for (final Map<String, Object> stored : object)
+		{
+			try
+			{
+				schema.add(
+					stored.get(NAME).toString(),
+					(Class<? extends DataTypeIF>) Class.forName(stored.get(TYPE).toString()),
+					Boolean.TRUE.equals(stored.get(NULLABLE))
+				);
+			}
+			catch (final ClassNotFoundException e)
+			{
+				throw new IOException("The schema refers to a type which does not exist.", e);
+			}
+		}
+
+		return schema;
+	}
+
+	/**
+	 * A single key of a {@link Schema}.
+	 */
+	public static class Column
+	{
+		private final String name;
+
+		private final Class<? extends DataTypeIF> type;
+
+		private final boolean nullable;
+
+		private Column(final String name, final Class<? extends DataTypeIF> type, final boolean nullable)
+		{
+			this.name = name;
+			this.type = type;
+			this.nullable = nullable;
+		}
+
+		/**
+		 * Returns the number of bytes the column takes within the fixed part of a row.
+		 *
+		 * @param type The {@link DataTypeIF} of the column.
+		 * @return The width in bytes, or 0 if the type can't be stored in a fixed layout.
+		 */
+		static int getWidth(final Class<? extends DataTypeIF> type)
+		{
+			if (type == IntegerType.class) {
+				return 4;
+			}
+			else if (type == DoubleType.class || type == DateType.class) {
+				return 8;
+			}
+			else if (type == StringType.class || type == BlobType.class) {
+				// The offset and length of the string, or the blob's id, within the variable part of the row.
+				return 8;
+			}
+
+			return 0;
+		}
+
+		/**
+		 * Returns the key, which is lowercase.
+		 *
+		 * @return The key.
+		 */
+		public String getName()
+		{
+			return name;
+		}
+
+		public Class<? extends DataTypeIF> getType()
+		{
+			return type;
+		}
+
+		public boolean isNullable()
+		{
+			return nullable;
+		}
+
+		/**
+		 * Returns the number of bytes this column takes within the fixed part of a row.
+		 *
+		 * @return The width in bytes.
+		 */
+		public int getWidth()
+		{
+			return getWidth(type);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package org.paragon.paragonfs.backup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The manifest of a snapshot or backup, recording when it was taken and the version of every {@link
+ * org.paragon.paragonfs.paradigm.Paradigm} in it, by Archetype. An incremental backup compares these versions against
+ * the manifest of the previous backup to find the Paradigms which have changed.<br />
+ * <br />
+ * The manifest is written to the <code>.manifest</code> file of the snapshot.
+ */
+public class SnapshotManifest
+{
+	/**
+	 * The name of the file, within the snapshot, the manifest is written to.
+	 */
+	public static final String FILE_NAME = ".manifest";
+
+	private static final String TIMESTAMP = "timestamp";
+	private static final String BASE = "base";
+	private static final String PARADIGMS = "paradigms";
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	/**
+	 * The time the writers were quiesced for the snapshot, in milliseconds.
+	 */
+	private final long timestamp;
+
+	/**
+	 * The timestamp of the manifest an incremental backup was taken against, or null for a full snapshot.
+	 */
+	private final Long base;
+
+	/**
+	 * The version of every Paradigm, by lowercase Archetype name and then Paradigm id, as named on disk.
+	 */
+	private final Map<String, Map<String, Integer>> versions;
+
+	/**
+	 * Initializes the {@link SnapshotManifest}.
+	 *
+	 * @param timestamp The time the writers were quiesced for the snapshot, in milliseconds.
+	 * @param base      The timestamp of the manifest an incremental backup was taken against, or null.
+	 * @param versions  The version of every Paradigm, by Archetype name and then Paradigm id.
+	 */
+	SnapshotManifest(final long timestamp, final Long base, final Map<String, Map<String, Integer>> versions)
+	{
+		this.timestamp = timestamp;
+		this.base = base;
+		this.versions = versions;
+	}
+
+	public long getTimestamp()
+	{
+		return timestamp;
+	}
+
+	/**
+	 * Returns the timestamp of the manifest this backup only holds the changes since.
+	 *
+	 * @return The timestamp, or null if this is a full snapshot.
+	 */
+	public Long getBase()
+	{
+		return base;
+	}
+
+	/**
+	 * Returns the names of the Archetypes in the snapshot.
+	 *
+	 * @return The lowercase Archetype names.
+	 */
+	public Set<String> getArchetypes()
+	{
+		return Collections.unmodifiableSet(versions.keySet());
+	}
+
+	/**
+	 * Returns the version of every Paradigm of an Archetype in the snapshot.
+	 *
+	 * @param archetype The name of the Archetype.
+	 * @return The versions by Paradigm id, which is empty if the Archetype is not in the snapshot.
+	 */
+	public Map<String, Integer> getVersions(final String archetype)
+	{
+		final Map<String, Integer> archetypeVersions = versions.get(archetype.toLowerCase());
+
+		return archetypeVersions == null ? Collections.<String, Integer>emptyMap()
+			: Collections.unmodifiableMap(archetypeVersions);
+	}
+
+	/**
+	 * Returns the version of a Paradigm in the snapshot.
+	 *
+	 * @param archetype  The name of the Archetype.
+	 * @param paradigmId The Paradigm's unique identifier.
+	 * @return The version, or null if the Paradigm is not in the snapshot.
+	 */
+	public Integer getVersion(final String archetype, final String paradigmId)
+	{
+		return getVersions(archetype).get(paradigmId);
+	}
+
+	/**
+	 * Writes the manifest to the snapshot, replacing it atomically.
+	 *
+	 * @param snapshotDir The directory of the snapshot.
+	 * @throws IOException Thrown if the manifest could not be written.
+	 */
+	public void write(final File snapshotDir) throws IOException
+	{
+		final Map<String, Object> object = new LinkedHashMap<>();
+		object.put(TIMESTAMP, timestamp);
+		object.put(BASE, base);
+		object.put(PARADIGMS, versions);
+
+		final File file = new File(snapshotDir, FILE_NAME);
+		final File temp = new File(snapshotDir, FILE_NAME + ".tmp");
+		OBJECT_MAPPER.writeValue(temp, object);
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Reads the manifest of a snapshot.
+	 *
+	 * @param snapshotDir The directory of the snapshot.
+	 * @return The {@link SnapshotManifest}.
+	 * @throws IOException Thrown if the manifest is missing or could not be read.
+	 */
+	public static SnapshotManifest read(final File snapshotDir) throws IOException
+	{
+		final Map<String, Object> object = OBJECT_MAPPER.readValue(
+			new File(snapshotDir, FILE_NAME), new TypeReference<Map<String, Object>>()
+			{
+			}
+		);
+
+		final Map<String, Map<String, Integer>> versions = new TreeMap<>();
+		@SuppressWarnings("unchecked")
+		final Map<String, Map<String, Number>> paradigms = (Map<String, Map<String, Number>>) object.get(PARADIGMS);
+		if (paradigms != null)
+		{
+			for (final Map.Entry<String, Map<String, Number>> archetype : paradigms.entrySet())
+			{
+				final Map<String, Integer> archetypeVersions = new TreeMap<>();
+				for (final Map.Entry<String, Number> paradigm : archetype.getValue().entrySet())
+				{
+					archetypeVersions.put(paradigm.getKey(), paradigm.getValue().intValue());
+				}
+				versions.put(archetype.getKey(), archetypeVersions);
+			}
+		}
+
+		final Number base = (Number) object.get(BASE);
+
+		return new SnapshotManifest(
+			((Number) object.get(TIMESTAMP)).longValue(), base == null ? null : base.longValue(), versions
+		);
+	}
+}
@@ -0,0 +1,595 @@
+package org.paragon.paragonfs.backup;
+
+import org.apache.commons.io.FileUtils;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.blob.BlobStore;
+import org.paragon.paragonfs.columnar.ColumnarStore;
+import org.paragon.paragonfs.feed.ChangeFeed;
+import org.paragon.paragonfs.io.IoClass;
+import org.paragon.paragonfs.io.IoScheduler;
+import org.paragon.paragonfs.io.Volume;
+import org.paragon.paragonfs.io.WriteGate;
+import org.paragon.paragonfs.paradigm.FrozenSegment;
+import org.paragon.paragonfs.paradigm.TombstoneLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Takes consistent snapshots and incremental backups of a {@link ParagonFS} while it is in use.<br />
+ * <br />
+ * A snapshot quiesces the writers through the {@link WriteGate}, flushes anything written with write-back, and then
+ * hard links every Paradigm file into the snapshot, which takes moments however large the Paradigms are. The
+ * Archetypes' own files, which are appended to in place, are copied instead. Once a Paradigm file has been linked it
+ * is always replaced rather than written in place, see {@link #isLinked(File)}, so the snapshot keeps the version it
+ * was taken with. Files on another filesystem than the snapshot, such as those of another data directory, can't be
+ * linked and are copied while the writers are quiesced.<br />
+ * <br />
+ * A snapshot can be opened as a ParagonFS of its own, with the Paradigms of each other data directory under
+ * <code>.volume-&lt;n&gt;</code> and those of the cold tier under <code>.cold</code>.
+ */
+public class Snapshotter
+{
+	/**
+	 * The name of the file, within the root directory, marking that Paradigm files may be shared with a snapshot.
+	 */
+	public static final String LINKED_FILE_NAME = ".linked";
+
+	/**
+	 * The name of the directory, within the root directory, incremental backups are staged in.
+	 */
+	public static final String STAGING_DIR_NAME = ".snapshots";
+
+	/**
+	 * The prefix of the directories, within a snapshot, holding the Paradigms of the other data directories.
+	 */
+	public static final String VOLUME_DIR_PREFIX = ".volume-";
+
+	/**
+	 * The name of the directory, within a snapshot, holding the Paradigms of the cold tier.
+	 */
+	public static final String COLD_DIR_NAME = ".cold";
+
+	/**
+	 * How far a file's modification time may lag behind the write, as some filesystems only record whole seconds.
+	 */
+	private static final long MTIME_SLACK_MILLIS = 2000;
+
+	private static final String PARADIGM_SUFFIX = ".json";
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+	private final ParagonFS paragonFS;
+
+	/**
+	 * Whether a snapshot has ever been taken, so a Paradigm file may be shared with one.
+	 */
+	private volatile boolean linked;
+
+	/**
+	 * Ensures only one snapshot is taken at a time.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Initializes the {@link Snapshotter}.
+	 *
+	 * @param paragonFS The {@link ParagonFS} to snapshot.
+	 */
+	public Snapshotter(final ParagonFS paragonFS)
+	{
+		this.paragonFS = paragonFS;
+		this.linked = new File(paragonFS.getDir(), LINKED_FILE_NAME).exists();
+	}
+
+	/**
+	 * Takes a consistent snapshot of every Archetype into an empty directory, which must be on the same filesystem as
+	 * the data directories for the Paradigms to be linked rather than copied.
+	 *
+	 * @param targetDir The directory to take the snapshot into, which is created if it does not exist.
+	 * @return The {@link SnapshotManifest} of the snapshot, which is also written to it.
+	 * @throws IOException Thrown if the snapshot could not be taken.
+	 */
+	public SnapshotManifest snapshot(final File targetDir) throws IOException
+	{
+		lock.lock();
+
+		try
+		{
+			prepare(targetDir);
+			final SnapshotManifest manifest = take(targetDir, null);
+			manifest.write(targetDir);
+
+			return manifest;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Takes an incremental backup into an empty directory, which can be on any filesystem. A snapshot is staged
+	 * within the root directory and then copied to the target, skipping every Paradigm whose version is the same as in
+	 * the previous backup. The backup's manifest still lists every Paradigm, so the Paradigms missing from it were
+	 * deleted since the previous backup, and the backup is restored by laying it over the previous one.
+	 *
+	 * @param targetDir   The directory to back up into, which is created if it does not exist.
+	 * @param previousDir The directory of the previous snapshot or backup, or null to copy every Paradigm.
+	 * @return The {@link SnapshotManifest} of the backup, which is also written to it.
+	 * @throws IOException Thrown if the backup could not be taken.
+	 */
+	public SnapshotManifest backup(final File targetDir, final File previousDir) throws IOException
+	{
+		final SnapshotManifest previous = previousDir == null ? null : SnapshotManifest.read(previousDir);
+		lock.lock();
+
+		try
+		{
+			prepare(targetDir);
+
+			final File stagingRoot = new File(paragonFS.getDir(), STAGING_DIR_NAME);
+			Files.createDirectories(stagingRoot.toPath());
+			final File staging = Files.createTempDirectory(stagingRoot.toPath(), "backup-").toFile();
+
+			try
+			{
+				final SnapshotManifest staged = take(staging, previous);
+
+				// The change feed and the other root files are small next to the Paradigms, so they are always copied.
+				final File changes = new File(staging, ChangeFeed.DIR_NAME);
+				if (changes.isDirectory()) {
+					FileUtils.copyDirectory(changes, new File(targetDir, ChangeFeed.DIR_NAME));
+				}
+
+				for (final Archetype archetype : paragonFS.list())
+				{
+					final String name = archetype.getDir().getName();
+					final List<File> from = getArchetypeDirs(staging, name);
+					final List<File> to = getArchetypeDirs(targetDir, name);
+					for (int index = 0; index < from.size(); index++)
+					{
+						// The last directory is the cold tier's, which is not one of the volumes.
+						final Volume volume = index < paragonFS.getVolumes().size() ? paragonFS.getVolumes().get(index)
+							: null;
+						copyChanged(from.get(index), to.get(index), volume, staged.getVersions(name), previous, name);
+					}
+				}
+
+				writeLayout(targetDir);
+				final SnapshotManifest manifest = new SnapshotManifest(
+					staged.getTimestamp(), previous == null ? null : previous.getTimestamp(), getVersions(staged)
+				);
+				manifest.write(targetDir);
+
+				return manifest;
+			}
+			finally
+			{
+				FileUtils.deleteDirectory(staging);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Determines whether a Paradigm file may be shared with a snapshot, in which case it must be replaced rather than
+	 * written in place. Until the first snapshot is taken this never has to look at the file.
+	 *
+	 * @param file The Paradigm file about to be written.
+	 * @return Returns true if the file has other links, or if that can't be told.
+	 */
+	public boolean isLinked(final File file)
+	{
+		if (!linked) {
+			return false;
+		}
+
+		try
+		{
+			return ((Number) Files.getAttribute(file.toPath(), "unix:nlink")).intValue() > 1;
+		}
+		catch (final UnsupportedOperationException | IllegalArgumentException | IOException e)
+		{
+			return file.exists();
+		}
+	}
+
+	/**
+	 * Links or copies the files of every Archetype, and the change feed, into the target while the writers are
+	 * quiesced, then reads the version of every Paradigm in it.
+	 *
+	 * @param targetDir The empty directory to take the snapshot into.
+	 * @param previous  The manifest of the previous backup, whose versions are reused for the files which haven't been
+	 *                  written since, or null.
+	 * @return The {@link SnapshotManifest} of the snapshot.
+	 * @throws IOException Thrown if the snapshot could not be taken.
+	 */
+	private SnapshotManifest take(final File targetDir, final SnapshotManifest previous) throws IOException
+	{
+		// Writers must see the marker before any file is linked, which the gate ensures.
+		if (!linked)
+		{
+			FileUtils.touch(new File(paragonFS.getDir(), LINKED_FILE_NAME));
+			linked = true;
+		}
+
+		// Flush the write-back Paradigms before quiescing as well, so there is little left to flush while quiesced.
+		paragonFS.getWriteBackFlusher().flush();
+
+		final WriteGate writeGate = paragonFS.getWriteGate();
+		final long timestamp;
+		writeGate.quiesce();
+
+		try
+		{
+			paragonFS.getWriteBackFlusher().flush();
+			timestamp = System.currentTimeMillis();
+
+			final File changes = new File(paragonFS.getDir(), ChangeFeed.DIR_NAME);
+			final File[] segments = changes.listFiles();
+			if (segments != null)
+			{
+				// Every segment but the last is complete, so only the last is appended to.
+				Arrays.sort(segments);
+				final File changesTarget = new File(targetDir, ChangeFeed.DIR_NAME);
+				Files.createDirectories(changesTarget.toPath());
+				for (int index = 0; index < segments.length; index++)
+				{
+					final File target = new File(changesTarget, segments[index].getName());
+					if (index == segments.length - 1) {
+						Files.copy(segments[index].toPath(), target.toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+					}
+					else {
+						link(segments[index], target);
+					}
+				}
+			}
+
+			for (final Archetype archetype : paragonFS.list())
+			{
+				final List<File> targets = getArchetypeDirs(targetDir, archetype.getDir().getName());
+				final List<File> sources = getArchetypeDirs(archetype);
+				for (int index = 0; index < sources.size(); index++)
+				{
+					linkTree(sources.get(index), targets.get(index));
+				}
+			}
+		}
+		finally
+		{
+			writeGate.resume();
+		}
+
+		writeLayout(targetDir);
+
+		// The snapshot's files won't change from here on, so the versions are read from them with the writers running.
+		final Map<String, Map<String, Integer>> versions = new TreeMap<>();
+		for (final Archetype archetype : paragonFS.list())
+		{
+			final String name = archetype.getDir().getName().toLowerCase();
+			final List<File> dirs = getArchetypeDirs(targetDir, archetype.getDir().getName());
+			final TombstoneLog tombstones = new TombstoneLog(new File(dirs.get(0), TombstoneLog.FILE_NAME));
+			final Map<String, Integer> archetypeVersions = new TreeMap<>();
+			for (final File dir : dirs)
+			{
+				readVersions(archetype, dir, tombstones, previous, archetypeVersions);
+			}
+			versions.put(name, archetypeVersions);
+		}
+
+		return new SnapshotManifest(timestamp, null, versions);
+	}
+
+	/**
+	 * Ensures the target of a snapshot is an empty directory outside of the data directories.
+	 *
+	 * @param targetDir The directory to take the snapshot into.
+	 * @throws IOException Thrown if the directory could not be created.
+	 */
+	private void prepare(final File targetDir) throws IOException
+	{
+		if (targetDir == null) {
+			throw new IllegalArgumentException("The snapshot directory must not be null.");
+		}
+
+		final String target = targetDir.getCanonicalPath() + File.separator;
+		final List<File> dataDirs = new ArrayList<>();
+		for (final Volume volume : paragonFS.getVolumes())
+		{
+			dataDirs.add(volume.getDir());
+		}
+		if (paragonFS.getColdDir() != null) {
+			dataDirs.add(paragonFS.getColdDir());
+		}
+
+		for (final File dataDir : dataDirs)
+		{
+			if (target.startsWith(dataDir.getCanonicalPath() + File.separator)) {
+				throw new IllegalArgumentException("The snapshot directory must not be within a data directory.");
+			}
+		}
+
+		final String[] existing = targetDir.list();
+		if (existing != null && existing.length > 0) {
+			throw new IllegalArgumentException("The snapshot directory must be empty.");
+		}
+
+		Files.createDirectories(targetDir.toPath());
+	}
+
+	/**
+	 * Writes the files which let a snapshot be opened as a ParagonFS, pointing it at its own copies of the other data
+	 * directories and the cold tier.
+	 *
+	 * @param targetDir The directory of the snapshot.
+	 * @throws IOException Thrown if the files could not be written.
+	 */
+	private void writeLayout(final File targetDir) throws IOException
+	{
+		final List<String> paths = new ArrayList<>();
+		for (final Volume volume : paragonFS.getVolumes())
+		{
+			if (volume.getIndex() == 0) {
+				continue;
+			}
+
+			final File volumeDir = new File(targetDir, VOLUME_DIR_PREFIX + volume.getIndex());
+			Files.createDirectories(volumeDir.toPath());
+			paths.add(volumeDir.getAbsolutePath());
+		}
+
+		if (!paths.isEmpty()) {
+			FileUtils.writeLines(new File(targetDir, ParagonFS.VOLUMES_FILE), StandardCharsets.UTF_8.name(), paths);
+		}
+
+		if (paragonFS.getColdDir() != null)
+		{
+			final File coldDir = new File(targetDir, COLD_DIR_NAME);
+			Files.createDirectories(coldDir.toPath());
+			FileUtils.writeStringToFile(
+				new File(targetDir, ParagonFS.COLD_TIER_FILE), coldDir.getAbsolutePath(), StandardCharsets.UTF_8
+			);
+		}
+	}
+
+	/**
+	 * Returns the directories an Archetype's files are in, on each volume and then in the cold tier.
+	 *
+	 * @param archetype The {@link Archetype}.
+	 * @return The directories, in the same order as {@link #getArchetypeDirs(File, String)}.
+	 */
+	private List<File> getArchetypeDirs(final Archetype archetype)
+	{
+		final List<File> dirs = new ArrayList<>();
+		for (final Volume volume : paragonFS.getVolumes())
+		{
+			dirs.add(archetype.getDir(volume));
+		}
+
+		final File coldDir = paragonFS.getColdDir();
+		dirs.add(coldDir == null ? null : new File(coldDir, archetype.getDir().getName()));
+
+		return dirs;
+	}
+
+	/**
+	 * Returns the directories an Archetype's files are in within a snapshot, for each volume and then the cold tier.
+	 *
+	 * @param snapshotDir The directory of the snapshot.
+	 * @param name        The name of the Archetype.
+	 * @return The directories.
+	 */
+	private List<File> getArchetypeDirs(final File snapshotDir, final String name)
+	{
+		final List<File> dirs = new ArrayList<>();
+		for (final Volume volume : paragonFS.getVolumes())
+		{
+			dirs.add(volume.getIndex() == 0 ? new File(snapshotDir, name)
+				: new File(new File(snapshotDir, VOLUME_DIR_PREFIX + volume.getIndex()), name));
+		}
+		dirs.add(new File(new File(snapshotDir, COLD_DIR_NAME), name));
+
+		return dirs;
+	}
+
+	/**
+	 * Links the Paradigm files of a directory into the snapshot and copies the rest, skipping temporary files and the
+	 * columnar segments, which are rebuilt on demand.
+	 *
+	 * @param source The directory to snapshot, which may be null or missing.
+	 * @param target The directory within the snapshot.
+	 * @throws IOException Thrown if a file could not be linked or copied.
+	 */
+	private static void linkTree(final File source, final File target) throws IOException
+	{
+		final File[] files = source == null ? null : source.listFiles();
+		if (files == null) {
+			return;
+		}
+
+		Files.createDirectories(target.toPath());
+		for (final File file : files)
+		{
+			final String name = file.getName();
+			if (name.endsWith(TEMP_FILE_SUFFIX) || name.equals(ColumnarStore.DIR_NAME)) {
+				continue;
+			}
+
+			final File targetFile = new File(target, name);
+			if (file.isDirectory()) {
+				linkTree(file, targetFile);
+			}
+			else if (isParadigmFile(file) || name.equals(FrozenSegment.FILE_NAME) || name.endsWith(BlobStore.SUFFIX)) {
+				// A frozen segment is only ever replaced, and a blob never changes once written, so both are safe to link.
+				link(file, targetFile);
+			}
+			else {
+				Files.copy(file.toPath(), targetFile.toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+			}
+		}
+	}
+
+	/**
+	 * Copies the files of a staged snapshot to a backup, skipping the Paradigms whose version is the same as in the
+	 * previous backup. The copies are background I/O, throttled by the {@link IoScheduler} so the callers of the
+	 * volume they are read from are served first.
+	 *
+	 * @param source    The directory within the staged snapshot.
+	 * @param target    The directory within the backup.
+	 * @param volume    The {@link Volume} the directory was staged from, or null for the cold tier.
+	 * @param versions  The versions of the Archetype's Paradigms in the staged snapshot.
+	 * @param previous  The manifest of the previous backup, or null.
+	 * @param archetype The name of the Archetype.
+	 * @throws IOException Thrown if a file could not be copied.
+	 */
+	private void copyChanged(final File source, final File target, final Volume volume,
+							 final Map<String, Integer> versions, final SnapshotManifest previous,
+							 final String archetype) throws IOException
+	{
+		final File[] files = source.listFiles();
+		if (files == null) {
+			return;
+		}
+
+		Files.createDirectories(target.toPath());
+		for (final File file : files)
+		{
+			final File targetFile = new File(target, file.getName());
+			if (file.isDirectory())
+			{
+				copyChanged(file, targetFile, volume, versions, previous, archetype);
+				continue;
+			}
+			else if (isParadigmFile(file))
+			{
+				// Deleted Paradigms are left out, along with those which haven't changed.
+				final String paradigmId = getParadigmId(file);
+				final Integer version = versions.get(paradigmId);
+				if (version == null || previous != null && version.equals(previous.getVersion(archetype, paradigmId))) {
+					continue;
+				}
+			}
+
+			final IoScheduler scheduler = paragonFS.getIoScheduler();
+			scheduler.acquire(IoClass.MAINTENANCE, volume, file.length());
+
+			try
+			{
+				Files.copy(file.toPath(), targetFile.toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+			}
+			finally
+			{
+				scheduler.release(IoClass.MAINTENANCE, volume);
+			}
+		}
+	}
+
+	/**
+	 * Reads the version of every live Paradigm under a directory of the snapshot. A file which hasn't been written
+	 * since the previous backup keeps the version it had then, without being read.
+	 *
+	 * @param archetype  The {@link Archetype} the Paradigms are in, whose codec reads them.
+	 * @param dir        The directory within the snapshot.
+	 * @param tombstones The snapshot's tombstones of the Archetype.
+	 * @param previous   The manifest of the previous backup, or null.
+	 * @param versions   The map to add the versions to.
+	 * @throws IOException Thrown if a Paradigm could not be read.
+	 */
+	private static void readVersions(final Archetype archetype, final File dir, final TombstoneLog tombstones,
+									 final SnapshotManifest previous, final Map<String, Integer> versions)
+		throws IOException
+	{
+		final File[] files = dir.listFiles();
+		if (files == null) {
+			return;
+		}
+
+		for (final File file : files)
+		{
+			if (file.isDirectory())
+			{
+				if (!file.getName().startsWith(".")) {
+					readVersions(archetype, file, tombstones, previous, versions);
+				}
+				continue;
+			}
+			else if (!isParadigmFile(file)) {
+				continue;
+			}
+
+			final String paradigmId = getParadigmId(file);
+			if (tombstones.contains(paradigmId)) {
+				continue;
+			}
+
+			final Integer previousVersion = previous == null ? null
+				: previous.getVersion(archetype.getDir().getName(), paradigmId);
+			if (previousVersion != null && file.lastModified() < previous.getTimestamp() - MTIME_SLACK_MILLIS)
+			{
+				versions.put(paradigmId, previousVersion);
+				continue;
+			}
+
+			// A Paradigm which has been created but never written has an empty file.
+			final byte[] bytes = Files.readAllBytes(file.toPath());
+			versions.put(paradigmId, bytes.length == 0 ? 0 : archetype.getCodec().decode(bytes).getVersion());
+		}
+	}
+
+	/**
+	 * Hard links a file into the snapshot, or copies it if it is on another filesystem.
+	 *
+	 * @param source The file to link.
+	 * @param target The file within the snapshot.
+	 * @throws IOException Thrown if the file could neither be linked nor copied.
+	 */
+	private static void link(final File source, final File target) throws IOException
+	{
+		try
+		{
+			Files.createLink(target.toPath(), source.toPath());
+		}
+		catch (final UnsupportedOperationException | IOException e)
+		{
+			Files.copy(source.toPath(), target.toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+		}
+	}
+
+	private static Map<String, Map<String, Integer>> getVersions(final SnapshotManifest manifest)
+	{
+		final Map<String, Map<String, Integer>> versions = new TreeMap<>();
+		for (final String archetype : manifest.getArchetypes())
+		{
+			versions.put(archetype, new TreeMap<>(manifest.getVersions(archetype)));
+		}
+
+		return versions;
+	}
+
+	private static boolean isParadigmFile(final File file)
+	{
+		final String name = file.getName();
+
+		return !name.startsWith(".") && name.endsWith(PARADIGM_SUFFIX);
+	}
+
+	private static String getParadigmId(final File file)
+	{
+		final String name = file.getName();
+
+		return name.substring(0, name.length() - PARADIGM_SUFFIX.length());
+	}
+}
@@ -0,0 +1,378 @@
+package org.paragon.paragonfs.blob;
+
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.data.type.BlobType;
+import org.paragon.paragonfs.data.type.DataTypeIF;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.io.AtomicFileWriter;
+import org.paragon.paragonfs.io.IoScheduler;
+import org.paragon.paragonfs.io.Volume;
+import org.paragon.paragonfs.paradigm.Paradigm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stores the {@link BlobType} values of an {@link Archetype} out-of-line, each in a file of its own within the
+ * <code>.blobs</code> directory of the archetype, fanned out by the first characters of its id.<br />
+ * <br />
+ * A blob is streamed to disk a chunk at a time, synced and then moved into place, so it is never held in memory and
+ * never seen partly written. Once written a blob never changes, and it is read back as an {@link InputStream}, as a
+ * {@link FileChannel} or sent straight to another channel with {@link FileChannel#transferTo(long, long,
+ * WritableByteChannel)}, which lets the kernel copy it to a socket or file without it passing through the heap.<br />
+ * <br />
+ * A blob is not removed when the Paradigm referencing it is updated or deleted, as a {@link
+ * org.paragon.paragonfs.paradigm.ReadView} or snapshot may still reference it. The blobs no Paradigm references any
+ * more are removed by {@link #collect(long)}.
+ */
+public class BlobStore
+{
+	/**
+	 * The name of the directory, within the archetype directory, the blobs are written to.
+	 */
+	public static final String DIR_NAME = ".blobs";
+
+	/**
+	 * The suffix of the file of each blob.
+	 */
+	public static final String SUFFIX = ".blob";
+
+	/**
+	 * The number of bytes streamed to disk at a time.
+	 */
+	public static final int CHUNK_SIZE = 256 * 1024;
+
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	/**
+	 * The {@link Archetype} the blobs belong to.
+	 */
+	private final Archetype archetype;
+
+	/**
+	 * The directory the blobs are stored in.
+	 */
+	private final File dir;
+
+	/**
+	 * Initializes the {@link BlobStore}.
+	 *
+	 * @param archetype The {@link Archetype} the blobs belong to.
+	 */
+	public BlobStore(final Archetype archetype)
+	{
+		this.archetype = archetype;
+		this.dir = new File(archetype.getDir(), DIR_NAME);
+	}
+
+	/**
+	 * Writes a blob from a stream, which is read until it ends but not closed.
+	 *
+	 * @param in The stream to read the blob from.
+	 * @return The {@link BlobType} to set on a Paradigm to reference the blob.
+	 * @throws ParagonFSException Thrown if the blob could not be written.
+	 */
+	public BlobType write(final InputStream in) throws ParagonFSException
+	{
+		if (in == null) {
+			throw new IllegalArgumentException("The stream must not be null.");
+		}
+
+		return write(Channels.newChannel(in));
+	}
+
+	/**
+	 * Writes a blob from a channel, which is read until it ends but not closed. A {@link FileChannel} is copied
+	 * without passing through the heap.
+	 *
+	 * @param in The channel to read the blob from.
+	 * @return The {@link BlobType} to set on a Paradigm to reference the blob.
+	 * @throws ParagonFSException Thrown if the blob could not be written.
+	 */
+	public BlobType write(final ReadableByteChannel in) throws ParagonFSException
+	{
+		if (in == null) {
+			throw new IllegalArgumentException("The channel must not be null.");
+		}
+
+		final String blobId = UUID.randomUUID().toString().replace("-", "");
+		final File file = getFile(blobId);
+		final File temp = new File(file.getPath() + TEMP_SUFFIX);
+		final IoScheduler scheduler = archetype.getParagonFS().getIoScheduler();
+		final Volume volume = getVolume();
+		scheduler.enter(volume);
+
+		try
+		{
+			final File fanOut = file.getParentFile();
+			final boolean created = !fanOut.isDirectory();
+			Files.createDirectories(fanOut.toPath());
+			try (final FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.WRITE))
+			{
+				if (in instanceof FileChannel)
+				{
+					// Each transfer reads from, and advances, the position of the source.
+					long position = 0;
+					long copied;
+					while ((copied = out.transferFrom(in, position, CHUNK_SIZE * 16L)) > 0)
+					{
+						position += copied;
+					}
+				}
+				else
+				{
+					final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+					while (in.read(chunk) >= 0)
+					{
+						chunk.flip();
+						while (chunk.hasRemaining())
+						{
+							out.write(chunk);
+						}
+						chunk.clear();
+					}
+				}
+
+				out.force(true);
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+			// The blob is only durable once the rename, and the fan-out directory if it is new, are synced too.
+			final AtomicFileWriter writer = archetype.getParagonFS().getAtomicFileWriter();
+			writer.syncDirectory(fanOut);
+			if (created) {
+				writer.syncDirectory(fanOut.getParentFile());
+			}
+			archetype.getBytesWritten().add(file.length());
+
+			final BlobType blob = new BlobType();
+			blob.setValue(blobId);
+
+			return blob;
+		}
+		catch (final IOException e)
+		{
+			temp.delete();
+			throw new ParagonFSException("The blob could not be written.", e);
+		}
+		finally
+		{
+			scheduler.exit(volume);
+		}
+	}
+
+	/**
+	 * Returns the length of a blob.
+	 *
+	 * @param blob The {@link BlobType} referencing the blob.
+	 * @return The length, in bytes.
+	 * @throws ParagonFSException Thrown if the blob does not exist.
+	 */
+	public long length(final BlobType blob) throws ParagonFSException
+	{
+		final File file = getFile(getBlobId(blob));
+		if (!file.exists()) {
+			throw new ParagonFSException("The blob " + blob.getValue() + " does not exist.");
+		}
+
+		return file.length();
+	}
+
+	/**
+	 * Opens a blob as a stream, which must be closed once it has been read.
+	 *
+	 * @param blob The {@link BlobType} referencing the blob.
+	 * @return The {@link InputStream}.
+	 * @throws ParagonFSException Thrown if the blob could not be opened.
+	 */
+	public InputStream openStream(final BlobType blob) throws ParagonFSException
+	{
+		return Channels.newInputStream(openChannel(blob));
+	}
+
+	/**
+	 * Opens a blob as a channel, which must be closed once it has been read. It can be positioned to read any part of
+	 * the blob.
+	 *
+	 * @param blob The {@link BlobType} referencing the blob.
+	 * @return The {@link FileChannel}, open for reading.
+	 * @throws ParagonFSException Thrown if the blob could not be opened.
+	 */
+	public FileChannel openChannel(final BlobType blob) throws ParagonFSException
+	{
+		try
+		{
+			return FileChannel.open(getFile(getBlobId(blob)).toPath(), StandardOpenOption.READ);
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("The blob " + blob.getValue() + " could not be opened.", e);
+		}
+	}
+
+	/**
+	 * Sends a blob to a channel, such as a socket or a file, leaving it to the kernel to copy where it can so the blob
+	 * never passes through the heap. The target is not closed.
+	 *
+	 * @param blob   The {@link BlobType} referencing the blob.
+	 * @param target The channel to send the blob to.
+	 * @return The number of bytes sent.
+	 * @throws ParagonFSException Thrown if the blob could not be read or sent.
+	 */
+	public long transferTo(final BlobType blob, final WritableByteChannel target) throws ParagonFSException
+	{
+		if (target == null) {
+			throw new IllegalArgumentException("The target must not be null.");
+		}
+
+		final IoScheduler scheduler = archetype.getParagonFS().getIoScheduler();
+		final Volume volume = getVolume();
+		scheduler.enter(volume);
+
+		try (final FileChannel channel = openChannel(blob))
+		{
+			// A single call may send less than asked, such as to a non-blocking socket, so keep going until it's all sent.
+			final long size = channel.size();
+			long position = 0;
+			while (position < size)
+			{
+				position += channel.transferTo(position, Math.min(CHUNK_SIZE * 16L, size - position), target);
+			}
+			archetype.getBytesRead().add(size);
+
+			return size;
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("The blob " + blob.getValue() + " could not be sent.", e);
+		}
+		finally
+		{
+			scheduler.exit(volume);
+		}
+	}
+
+	/**
+	 * Removes a blob, which must no longer be referenced by any Paradigm.
+	 *
+	 * @param blob The {@link BlobType} referencing the blob.
+	 * @return Returns true if the blob was removed, false if it did not exist.
+	 * @throws ParagonFSException Thrown if the blob could not be removed.
+	 */
+	public boolean delete(final BlobType blob) throws ParagonFSException
+	{
+		try
+		{
+			return Files.deleteIfExists(getFile(getBlobId(blob)).toPath());
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("The blob " + blob.getValue() + " could not be removed.", e);
+		}
+	}
+
+	/**
+	 * Removes every blob which no Paradigm of the Archetype references any more. Every Paradigm is read to find the
+	 * blobs it references, so this is meant to be run now and then rather than after every update.
+	 *
+	 * @param graceMillis How long a blob is kept after it was written, in milliseconds, which leaves time for it to be
+	 *                    set on its Paradigm, and for any read view or reader which may still use it.
+	 * @return The number of blobs removed.
+	 * @throws ParagonFSException Thrown if a Paradigm could not be read or a blob could not be removed.
+	 */
+	public int collect(final long graceMillis) throws ParagonFSException
+	{
+		if (graceMillis < 0) {
+			throw new IllegalArgumentException("The grace time must not be negative.");
+		}
+
+		// The cutoff is taken first, so a blob written while the Paradigms are read is always kept.
+		final long cutoff = System.currentTimeMillis() - graceMillis;
+		final Set<String> referenced = new HashSet<>();
+		for (final Paradigm paradigm : archetype.getAllUntracked(archetype.listParadigmIds()).values())
+		{
+			for (final String key : paradigm.keySet())
+			{
+				final DataTypeIF value = paradigm.getValue(key);
+				if (value instanceof BlobType && value.getValue() != null) {
+					referenced.add(value.getValue().toString());
+				}
+			}
+		}
+
+		int removed = 0;
+		final File[] fanOuts = dir.listFiles(File::isDirectory);
+		for (final File fanOut : fanOuts == null ? new File[0] : fanOuts)
+		{
+			final File[] files = fanOut.listFiles();
+			for (final File file : files == null ? new File[0] : files)
+			{
+				final String name = file.getName();
+				if (!name.endsWith(SUFFIX) || file.lastModified() >= cutoff
+					|| referenced.contains(name.substring(0, name.length() - SUFFIX.length()))) {
+					continue;
+				}
+
+				if (file.delete()) {
+					removed++;
+				}
+			}
+		}
+
+		return removed;
+	}
+
+	/**
+	 * Returns the file of a blob.
+	 *
+	 * @param blobId The blob's id.
+	 * @return The file, which may not exist.
+	 */
+	private File getFile(final String blobId)
+	{
+		return new File(new File(dir, blobId.substring(0, 2)), blobId + SUFFIX);
+	}
+
+	/**
+	 * Returns the id of the blob a {@link BlobType} references, ensuring it can only name a file of this store.
+	 *
+	 * @param blob The {@link BlobType}.
+	 * @return The blob's id.
+	 */
+	private static String getBlobId(final BlobType blob)
+	{
+		if (blob == null || blob.getValue() == null) {
+			throw new IllegalArgumentException("The blob must not be null.");
+		}
+
+		final String blobId = blob.getValue().toString();
+		if (!blobId.matches("[0-9a-f]{32}")) {
+			throw new IllegalArgumentException("The blob id " + blobId + " is not valid.");
+		}
+
+		return blobId;
+	}
+
+	/**
+	 * Returns the {@link Volume} the blobs are stored on, which is the one holding the archetype directory.
+	 *
+	 * @return The first {@link Volume}.
+	 */
+	private Volume getVolume()
+	{
+		return archetype.getParagonFS().getVolumes().get(0);
+	}
+}
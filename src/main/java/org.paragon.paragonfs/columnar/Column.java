@@ -0,0 +1,167 @@
+package org.paragon.paragonfs.columnar;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The values of a single key across every row of a {@link ColumnarSegment}, split into {@link ColumnChunk}'s. A
+ * column is a file laid out as:
+ * <pre>
+ * magic (4) | header length (4) | chunk count (4) | chunk headers | chunk data
+ * </pre>
+ * Opening a column reads only the headers, holding the statistics of every chunk, while the data of a chunk is read
+ * when its values are asked for.
+ */
+public class Column
+{
+	static final byte[] MAGIC = {'P', 'F', 'C', 1};
+
+	/**
+	 * The key this column holds the values of.
+	 */
+	private final String key;
+
+	/**
+	 * The file the column is stored in.
+	 */
+	private final File file;
+
+	/**
+	 * The offset, within the file, the data of the chunks starts at.
+	 */
+	private final long dataStart;
+
+	private final List<ColumnChunk> chunks;
+
+	/**
+	 * Opens the column, reading the headers of its chunks.
+	 *
+	 * @param key  The key this column holds the values of.
+	 * @param file The file the column is stored in.
+	 * @throws IOException Thrown if the column could not be read.
+	 */
+	Column(final String key, final File file) throws IOException
+	{
+		this.key = key;
+		this.file = file;
+
+		try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			final ByteBuffer prefix = readFully(channel, 0, MAGIC.length + 4);
+			for (final byte expected : MAGIC)
+			{
+				if (prefix.get() != expected) {
+					throw new IOException("The file " + file.getName() + " is not a column.");
+				}
+			}
+
+			final int headerLength = prefix.getInt();
+			final ByteBuffer header = readFully(channel, MAGIC.length + 4, headerLength);
+			dataStart = MAGIC.length + 4 + headerLength;
+
+			final int chunkCount = header.getInt();
+			final List<ColumnChunk> read = new ArrayList<>(chunkCount);
+			for (int index = 0; index < chunkCount; index++)
+			{
+				read.add(new ColumnChunk(
+					this,
+					header.getInt(),
+					header.getInt(),
+					header.getInt(),
+					ColumnEncoding.values()[header.get()],
+					ColumnValues.read(header),
+					ColumnValues.read(header),
+					header.getLong(),
+					header.getInt()
+				));
+			}
+
+			chunks = Collections.unmodifiableList(read);
+		}
+	}
+
+	public String getKey()
+	{
+		return key;
+	}
+
+	/**
+	 * Returns the chunks of the column, in row order.
+	 *
+	 * @return The {@link ColumnChunk}'s.
+	 */
+	public List<ColumnChunk> getChunks()
+	{
+		return chunks;
+	}
+
+	/**
+	 * Reads the values of every row.
+	 *
+	 * @return The value of every row in the segment, in order, where null means the row does not have the key.
+	 * @throws IOException Thrown if the column could not be read.
+	 */
+	public Object[] getValues() throws IOException
+	{
+		int rowCount = 0;
+		for (final ColumnChunk chunk : chunks)
+		{
+			rowCount += chunk.getRowCount();
+		}
+
+		final Object[] values = new Object[rowCount];
+		for (final ColumnChunk chunk : chunks)
+		{
+			System.arraycopy(chunk.getValues(), 0, values, chunk.getRowOffset(), chunk.getRowCount());
+		}
+
+		return values;
+	}
+
+	/**
+	 * Reads the values of the chunk.
+	 *
+	 * @param chunk The {@link ColumnChunk} to read.
+	 * @return The value of every row in the chunk.
+	 * @throws IOException Thrown if the chunk could not be read.
+	 */
+	Object[] read(final ColumnChunk chunk) throws IOException
+	{
+		try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			final ByteBuffer data = readFully(channel, dataStart + chunk.getDataOffset(), chunk.getDataLength());
+
+			return chunk.getEncoding().decode(data, chunk.getRowCount());
+		}
+	}
+
+	/**
+	 * Reads the bytes at the position of the channel.
+	 *
+	 * @param channel  The channel to read from.
+	 * @param position The position to read from.
+	 * @param length   The number of bytes to read.
+	 * @return A buffer holding the bytes, ready to be read.
+	 * @throws IOException Thrown if the channel ends before the bytes have been read.
+	 */
+	private static ByteBuffer readFully(final FileChannel channel, final long position, final int length)
+		throws IOException
+	{
+		final ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining())
+		{
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("The column ended unexpectedly.");
+			}
+		}
+
+		buffer.flip();
+		return buffer;
+	}
+}
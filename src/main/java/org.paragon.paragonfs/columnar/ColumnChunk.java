@@ -0,0 +1,110 @@
+package org.paragon.paragonfs.columnar;
+
+import java.io.IOException;
+
+/**
+ * A run of consecutive rows within a {@link Column}, along with statistics about their values. The statistics are
+ * held in memory once the column is opened, while the values themselves are only read from disk when asked for, so a
+ * scan can skip any chunk whose statistics rule it out.
+ */
+public class ColumnChunk
+{
+	/**
+	 * The {@link Column} this chunk belongs to.
+	 */
+	private final Column column;
+
+	/**
+	 * The row, within the segment, this chunk starts at.
+	 */
+	private final int rowOffset;
+
+	private final int rowCount;
+
+	private final int nullCount;
+
+	private final ColumnEncoding encoding;
+
+	/**
+	 * The smallest value in the chunk, or null if every value is null.
+	 */
+	private final Object min;
+
+	/**
+	 * The largest value in the chunk, or null if every value is null.
+	 */
+	private final Object max;
+
+	/**
+	 * The offset of the chunk's data, from the start of the column's data.
+	 */
+	private final long dataOffset;
+
+	private final int dataLength;
+
+	ColumnChunk(final Column column, final int rowOffset, final int rowCount, final int nullCount,
+				final ColumnEncoding encoding, final Object min, final Object max, final long dataOffset,
+				final int dataLength)
+	{
+		this.column = column;
+		this.rowOffset = rowOffset;
+		this.rowCount = rowCount;
+		this.nullCount = nullCount;
+		this.encoding = encoding;
+		this.min = min;
+		this.max = max;
+		this.dataOffset = dataOffset;
+		this.dataLength = dataLength;
+	}
+
+	public int getRowOffset()
+	{
+		return rowOffset;
+	}
+
+	public int getRowCount()
+	{
+		return rowCount;
+	}
+
+	public int getNullCount()
+	{
+		return nullCount;
+	}
+
+	public ColumnEncoding getEncoding()
+	{
+		return encoding;
+	}
+
+	public Object getMin()
+	{
+		return min;
+	}
+
+	public Object getMax()
+	{
+		return max;
+	}
+
+	long getDataOffset()
+	{
+		return dataOffset;
+	}
+
+	int getDataLength()
+	{
+		return dataLength;
+	}
+
+	/**
+	 * Reads the values of the chunk from disk.
+	 *
+	 * @return The value of every row in the chunk, in order, where null means the row does not have the key.
+	 * @throws IOException Thrown if the chunk could not be read.
+	 */
+	public Object[] getValues() throws IOException
+	{
+		return column.read(this);
+	}
+}
@@ -0,0 +1,206 @@
+package org.paragon.paragonfs.columnar;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * How the values of a {@link ColumnChunk} are encoded. The encoding is picked per chunk, from the values it holds.
+ */
+public enum ColumnEncoding
+{
+	/**
+	 * Every value is written in turn.
+	 */
+	PLAIN
+	{
+		@Override
+		void encode(final Object[] values, final DataOutputStream out) throws IOException
+		{
+			for (final Object value : values)
+			{
+				ColumnValues.write(out, value);
+			}
+		}
+
+		@Override
+		Object[] decode(final ByteBuffer in, final int rowCount) throws IOException
+		{
+			final Object[] values = new Object[rowCount];
+			for (int row = 0; row < rowCount; row++)
+			{
+				values[row] = ColumnValues.read(in);
+			}
+
+			return values;
+		}
+	},
+
+	/**
+	 * The distinct values are written once, followed by the index of each row's value amongst them.
+	 */
+	DICTIONARY
+	{
+		@Override
+		void encode(final Object[] values, final DataOutputStream out) throws IOException
+		{
+			final Map<Object, Integer> indexes = new HashMap<>();
+			final List<Object> distinct = new ArrayList<>();
+			final int[] rows = new int[values.length];
+			for (int row = 0; row < values.length; row++)
+			{
+				Integer index = indexes.get(values[row]);
+				if (index == null)
+				{
+					index = distinct.size();
+					indexes.put(values[row], index);
+					distinct.add(values[row]);
+				}
+
+				rows[row] = index;
+			}
+
+			out.writeInt(distinct.size());
+			for (final Object value : distinct)
+			{
+				ColumnValues.write(out, value);
+			}
+
+			final boolean narrow = distinct.size() <= 256;
+			out.writeBoolean(narrow);
+			for (final int index : rows)
+			{
+				if (narrow) {
+					out.writeByte(index);
+				}
+				else {
+					out.writeInt(index);
+				}
+			}
+		}
+
+		@Override
+		Object[] decode(final ByteBuffer in, final int rowCount) throws IOException
+		{
+			final Object[] distinct = new Object[in.getInt()];
+			for (int index = 0; index < distinct.length; index++)
+			{
+				distinct[index] = ColumnValues.read(in);
+			}
+
+			final boolean narrow = in.get() != 0;
+			final Object[] values = new Object[rowCount];
+			for (int row = 0; row < rowCount; row++)
+			{
+				values[row] = distinct[narrow ? in.get() & 0xFF : in.getInt()];
+			}
+
+			return values;
+		}
+	},
+
+	/**
+	 * Each run of the same value is written once, along with its length.
+	 */
+	RUN_LENGTH
+	{
+		@Override
+		void encode(final Object[] values, final DataOutputStream out) throws IOException
+		{
+			out.writeInt(countRuns(values));
+
+			int start = 0;
+			for (int row = 1; row <= values.length; row++)
+			{
+				if (row == values.length || !Objects.equals(values[row], values[start]))
+				{
+					ColumnValues.write(out, values[start]);
+					out.writeInt(row - start);
+					start = row;
+				}
+			}
+		}
+
+		@Override
+		Object[] decode(final ByteBuffer in, final int rowCount) throws IOException
+		{
+			final Object[] values = new Object[rowCount];
+			final int runs = in.getInt();
+
+			int row = 0;
+			for (int run = 0; run < runs; run++)
+			{
+				final Object value = ColumnValues.read(in);
+				final int length = in.getInt();
+				for (int index = 0; index < length; index++)
+				{
+					values[row++] = value;
+				}
+			}
+
+			return values;
+		}
+	};
+
+	/**
+	 * Writes the values.
+	 *
+	 * @param values The values of every row in the chunk.
+	 * @param out    The stream to write to.
+	 * @throws IOException Thrown if the values could not be written.
+	 */
+	abstract void encode(Object[] values, DataOutputStream out) throws IOException;
+
+	/**
+	 * Reads the values written by {@link #encode(Object[], DataOutputStream)}.
+	 *
+	 * @param in       The buffer holding the chunk's data.
+	 * @param rowCount The number of rows in the chunk.
+	 * @return The values of every row in the chunk.
+	 * @throws IOException Thrown if the data is not valid.
+	 */
+	abstract Object[] decode(ByteBuffer in, int rowCount) throws IOException;
+
+	/**
+	 * Picks the encoding for the values: runs when there are few of them, such as in a mostly null or sorted column,
+	 * then a dictionary when there are few distinct values, otherwise every value as is.
+	 *
+	 * @param values The values of every row in the chunk.
+	 * @return The {@link ColumnEncoding}.
+	 */
+	static ColumnEncoding choose(final Object[] values)
+	{
+		if (countRuns(values) <= values.length / 4) {
+			return RUN_LENGTH;
+		}
+
+		final Map<Object, Boolean> distinct = new HashMap<>();
+		for (final Object value : values)
+		{
+			distinct.put(value, Boolean.TRUE);
+			if (distinct.size() > values.length / 4) {
+				return PLAIN;
+			}
+		}
+
+		return DICTIONARY;
+	}
+
+	private static int countRuns(final Object[] values)
+	{
+		int runs = values.length == 0 ? 0 : 1;
+		for (int row = 1; row < values.length; row++)
+		{
+			if (!Objects.equals(values[row], values[row - 1])) {
+				runs++;
+			}
+		}
+
+		return runs;
+	}
+}
@@ -0,0 +1,186 @@
+package org.paragon.paragonfs.columnar;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Date;
+
+/**
+ * Reads, writes and compares the values held within column chunks. Every value is written with a tag for its kind,
+ * as Paradigms without a schema may hold values of different kinds under the same key.
+ */
+public final class ColumnValues
+{
+	/**
+	 * Orders values the same as {@link #compare(Object, Object)}, with null before every other value.
+	 */
+	public static final Comparator<Object> ORDER = (left, right) ->
+	{
+		if (left == null || right == null) {
+			return left == null ? (right == null ? 0 : -1) : 1;
+		}
+
+		return compare(left, right);
+	};
+
+	private static final byte NULL = 0;
+	private static final byte INTEGER = 1;
+	private static final byte LONG = 2;
+	private static final byte DOUBLE = 3;
+	private static final byte STRING = 4;
+	private static final byte BOOLEAN = 5;
+	private static final byte DATE = 6;
+
+	private ColumnValues()
+	{
+	}
+
+	/**
+	 * Writes the value along with its tag. Values of a kind which is not supported are written as their string.
+	 *
+	 * @param out   The stream to write to.
+	 * @param value The value, which may be null.
+	 * @throws IOException Thrown if the value could not be written.
+	 */
+	static void write(final DataOutputStream out, final Object value) throws IOException
+	{
+		if (value == null)
+		{
+			out.writeByte(NULL);
+		}
+		else if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+		{
+			out.writeByte(INTEGER);
+			out.writeInt(((Number) value).intValue());
+		}
+		else if (value instanceof Long)
+		{
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Number)
+		{
+			out.writeByte(DOUBLE);
+			out.writeDouble(((Number) value).doubleValue());
+		}
+		else if (value instanceof Boolean)
+		{
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Date)
+		{
+			out.writeByte(DATE);
+			out.writeLong(((Date) value).getTime());
+		}
+		else
+		{
+			final byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+			out.writeByte(STRING);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Reads a value written by {@link #write(DataOutputStream, Object)}.
+	 *
+	 * @param in The buffer to read from.
+	 * @return The value, which may be null.
+	 * @throws IOException Thrown if the tag is not known.
+	 */
+	static Object read(final ByteBuffer in) throws IOException
+	{
+		final byte tag = in.get();
+		switch (tag)
+		{
+			case NULL:
+				return null;
+			case INTEGER:
+				return in.getInt();
+			case LONG:
+				return in.getLong();
+			case DOUBLE:
+				return in.getDouble();
+			case BOOLEAN:
+				return in.get() != 0;
+			case DATE:
+				return new Date(in.getLong());
+			case STRING:
+				final byte[] bytes = new byte[in.getInt()];
+				in.get(bytes);
+				return new String(bytes, StandardCharsets.UTF_8);
+			default:
+				throw new IOException("The column holds a value of an unknown kind.");
+		}
+	}
+
+	/**
+	 * Compares two non-null values. Numbers compare by their value whatever their type, and values of different kinds
+	 * compare by kind, so every value has a place in the order.
+	 *
+	 * @param left  The first value.
+	 * @param right The second value.
+	 * @return A negative number, zero or a positive number as the first value is less than, equal to or greater than
+	 * the second.
+	 */
+	public static int compare(final Object left, final Object right)
+	{
+		final int leftRank = getRank(left);
+		final int rightRank = getRank(right);
+		if (leftRank != rightRank)
+		{
+			return Integer.compare(leftRank, rightRank);
+		}
+
+		if (left instanceof Number)
+		{
+			final Number leftNumber = (Number) left;
+			final Number rightNumber = (Number) right;
+			if (isIntegral(leftNumber) && isIntegral(rightNumber))
+			{
+				return Long.compare(leftNumber.longValue(), rightNumber.longValue());
+			}
+
+			return Double.compare(leftNumber.doubleValue(), rightNumber.doubleValue());
+		}
+		else if (left instanceof Boolean)
+		{
+			return Boolean.compare((Boolean) left, (Boolean) right);
+		}
+		else if (left instanceof Date)
+		{
+			return ((Date) left).compareTo((Date) right);
+		}
+
+		return left.toString().compareTo(right.toString());
+	}
+
+	/**
+	 * Returns the rank of the value's kind, which orders values of different kinds.
+	 *
+	 * @param value The value.
+	 * @return The rank.
+	 */
+	private static int getRank(final Object value)
+	{
+		if (value instanceof Number) {
+			return 0;
+		}
+		else if (value instanceof Date) {
+			return 1;
+		}
+		else if (value instanceof Boolean) {
+			return 2;
+		}
+
+		return 3;
+	}
+
+	private static boolean isIntegral(final Number number)
+	{
+		return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+	}
+}
@@ -0,0 +1,147 @@
+package org.paragon.paragonfs.columnar;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a {@link Column}, a chunk at a time. The data of the chunks is written to a temporary file as they are
+ * added, so only the chunk being added is held in memory, and is then copied after the headers once every chunk is in.
+ */
+class ColumnWriter
+{
+	/**
+	 * The file the data of the chunks is written to, until the column is finished.
+	 */
+	private final File dataFile;
+
+	private final DataOutputStream data;
+
+	/**
+	 * The headers of the chunks written so far.
+	 */
+	private final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+
+	private final DataOutputStream header = new DataOutputStream(headerBytes);
+
+	private int chunkCount;
+
+	private long dataLength;
+
+	ColumnWriter(final File dataFile) throws IOException
+	{
+		this.dataFile = dataFile;
+		this.data = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(dataFile)));
+	}
+
+	/**
+	 * Adds the next chunk of the column.
+	 *
+	 * @param rowOffset The row, within the segment, the chunk starts at.
+	 * @param values    The value of every row in the chunk, where null means the row does not have the key.
+	 * @throws IOException Thrown if the chunk could not be written.
+	 */
+	void addChunk(final int rowOffset, final Object[] values) throws IOException
+	{
+		int nullCount = 0;
+		Object min = null;
+		Object max = null;
+		for (final Object value : values)
+		{
+			if (value == null)
+			{
+				nullCount++;
+				continue;
+			}
+
+			if (min == null || ColumnValues.compare(value, min) < 0) {
+				min = value;
+			}
+			if (max == null || ColumnValues.compare(value, max) > 0) {
+				max = value;
+			}
+		}
+
+		final ColumnEncoding encoding = ColumnEncoding.choose(values);
+		final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+		encoding.encode(values, new DataOutputStream(chunk));
+		chunk.writeTo(data);
+		final int length = chunk.size();
+
+		header.writeInt(rowOffset);
+		header.writeInt(values.length);
+		header.writeInt(nullCount);
+		header.writeByte(encoding.ordinal());
+		ColumnValues.write(header, min);
+		ColumnValues.write(header, max);
+		header.writeLong(dataLength);
+		header.writeInt(length);
+
+		dataLength += length;
+		chunkCount++;
+	}
+
+	/**
+	 * Writes the column to the file, which is synced before this method returns.
+	 *
+	 * @param target The file to write the column to.
+	 * @throws IOException Thrown if the column could not be written.
+	 */
+	void finish(final File target) throws IOException
+	{
+		data.close();
+
+		try (final FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+			StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			 final FileChannel in = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ))
+		{
+			final ByteArrayOutputStream prefixBytes = new ByteArrayOutputStream();
+			final DataOutputStream prefix = new DataOutputStream(prefixBytes);
+			prefix.write(Column.MAGIC);
+			prefix.writeInt(4 + headerBytes.size());
+			prefix.writeInt(chunkCount);
+			headerBytes.writeTo(prefix);
+
+			final ByteBuffer buffer = ByteBuffer.wrap(prefixBytes.toByteArray());
+			while (buffer.hasRemaining())
+			{
+				out.write(buffer);
+			}
+
+			long copied = 0;
+			while (copied < dataLength)
+			{
+				copied += in.transferTo(copied, dataLength - copied, out);
+			}
+
+			out.force(false);
+		}
+		finally
+		{
+			Files.deleteIfExists(dataFile.toPath());
+		}
+	}
+
+	/**
+	 * Abandons the column, removing the data written so far.
+	 */
+	void abort()
+	{
+		try
+		{
+			data.close();
+			Files.deleteIfExists(dataFile.toPath());
+		}
+		catch (final IOException e)
+		{
+			// Nothing more can be done, the directory is removed with the rest of the build anyways.
+		}
+	}
+}
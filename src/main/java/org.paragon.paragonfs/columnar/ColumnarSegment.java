@@ -0,0 +1,159 @@
+package org.paragon.paragonfs.columnar;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A columnar copy of every Paradigm within an Archetype, as of when it was built. Each key is stored as a separate
+ * {@link Column}, so a scan which only needs a few keys only reads those, and within a column only the chunks whose
+ * statistics it can't rule out.<br />
+ * <br />
+ * Rows are numbered from 0, in the same order in every column, and {@link #getParadigmId(int)} maps a row back to its
+ * Paradigm.
+ */
+public class ColumnarSegment
+{
+	/**
+	 * The directory the segment's files are in.
+	 */
+	private final File dir;
+
+	/**
+	 * The unique identifier of the Paradigm of each row.
+	 */
+	private final String[] paradigmIds;
+
+	/**
+	 * The file of each key's column, by the lowercase key.
+	 */
+	private final Map<String, String> columnFiles;
+
+	/**
+	 * The columns opened so far, by the lowercase key.
+	 */
+	private final ConcurrentMap<String, Column> columns = new ConcurrentHashMap<>();
+
+	/**
+	 * When the first of its rows expires, in milliseconds.
+	 */
+	private final long expiresAt;
+
+	ColumnarSegment(final File dir, final String[] paradigmIds, final Map<String, String> columnFiles,
+					final long expiresAt)
+	{
+		this.dir = dir;
+		this.paradigmIds = paradigmIds;
+		this.columnFiles = Collections.unmodifiableMap(columnFiles);
+		this.expiresAt = expiresAt;
+	}
+
+	/**
+	 * Returns when the first of the rows expires, after which the segment holds a row which reads as empty.
+	 *
+	 * @return The time, in milliseconds, or {@link Long#MAX_VALUE} if no row expires.
+	 */
+	public long getExpiresAt()
+	{
+		return expiresAt;
+	}
+
+	/**
+	 * Returns the number of rows, which is the number of Paradigms when the segment was built.
+	 *
+	 * @return The number of rows.
+	 */
+	public int getRowCount()
+	{
+		return paradigmIds.length;
+	}
+
+	/**
+	 * Returns the unique identifier of the Paradigm of the row.
+	 *
+	 * @param row The row.
+	 * @return The Paradigm's unique identifier.
+	 */
+	public String getParadigmId(final int row)
+	{
+		return paradigmIds[row];
+	}
+
+	/**
+	 * Returns the unique identifiers of the Paradigms of every row.
+	 *
+	 * @return An unmodifiable list of the identifiers, in row order.
+	 */
+	public List<String> getParadigmIds()
+	{
+		return Collections.unmodifiableList(Arrays.asList(paradigmIds));
+	}
+
+	/**
+	 * Returns the keys which have a column, which are those at least one Paradigm had when the segment was built.
+	 *
+	 * @return The lowercase keys.
+	 */
+	public Set<String> getKeys()
+	{
+		return columnFiles.keySet();
+	}
+
+	/**
+	 * Returns the column of the key, opening it the first time it is asked for.
+	 *
+	 * @param key The key, case-insensitive.
+	 * @return The {@link Column}, or null if no Paradigm had the key.
+	 * @throws IOException Thrown if the column could not be opened.
+	 */
+	public Column getColumn(final String key) throws IOException
+	{
+		final String name = key.toLowerCase();
+		final Column column = columns.get(name);
+		if (column != null) {
+			return column;
+		}
+
+		final String fileName = columnFiles.get(name);
+		if (fileName == null) {
+			return null;
+		}
+
+		final Column opened = new Column(name, new File(dir, fileName));
+		final Column existing = columns.putIfAbsent(name, opened);
+
+		return existing == null ? opened : existing;
+	}
+
+	/**
+	 * Reads the values of only the keys given, for every row. Only the columns of those keys are read.
+	 *
+	 * @param keys The keys to read, case-insensitive.
+	 * @return A map of each key to the value of every row, in row order, where null means the row does not have the
+	 * key.
+	 * @throws IOException Thrown if a column could not be read.
+	 */
+	public Map<String, Object[]> project(final Collection<String> keys) throws IOException
+	{
+		if (keys == null) {
+			throw new IllegalArgumentException("The keys must not be null.");
+		}
+
+		final Map<String, Object[]> values = new LinkedHashMap<>();
+		for (final String key : keys)
+		{
+			final Column column = getColumn(key);
+			values.put(key, column == null ? new Object[paradigmIds.length] : column.getValues());
+		}
+
+		return values;
+	}
+}
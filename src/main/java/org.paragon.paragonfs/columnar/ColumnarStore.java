@@ -0,0 +1,425 @@
+package org.paragon.paragonfs.columnar;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.paradigm.KeyDictionary;
+import org.paragon.paragonfs.paradigm.Paradigm;
+import org.paragon.paragonfs.paradigm.ParadigmSnapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maintains the {@link ColumnarSegment} of an {@link Archetype}, which is stored in its <code>.columnar</code>
+ * directory. The segment is built on demand, the first time it is asked for after the Archetype was written to, and
+ * every write to the Archetype invalidates it. It is also out of date once the first of its rows has expired, as an
+ * expired Paradigm reads as empty, and is rebuilt without it.<br />
+ * <br />
+ * Each build is written to a directory of its own, and only becomes the current segment once its manifest has been
+ * moved into place, so a crash part way through a build never leaves a partial segment behind.
+ */
+public class ColumnarStore
+{
+	private static final Log LOG = LogFactory.getLog(ColumnarStore.class);
+
+	/**
+	 * The name of the directory, within the archetype directory, the segments are written to.
+	 */
+	public static final String DIR_NAME = ".columnar";
+
+	/**
+	 * The number of rows in each chunk of a column, which is also the number of Paradigms loaded at a time.
+	 */
+	public static final int CHUNK_SIZE = 4096;
+
+	private static final String MANIFEST = "manifest";
+	private static final String IDS = "ids";
+	private static final String BUILD = "build";
+	private static final String COLUMNS = "columns";
+	private static final String EXPIRES = "expires";
+	private static final String BUILD_PREFIX = "segment-";
+	private static final String COLUMN_SUFFIX = ".col";
+	private static final String DATA_SUFFIX = ".data";
+	private static final String LINE_SEPARATOR = "\n";
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	/**
+	 * The {@link Archetype} the segment is of.
+	 */
+	private final Archetype archetype;
+
+	/**
+	 * The directory the segments are written to.
+	 */
+	private final File dir;
+
+	/**
+	 * Held while a segment is built, so only one build runs at a time.
+	 */
+	private final ReentrantLock buildLock = new ReentrantLock();
+
+	/**
+	 * Incremented by every write to the Archetype, so a build can tell whether it was written to in the meantime.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * Whether a manifest may exist on disk, which a write then has to remove.
+	 */
+	private volatile boolean published;
+
+	/**
+	 * The current segment, or null if it has not been opened or built yet, or is out of date.
+	 */
+	private volatile ColumnarSegment segment;
+
+	/**
+	 * Initializes the {@link ColumnarStore}.
+	 *
+	 * @param archetype The {@link Archetype} the segment is of.
+	 */
+	public ColumnarStore(final Archetype archetype)
+	{
+		this.archetype = archetype;
+		this.dir = new File(archetype.getDir(), DIR_NAME);
+		this.published = new File(dir, MANIFEST).exists();
+	}
+
+	/**
+	 * Returns the current segment, building it first if the Archetype has been written to since it was last built.
+	 *
+	 * @return The {@link ColumnarSegment}.
+	 * @throws ParagonFSException Thrown if the segment could not be read or built.
+	 */
+	public ColumnarSegment getSegment() throws ParagonFSException
+	{
+		final ColumnarSegment current = segment;
+		if (current != null && current.getExpiresAt() > System.currentTimeMillis()) {
+			return current;
+		}
+		else if (current != null) {
+			invalidate();
+		}
+
+		buildLock.lock();
+
+		try
+		{
+			if (segment != null && segment.getExpiresAt() > System.currentTimeMillis()) {
+				return segment;
+			}
+
+			final ColumnarSegment opened = open();
+			if (opened != null && opened.getExpiresAt() > System.currentTimeMillis()) {
+				segment = opened;
+				return opened;
+			}
+
+			return build();
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("The columnar segment could not be built.", e);
+		}
+		finally
+		{
+			buildLock.unlock();
+		}
+	}
+
+	/**
+	 * Determines whether the segment on disk reflects every write to the Archetype.
+	 *
+	 * @return Returns true if there is a segment and the Archetype has not been written to since it was built.
+	 */
+	public boolean isCurrent()
+	{
+		return published;
+	}
+
+	/**
+	 * Marks the segment as out of date. This is invoked both before and after every write to the Archetype, so a
+	 * build which overlaps the write can't publish what it read before the write was committed. It only touches the
+	 * disk on the first invocation after a segment was built.
+	 */
+	public void invalidate()
+	{
+		generation.incrementAndGet();
+		if (!published) {
+			return;
+		}
+
+		published = false;
+		segment = null;
+
+		try
+		{
+			Files.deleteIfExists(new File(dir, MANIFEST).toPath());
+		}
+		catch (final IOException e)
+		{
+			LOG.warn("Unable to remove the columnar manifest of " + archetype.getDir().getName() + ".", e);
+		}
+	}
+
+	/**
+	 * Opens the segment described by the manifest on disk.<br />
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the build lock.
+	 *
+	 * @return The {@link ColumnarSegment}, or null if there is no manifest.
+	 * @throws IOException Thrown if the segment could not be read.
+	 */
+	private ColumnarSegment open() throws IOException
+	{
+		final Map<String, Object> manifest = readManifest();
+		if (manifest == null) {
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		final Map<String, String> columnFiles = (Map<String, String>) manifest.get(COLUMNS);
+		final File buildDir = new File(dir, manifest.get(BUILD).toString());
+		final String ids = FileUtils.readFileToString(new File(buildDir, IDS), StandardCharsets.UTF_8);
+
+		final Object expiresAt = manifest.get(EXPIRES);
+
+		return new ColumnarSegment(
+			buildDir,
+			ids.isEmpty() ? new String[0] : ids.split(LINE_SEPARATOR),
+			new LinkedHashMap<>(columnFiles),
+			expiresAt == null ? Long.MAX_VALUE : ((Number) expiresAt).longValue()
+		);
+	}
+
+	/**
+	 * Returns the manifest on disk.
+	 *
+	 * @return The manifest, or null if there is none.
+	 * @throws IOException Thrown if the manifest could not be read.
+	 */
+	private Map<String, Object> readManifest() throws IOException
+	{
+		final File manifest = new File(dir, MANIFEST);
+		if (!manifest.exists()) {
+			return null;
+		}
+
+		try
+		{
+			return OBJECT_MAPPER.readValue(manifest, new TypeReference<Map<String, Object>>()
+			{
+			});
+		}
+		catch (final IOException e)
+		{
+			// The manifest was removed by a write while it was being read.
+			if (!manifest.exists()) {
+				return null;
+			}
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Builds a new segment from every Paradigm within the Archetype. Paradigms are loaded a chunk at a time, and each
+	 * chunk is appended to the columns of the keys within it.<br />
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the build lock.
+	 *
+	 * @return The {@link ColumnarSegment}.
+	 * @throws IOException Thrown if the segment could not be written.
+	 * @throws ParagonFSException Thrown if a Paradigm could not be read.
+	 */
+	private ColumnarSegment build() throws IOException, ParagonFSException
+	{
+		final long startGeneration = generation.get();
+		final File buildDir = new File(dir, BUILD_PREFIX + System.currentTimeMillis() + "-" + startGeneration);
+		removeOldBuilds();
+		Files.createDirectories(buildDir.toPath());
+
+		final KeyDictionary dictionary = archetype.getKeyDictionary();
+		final Map<Integer, ColumnWriter> writers = new TreeMap<>();
+		final List<int[]> chunkBounds = new ArrayList<>();
+		final List<String> rowIds = new ArrayList<>();
+		long expiresAt = Long.MAX_VALUE;
+
+		try
+		{
+			final List<String> paradigmIds = archetype.listParadigmIds();
+			for (int start = 0; start < paradigmIds.size(); start += CHUNK_SIZE)
+			{
+				final List<String> batch = paradigmIds.subList(start, Math.min(paradigmIds.size(), start + CHUNK_SIZE));
+
+				// Skip Paradigms deleted since they were listed.
+				final List<ParadigmSnapshot> snapshots = new ArrayList<>();
+				final int rowOffset = rowIds.size();
+				int slotCount = 0;
+				for (final Paradigm paradigm : archetype.getAllUntracked(batch).values())
+				{
+					final ParadigmSnapshot snapshot;
+					try
+					{
+						snapshot = paradigm.getCurrentSnapshot();
+					}
+					catch (final ParagonFSException e)
+					{
+						if (paradigm.isDeleted()) {
+							continue;
+						}
+
+						throw e;
+					}
+
+					snapshots.add(snapshot);
+					rowIds.add(paradigm.getId());
+					expiresAt = Math.min(expiresAt, paradigm.getExpiresAt());
+					slotCount = Math.max(slotCount, snapshot.getSlotCount());
+				}
+
+				if (snapshots.isEmpty()) {
+					continue;
+				}
+
+				for (int keyId = 0; keyId < slotCount; keyId++)
+				{
+					final Object[] values = new Object[snapshots.size()];
+					boolean present = false;
+					for (int row = 0; row < values.length; row++)
+					{
+						present |= snapshots.get(row).contains(keyId);
+						values[row] = snapshots.get(row).getValue(keyId);
+					}
+
+					ColumnWriter writer = writers.get(keyId);
+					if (writer == null && present)
+					{
+						// A key first seen in this chunk is null in all of the chunks before it.
+						writer = new ColumnWriter(new File(buildDir, keyId + DATA_SUFFIX));
+						writers.put(keyId, writer);
+						for (final int[] bounds : chunkBounds)
+						{
+							writer.addChunk(bounds[0], new Object[bounds[1]]);
+						}
+					}
+
+					if (writer != null) {
+						writer.addChunk(rowOffset, values);
+					}
+				}
+
+				// Keys held by earlier chunks but beyond the slots of this one are null in it.
+				for (final Map.Entry<Integer, ColumnWriter> entry : writers.entrySet())
+				{
+					if (entry.getKey() >= slotCount) {
+						entry.getValue().addChunk(rowOffset, new Object[snapshots.size()]);
+					}
+				}
+
+				chunkBounds.add(new int[]{rowOffset, snapshots.size()});
+			}
+
+			final Map<String, String> columnFiles = new LinkedHashMap<>();
+			for (final Map.Entry<Integer, ColumnWriter> entry : writers.entrySet())
+			{
+				final String fileName = entry.getKey() + COLUMN_SUFFIX;
+				entry.getValue().finish(new File(buildDir, fileName));
+				columnFiles.put(dictionary.getName(entry.getKey()), fileName);
+			}
+
+			final StringBuilder ids = new StringBuilder();
+			for (final String paradigmId : rowIds)
+			{
+				ids.append(paradigmId).append(LINE_SEPARATOR);
+			}
+			FileUtils.writeStringToFile(new File(buildDir, IDS), ids.toString(), StandardCharsets.UTF_8);
+
+			final ColumnarSegment built = new ColumnarSegment(
+				buildDir, rowIds.toArray(new String[rowIds.size()]), columnFiles, expiresAt
+			);
+			publish(buildDir, columnFiles, built, startGeneration);
+
+			return built;
+		}
+		catch (final IOException | ParagonFSException | RuntimeException e)
+		{
+			for (final ColumnWriter writer : writers.values())
+			{
+				writer.abort();
+			}
+
+			FileUtils.deleteQuietly(buildDir);
+			throw e;
+		}
+	}
+
+	/**
+	 * Moves the manifest of the build into place, making it the current segment unless the Archetype was written to
+	 * while it was built. The segment is published before the generation is checked, so a write either sees it and
+	 * removes it, or happened early enough for the check to catch it.
+	 *
+	 * @param buildDir        The directory of the build.
+	 * @param columnFiles     The file of each key's column.
+	 * @param built           The {@link ColumnarSegment} which was built.
+	 * @param startGeneration The generation when the build started.
+	 * @throws IOException Thrown if the manifest could not be written.
+	 */
+	private void publish(final File buildDir, final Map<String, String> columnFiles, final ColumnarSegment built,
+						 final long startGeneration) throws IOException
+	{
+		final Map<String, Object> manifest = new LinkedHashMap<>();
+		manifest.put(BUILD, buildDir.getName());
+		manifest.put(COLUMNS, columnFiles);
+		manifest.put(EXPIRES, built.getExpiresAt());
+
+		final File temp = new File(dir, MANIFEST + ".tmp");
+		OBJECT_MAPPER.writeValue(temp, manifest);
+		Files.move(temp.toPath(), new File(dir, MANIFEST).toPath(), StandardCopyOption.ATOMIC_MOVE,
+			StandardCopyOption.REPLACE_EXISTING);
+
+		segment = built;
+		published = true;
+
+		if (generation.get() != startGeneration) {
+			invalidate();
+		}
+	}
+
+	/**
+	 * Removes the directories of every build but the one the manifest refers to.<br />
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the build lock.
+	 *
+	 * @throws IOException Thrown if the manifest could not be read.
+	 */
+	private void removeOldBuilds() throws IOException
+	{
+		final File[] builds = dir.listFiles();
+		if (builds == null) {
+			return;
+		}
+
+		final Map<String, Object> manifest = readManifest();
+		final String current = manifest == null ? null : manifest.get(BUILD).toString();
+		for (final File build : builds)
+		{
+			if (build.isDirectory() && build.getName().startsWith(BUILD_PREFIX) && !build.getName().equals(current)) {
+				FileUtils.deleteQuietly(build);
+			}
+		}
+	}
+}
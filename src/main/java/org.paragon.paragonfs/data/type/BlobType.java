@@ -0,0 +1,36 @@
+package org.paragon.paragonfs.data.type;
+
+/**
+ * A large value, such as an attachment, which is stored out-of-line in the
+ * {@link org.paragon.paragonfs.blob.BlobStore} of the Archetype rather than within the Paradigm. The Paradigm only
+ * holds the blob's id, so it stays small and quick to load however large the blob is.<br />
+ * <br />
+ * A blob is written with {@link org.paragon.paragonfs.blob.BlobStore#write(java.io.InputStream)}, which returns the
+ * {@link BlobType} to set on the Paradigm, and is read back as a stream or a channel from the same store.
+ */
+public class BlobType extends DataType
+{
+	private String value;
+
+	public void setValue(final Object value)
+	{
+		if (value != null)
+		{
+			this.value = value.toString();
+		}
+		else
+		{
+			this.value = null;
+		}
+	}
+
+	/**
+	 * Returns the id of the blob within its store.
+	 *
+	 * @return The blob's id.
+	 */
+	public Object getValue()
+	{
+		return value;
+	}
+}
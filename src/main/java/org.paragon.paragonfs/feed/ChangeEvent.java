@@ -0,0 +1,134 @@
+package org.paragon.paragonfs.feed;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single change to a Paradigm, as recorded by the {@link ChangeFeed}. Changes are numbered from 1 in the order they
+ * happened, so a consumer can resume from the sequence number after the last change it handled.
+ */
+public class ChangeEvent
+{
+	private static final String SEQUENCE = "sequence";
+	private static final String TYPE = "type";
+	private static final String ARCHETYPE = "archetype";
+	private static final String PARADIGM_ID = "id";
+	private static final String VERSION = "version";
+	private static final String TIMESTAMP = "timestamp";
+	private static final String KEYS = "keys";
+
+	private final long sequence;
+
+	private final ChangeType type;
+
+	/**
+	 * The name of the Archetype the Paradigm is in.
+	 */
+	private final String archetype;
+
+	private final String paradigmId;
+
+	/**
+	 * The version of the Paradigm after the change, or 0 if it was created or deleted.
+	 */
+	private final int version;
+
+	/**
+	 * The time at which the change was recorded, in milliseconds.
+	 */
+	private final long timestamp;
+
+	/**
+	 * The lowercase keys which were set, for an update.
+	 */
+	private final List<String> keys;
+
+	ChangeEvent(final long sequence, final ChangeType type, final String archetype, final String paradigmId,
+				final int version, final long timestamp, final List<String> keys)
+	{
+		this.sequence = sequence;
+		this.type = type;
+		this.archetype = archetype;
+		this.paradigmId = paradigmId;
+		this.version = version;
+		this.timestamp = timestamp;
+		this.keys = Collections.unmodifiableList(keys);
+	}
+
+	public long getSequence()
+	{
+		return sequence;
+	}
+
+	public ChangeType getType()
+	{
+		return type;
+	}
+
+	public String getArchetype()
+	{
+		return archetype;
+	}
+
+	public String getParadigmId()
+	{
+		return paradigmId;
+	}
+
+	public int getVersion()
+	{
+		return version;
+	}
+
+	public long getTimestamp()
+	{
+		return timestamp;
+	}
+
+	public List<String> getKeys()
+	{
+		return keys;
+	}
+
+	/**
+	 * Converts the change into the object written to the log.
+	 *
+	 * @return The change as a map.
+	 */
+	Map<String, Object> toObject()
+	{
+		final Map<String, Object> object = new LinkedHashMap<>();
+		object.put(SEQUENCE, sequence);
+		object.put(TYPE, type.name());
+		object.put(ARCHETYPE, archetype);
+		object.put(PARADIGM_ID, paradigmId);
+		object.put(VERSION, version);
+		object.put(TIMESTAMP, timestamp);
+		object.put(KEYS, keys);
+
+		return object;
+	}
+
+	/**
+	 * Converts an object read from the log back into a change.
+	 *
+	 * @param object The change as a map.
+	 * @return The {@link ChangeEvent}.
+	 */
+	@SuppressWarnings("unchecked")
+	static ChangeEvent fromObject(final Map<String, Object> object)
+	{
+		return new ChangeEvent(
+			((Number) object.get(SEQUENCE)).longValue(),
+			ChangeType.valueOf(object.get(TYPE).toString()),
+			object.get(ARCHETYPE).toString(),
+			object.get(PARADIGM_ID).toString(),
+			((Number) object.get(VERSION)).intValue(),
+			((Number) object.get(TIMESTAMP)).longValue(),
+			new ArrayList<>((List<String>) object.get(KEYS))
+		);
+	}
+}
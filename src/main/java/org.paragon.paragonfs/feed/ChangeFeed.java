@@ -0,0 +1,641 @@
+package org.paragon.paragonfs.feed;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The change feed records every create, update and delete of a Paradigm, numbering each with the next sequence number,
+ * so downstream consumers can process the changes rather than rescanning the Archetypes. It is off until enabled with
+ * {@link #enable()}, after which it stays on whenever the ParagonFS is opened.<br />
+ * <br />
+ * Changes are appended to a log in the <code>.changes</code> directory, split into segments of
+ * {@link #SEGMENT_SIZE} changes named after the sequence number of their first change. The most recent changes are
+ * also kept in memory, so subscribers which keep up never read the log. The log is synced in the background, so the
+ * changes of the last moment may be lost in a crash even if the Paradigms themselves were synced.<br />
+ * <br />
+ * A change is recorded after the write has been committed, so a failure to record it can't fail the write. Instead the
+ * feed is marked as broken and records nothing more until the ParagonFS is reopened, as consumers could not tell a
+ * missing change apart from one which never happened.
+ */
+public class ChangeFeed implements Closeable
+{
+	private static final Log LOG = LogFactory.getLog(ChangeFeed.class);
+
+	/**
+	 * The name of the directory, within the root directory, the log is written to.
+	 */
+	public static final String DIR_NAME = ".changes";
+
+	/**
+	 * The number of changes in each segment of the log.
+	 */
+	public static final int SEGMENT_SIZE = 64 * 1024;
+
+	/**
+	 * The number of the most recent changes kept in memory.
+	 */
+	private static final int TAIL_SIZE = 4096;
+
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final byte LINE_SEPARATOR = '\n';
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final TypeReference<Map<String, Object>> MAP_TYPE_REFERENCE = new TypeReference<Map<String, Object>>()
+	{
+	};
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Signalled whenever a change is appended, waking the subscriptions waiting for one.
+	 */
+	private final Condition appended = lock.newCondition();
+
+	/**
+	 * The directory the log is kept in once the feed is enabled.
+	 */
+	private File location;
+
+	/**
+	 * The directory of the log, or null if the feed is not enabled.
+	 */
+	private volatile File dir;
+
+	/**
+	 * The sequence number of the last change appended.
+	 */
+	private long lastSequence;
+
+	/**
+	 * The segment changes are appended to, or null if the next change starts a new one.
+	 */
+	private FileChannel segment;
+
+	/**
+	 * The sequence number of the first change in the current segment.
+	 */
+	private long segmentStart;
+
+	/**
+	 * Whether changes have been appended since the log was last synced.
+	 */
+	private boolean unsynced;
+
+	/**
+	 * The most recent changes, oldest first.
+	 */
+	private final ArrayDeque<ChangeEvent> tail = new ArrayDeque<>();
+
+	private final List<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+	private final AtomicInteger subscriptionCount = new AtomicInteger();
+
+	/**
+	 * Whether a change could not be recorded, after which no more are.
+	 */
+	private volatile boolean broken;
+
+	/**
+	 * Opens the log in the directory, if the feed has been enabled there before.
+	 *
+	 * @param dir The directory of the log.
+	 * @throws IllegalStateException Thrown if the existing log could not be read.
+	 */
+	public void open(final File dir)
+	{
+		location = dir;
+		if (!dir.isDirectory()) {
+			return;
+		}
+
+		lock.lock();
+
+		try
+		{
+			recover(dir);
+			this.dir = dir;
+			broken = false;
+		}
+		catch (final IOException e)
+		{
+			throw new IllegalStateException("The change feed could not be read.", e);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Enables the feed, so every change from now on is recorded.
+	 *
+	 * @throws IOException Thrown if the directory of the log could not be created.
+	 */
+	public void enable() throws IOException
+	{
+		if (location == null) {
+			throw new IllegalStateException("The change feed has not been opened.");
+		}
+
+		Files.createDirectories(location.toPath());
+		if (dir == null) {
+			open(location);
+		}
+	}
+
+	/**
+	 * Determines whether changes are being recorded.
+	 *
+	 * @return Returns true if the feed is enabled.
+	 */
+	public boolean isEnabled()
+	{
+		return dir != null;
+	}
+
+	/**
+	 * Determines whether a change could not be recorded, so the feed no longer records changes.
+	 *
+	 * @return Returns true if the feed is broken.
+	 */
+	public boolean isBroken()
+	{
+		return broken;
+	}
+
+	/**
+	 * Finds the last change in the log, dropping a change only partly written by a crash.<br />
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the lock.
+	 *
+	 * @param dir The directory of the log.
+	 * @throws IOException Thrown if the log could not be read.
+	 */
+	private void recover(final File dir) throws IOException
+	{
+		final List<File> segments = listSegments(dir);
+		if (segments.isEmpty()) {
+			return;
+		}
+
+		final File last = segments.get(segments.size() - 1);
+		segmentStart = getSegmentStart(last);
+		lastSequence = segmentStart - 1;
+
+		try (final RandomAccessFile file = new RandomAccessFile(last, "rw"))
+		{
+			long end = file.length();
+			while (end > 0)
+			{
+				file.seek(end - 1);
+				if (file.readByte() == LINE_SEPARATOR) {
+					break;
+				}
+				end--;
+			}
+			file.setLength(end);
+		}
+
+		final List<ChangeEvent> changes = readSegment(last, segmentStart, Integer.MAX_VALUE);
+		if (!changes.isEmpty()) {
+			lastSequence = changes.get(changes.size() - 1).getSequence();
+		}
+
+		segment = FileChannel.open(last.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Records a change, giving it the next sequence number. Nothing is recorded if the feed is not enabled or is
+	 * broken, and a failure to write the change to the log is logged and breaks the feed.
+	 *
+	 * @param type       The {@link ChangeType}.
+	 * @param archetype  The name of the Archetype the Paradigm is in.
+	 * @param paradigmId The Paradigm's unique identifier.
+	 * @param version    The version of the Paradigm after the change.
+	 * @param keys       The keys which were set, for an update.
+	 */
+	public void publish(final ChangeType type, final String archetype, final String paradigmId, final int version,
+						final Collection<String> keys)
+	{
+		final File current = dir;
+		if (current == null || broken) {
+			return;
+		}
+
+		lock.lock();
+
+		try
+		{
+			final long sequence = lastSequence + 1;
+			if (segment == null || sequence - segmentStart >= SEGMENT_SIZE)
+			{
+				if (segment != null) {
+					segment.force(false);
+					segment.close();
+				}
+
+				segment = FileChannel.open(new File(current, getSegmentName(sequence)).toPath(),
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+				segmentStart = sequence;
+			}
+
+			final ChangeEvent change = new ChangeEvent(
+				sequence, type, archetype, paradigmId, version, System.currentTimeMillis(),
+				keys == null ? Collections.<String>emptyList() : new ArrayList<>(keys)
+			);
+
+			final byte[] json = OBJECT_MAPPER.writeValueAsBytes(change.toObject());
+			final ByteBuffer buffer = ByteBuffer.allocate(json.length + 1);
+			buffer.put(json).put(LINE_SEPARATOR).flip();
+			while (buffer.hasRemaining())
+			{
+				segment.write(buffer);
+			}
+
+			lastSequence = sequence;
+			unsynced = true;
+			tail.addLast(change);
+			if (tail.size() > TAIL_SIZE) {
+				tail.removeFirst();
+			}
+
+			appended.signalAll();
+		}
+		catch (final IOException e)
+		{
+			broken = true;
+			LOG.warn("Unable to record a change to " + paradigmId + ", so the change feed records no more changes "
+				+ "until the ParagonFS is reopened.", e);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the sequence number of the last change recorded.
+	 *
+	 * @return The sequence number, or 0 if no change has been recorded.
+	 */
+	public long getLastSequence()
+	{
+		lock.lock();
+
+		try
+		{
+			return lastSequence;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Reads the changes starting at a sequence number, from memory if they are recent enough or from the log
+	 * otherwise.
+	 *
+	 * @param fromSequence The sequence number of the first change to read.
+	 * @param max          The most changes to read.
+	 * @return The changes, in order, which is empty if there are none yet.
+	 * @throws IOException Thrown if the log could not be read.
+	 */
+	public List<ChangeEvent> read(final long fromSequence, final int max) throws IOException
+	{
+		if (max < 1) {
+			throw new IllegalArgumentException("The maximum must be positive.");
+		}
+
+		final File current = dir;
+		if (current == null) {
+			return Collections.emptyList();
+		}
+
+		final long last;
+		lock.lock();
+
+		try
+		{
+			last = lastSequence;
+			if (fromSequence > last) {
+				return Collections.emptyList();
+			}
+
+			if (!tail.isEmpty() && fromSequence >= tail.getFirst().getSequence())
+			{
+				final List<ChangeEvent> changes = new ArrayList<>();
+				for (final ChangeEvent change : tail)
+				{
+					if (change.getSequence() >= fromSequence && changes.size() < max) {
+						changes.add(change);
+					}
+				}
+
+				return changes;
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		// Read from the segment holding the first change onwards, ignoring anything appended since.
+		final List<ChangeEvent> changes = new ArrayList<>();
+		for (final File file : listSegments(current))
+		{
+			final long start = getSegmentStart(file);
+			if (start + SEGMENT_SIZE <= fromSequence) {
+				continue;
+			}
+
+			for (final ChangeEvent change : readSegment(file, fromSequence, max - changes.size()))
+			{
+				if (change.getSequence() <= last) {
+					changes.add(change);
+				}
+			}
+
+			if (changes.size() >= max || start > last) {
+				break;
+			}
+		}
+
+		return changes;
+	}
+
+	/**
+	 * Subscribes to the changes starting at a sequence number. The changes are delivered to the listener in batches,
+	 * on a thread of the subscription's own, with the next batch only read once the listener has handled the last, so
+	 * a slow listener only falls behind rather than holding up writers or building up changes in memory.
+	 *
+	 * @param fromSequence The sequence number of the first change to deliver, 1 for every change in the log or
+	 *                     {@link #getLastSequence()} + 1 for only new changes.
+	 * @param batchSize    The most changes in each batch.
+	 * @param listener     The {@link ChangeListener} to deliver the changes to.
+	 * @return The {@link ChangeSubscription}, which must be closed once no longer needed.
+	 */
+	public ChangeSubscription subscribe(final long fromSequence, final int batchSize, final ChangeListener listener)
+	{
+		if (fromSequence < 1) {
+			throw new IllegalArgumentException("The sequence number must be positive.");
+		}
+		else if (batchSize < 1) {
+			throw new IllegalArgumentException("The batch size must be positive.");
+		}
+		else if (listener == null) {
+			throw new IllegalArgumentException("The listener must not be null.");
+		}
+
+		final ChangeSubscription subscription = new ChangeSubscription(
+			this, fromSequence, batchSize, listener, "paragonfs-changes-" + subscriptionCount.incrementAndGet()
+		);
+		subscriptions.add(subscription);
+		subscription.start();
+
+		return subscription;
+	}
+
+	/**
+	 * Waits until there is a change after the sequence number, the timeout passes or the feed is woken.
+	 *
+	 * @param sequence      The sequence number of the last change seen.
+	 * @param timeoutMillis The most time to wait, in milliseconds.
+	 * @throws InterruptedException Thrown if the thread is interrupted while waiting.
+	 */
+	void awaitAfter(final long sequence, final long timeoutMillis) throws InterruptedException
+	{
+		lock.lock();
+
+		try
+		{
+			if (lastSequence <= sequence) {
+				appended.await(timeoutMillis, TimeUnit.MILLISECONDS);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Wakes every subscription waiting for a change, such as one being closed.
+	 */
+	void wake()
+	{
+		lock.lock();
+
+		try
+		{
+			appended.signalAll();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Forgets a subscription which has been closed.
+	 *
+	 * @param subscription The {@link ChangeSubscription}.
+	 */
+	void remove(final ChangeSubscription subscription)
+	{
+		subscriptions.remove(subscription);
+	}
+
+	/**
+	 * Removes the segments of the log holding only changes before the sequence number, such as once every consumer
+	 * has handled them. The segment being appended to is always kept.
+	 *
+	 * @param sequence The sequence number of the first change to keep.
+	 * @return The number of segments removed.
+	 * @throws IOException Thrown if a segment could not be removed.
+	 */
+	public int deleteBefore(final long sequence) throws IOException
+	{
+		final File current = dir;
+		if (current == null) {
+			return 0;
+		}
+
+		final long keepFrom;
+		lock.lock();
+
+		try
+		{
+			keepFrom = Math.min(sequence, segmentStart);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		int removed = 0;
+		for (final File file : listSegments(current))
+		{
+			if (getSegmentStart(file) + SEGMENT_SIZE <= keepFrom)
+			{
+				Files.delete(file.toPath());
+				removed++;
+			}
+		}
+
+		return removed;
+	}
+
+	/**
+	 * Syncs the changes appended since the last sync. This is invoked in the background by the ParagonFS.
+	 */
+	public void sync()
+	{
+		lock.lock();
+
+		try
+		{
+			if (segment != null && unsynced)
+			{
+				segment.force(false);
+				unsynced = false;
+			}
+		}
+		catch (final IOException e)
+		{
+			LOG.warn("Unable to sync the change feed.", e);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Closes every subscription, then syncs and closes the log.
+	 */
+	@Override
+	public void close()
+	{
+		for (final ChangeSubscription subscription : subscriptions)
+		{
+			subscription.close();
+		}
+
+		sync();
+		lock.lock();
+
+		try
+		{
+			if (segment != null) {
+				segment.close();
+				segment = null;
+			}
+			dir = null;
+		}
+		catch (final IOException e)
+		{
+			LOG.warn("Unable to close the change feed.", e);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Reads the changes of a segment.
+	 *
+	 * @param file         The segment.
+	 * @param fromSequence The sequence number of the first change to read.
+	 * @param max          The most changes to read.
+	 * @return The changes, in order.
+	 * @throws IOException Thrown if the segment could not be read.
+	 */
+	private static List<ChangeEvent> readSegment(final File file, final long fromSequence, final int max)
+		throws IOException
+	{
+		final List<ChangeEvent> changes = new ArrayList<>();
+		try (final BufferedReader reader = new BufferedReader(
+			new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)))
+		{
+			String line;
+			while (changes.size() < max && (line = reader.readLine()) != null)
+			{
+				final ChangeEvent change;
+				try
+				{
+					change = ChangeEvent.fromObject(OBJECT_MAPPER.readValue(line, MAP_TYPE_REFERENCE));
+				}
+				catch (final IOException e)
+				{
+					// The last line may still be being written.
+					break;
+				}
+
+				if (change.getSequence() >= fromSequence) {
+					changes.add(change);
+				}
+			}
+		}
+
+		return changes;
+	}
+
+	/**
+	 * Returns the segments of the log, in order.
+	 *
+	 * @param dir The directory of the log.
+	 * @return The segment files.
+	 */
+	private static List<File> listSegments(final File dir)
+	{
+		final File[] files = dir.listFiles((parent, name) -> name.endsWith(SEGMENT_SUFFIX));
+		if (files == null) {
+			return Collections.emptyList();
+		}
+
+		// The names are zero padded, so they sort in the order of their sequence numbers.
+		Arrays.sort(files);
+		return Arrays.asList(files);
+	}
+
+	private static String getSegmentName(final long start)
+	{
+		return String.format("%020d", start) + SEGMENT_SUFFIX;
+	}
+
+	private static long getSegmentStart(final File file)
+	{
+		final String name = file.getName();
+
+		return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+	}
+}
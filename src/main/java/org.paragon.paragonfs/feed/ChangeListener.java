@@ -0,0 +1,18 @@
+package org.paragon.paragonfs.feed;
+
+import java.util.List;
+
+/**
+ * Receives the changes of a {@link ChangeSubscription}, a batch at a time.
+ */
+public interface ChangeListener
+{
+	/**
+	 * Handles a batch of changes. The next batch is only delivered once this returns, and if this throws the same
+	 * batch is delivered again after a pause, so every change is delivered at least once, in order.
+	 *
+	 * @param changes The changes, in order of their sequence numbers, which is never empty.
+	 * @throws Exception Thrown if the changes could not be handled, to have them delivered again.
+	 */
+	void onChanges(List<ChangeEvent> changes) throws Exception;
+}
@@ -0,0 +1,147 @@
+package org.paragon.paragonfs.feed;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A subscription to the {@link ChangeFeed}, delivering its changes to a {@link ChangeListener} on a thread of its own.
+ * The subscription pulls the next batch only once the listener has handled the last, so it never holds more than one
+ * batch in memory however far behind it falls, and catches up by reading the log.
+ */
+public class ChangeSubscription implements Closeable
+{
+	private static final Log LOG = LogFactory.getLog(ChangeSubscription.class);
+
+	/**
+	 * The number of milliseconds to wait for a change before checking whether the subscription has been closed.
+	 */
+	private static final long POLL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+	/**
+	 * The number of milliseconds to wait before delivering a batch again after the listener failed to handle it.
+	 */
+	private static final long RETRY_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+	private final ChangeFeed feed;
+
+	private final int batchSize;
+
+	private final ChangeListener listener;
+
+	private final Thread thread;
+
+	/**
+	 * The sequence number of the next change to deliver.
+	 */
+	private volatile long nextSequence;
+
+	private volatile boolean closed;
+
+	ChangeSubscription(final ChangeFeed feed, final long fromSequence, final int batchSize,
+					   final ChangeListener listener, final String name)
+	{
+		this.feed = feed;
+		this.nextSequence = fromSequence;
+		this.batchSize = batchSize;
+		this.listener = listener;
+		this.thread = new Thread(this::deliver, name);
+		this.thread.setDaemon(true);
+	}
+
+	void start()
+	{
+		thread.start();
+	}
+
+	/**
+	 * Returns the sequence number of the next change to deliver, which is where to resume from once the subscription
+	 * is closed.
+	 *
+	 * @return The sequence number.
+	 */
+	public long getNextSequence()
+	{
+		return nextSequence;
+	}
+
+	private void deliver()
+	{
+		while (!closed)
+		{
+			try
+			{
+				final List<ChangeEvent> changes = feed.read(nextSequence, batchSize);
+				if (changes.isEmpty())
+				{
+					feed.awaitAfter(nextSequence - 1, POLL_MILLIS);
+					continue;
+				}
+
+				try
+				{
+					listener.onChanges(changes);
+				}
+				catch (final Exception e)
+				{
+					LOG.warn("The listener of " + thread.getName() + " failed, retrying from the change "
+						+ nextSequence + ".", e);
+					Thread.sleep(RETRY_MILLIS);
+					continue;
+				}
+
+				nextSequence = changes.get(changes.size() - 1).getSequence() + 1;
+			}
+			catch (final InterruptedException e)
+			{
+				if (!closed) {
+					LOG.warn("The " + thread.getName() + " subscription was interrupted.", e);
+				}
+				return;
+			}
+			catch (final Exception e)
+			{
+				LOG.warn("Unable to read the change feed for " + thread.getName() + ".", e);
+
+				try
+				{
+					Thread.sleep(RETRY_MILLIS);
+				}
+				catch (final InterruptedException ignored)
+				{
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stops the subscription, waiting for the batch being delivered, if any, to be handled.
+	 */
+	@Override
+	public void close()
+	{
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		feed.wake();
+		feed.remove(this);
+
+		if (Thread.currentThread() != thread)
+		{
+			try
+			{
+				thread.join(RETRY_MILLIS + POLL_MILLIS);
+			}
+			catch (final InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
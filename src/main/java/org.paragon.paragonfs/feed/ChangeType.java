@@ -0,0 +1,22 @@
+package org.paragon.paragonfs.feed;
+
+/**
+ * The kinds of change a {@link ChangeEvent} records.
+ */
+public enum ChangeType
+{
+	/**
+	 * A Paradigm was created, and has no values yet.
+	 */
+	CREATE,
+
+	/**
+	 * The values of some keys of a Paradigm were set.
+	 */
+	UPDATE,
+
+	/**
+	 * A Paradigm was deleted.
+	 */
+	DELETE
+}
@@ -0,0 +1,222 @@
+package org.paragon.paragonfs.io;
+
+import org.paragon.paragonfs.metrics.LatencyHistogram;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes files with {@link FlushMode#ATOMIC_RENAME}: the contents are written to a temporary file next to the target,
+ * synced, and then moved over the target. The temporary file is synced whatever the {@link Durability}, as otherwise a
+ * crash could leave the move durable but not the contents, replacing a good file with an empty or partial one.<br />
+ * <br />
+ * The move itself is only durable once the directory has been synced too. With {@link Durability#ASYNC} that is left
+ * to the {@link BackgroundSyncer}. Those syncs are batched: writers which
+ * renamed within the same directory stripe while another writer was syncing are all covered by a single sync of every
+ * directory touched, rather than each syncing the directory in turn.
+ */
+public class AtomicFileWriter
+{
+	private static final String TEMP_FILE_PREFIX = ".";
+
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+	/**
+	 * The number of stripes the directory syncs are batched within.
+	 */
+	private static final int STRIPE_COUNT = 64;
+
+	/**
+	 * Directories can't be opened for syncing on Windows, where the move is durable once it returns anyways.
+	 */
+	private static final boolean SYNC_DIRECTORIES = File.separatorChar == '/';
+
+	/**
+	 * The stripes directory syncs are batched within.
+	 */
+	private final DirectoryStripe[] stripes = new DirectoryStripe[STRIPE_COUNT];
+
+	/**
+	 * The time taken by each sync.
+	 */
+	private final LatencyHistogram fsyncLatency;
+
+	/**
+	 * The {@link BackgroundSyncer} which syncs the files written with {@link Durability#ASYNC}.
+	 */
+	private final BackgroundSyncer backgroundSyncer;
+
+	/**
+	 * Initializes the {@link AtomicFileWriter}.
+	 *
+	 * @param fsyncLatency     The histogram to record the time taken by each sync to.
+	 * @param backgroundSyncer The {@link BackgroundSyncer} for writes with {@link Durability#ASYNC}.
+	 */
+	public AtomicFileWriter(final LatencyHistogram fsyncLatency, final BackgroundSyncer backgroundSyncer)
+	{
+		this.fsyncLatency = fsyncLatency;
+		this.backgroundSyncer = backgroundSyncer;
+
+		for (int index = 0; index < STRIPE_COUNT; index++)
+		{
+			stripes[index] = new DirectoryStripe();
+		}
+	}
+
+	/**
+	 * Returns the temporary file used when writing the target. Only one write to a target may be in progress at a
+	 * time, which {@link org.paragon.paragonfs.paradigm.Paradigm}'s write lock ensures.
+	 *
+	 * @param target The file being written.
+	 * @return The temporary file, within the same directory as the target.
+	 */
+	public static File getTempFile(final File target)
+	{
+		return new File(target.getParentFile(), TEMP_FILE_PREFIX + target.getName() + TEMP_FILE_SUFFIX);
+	}
+
+	/**
+	 * Atomically replaces the contents of the target.
+	 *
+	 * @param target     The file to write.
+	 * @param bytes      The new contents of the file.
+	 * @param durability How durable the write must be before this method returns, which must not be
+	 *                   {@link Durability#MEMORY}.
+	 * @throws IOException Thrown if the file could not be written.
+	 */
+	public void write(final File target, final byte[] bytes, final Durability durability) throws IOException
+	{
+		final File temp = getTempFile(target);
+
+		try (final FileOutputStream stream = new FileOutputStream(temp, false))
+		{
+			stream.write(bytes);
+
+			// Only the data needs to be synced, the rename and directory sync take care of the rest.
+			final long start = System.nanoTime();
+			stream.getChannel().force(false);
+			fsyncLatency.recordSince(start);
+		}
+
+		Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+		if (durability == Durability.SYNC || durability == Durability.DATA_SYNC) {
+			syncDirectory(target.getParentFile());
+		}
+		else if (SYNC_DIRECTORIES) {
+			backgroundSyncer.add(target.getParentFile());
+		}
+	}
+
+	/**
+	 * Syncs the directory, unless a sync which started after this was invoked has already covered it.
+	 *
+	 * @param dir The directory to sync.
+	 * @throws IOException Thrown if the directory could not be synced.
+	 */
+	public void syncDirectory(final File dir) throws IOException
+	{
+		if (!SYNC_DIRECTORIES) {
+			return;
+		}
+
+		final DirectoryStripe stripe = stripes[(dir.hashCode() & Integer.MAX_VALUE) % STRIPE_COUNT];
+
+		final long ticket;
+		synchronized (stripe.pendingLock)
+		{
+			stripe.pending.add(dir);
+			ticket = ++stripe.requested;
+		}
+
+		stripe.syncLock.lock();
+
+		try
+		{
+			if (stripe.completed >= ticket) {
+				return;
+			}
+
+			// Take everything which has been requested so far, which includes this request.
+			final Set<File> dirs;
+			final long covered;
+			synchronized (stripe.pendingLock)
+			{
+				dirs = stripe.pending;
+				covered = stripe.requested;
+				stripe.pending = new LinkedHashSet<>();
+			}
+
+			try
+			{
+				for (final File pendingDir : dirs)
+				{
+					final long start = System.nanoTime();
+					try (final FileChannel channel = FileChannel.open(pendingDir.toPath(), StandardOpenOption.READ))
+					{
+						channel.force(true);
+					}
+					finally
+					{
+						fsyncLatency.recordSince(start);
+					}
+				}
+			}
+			catch (final IOException e)
+			{
+				// Put the directories back, so the writers waiting on them retry rather than assume they were synced.
+				synchronized (stripe.pendingLock)
+				{
+					stripe.pending.addAll(dirs);
+				}
+
+				throw e;
+			}
+
+			stripe.completed = covered;
+		}
+		finally
+		{
+			stripe.syncLock.unlock();
+		}
+	}
+
+	/**
+	 * The state of the directory syncs within a stripe.
+	 */
+	private static class DirectoryStripe
+	{
+		/**
+		 * Held while directories are added to, or taken from, the pending set.
+		 */
+		private final Object pendingLock = new Object();
+
+		/**
+		 * Held while syncing, so only one sync per stripe runs at a time.
+		 */
+		private final ReentrantLock syncLock = new ReentrantLock();
+
+		/**
+		 * The directories which need to be synced.
+		 */
+		private Set<File> pending = new LinkedHashSet<>();
+
+		/**
+		 * The number of syncs requested, guarded by the pending lock.
+		 */
+		private long requested;
+
+		/**
+		 * The number of requested syncs which have been completed, guarded by the sync lock.
+		 */
+		private long completed;
+	}
+}
@@ -0,0 +1,93 @@
+package org.paragon.paragonfs.io;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.paragon.paragonfs.metrics.LatencyHistogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Syncs the files written with {@link Durability#ASYNC} to disk in the background. Files are collected as they are
+ * written and then synced together on each run, so a file written many times between runs is only synced once. A
+ * directory can be added too, once a file has been moved into it, and is synced the same way.
+ */
+public class BackgroundSyncer implements Runnable
+{
+	private static final Log LOG = LogFactory.getLog(BackgroundSyncer.class);
+
+	/**
+	 * The time taken by each sync, which is recorded alongside the syncs made by writes.
+	 */
+	private final LatencyHistogram fsyncLatency;
+
+	/**
+	 * The files which have been written since the last run.
+	 */
+	private Set<File> pending = new LinkedHashSet<>();
+
+	private final Object _lock = new Object();
+
+	/**
+	 * Initializes the {@link BackgroundSyncer}.
+	 *
+	 * @param fsyncLatency The histogram to record the time taken by each sync to.
+	 */
+	public BackgroundSyncer(final LatencyHistogram fsyncLatency)
+	{
+		this.fsyncLatency = fsyncLatency;
+	}
+
+	/**
+	 * Adds a file, or a directory, to be synced on the next run.
+	 *
+	 * @param file The file which has been written, or the directory a file has been moved into.
+	 */
+	public void add(final File file)
+	{
+		synchronized (_lock)
+		{
+			pending.add(file);
+		}
+	}
+
+	@Override
+	public void run()
+	{
+		final Set<File> files;
+		synchronized (_lock)
+		{
+			files = pending;
+			pending = new LinkedHashSet<>();
+		}
+
+		for (final File file : files)
+		{
+			// The file may have been deleted and reclaimed since it was written.
+			if (!file.exists()) {
+				continue;
+			}
+
+			final long start = System.nanoTime();
+			// A directory can only be opened for reading, and its entries are its metadata, so that is synced as well.
+			final boolean directory = file.isDirectory();
+			try (final FileChannel channel = FileChannel.open(file.toPath(),
+				directory ? StandardOpenOption.READ : StandardOpenOption.WRITE))
+			{
+				channel.force(directory);
+			}
+			catch (final IOException e)
+			{
+				LOG.warn("Unable to sync " + file.getAbsolutePath() + ".", e);
+			}
+			finally
+			{
+				fsyncLatency.recordSince(start);
+			}
+		}
+	}
+}
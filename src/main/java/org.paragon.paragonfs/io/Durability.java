@@ -0,0 +1,41 @@
+package org.paragon.paragonfs.io;
+
+/**
+ * How durable a write to a {@link org.paragon.paragonfs.paradigm.Paradigm} must be before it returns. The level can
+ * be set on the {@link org.paragon.paragonfs.ParagonFS}, overridden per
+ * {@link org.paragon.paragonfs.archetype.Archetype} and again on each write.
+ */
+public enum Durability
+{
+	/**
+	 * The file's data and metadata are synced to disk before the write returns.
+	 */
+	SYNC,
+
+	/**
+	 * Only the file's data is synced to disk before the write returns, metadata such as the modified time may be
+	 * lost on a crash.
+	 */
+	DATA_SYNC,
+
+	/**
+	 * The file is written to the operating system, which is then synced to disk by the {@link BackgroundSyncer} shortly
+	 * after. A crash may lose the writes made since the last background sync.
+	 */
+	ASYNC,
+
+	/**
+	 * The values are only updated in memory and the Paradigm is marked dirty, then the
+	 * {@link org.paragon.paragonfs.paradigm.WriteBackFlusher} writes it, with {@link #DATA_SYNC}, within its flush
+	 * interval. Repeated updates to the same Paradigm between flushes are coalesced into a single write, and a crash
+	 * loses the updates which have not been flushed yet.
+	 */
+	WRITE_BACK,
+
+	/**
+	 * Nothing is written to disk, the values are only kept in memory until a write with another durability is made.
+	 * This is meant for scratch data which can be rebuilt, as it is lost once the
+	 * {@link org.paragon.paragonfs.ParagonFS} is closed.
+	 */
+	MEMORY
+}
@@ -0,0 +1,19 @@
+package org.paragon.paragonfs.io;
+
+/**
+ * How a {@link org.paragon.paragonfs.paradigm.Paradigm} is written to its file.
+ */
+public enum FlushMode
+{
+	/**
+	 * The file is truncated and rewritten in place. This is the cheapest, but a crash, or a reader in another process,
+	 * can see an empty or partially written file.
+	 */
+	IN_PLACE,
+
+	/**
+	 * The Paradigm is written to a temporary file in the same directory, which is then atomically moved over the
+	 * file. Readers only ever see the old or the new contents.
+	 */
+	ATOMIC_RENAME
+}
@@ -0,0 +1,23 @@
+package org.paragon.paragonfs.io;
+
+/**
+ * The priority classes of the disk I/O which goes through the {@link IoScheduler}, from the highest to the lowest.
+ */
+public enum IoClass
+{
+	/**
+	 * The reads and writes made on behalf of a caller, which are never held back.
+	 */
+	FOREGROUND,
+
+	/**
+	 * The flushes of the updates made with {@link Durability#WRITE_BACK}, which writers wait on once too much is
+	 * dirty, so they are not rate limited by default.
+	 */
+	WRITE_BACK,
+
+	/**
+	 * The compaction, tier migration, expiry and backups run in the background.
+	 */
+	MAINTENANCE
+}
@@ -0,0 +1,320 @@
+package org.paragon.paragonfs.io;
+
+import org.paragon.paragonfs.metrics.LatencyHistogram;
+import org.paragon.paragonfs.metrics.ParagonFSMetrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The I/O scheduler every disk operation of a {@link org.paragon.paragonfs.ParagonFS} goes through, which keeps the
+ * background work from competing with the reads and writes made on behalf of callers.<br />
+ * <br />
+ * {@link IoClass#FOREGROUND} I/O is only counted, per {@link Volume}, with {@link #enter(Volume)} and
+ * {@link #exit(Volume)}, and is never held back. Background I/O is admitted with {@link #acquire(IoClass, Volume,
+ * long)}, which waits for:
+ * <ul>
+ *     <li>one of the few background slots of the volume, so only a bounded queue of background work reaches each
+ *     drive;</li>
+ *     <li>the foreground I/O on the volume to drain, for up to the defer time, so a busy volume serves its callers
+ *     first without starving the background work;</li>
+ *     <li>the tokens for its bytes, from the token bucket of its class.</li>
+ * </ul>
+ * Background work is admitted before it takes any lock, so it never holds up a caller while it waits. The I/O a
+ * Paradigm makes while background work has been admitted on the same thread is counted as that background work, not as
+ * foreground I/O.
+ */
+public class IoScheduler
+{
+	/**
+	 * The default number of bytes per second of {@link IoClass#MAINTENANCE} I/O.
+	 */
+	public static final long DEFAULT_MAINTENANCE_BYTES_PER_SECOND = 32L * 1024 * 1024;
+
+	/**
+	 * The default number of background operations which may be in flight on each volume at once.
+	 */
+	public static final int DEFAULT_BACKGROUND_QUEUE_DEPTH = 2;
+
+	/**
+	 * The default number of milliseconds background I/O waits for the foreground I/O on its volume to drain.
+	 */
+	public static final long DEFAULT_MAX_DEFER_MILLIS = 50;
+
+	/**
+	 * The index the cold tier is queued under, as it is not one of the volumes.
+	 */
+	private static final int COLD_TIER = -1;
+
+	/**
+	 * How often background I/O checks whether the foreground I/O has drained, in nanoseconds.
+	 */
+	private static final long DEFER_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	/**
+	 * The queue of each volume, by the volume's index.
+	 */
+	private final ConcurrentMap<Integer, VolumeQueue> queues = new ConcurrentHashMap<>();
+
+	/**
+	 * The rate limit of each background class.
+	 */
+	private final Map<IoClass, TokenBucket> rateLimits = new EnumMap<>(IoClass.class);
+
+	/**
+	 * The time spent waiting to be admitted, by background class.
+	 */
+	private final Map<IoClass, LatencyHistogram> waits = new EnumMap<>(IoClass.class);
+
+	/**
+	 * The background class admitted on each thread, if any.
+	 */
+	private final ThreadLocal<IoClass> admitted = new ThreadLocal<>();
+
+	private volatile int backgroundQueueDepth = DEFAULT_BACKGROUND_QUEUE_DEPTH;
+
+	private volatile long maxDeferMillis = DEFAULT_MAX_DEFER_MILLIS;
+
+	/**
+	 * Initializes the {@link IoScheduler}.
+	 *
+	 * @param metrics The metrics the time spent waiting is recorded to.
+	 */
+	public IoScheduler(final ParagonFSMetrics metrics)
+	{
+		rateLimits.put(IoClass.WRITE_BACK, new TokenBucket(0));
+		rateLimits.put(IoClass.MAINTENANCE, new TokenBucket(DEFAULT_MAINTENANCE_BYTES_PER_SECOND));
+		waits.put(IoClass.WRITE_BACK, metrics.histogram(ParagonFSMetrics.IO_WRITE_BACK_WAIT));
+		waits.put(IoClass.MAINTENANCE, metrics.histogram(ParagonFSMetrics.IO_MAINTENANCE_WAIT));
+	}
+
+	/**
+	 * Counts the start of foreground I/O on a volume. Every call must be followed by {@link #exit(Volume)}.
+	 *
+	 * @param volume The {@link Volume}, or null for the cold tier.
+	 */
+	public void enter(final Volume volume)
+	{
+		if (admitted.get() == null) {
+			getQueue(volume).foreground.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Counts the end of foreground I/O on a volume.
+	 *
+	 * @param volume The {@link Volume}, or null for the cold tier.
+	 */
+	public void exit(final Volume volume)
+	{
+		if (admitted.get() == null) {
+			getQueue(volume).foreground.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Admits background I/O on a volume, waiting for a slot, for the foreground I/O to drain and for the tokens of its
+	 * bytes. Every call must be followed by {@link #release(IoClass, Volume)}, on the same thread.
+	 *
+	 * @param ioClass The background {@link IoClass}.
+	 * @param volume  The {@link Volume}, or null for the cold tier.
+	 * @param bytes   The number of bytes it reads or writes, as near as is known.
+	 */
+	public void acquire(final IoClass ioClass, final Volume volume, final long bytes)
+	{
+		if (ioClass == IoClass.FOREGROUND) {
+			throw new IllegalArgumentException("Foreground I/O is not admitted, it is entered.");
+		}
+
+		final long start = System.nanoTime();
+		final VolumeQueue queue = getQueue(volume);
+		queue.lock.lock();
+
+		try
+		{
+			while (queue.background >= backgroundQueueDepth)
+			{
+				queue.released.awaitUninterruptibly();
+			}
+			queue.background++;
+
+			// Poll rather than be signalled, so the foreground never has to take this lock.
+			final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDeferMillis);
+			while (queue.foreground.get() > 0 && System.nanoTime() < deadline)
+			{
+				queue.deferred.awaitNanos(DEFER_POLL_NANOS);
+			}
+		}
+		catch (final InterruptedException e)
+		{
+			// Go ahead rather than fail the work, and leave it to the caller to notice the interrupt.
+			Thread.currentThread().interrupt();
+		}
+		finally
+		{
+			queue.lock.unlock();
+		}
+
+		rateLimits.get(ioClass).acquire(bytes);
+		admitted.set(ioClass);
+		waits.get(ioClass).recordSince(start);
+	}
+
+	/**
+	 * Releases background I/O once it is done.
+	 *
+	 * @param ioClass The background {@link IoClass}.
+	 * @param volume  The {@link Volume}, or null for the cold tier.
+	 */
+	public void release(final IoClass ioClass, final Volume volume)
+	{
+		admitted.remove();
+
+		final VolumeQueue queue = getQueue(volume);
+		queue.lock.lock();
+
+		try
+		{
+			queue.background--;
+			queue.released.signal();
+		}
+		finally
+		{
+			queue.lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of foreground operations in flight on a volume.
+	 *
+	 * @param volume The {@link Volume}, or null for the cold tier.
+	 * @return The number of operations.
+	 */
+	public int getForegroundInFlight(final Volume volume)
+	{
+		return getQueue(volume).foreground.get();
+	}
+
+	/**
+	 * Returns the number of bytes per second a background class may read and write.
+	 *
+	 * @param ioClass The background {@link IoClass}.
+	 * @return The rate, or 0 if it is not limited.
+	 */
+	public long getRateLimit(final IoClass ioClass)
+	{
+		return getRateLimiter(ioClass).getRate();
+	}
+
+	/**
+	 * Sets the number of bytes per second a background class may read and write.
+	 *
+	 * @param ioClass        The background {@link IoClass}.
+	 * @param bytesPerSecond The rate, or 0 so it is not limited.
+	 */
+	public void setRateLimit(final IoClass ioClass, final long bytesPerSecond)
+	{
+		getRateLimiter(ioClass).setRate(bytesPerSecond);
+	}
+
+	public int getBackgroundQueueDepth()
+	{
+		return backgroundQueueDepth;
+	}
+
+	/**
+	 * Sets the number of background operations which may be in flight on each volume at once.
+	 *
+	 * @param backgroundQueueDepth The number of operations.
+	 */
+	public void setBackgroundQueueDepth(final int backgroundQueueDepth)
+	{
+		if (backgroundQueueDepth < 1) {
+			throw new IllegalArgumentException("The background queue depth must be positive.");
+		}
+
+		this.backgroundQueueDepth = backgroundQueueDepth;
+		for (final VolumeQueue queue : queues.values())
+		{
+			queue.lock.lock();
+
+			try
+			{
+				queue.released.signalAll();
+			}
+			finally
+			{
+				queue.lock.unlock();
+			}
+		}
+	}
+
+	public long getMaxDeferMillis()
+	{
+		return maxDeferMillis;
+	}
+
+	/**
+	 * Sets the number of milliseconds background I/O waits for the foreground I/O on its volume to drain.
+	 *
+	 * @param maxDeferMillis The time, in milliseconds, or 0 so background I/O doesn't wait on the foreground.
+	 */
+	public void setMaxDeferMillis(final long maxDeferMillis)
+	{
+		if (maxDeferMillis < 0) {
+			throw new IllegalArgumentException("The defer time must not be negative.");
+		}
+
+		this.maxDeferMillis = maxDeferMillis;
+	}
+
+	private TokenBucket getRateLimiter(final IoClass ioClass)
+	{
+		final TokenBucket rateLimit = rateLimits.get(ioClass);
+		if (rateLimit == null) {
+			throw new IllegalArgumentException("Foreground I/O is not rate limited.");
+		}
+
+		return rateLimit;
+	}
+
+	private VolumeQueue getQueue(final Volume volume)
+	{
+		return queues.computeIfAbsent(volume == null ? COLD_TIER : volume.getIndex(), index -> new VolumeQueue());
+	}
+
+	/**
+	 * The I/O in flight on one volume.
+	 */
+	private static final class VolumeQueue
+	{
+		/**
+		 * The number of foreground operations in flight.
+		 */
+		private final AtomicInteger foreground = new AtomicInteger();
+
+		/**
+		 * The number of background operations in flight. This is guarded by the lock.
+		 */
+		private int background;
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		/**
+		 * Signalled as background operations are released, and only awaited for a slot.
+		 */
+		private final Condition released = lock.newCondition();
+
+		/**
+		 * Awaited while polling for the foreground to drain, and never signalled, so a release always wakes a waiter
+		 * for a slot rather than a poller.
+		 */
+		private final Condition deferred = lock.newCondition();
+	}
+}
@@ -0,0 +1,109 @@
+package org.paragon.paragonfs.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A token bucket which limits the rate of some background work, such as the bytes it reads and writes per second.
+ * The bucket holds up to a second's worth of tokens, so a burst after a quiet period goes straight through.<br />
+ * <br />
+ * Taking more tokens than the bucket holds is allowed, leaving it in debt, and the caller waits for the debt to be
+ * paid back instead. That way a single large request is never refused, it just waits as long as its size calls for.
+ */
+public class TokenBucket
+{
+	/**
+	 * The number of tokens added per second, or 0 if the rate is not limited.
+	 */
+	private volatile long rate;
+
+	/**
+	 * The number of tokens in the bucket, which is negative while in debt. This is guarded by the lock.
+	 */
+	private double tokens;
+
+	/**
+	 * The time the tokens were last added, from {@link System#nanoTime()}. This is guarded by the lock.
+	 */
+	private long refilledAt = System.nanoTime();
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Initializes the {@link TokenBucket}, full.
+	 *
+	 * @param rate The number of tokens added per second, or 0 so the rate is not limited.
+	 */
+	public TokenBucket(final long rate)
+	{
+		setRate(rate);
+		this.tokens = rate;
+	}
+
+	/**
+	 * Takes tokens from the bucket, waiting until any debt has been paid back.
+	 *
+	 * @param permits The number of tokens to take.
+	 * @return The number of nanoseconds waited.
+	 */
+	public long acquire(final long permits)
+	{
+		final long limit = rate;
+		if (limit == 0 || permits <= 0) {
+			return 0;
+		}
+
+		final long waitNanos;
+		lock.lock();
+
+		try
+		{
+			final long now = System.nanoTime();
+			tokens = Math.min(limit, tokens + (now - refilledAt) * (double) limit / TimeUnit.SECONDS.toNanos(1));
+			refilledAt = now;
+			tokens -= permits;
+			waitNanos = tokens >= 0 ? 0 : (long) (-tokens * TimeUnit.SECONDS.toNanos(1) / limit);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		// The tokens are already taken, so the following callers queue up behind this one's debt.
+		final long deadline = System.nanoTime() + waitNanos;
+		for (long remaining = waitNanos; remaining > 0; remaining = deadline - System.nanoTime())
+		{
+			LockSupport.parkNanos(remaining);
+			if (Thread.currentThread().isInterrupted()) {
+				break;
+			}
+		}
+
+		return waitNanos;
+	}
+
+	/**
+	 * Returns the number of tokens added per second.
+	 *
+	 * @return The rate, or 0 if it is not limited.
+	 */
+	public long getRate()
+	{
+		return rate;
+	}
+
+	/**
+	 * Sets the number of tokens added per second.
+	 *
+	 * @param rate The rate, or 0 so it is not limited.
+	 */
+	public void setRate(final long rate)
+	{
+		if (rate < 0) {
+			throw new IllegalArgumentException("The rate must not be negative.");
+		}
+
+		this.rate = rate;
+	}
+}
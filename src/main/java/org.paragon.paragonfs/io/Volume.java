@@ -0,0 +1,78 @@
+package org.paragon.paragonfs.io;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One of the data directories a {@link org.paragon.paragonfs.ParagonFS} stripes its Paradigms across, usually a
+ * separate drive. Every volume has its own pool of I/O threads, so a slow or busy volume only holds up the reads and
+ * flushes of the Paradigms placed on it.
+ */
+public class Volume
+{
+	/**
+	 * The position of this volume within the ParagonFS's volumes, which is what Paradigms are placed by.
+	 */
+	private final int index;
+
+	/**
+	 * The directory the volume stores its Paradigms in, under a directory per Archetype.
+	 */
+	private final File dir;
+
+	/**
+	 * The executor which runs the reads and flushes of this volume.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * Initializes the {@link Volume}.
+	 *
+	 * @param index   The position of this volume within the ParagonFS's volumes.
+	 * @param dir     The directory the volume stores its Paradigms in.
+	 * @param threads The number of I/O threads of the volume.
+	 */
+	public Volume(final int index, final File dir, final int threads)
+	{
+		this.index = index;
+		this.dir = dir.getAbsoluteFile();
+
+		final AtomicInteger count = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+			final Thread thread = new Thread(runnable, "paragonfs-io-" + index + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+
+			return thread;
+		});
+	}
+
+	public int getIndex()
+	{
+		return index;
+	}
+
+	public File getDir()
+	{
+		return dir;
+	}
+
+	/**
+	 * Returns the executor which runs the reads and flushes of this volume.
+	 *
+	 * @return The volume's {@link ExecutorService}.
+	 */
+	public ExecutorService getExecutor()
+	{
+		return executor;
+	}
+
+	/**
+	 * Stops the volume's I/O threads once the work already submitted is done.
+	 */
+	public void shutdown()
+	{
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,49 @@
+package org.paragon.paragonfs.io;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The gate every change to the files of a {@link org.paragon.paragonfs.ParagonFS} passes through, which can be closed
+ * to quiesce the writers for a moment, such as while a snapshot is taken. Any number of writers may be through the
+ * gate at once, and quiescing waits for those already through to leave while holding back any new ones.<br />
+ * <br />
+ * Writers must pass the gate before taking any other lock, and a thread which has quiesced the gate may still pass it
+ * itself.
+ */
+public class WriteGate
+{
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Passes the gate, waiting while it is quiesced. Every call must be followed by {@link #exit()}.
+	 */
+	public void enter()
+	{
+		lock.readLock().lock();
+	}
+
+	/**
+	 * Leaves the gate after a change.
+	 */
+	public void exit()
+	{
+		lock.readLock().unlock();
+	}
+
+	/**
+	 * Closes the gate, waiting for the writers already through it to leave. Every call must be followed by
+	 * {@link #resume()}.
+	 */
+	public void quiesce()
+	{
+		lock.writeLock().lock();
+	}
+
+	/**
+	 * Opens the gate again, letting the writers held back through.
+	 */
+	public void resume()
+	{
+		lock.writeLock().unlock();
+	}
+}
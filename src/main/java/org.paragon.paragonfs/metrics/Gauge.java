@@ -0,0 +1,14 @@
+package org.paragon.paragonfs.metrics;
+
+/**
+ * A gauge is a metric whose value is read when a {@link MetricsSnapshot} is taken, rather than being recorded.
+ */
+public interface Gauge
+{
+	/**
+	 * Returns the current value of the gauge.
+	 *
+	 * @return The gauge's value.
+	 */
+	long getValue();
+}
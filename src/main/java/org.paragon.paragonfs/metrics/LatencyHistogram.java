@@ -0,0 +1,236 @@
+package org.paragon.paragonfs.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies, in nanoseconds, with a fixed set of log-linear buckets in the style of an HDR histogram.
+ * Every power of two is split into eight buckets, so any recorded value is reported within 12.5% of what it was.<br />
+ * <br />
+ * Recording never locks, and each counter is a {@link LongAdder} which spreads concurrent increments across cells, so
+ * threads recording on different cores don't contend on the same cache line. This makes it safe to use on the hot
+ * path, such as every in-memory read. A snapshot adds the cells up, so it costs more than recording.
+ */
+public class LatencyHistogram
+{
+	/**
+	 * The number of bits used for the buckets within a power of two.
+	 */
+	private static final int SUB_BUCKET_BITS = 3;
+
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Values below the sub-bucket count get a bucket each, then there are eight buckets for each power of two up to
+	 * 2^62.
+	 */
+	private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	/**
+	 * The number of values recorded within each bucket.
+	 */
+	private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+	/**
+	 * The sum of all values recorded.
+	 */
+	private final LongAdder sum = new LongAdder();
+
+	/**
+	 * The largest value recorded.
+	 */
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	public LatencyHistogram()
+	{
+		for (int index = 0; index < BUCKET_COUNT; index++)
+		{
+			buckets[index] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Records a latency.
+	 *
+	 * @param nanos The latency, in nanoseconds.
+	 */
+	public void record(final long nanos)
+	{
+		final long value = nanos < 0 ? 0 : nanos;
+
+		// The count is the total of the buckets, so it needs no counter of its own.
+		buckets[getBucketIndex(value)].increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * Records the time elapsed since the start time.
+	 *
+	 * @param startNanos The start time, as returned by {@link System#nanoTime()}.
+	 */
+	public void recordSince(final long startNanos)
+	{
+		record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Returns a point-in-time {@link Snapshot} of the histogram.
+	 *
+	 * @return The {@link Snapshot}.
+	 */
+	public Snapshot snapshot()
+	{
+		final long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int index = 0; index < BUCKET_COUNT; index++)
+		{
+			counts[index] = buckets[index].sum();
+			total += counts[index];
+		}
+
+		final long maxValue = max.get();
+
+		return new Snapshot(
+			total,
+			sum.sum(),
+			maxValue,
+			getPercentile(counts, total, maxValue, 0.50),
+			getPercentile(counts, total, maxValue, 0.90),
+			getPercentile(counts, total, maxValue, 0.99),
+			getPercentile(counts, total, maxValue, 0.999)
+		);
+	}
+
+	/**
+	 * Returns the value at the percentile, which is the upper bound of the bucket it falls within.
+	 *
+	 * @param counts   The bucket counts.
+	 * @param total    The total of the bucket counts.
+	 * @param maxValue The largest value recorded, which no percentile is reported above.
+	 * @param quantile The percentile, between 0 and 1.
+	 * @return The value at the percentile, or 0 if nothing was recorded.
+	 */
+	private static long getPercentile(final long[] counts, final long total, final long maxValue, final double quantile)
+	{
+		if (total == 0) {
+			return 0;
+		}
+
+		final long rank = Math.max(1, (long) Math.ceil(total * quantile));
+		long seen = 0;
+		for (int index = 0; index < counts.length; index++)
+		{
+			seen += counts[index];
+			if (seen >= rank) {
+				return Math.min(getBucketUpperBound(index), maxValue);
+			}
+		}
+
+		return maxValue;
+	}
+
+	/**
+	 * Returns the index of the bucket the value is recorded in.
+	 *
+	 * @param value The value, which must not be negative.
+	 * @return The bucket index.
+	 */
+	static int getBucketIndex(final long value)
+	{
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+
+		final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		final int shift = magnitude - SUB_BUCKET_BITS;
+		final int subBucket = (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+
+		return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	/**
+	 * Returns the largest value which is recorded in the bucket.
+	 *
+	 * @param index The bucket index.
+	 * @return The bucket's upper bound.
+	 */
+	static long getBucketUpperBound(final int index)
+	{
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+
+		final int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+		final long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+		final long lowerBound = (SUB_BUCKET_COUNT + subBucket) << shift;
+
+		return lowerBound + (1L << shift) - 1;
+	}
+
+	/**
+	 * An immutable view of a {@link LatencyHistogram} at a point in time. All values are in nanoseconds.
+	 */
+	public static class Snapshot
+	{
+		private final long count;
+		private final long sum;
+		private final long max;
+		private final long p50;
+		private final long p90;
+		private final long p99;
+		private final long p999;
+
+		public Snapshot(final long count, final long sum, final long max, final long p50, final long p90,
+						final long p99, final long p999)
+		{
+			this.count = count;
+			this.sum = sum;
+			this.max = max;
+			this.p50 = p50;
+			this.p90 = p90;
+			this.p99 = p99;
+			this.p999 = p999;
+		}
+
+		public long getCount()
+		{
+			return count;
+		}
+
+		public long getSum()
+		{
+			return sum;
+		}
+
+		public long getMean()
+		{
+			return count == 0 ? 0 : sum / count;
+		}
+
+		public long getMax()
+		{
+			return max;
+		}
+
+		public long getP50()
+		{
+			return p50;
+		}
+
+		public long getP90()
+		{
+			return p90;
+		}
+
+		public long getP99()
+		{
+			return p99;
+		}
+
+		public long getP999()
+		{
+			return p999;
+		}
+	}
+}
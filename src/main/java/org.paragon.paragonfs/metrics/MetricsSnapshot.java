@@ -0,0 +1,106 @@
+package org.paragon.paragonfs.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable, point-in-time view of every metric within a {@link ParagonFSMetrics} registry.
+ */
+public class MetricsSnapshot
+{
+	/**
+	 * The timestamp, in milliseconds, at which the snapshot was taken.
+	 */
+	private final long timestamp;
+
+	/**
+	 * The value of every counter and gauge, keyed by name.
+	 */
+	private final Map<String, Long> counters;
+
+	/**
+	 * A snapshot of every histogram, keyed by name.
+	 */
+	private final Map<String, LatencyHistogram.Snapshot> histograms;
+
+	/**
+	 * Initializes the {@link MetricsSnapshot}.
+	 *
+	 * @param timestamp  The time at which the snapshot was taken.
+	 * @param counters   The value of every counter and gauge.
+	 * @param histograms A snapshot of every histogram.
+	 */
+	public MetricsSnapshot(final long timestamp, final Map<String, Long> counters,
+						   final Map<String, LatencyHistogram.Snapshot> histograms)
+	{
+		this.timestamp = timestamp;
+		this.counters = Collections.unmodifiableMap(new LinkedHashMap<>(counters));
+		this.histograms = Collections.unmodifiableMap(new LinkedHashMap<>(histograms));
+	}
+
+	public long getTimestamp()
+	{
+		return timestamp;
+	}
+
+	/**
+	 * Returns the value of the counter or gauge.
+	 *
+	 * @param name The name of the counter or gauge.
+	 * @return The value, or 0 if nothing has been recorded under the name.
+	 */
+	public long getCounter(final String name)
+	{
+		final Long value = counters.get(name);
+
+		return value == null ? 0 : value;
+	}
+
+	public Map<String, Long> getCounters()
+	{
+		return counters;
+	}
+
+	/**
+	 * Returns the snapshot of the histogram.
+	 *
+	 * @param name The name of the histogram.
+	 * @return The histogram's snapshot, or null if nothing has been recorded under the name.
+	 */
+	public LatencyHistogram.Snapshot getHistogram(final String name)
+	{
+		return histograms.get(name);
+	}
+
+	public Map<String, LatencyHistogram.Snapshot> getHistograms()
+	{
+		return histograms;
+	}
+
+	/**
+	 * Flattens the snapshot into a single map, where each histogram contributes its count, mean, max and percentiles
+	 * as separate entries (for example <code>paradigm.read.p99</code>).
+	 *
+	 * @return A map of metric names to values, with the histograms following the counters and gauges.
+	 */
+	public Map<String, Long> toMap()
+	{
+		final Map<String, Long> values = new LinkedHashMap<>(counters);
+		for (final Map.Entry<String, LatencyHistogram.Snapshot> entry : histograms.entrySet())
+		{
+			final String name = entry.getKey();
+			final LatencyHistogram.Snapshot histogram = entry.getValue();
+
+			values.put(name + ".count", histogram.getCount());
+			values.put(name + ".mean", histogram.getMean());
+			values.put(name + ".max", histogram.getMax());
+			values.put(name + ".p50", histogram.getP50());
+			values.put(name + ".p90", histogram.getP90());
+			values.put(name + ".p99", histogram.getP99());
+			values.put(name + ".p999", histogram.getP999());
+		}
+
+		return values;
+	}
+}
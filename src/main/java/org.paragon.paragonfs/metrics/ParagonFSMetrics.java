@@ -0,0 +1,200 @@
+package org.paragon.paragonfs.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics registry of a {@link org.paragon.paragonfs.ParagonFS}. Counters, gauges and {@link LatencyHistogram}'s
+ * are created on first use and should be looked up once and kept in a field, so the hot path only pays for the
+ * increments themselves. Counters are {@link LongAdder}'s, so threads incrementing the same counter don't contend on a
+ * single value; they are only summed when a {@link #snapshot()} is taken.<br />
+ * <br />
+ * The registry can be read with {@link #snapshot()}, or through JMX once {@link #register(String)} is invoked.
+ */
+public class ParagonFSMetrics implements ParagonFSMetricsMXBean
+{
+	public static final String PARADIGM_READ = "paradigm.read";
+	public static final String PARADIGM_WRITE = "paradigm.write";
+	public static final String PARADIGM_FLUSH = "paradigm.flush";
+	public static final String PARADIGM_FSYNC = "paradigm.fsync";
+	public static final String PARADIGM_READ_LOCK_WAIT = "paradigm.lock.read.wait";
+	public static final String PARADIGM_WRITE_LOCK_WAIT = "paradigm.lock.write.wait";
+	public static final String POOL_LOCK_WAIT = "pool.lock.wait";
+	public static final String CACHE_HITS = "cache.hits";
+	public static final String CACHE_MISSES = "cache.misses";
+	public static final String CACHE_EVICTIONS = "cache.evictions";
+	public static final String ID_POOL_DEPTH = "idpool.depth";
+	public static final String ID_POOL_REFILL = "idpool.refill";
+	public static final String BYTES_READ = "bytes.read";
+	public static final String BYTES_WRITTEN = "bytes.written";
+	public static final String IO_WRITE_BACK_WAIT = "io.writeback.wait";
+	public static final String IO_MAINTENANCE_WAIT = "io.maintenance.wait";
+
+	private static final String ARCHETYPE_PREFIX = "archetype.";
+	private static final String OBJECT_NAME_PREFIX = "org.paragon.paragonfs:type=ParagonFS,name=";
+
+	private static final Log LOG = LogFactory.getLog(ParagonFSMetrics.class);
+
+	/**
+	 * Used to keep the JMX names unique when more than one ParagonFS is opened on the same directory.
+	 */
+	private static final AtomicInteger INSTANCE_COUNT = new AtomicInteger();
+
+	private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+	/**
+	 * The name this registry was registered with JMX under, if it has been.
+	 */
+	private ObjectName objectName;
+
+	/**
+	 * Returns the counter with the name, creating it if it does not exist yet.
+	 *
+	 * @param name The name of the counter.
+	 * @return The counter.
+	 */
+	public LongAdder counter(final String name)
+	{
+		final LongAdder counter = counters.get(name);
+		if (counter != null) {
+			return counter;
+		}
+
+		final LongAdder created = new LongAdder();
+		final LongAdder existing = counters.putIfAbsent(name, created);
+
+		return existing == null ? created : existing;
+	}
+
+	/**
+	 * Returns the counter with the name, scoped to the archetype.
+	 *
+	 * @param archetypeName The name of the archetype.
+	 * @param name          The name of the counter.
+	 * @return The counter.
+	 */
+	public LongAdder counter(final String archetypeName, final String name)
+	{
+		return counter(ARCHETYPE_PREFIX + archetypeName.toLowerCase() + "." + name);
+	}
+
+	/**
+	 * Returns the histogram with the name, creating it if it does not exist yet.
+	 *
+	 * @param name The name of the histogram.
+	 * @return The histogram.
+	 */
+	public LatencyHistogram histogram(final String name)
+	{
+		final LatencyHistogram histogram = histograms.get(name);
+		if (histogram != null) {
+			return histogram;
+		}
+
+		final LatencyHistogram created = new LatencyHistogram();
+		final LatencyHistogram existing = histograms.putIfAbsent(name, created);
+
+		return existing == null ? created : existing;
+	}
+
+	/**
+	 * Registers a gauge, replacing any gauge already registered under the name.
+	 *
+	 * @param name  The name of the gauge.
+	 * @param gauge The gauge.
+	 */
+	public void gauge(final String name, final Gauge gauge)
+	{
+		gauges.put(name, gauge);
+	}
+
+	/**
+	 * Takes a {@link MetricsSnapshot} of every metric.
+	 *
+	 * @return The {@link MetricsSnapshot}.
+	 */
+	public MetricsSnapshot snapshot()
+	{
+		final Map<String, Long> values = new TreeMap<>();
+		for (final Map.Entry<String, LongAdder> entry : counters.entrySet())
+		{
+			values.put(entry.getKey(), entry.getValue().sum());
+		}
+
+		for (final Map.Entry<String, Gauge> entry : gauges.entrySet())
+		{
+			values.put(entry.getKey(), entry.getValue().getValue());
+		}
+
+		final Map<String, LatencyHistogram.Snapshot> histogramSnapshots = new TreeMap<>();
+		for (final Map.Entry<String, LatencyHistogram> entry : histograms.entrySet())
+		{
+			histogramSnapshots.put(entry.getKey(), entry.getValue().snapshot());
+		}
+
+		return new MetricsSnapshot(System.currentTimeMillis(), values, histogramSnapshots);
+	}
+
+	@Override
+	public Map<String, Long> getValues()
+	{
+		return snapshot().toMap();
+	}
+
+	/**
+	 * Registers this registry with the platform MBean server. Failing to register is logged, but otherwise ignored, as
+	 * metrics are never worth failing to start over.
+	 *
+	 * @param name The name to register under, usually the data directory.
+	 */
+	public synchronized void register(final String name)
+	{
+		try
+		{
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			objectName = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(name) + ",instance=" + INSTANCE_COUNT.incrementAndGet());
+			server.registerMBean(this, objectName);
+		}
+		catch (final JMException e)
+		{
+			LOG.warn("Unable to register the ParagonFS metrics with JMX.", e);
+			objectName = null;
+		}
+	}
+
+	/**
+	 * Removes this registry from the platform MBean server, if it was registered.
+	 */
+	public synchronized void unregister()
+	{
+		if (objectName == null) {
+			return;
+		}
+
+		try
+		{
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		}
+		catch (final JMException e)
+		{
+			LOG.warn("Unable to unregister the ParagonFS metrics from JMX.", e);
+		}
+
+		objectName = null;
+	}
+}
@@ -0,0 +1,17 @@
+package org.paragon.paragonfs.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link ParagonFSMetrics}.
+ */
+public interface ParagonFSMetricsMXBean
+{
+	/**
+	 * Returns every metric, with histograms flattened as described by {@link MetricsSnapshot#toMap()}. Latencies are
+	 * in nanoseconds.
+	 *
+	 * @return A map of metric names to values.
+	 */
+	Map<String, Long> getValues();
+}
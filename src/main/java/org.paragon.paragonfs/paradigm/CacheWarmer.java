@@ -0,0 +1,418 @@
+package org.paragon.paragonfs.paradigm;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.exception.ParagonFSException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The cache warmer saves the {@link ParadigmPool} from starting empty after every restart. It runs in the background
+ * every minute, on a schedule set up by {@link ParagonFS}, and once more as it is closed, writing the identifiers of
+ * the hottest {@link Paradigm}'s of each {@link Archetype} to the <code>.hot</code> file of the archetype, hottest
+ * first, as ranked by the pool's {@link FrequencySketch}.<br />
+ * <br />
+ * When a ParagonFS is opened, those Paradigms are loaded back on a background thread, a batch from each Archetype in
+ * turn so the hottest of every Archetype come first. Each batch is loaded concurrently on the I/O threads of the
+ * volumes, see {@link ParadigmPool#getAll(java.util.Collection)}. The warm-up stops once its time budget or its byte
+ * budget is used up, whichever comes first, leaving the rest to be loaded by the traffic itself. The Paradigms it
+ * loads are held until the next time the lists are written, by when the traffic has looked up those it still needs.
+ */
+public class CacheWarmer implements Runnable
+{
+	private static final Log LOG = LogFactory.getLog(CacheWarmer.class);
+
+	/**
+	 * The name of the file, within the archetype directory, the hottest Paradigms are written to.
+	 */
+	public static final String FILE_NAME = ".hot";
+
+	/**
+	 * The default number of Paradigms written for each Archetype.
+	 */
+	public static final int DEFAULT_MAX_PARADIGMS = 10_000;
+
+	/**
+	 * The default limit on how long the warm-up runs for, in milliseconds.
+	 */
+	public static final long DEFAULT_TIME_BUDGET_MILLIS = 30_000;
+
+	/**
+	 * The default limit on the size of the Paradigm files the warm-up reads.
+	 */
+	public static final long DEFAULT_BYTE_BUDGET = 256L * 1024 * 1024;
+
+	/**
+	 * The number of Paradigms loaded from an Archetype at a time.
+	 */
+	private static final int BATCH_SIZE = 256;
+
+	private static final String LINE_SEPARATOR = "\n";
+
+	/**
+	 * The {@link ParagonFS} this warmer is for.
+	 */
+	private final ParagonFS paragonFS;
+
+	/**
+	 * Held while the lists are written, so the scheduled run and the one on closing never write the same file at once.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * The Paradigms loaded by the warm-up, held so they are not garbage collected before the traffic looks them up.
+	 */
+	private volatile List<Paradigm> warmed = Collections.emptyList();
+
+	private volatile int maxParadigms = DEFAULT_MAX_PARADIGMS;
+
+	private volatile long timeBudgetMillis = DEFAULT_TIME_BUDGET_MILLIS;
+
+	private volatile long byteBudget = DEFAULT_BYTE_BUDGET;
+
+	private volatile boolean running;
+
+	/**
+	 * Set once the warmer has been stopped, which ends a warm-up still running.
+	 */
+	private volatile boolean stopped;
+
+	private Thread thread;
+
+	/**
+	 * Initializes the {@link CacheWarmer}.
+	 *
+	 * @param paragonFS The {@link ParagonFS} to warm.
+	 */
+	public CacheWarmer(final ParagonFS paragonFS)
+	{
+		this.paragonFS = paragonFS;
+	}
+
+	/**
+	 * Starts warming the pools up on a background thread, from the lists written before the ParagonFS was last closed.
+	 */
+	public void start()
+	{
+		lock.lock();
+
+		try
+		{
+			if (running)
+			{
+				return;
+			}
+
+			running = true;
+			thread = new Thread(() -> {
+				try
+				{
+					warmUp();
+				}
+				catch (final ParagonFSException | RuntimeException e)
+				{
+					LOG.warn("Unable to warm up the paradigm pools.", e);
+				}
+			}, "paragonfs-warm-up");
+			thread.setDaemon(true);
+			thread.start();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stops the warm-up, if it is still running, once the batch being loaded is done.
+	 */
+	public void stop()
+	{
+		final Thread stopping;
+		lock.lock();
+
+		try
+		{
+			running = false;
+			stopped = true;
+			stopping = thread;
+			thread = null;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		if (stopping != null)
+		{
+			try
+			{
+				stopping.join();
+			}
+			catch (final InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Writes the hottest Paradigms of every Archetype, and lets go of the Paradigms the warm-up loaded.
+	 */
+	@Override
+	public void run()
+	{
+		for (final Archetype archetype : paragonFS.list())
+		{
+			try
+			{
+				persist(archetype);
+			}
+			catch (final IOException e)
+			{
+				LOG.warn("Unable to record the hottest paradigms of the archetype " + archetype.getDir().getName() + ".",
+					e);
+			}
+		}
+
+		warmed = Collections.emptyList();
+	}
+
+	/**
+	 * Writes the hottest {@link Paradigm}'s of the {@link Archetype}, replacing the file atomically.
+	 *
+	 * @param archetype The {@link Archetype}.
+	 * @throws IOException Thrown if the file could not be written.
+	 */
+	public void persist(final Archetype archetype) throws IOException
+	{
+		final List<String> paradigmIds = archetype.getParadigmPool().getHottestIds(maxParadigms);
+		final File file = new File(archetype.getDir(), FILE_NAME);
+
+		// Nothing has been looked up since the ParagonFS was opened, so the list written before still stands.
+		if (paradigmIds.isEmpty())
+		{
+			return;
+		}
+
+		final StringBuilder builder = new StringBuilder();
+		for (final String paradigmId : paradigmIds)
+		{
+			builder.append(paradigmId).append(LINE_SEPARATOR);
+		}
+
+		lock.lock();
+
+		try
+		{
+			final File temp = new File(archetype.getDir(), FILE_NAME + ".tmp");
+			Files.write(temp.toPath(), builder.toString().getBytes(StandardCharsets.UTF_8));
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Loads the hottest {@link Paradigm}'s recorded for every {@link Archetype}, until the time or byte budget is used
+	 * up. This is invoked in the background once the ParagonFS is opened, but can also be invoked on demand.
+	 *
+	 * @return The number of Paradigms loaded.
+	 * @throws ParagonFSException Thrown if a Paradigm could not be loaded.
+	 */
+	public int warmUp() throws ParagonFSException
+	{
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+		long bytesLeft = byteBudget;
+
+		final List<Archetype> archetypes = new ArrayList<>();
+		final List<Iterator<String>> lists = new ArrayList<>();
+		for (final Archetype archetype : paragonFS.list())
+		{
+			final List<String> paradigmIds = read(archetype);
+			if (!paradigmIds.isEmpty())
+			{
+				archetypes.add(archetype);
+				lists.add(paradigmIds.iterator());
+			}
+		}
+
+		final List<Paradigm> loaded = new ArrayList<>();
+		boolean remaining = true;
+		while (remaining)
+		{
+			remaining = false;
+			for (int index = 0; index < archetypes.size(); index++)
+			{
+				if (stopped || System.nanoTime() >= deadline || bytesLeft <= 0)
+				{
+					warmed = loaded;
+					return loaded.size();
+				}
+
+				final Archetype archetype = archetypes.get(index);
+				final Iterator<String> paradigmIds = lists.get(index);
+				final List<String> batch = new ArrayList<>();
+				while (paradigmIds.hasNext() && batch.size() < BATCH_SIZE && bytesLeft > 0)
+				{
+					final String paradigmId = paradigmIds.next();
+					final long length = getLength(archetype, paradigmId);
+					if (length > 0)
+					{
+						batch.add(paradigmId);
+						bytesLeft -= length;
+					}
+				}
+
+				loaded.addAll(archetype.getParadigmPool().getAllUntracked(batch).values());
+				remaining |= paradigmIds.hasNext();
+			}
+		}
+
+		warmed = loaded;
+
+		return loaded.size();
+	}
+
+	/**
+	 * Reads the hottest {@link Paradigm}'s recorded for the {@link Archetype}.
+	 *
+	 * @param archetype The {@link Archetype}.
+	 * @return The unique identifiers of the Paradigms, hottest first, or an empty list if none were recorded.
+	 */
+	private List<String> read(final Archetype archetype)
+	{
+		final File file = new File(archetype.getDir(), FILE_NAME);
+		if (!file.exists())
+		{
+			return Collections.emptyList();
+		}
+
+		try
+		{
+			final List<String> paradigmIds = new ArrayList<>();
+			for (final String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8))
+			{
+				if (StringUtils.isNotBlank(line))
+				{
+					paradigmIds.add(line.trim());
+				}
+			}
+
+			return paradigmIds;
+		}
+		catch (final IOException e)
+		{
+			LOG.warn("Unable to read the hottest paradigms of the archetype " + archetype.getDir().getName() + ".", e);
+
+			return Collections.emptyList();
+		}
+	}
+
+	/**
+	 * Returns the size of a {@link Paradigm}'s file, in either tier, without reading it.
+	 *
+	 * @param archetype  The {@link Archetype}.
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 * @return The size in bytes, or 0 if the Paradigm no longer exists.
+	 */
+	private static long getLength(final Archetype archetype, final String paradigmId)
+	{
+		final long length = archetype.getParadigmFile(paradigmId).length();
+		if (length > 0)
+		{
+			return length;
+		}
+
+		final File coldFile = archetype.getColdParadigmFile(paradigmId);
+
+		return coldFile == null ? 0 : coldFile.length();
+	}
+
+	/**
+	 * Returns the number of Paradigms written for each Archetype.
+	 *
+	 * @return The number of Paradigms.
+	 */
+	public int getMaxParadigms()
+	{
+		return maxParadigms;
+	}
+
+	/**
+	 * Sets the number of Paradigms written for each Archetype.
+	 *
+	 * @param maxParadigms The number of Paradigms.
+	 */
+	public void setMaxParadigms(final int maxParadigms)
+	{
+		if (maxParadigms < 1) {
+			throw new IllegalArgumentException("The number of paradigms must be positive.");
+		}
+
+		this.maxParadigms = maxParadigms;
+	}
+
+	/**
+	 * Returns the limit on how long the warm-up runs for.
+	 *
+	 * @return The time budget, in milliseconds.
+	 */
+	public long getTimeBudgetMillis()
+	{
+		return timeBudgetMillis;
+	}
+
+	/**
+	 * Sets the limit on how long the warm-up runs for.
+	 *
+	 * @param timeBudgetMillis The time budget, in milliseconds.
+	 */
+	public void setTimeBudgetMillis(final long timeBudgetMillis)
+	{
+		if (timeBudgetMillis < 0) {
+			throw new IllegalArgumentException("The time budget must not be negative.");
+		}
+
+		this.timeBudgetMillis = timeBudgetMillis;
+	}
+
+	/**
+	 * Returns the limit on the size of the Paradigm files the warm-up reads.
+	 *
+	 * @return The byte budget.
+	 */
+	public long getByteBudget()
+	{
+		return byteBudget;
+	}
+
+	/**
+	 * Sets the limit on the size of the Paradigm files the warm-up reads.
+	 *
+	 * @param byteBudget The byte budget.
+	 */
+	public void setByteBudget(final long byteBudget)
+	{
+		if (byteBudget < 0) {
+			throw new IllegalArgumentException("The byte budget must not be negative.");
+		}
+
+		this.byteBudget = byteBudget;
+	}
+}
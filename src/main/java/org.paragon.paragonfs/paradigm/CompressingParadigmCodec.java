@@ -0,0 +1,288 @@
+package org.paragon.paragonfs.paradigm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link ParadigmCodec} which deflates the bytes of another codec. A compressed Paradigm is laid out as:
+ * <pre>
+ * magic (4) | uncompressed length (4) | zlib stream
+ * </pre>
+ * Anything without the magic is passed to the other codec as is, so an Archetype can turn compression on or off at
+ * any time and still read every Paradigm.<br />
+ * <br />
+ * Whether to compress is decided per row. Rows smaller than {@link #MIN_SIZE} are never compressed, nor is a row which
+ * would not get any smaller. The codec also keeps a running ratio of how well rows compress, and once that stops
+ * paying for itself it only tries one row in {@link #PROBE_INTERVAL}, so an Archetype of incompressible rows doesn't
+ * spend CPU time on them.<br />
+ * <br />
+ * The codec must be {@link #close() closed} once it is replaced, which frees the native memory of its deflaters and
+ * inflaters.
+ */
+public class CompressingParadigmCodec implements ParadigmCodec
+{
+	static final byte[] MAGIC = {'P', 'F', 'Z', 1};
+
+	/**
+	 * The smallest row which is compressed, below which the saving is not worth the time.
+	 */
+	public static final int MIN_SIZE = 128;
+
+	/**
+	 * The compressed size, as a share of the uncompressed size, above which compression is not worth the time.
+	 */
+	private static final double MAX_RATIO = 0.9;
+
+	/**
+	 * Once compression is not worth the time, one row in this many is still compressed to keep measuring the ratio.
+	 */
+	private static final int PROBE_INTERVAL = 32;
+
+	private static final int HEADER_LENGTH = MAGIC.length + 4;
+
+	/**
+	 * The most idle deflaters, and the most idle inflaters, each codec keeps for reuse.
+	 */
+	private static final int POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * The codec whose bytes are compressed.
+	 */
+	private final ParadigmCodec codec;
+
+	/**
+	 * The compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}, or
+	 * {@link Deflater#NO_COMPRESSION} to write rows uncompressed.
+	 */
+	private final int level;
+
+	/**
+	 * The checksum of the preset dictionary rows are compressed with, or null if there is none.
+	 */
+	private final Integer dictionaryId;
+
+	/**
+	 * Every dictionary rows may have been compressed with.
+	 */
+	private final CompressionDictionaries dictionaries;
+
+	/**
+	 * A running average of the compressed size as a share of the uncompressed size. Updates may race, which only
+	 * loses a sample, as it is only a heuristic.
+	 */
+	private volatile double ratio;
+
+	/**
+	 * The number of rows which have not been compressed because of the ratio.
+	 */
+	private final AtomicLong skipped = new AtomicLong();
+
+	/**
+	 * Deflaters and inflaters are expensive to create and hold native memory until they are ended, so a few idle ones
+	 * are pooled and reset as they are returned. Any beyond that are ended right away.
+	 */
+	private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+
+	private final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+
+	/**
+	 * Whether the codec has been replaced, after which nothing is returned to the pools.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Initializes the {@link CompressingParadigmCodec}.
+	 *
+	 * @param codec        The codec whose bytes are compressed.
+	 * @param level        The compression level, or {@link Deflater#NO_COMPRESSION} to write rows uncompressed.
+	 * @param dictionaryId The checksum of the preset dictionary to compress with, or null to use none.
+	 * @param dictionaries Every dictionary rows may have been compressed with.
+	 */
+	public CompressingParadigmCodec(final ParadigmCodec codec, final int level, final Integer dictionaryId,
+									final CompressionDictionaries dictionaries)
+	{
+		this.codec = codec;
+		this.level = level;
+		this.dictionaryId = dictionaryId;
+		this.dictionaries = dictionaries;
+	}
+
+	/**
+	 * Returns the codec whose bytes are compressed.
+	 *
+	 * @return The {@link ParadigmCodec}.
+	 */
+	public ParadigmCodec getCodec()
+	{
+		return codec;
+	}
+
+	@Override
+	public byte[] encode(final ParadigmSnapshot snapshot) throws IOException
+	{
+		final byte[] raw = codec.encode(snapshot);
+		if (level == Deflater.NO_COMPRESSION || raw.length < MIN_SIZE) {
+			return raw;
+		}
+		else if (ratio > MAX_RATIO && skipped.incrementAndGet() % PROBE_INTERVAL != 0) {
+			return raw;
+		}
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + HEADER_LENGTH);
+		out.write(MAGIC);
+		out.write(ByteBuffer.allocate(4).putInt(raw.length).array());
+
+		final Deflater polled = deflaters.poll();
+		final Deflater deflater = polled == null ? new Deflater(level) : polled;
+
+		try
+		{
+			if (dictionaryId != null) {
+				deflater.setDictionary(dictionaries.get(dictionaryId));
+			}
+			deflater.setInput(raw);
+			deflater.finish();
+
+			final byte[] buffer = new byte[Math.min(raw.length, 8192)];
+			while (!deflater.finished())
+			{
+				final int length = deflater.deflate(buffer);
+				out.write(buffer, 0, length);
+
+				// Stop as soon as it is clear the row won't get any smaller.
+				if (out.size() >= raw.length) {
+					break;
+				}
+			}
+		}
+		finally
+		{
+			deflater.reset();
+			if (closed || !deflaters.offer(deflater)) {
+				deflater.end();
+			}
+			else if (closed) {
+				endPooled();
+			}
+		}
+
+		ratio = ratio * 0.9 + ((double) out.size() / raw.length) * 0.1;
+
+		return out.size() >= raw.length ? raw : out.toByteArray();
+	}
+
+	@Override
+	public ParadigmSnapshot decode(final byte[] bytes) throws IOException
+	{
+		if (!isCompressed(bytes)) {
+			return codec.decode(bytes);
+		}
+
+		final byte[] raw = new byte[ByteBuffer.wrap(bytes, MAGIC.length, 4).getInt()];
+		final Inflater polled = inflaters.poll();
+		final Inflater inflater = polled == null ? new Inflater() : polled;
+		inflater.setInput(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+
+		try
+		{
+			int offset = 0;
+			while (offset < raw.length)
+			{
+				final int length = inflater.inflate(raw, offset, raw.length - offset);
+				if (length > 0)
+				{
+					offset += length;
+					continue;
+				}
+
+				if (inflater.needsDictionary())
+				{
+					final byte[] dictionary = dictionaries.get(inflater.getAdler());
+					if (dictionary == null) {
+						throw new IOException("The dictionary the paradigm was compressed with is missing.");
+					}
+
+					inflater.setDictionary(dictionary);
+				}
+				else if (inflater.finished() || inflater.needsInput())
+				{
+					throw new IOException("The compressed paradigm ended unexpectedly.");
+				}
+			}
+		}
+		catch (final DataFormatException e)
+		{
+			throw new IOException("The compressed paradigm is corrupt.", e);
+		}
+		finally
+		{
+			inflater.reset();
+			if (closed || !inflaters.offer(inflater)) {
+				inflater.end();
+			}
+			else if (closed) {
+				endPooled();
+			}
+		}
+
+		return codec.decode(raw);
+	}
+
+	/**
+	 * Ends every pooled deflater and inflater, once the codec has been replaced. A codec which is still in use after
+	 * this ends each deflater and inflater it creates as soon as it is done with it.
+	 */
+	public void close()
+	{
+		closed = true;
+		endPooled();
+	}
+
+	/**
+	 * Ends every deflater and inflater in the pools. One returned while the codec was being closed is caught by the
+	 * check after it was returned, so none are left behind.
+	 */
+	private void endPooled()
+	{
+		Deflater deflater;
+		while ((deflater = deflaters.poll()) != null)
+		{
+			deflater.end();
+		}
+
+		Inflater inflater;
+		while ((inflater = inflaters.poll()) != null)
+		{
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Determines whether the bytes were compressed by this codec.
+	 *
+	 * @param bytes The bytes of a Paradigm's file.
+	 * @return Returns true if the bytes start with the magic.
+	 */
+	static boolean isCompressed(final byte[] bytes)
+	{
+		if (bytes.length < HEADER_LENGTH) {
+			return false;
+		}
+
+		for (int index = 0; index < MAGIC.length; index++)
+		{
+			if (bytes[index] != MAGIC[index]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,133 @@
+package org.paragon.paragonfs.paradigm;
+
+import org.paragon.paragonfs.io.AtomicFileWriter;
+import org.paragon.paragonfs.io.Durability;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.Adler32;
+
+/**
+ * The preset dictionaries the Paradigms within an {@link org.paragon.paragonfs.archetype.Archetype} have been
+ * compressed with. Each dictionary is a file named after its Adler-32 checksum, which is also what a compressed stream
+ * records to say which dictionary it needs, so a Paradigm can still be read after a newer dictionary has been trained.
+ * <br />
+ * <br />
+ * A dictionary is synced, along with its directory, before it is used, as a row compressed with it can't be read
+ * without it.
+ */
+public class CompressionDictionaries
+{
+	/**
+	 * The name of the directory, within the archetype directory, the dictionaries are written to.
+	 */
+	public static final String DIR_NAME = ".dictionaries";
+
+	/**
+	 * The most a dictionary can hold, which is the window of the deflate format.
+	 */
+	public static final int MAX_SIZE = 32 * 1024;
+
+	/**
+	 * The directory the dictionaries are stored in.
+	 */
+	private final File dir;
+
+	/**
+	 * The {@link AtomicFileWriter} the dictionaries are written with.
+	 */
+	private final AtomicFileWriter atomicFileWriter;
+
+	/**
+	 * The dictionaries read so far, by checksum.
+	 */
+	private final ConcurrentMap<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+
+	/**
+	 * Initializes the {@link CompressionDictionaries}.
+	 *
+	 * @param dir              The directory the dictionaries are stored in.
+	 * @param atomicFileWriter The {@link AtomicFileWriter} the dictionaries are written with.
+	 */
+	public CompressionDictionaries(final File dir, final AtomicFileWriter atomicFileWriter)
+	{
+		this.dir = dir;
+		this.atomicFileWriter = atomicFileWriter;
+	}
+
+	/**
+	 * Returns the dictionary with the checksum, reading it the first time it is asked for.
+	 *
+	 * @param id The dictionary's Adler-32 checksum.
+	 * @return The dictionary, or null if there is none with the checksum.
+	 * @throws IOException Thrown if the dictionary could not be read.
+	 */
+	public byte[] get(final int id) throws IOException
+	{
+		final byte[] dictionary = dictionaries.get(id);
+		if (dictionary != null) {
+			return dictionary;
+		}
+
+		final File file = new File(dir, getFileName(id));
+		if (!file.exists()) {
+			return null;
+		}
+
+		final byte[] read = Files.readAllBytes(file.toPath());
+		dictionaries.putIfAbsent(id, read);
+
+		return read;
+	}
+
+	/**
+	 * Builds a dictionary from sample rows and stores it. Deflate finds matches in a preset dictionary the same way as
+	 * in the data before it, so the samples are simply laid end to end, keeping the most recent ones if they don't all
+	 * fit, as matches close to the end of the dictionary are the cheapest to encode.
+	 *
+	 * @param samples The encoded rows to train on.
+	 * @return The checksum of the dictionary, or null if there were no samples.
+	 * @throws IOException Thrown if the dictionary could not be written.
+	 */
+	public Integer train(final List<byte[]> samples) throws IOException
+	{
+		final ByteArrayOutputStream laid = new ByteArrayOutputStream();
+		for (final byte[] sample : samples)
+		{
+			laid.write(sample);
+		}
+
+		if (laid.size() == 0) {
+			return null;
+		}
+
+		final byte[] all = laid.toByteArray();
+		final byte[] dictionary = Arrays.copyOfRange(all, Math.max(0, all.length - MAX_SIZE), all.length);
+
+		final Adler32 checksum = new Adler32();
+		checksum.update(dictionary);
+		final int id = (int) checksum.getValue();
+
+		if (!dir.isDirectory())
+		{
+			Files.createDirectories(dir.toPath());
+			atomicFileWriter.syncDirectory(dir.getParentFile());
+		}
+
+		atomicFileWriter.write(new File(dir, getFileName(id)), dictionary, Durability.SYNC);
+		dictionaries.put(id, dictionary);
+
+		return id;
+	}
+
+	private static String getFileName(final int id)
+	{
+		return String.format("%08x", id);
+	}
+}
@@ -0,0 +1,197 @@
+package org.paragon.paragonfs.paradigm;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.paragon.paragonfs.io.BackgroundSyncer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The expiry buckets record when the {@link Paradigm}'s of an {@link org.paragon.paragonfs.archetype.Archetype} with
+ * a time-to-live are due to expire, so the {@link ParadigmReaper} only ever reads the Paradigms which may have expired,
+ * rather than every Paradigm.<br />
+ * <br />
+ * Time is split into buckets of {@link #BUCKET_MILLIS}, each an append-only file within the <code>.expiry</code>
+ * directory of the archetype, with the identifier of every Paradigm due to expire within it, one per line. A write
+ * appends the Paradigm to the bucket of its new deadline, and leaves it in the bucket of its old one, so a bucket only
+ * holds candidates which the reaper checks again before deleting them. A bucket is only read once it has ended, and
+ * no write appends to a bucket which has ended, so a bucket is never read and appended to at once.<br />
+ * <br />
+ * The buckets are synced in the background. A Paradigm whose entry is lost in a crash is still hidden once it has
+ * expired, and is reaped once the time-to-live is set again, which rebuilds the buckets.
+ */
+public class ExpiryBuckets
+{
+	/**
+	 * The name of the directory, within the archetype directory, the buckets are written to.
+	 */
+	public static final String DIR_NAME = ".expiry";
+
+	/**
+	 * The span of time each bucket covers, in milliseconds.
+	 */
+	public static final long BUCKET_MILLIS = 60_000;
+
+	private static final String LINE_SEPARATOR = "\n";
+
+	/**
+	 * The directory the buckets are stored in.
+	 */
+	private final File dir;
+
+	/**
+	 * The {@link BackgroundSyncer} the buckets are synced by.
+	 */
+	private final BackgroundSyncer syncer;
+
+	/**
+	 * Initializes the {@link ExpiryBuckets}.
+	 *
+	 * @param dir    The directory the buckets are stored in, which is created once the first bucket is written.
+	 * @param syncer The {@link BackgroundSyncer} the buckets are synced by.
+	 */
+	public ExpiryBuckets(final File dir, final BackgroundSyncer syncer)
+	{
+		this.dir = dir;
+		this.syncer = syncer;
+	}
+
+	/**
+	 * Returns the bucket a deadline falls in.
+	 *
+	 * @param deadline The deadline, in milliseconds.
+	 * @return The bucket, which is the time it starts at in milliseconds.
+	 */
+	public static long getBucket(final long deadline)
+	{
+		return deadline - Math.floorMod(deadline, BUCKET_MILLIS);
+	}
+
+	/**
+	 * Records that a {@link Paradigm} is due to expire at the deadline, by appending it to the deadline's bucket.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 * @param deadline   The time it is due to expire at, in milliseconds.
+	 * @throws IOException Thrown if the bucket could not be written.
+	 */
+	public void record(final String paradigmId, final long deadline) throws IOException
+	{
+		final File file = getFile(getBucket(deadline));
+		if (!dir.exists())
+		{
+			Files.createDirectories(dir.toPath());
+		}
+
+		// A single append of a whole line, so concurrent writers never interleave within a line.
+		try (final FileOutputStream stream = new FileOutputStream(file, true))
+		{
+			stream.write((paradigmId + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8));
+		}
+
+		syncer.add(file);
+	}
+
+	/**
+	 * Returns the buckets which have ended by the time given, oldest first.
+	 *
+	 * @param now The time, in milliseconds.
+	 * @return The buckets.
+	 */
+	public List<Long> getDueBuckets(final long now)
+	{
+		final String[] names = dir.list();
+		if (names == null)
+		{
+			return Collections.emptyList();
+		}
+
+		final List<Long> buckets = new ArrayList<>();
+		for (final String name : names)
+		{
+			if (!StringUtils.isNumeric(name))
+			{
+				continue;
+			}
+
+			final long bucket = Long.parseLong(name);
+			if (bucket + BUCKET_MILLIS <= now)
+			{
+				buckets.add(bucket);
+			}
+		}
+		Collections.sort(buckets);
+
+		return buckets;
+	}
+
+	/**
+	 * Reads the {@link Paradigm}'s recorded in a bucket.
+	 *
+	 * @param bucket The bucket.
+	 * @return The unique identifiers of the Paradigms, without duplicates.
+	 * @throws IOException Thrown if the bucket could not be read.
+	 */
+	public Set<String> read(final long bucket) throws IOException
+	{
+		final File file = getFile(bucket);
+		final Set<String> paradigmIds = new LinkedHashSet<>();
+		if (!file.exists())
+		{
+			return paradigmIds;
+		}
+
+		for (final String line : FileUtils.readLines(file, StandardCharsets.UTF_8))
+		{
+			if (StringUtils.isNotBlank(line))
+			{
+				paradigmIds.add(line.trim());
+			}
+		}
+
+		return paradigmIds;
+	}
+
+	/**
+	 * Removes a bucket once every Paradigm in it has been reaped or found to be alive.
+	 *
+	 * @param bucket The bucket.
+	 * @throws IOException Thrown if the bucket could not be removed.
+	 */
+	public void remove(final long bucket) throws IOException
+	{
+		Files.deleteIfExists(getFile(bucket).toPath());
+	}
+
+	/**
+	 * Removes every bucket.
+	 *
+	 * @throws IOException Thrown if a bucket could not be removed.
+	 */
+	public void clear() throws IOException
+	{
+		if (dir.exists())
+		{
+			FileUtils.cleanDirectory(dir);
+		}
+	}
+
+	/**
+	 * Returns the file of a bucket, which is named after the time it starts at so they sort in order.
+	 *
+	 * @param bucket The bucket.
+	 * @return The file.
+	 */
+	private File getFile(final long bucket)
+	{
+		return new File(dir, String.format("%020d", bucket));
+	}
+}
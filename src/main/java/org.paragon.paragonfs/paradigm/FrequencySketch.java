@@ -0,0 +1,321 @@
+package org.paragon.paragonfs.paradigm;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An estimate of how often each {@link Paradigm} of an Archetype is looked up, kept by its {@link ParadigmPool} so the
+ * {@link CacheWarmer} can tell the hottest Paradigms apart, even those the garbage collector has evicted from the
+ * pool. The sketch can't list what it has counted, so it also keeps a bounded set of candidates, the Paradigms with the
+ * highest estimates as they are drained, which is pruned back to its size whenever it grows to twice that.<br />
+ * <br />
+ * This is a count-min sketch: each lookup increments a counter in each of four rows, chosen by a different hash of the
+ * id, and the estimate is the smallest of the four, so it takes a fixed amount of memory however many Paradigms there
+ * are, and only ever overestimates. Every counter is halved once the lookups add up to ten times the width, so the
+ * estimate follows what is hot now rather than what was hot since startup.<br />
+ * <br />
+ * A lookup doesn't touch the counters itself. It is appended to a small buffer, picked by the thread, so lookups on
+ * different threads rarely write to the same memory. The buffers are drained into the counters under a lock, by
+ * whichever thread finds its buffer full or by {@link #getHottest(int)}. A lookup which finds its buffer full while another
+ * thread is draining, or loses the race for a slot, is dropped, which only makes the estimate a little less exact.
+ */
+class FrequencySketch
+{
+	private static final int DEPTH = 4;
+
+	private static final int[] SEEDS = {0x9e3779b9, 0x85ebca6b, 0xc2b2ae35, 0x27d4eb2f};
+
+	/**
+	 * The number of buffers, a power of two, so each thread rarely shares its buffer with another.
+	 */
+	private static final int BUFFER_COUNT = Math.min(64,
+		Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1);
+
+	/**
+	 * The number of lookups each buffer holds, a power of two.
+	 */
+	private static final int BUFFER_SIZE = 16;
+
+	private final int[] counters;
+
+	private final int mask;
+
+	private final int sampleSize;
+
+	/**
+	 * The lookups not yet counted.
+	 */
+	private final Buffer[] buffers = new Buffer[BUFFER_COUNT];
+
+	/**
+	 * Held while the buffers are drained, which is the only time the counters change.
+	 */
+	private final ReentrantLock drainLock = new ReentrantLock();
+
+	private int additions;
+
+	/**
+	 * The most Paradigms {@link #getHottest(int)} can rank.
+	 */
+	private final int candidateCount;
+
+	/**
+	 * The unique identifier of each candidate, as it was looked up, by its lowercase identifier. This is guarded by the
+	 * drain lock.
+	 */
+	private final Map<String, String> candidates = new HashMap<>();
+
+	/**
+	 * Initializes the {@link FrequencySketch}.
+	 *
+	 * @param width          The number of counters in each row, which must be a power of two.
+	 * @param candidateCount The most Paradigms which can be ranked.
+	 */
+	FrequencySketch(final int width, final int candidateCount)
+	{
+		if (width < 1 || Integer.bitCount(width) != 1) {
+			throw new IllegalArgumentException("The width must be a power of two.");
+		}
+		else if (candidateCount < 1) {
+			throw new IllegalArgumentException("The candidate count must be positive.");
+		}
+
+		this.candidateCount = candidateCount;
+		this.counters = new int[DEPTH * width];
+		this.mask = width - 1;
+		this.sampleSize = 10 * width;
+		for (int index = 0; index < buffers.length; index++)
+		{
+			buffers[index] = new Buffer();
+		}
+	}
+
+	/**
+	 * Records a lookup of a {@link Paradigm}, to be counted when the buffers are next drained.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier, as it was looked up.
+	 */
+	void record(final String paradigmId)
+	{
+		int probe = Long.hashCode(Thread.currentThread().getId()) * 0x9e3779b9;
+		probe ^= probe >>> 16;
+		final Buffer buffer = buffers[probe & (BUFFER_COUNT - 1)];
+
+		// Drain a full buffer, unless another thread already is, in which case this lookup is dropped.
+		if (buffer.writes.get() - buffer.reads >= BUFFER_SIZE && drainLock.tryLock())
+		{
+			try
+			{
+				drainBuffers();
+			}
+			finally
+			{
+				drainLock.unlock();
+			}
+		}
+
+		final long tail = buffer.writes.get();
+		if (tail - buffer.reads < BUFFER_SIZE && buffer.writes.compareAndSet(tail, tail + 1)) {
+			buffer.slots.lazySet((int) tail & (BUFFER_SIZE - 1), paradigmId);
+		}
+	}
+
+	/**
+	 * Returns the {@link Paradigm}'s looked up most often lately, counting every lookup recorded so far.
+	 *
+	 * @param limit The most Paradigms to return.
+	 * @return The unique identifiers of the Paradigms, hottest first.
+	 */
+	List<String> getHottest(final int limit)
+	{
+		drainLock.lock();
+
+		try
+		{
+			drainBuffers();
+
+			// The hottest are kept in a heap of the limit's size, coldest on top, so only that many are ever sorted.
+			final PriorityQueue<Map.Entry<String, Integer>> hottest = new PriorityQueue<>(
+				Map.Entry.<String, Integer>comparingByValue());
+			for (final Map.Entry<String, String> candidate : candidates.entrySet())
+			{
+				final int estimate = estimate(candidate.getKey());
+				if (estimate == 0) {
+					continue;
+				}
+
+				hottest.add(new AbstractMap.SimpleImmutableEntry<>(candidate.getValue(), estimate));
+				if (hottest.size() > limit) {
+					hottest.poll();
+				}
+			}
+
+			final LinkedList<String> paradigmIds = new LinkedList<>();
+			while (!hottest.isEmpty())
+			{
+				paradigmIds.addFirst(hottest.poll().getKey());
+			}
+
+			return paradigmIds;
+		}
+		finally
+		{
+			drainLock.unlock();
+		}
+	}
+
+	/**
+	 * Stops ranking a {@link Paradigm} which has been deleted. Its counters are left to age away.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 */
+	void forget(final String paradigmId)
+	{
+		drainLock.lock();
+
+		try
+		{
+			// Its buffered lookups are counted first, so they can't make it a candidate again afterwards.
+			drainBuffers();
+			candidates.remove(paradigmId.toLowerCase());
+		}
+		finally
+		{
+			drainLock.unlock();
+		}
+	}
+
+	/**
+	 * Counts the lookups in every buffer.<br />
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the drain lock.
+	 */
+	private void drainBuffers()
+	{
+		for (final Buffer buffer : buffers)
+		{
+			long head = buffer.reads;
+			final long tail = buffer.writes.get();
+			while (head < tail)
+			{
+				// A slot which has been claimed but not yet filled is left for the next drain.
+				final int slot = (int) head & (BUFFER_SIZE - 1);
+				final String paradigmId = buffer.slots.get(slot);
+				if (paradigmId == null) {
+					break;
+				}
+
+				buffer.slots.lazySet(slot, null);
+				final String key = paradigmId.toLowerCase();
+				increment(key);
+				candidates.putIfAbsent(key, paradigmId);
+				head++;
+			}
+			buffer.reads = head;
+		}
+
+		if (candidates.size() >= 2 * candidateCount) {
+			pruneCandidates();
+		}
+	}
+
+	/**
+	 * Drops every candidate but those with the highest estimates, down to the candidate count.<br />
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the drain lock.
+	 */
+	private void pruneCandidates()
+	{
+		final List<Map.Entry<String, Integer>> ranked = new ArrayList<>(candidates.size());
+		for (final String key : candidates.keySet())
+		{
+			ranked.add(new AbstractMap.SimpleImmutableEntry<>(key, estimate(key)));
+		}
+		ranked.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+
+		for (final Map.Entry<String, Integer> entry : ranked.subList(candidateCount, ranked.size()))
+		{
+			candidates.remove(entry.getKey());
+		}
+	}
+
+	/**
+	 * Counts a lookup of a {@link Paradigm}.<br />
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the drain lock.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier, lowercase.
+	 */
+	private void increment(final String paradigmId)
+	{
+		final int hash = paradigmId.hashCode();
+		for (int row = 0; row < DEPTH; row++)
+		{
+			counters[index(hash, row)]++;
+		}
+
+		if (++additions >= sampleSize) {
+			reset();
+		}
+	}
+
+	/**
+	 * Returns how often a {@link Paradigm} has been looked up, lately, as of the last drain.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier, lowercase.
+	 * @return The estimated number of lookups.
+	 */
+	int estimate(final String paradigmId)
+	{
+		final int hash = paradigmId.hashCode();
+		int estimate = Integer.MAX_VALUE;
+		for (int row = 0; row < DEPTH; row++)
+		{
+			estimate = Math.min(estimate, counters[index(hash, row)]);
+		}
+
+		return estimate;
+	}
+
+	/**
+	 * Halves every counter, ageing the lookups made before.<br />
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the drain lock.
+	 */
+	private void reset()
+	{
+		additions = 0;
+		for (int index = 0; index < counters.length; index++)
+		{
+			counters[index] >>>= 1;
+		}
+	}
+
+	private int index(final int hash, final int row)
+	{
+		int mixed = (hash ^ SEEDS[row]) * 0x7feb352d;
+		mixed ^= mixed >>> 15;
+
+		return row * (mask + 1) + (mixed & mask);
+	}
+
+	/**
+	 * A ring of lookups. Writers claim a slot by advancing the write count and then fill it, and the drain empties the
+	 * filled slots in order and advances the read count past them.
+	 */
+	private static final class Buffer
+	{
+		final AtomicLong writes = new AtomicLong();
+
+		/**
+		 * Only advanced while holding the drain lock.
+		 */
+		volatile long reads;
+
+		final AtomicReferenceArray<String> slots = new AtomicReferenceArray<>(BUFFER_SIZE);
+	}
+}
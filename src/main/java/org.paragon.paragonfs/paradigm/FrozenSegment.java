@@ -0,0 +1,270 @@
+package org.paragon.paragonfs.paradigm;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The immutable, memory-mapped file a frozen {@link org.paragon.paragonfs.archetype.Archetype} is read from, holding
+ * every one of its {@link Paradigm}'s, encoded with the Archetype's codec, sorted by id.<br />
+ * <br />
+ * The file starts with a header, followed by an index of fixed-width entries and then the ids and rows themselves:
+ * <pre>
+ *     int   magic
+ *     int   count
+ *     count * (int idOffset, int idLength, int rowOffset, int rowLength)
+ *     ids and rows
+ * </pre>
+ * A lookup is a binary search over the index, comparing the ids in place within the mapping, so it takes no lock and
+ * makes no system call. Ids are compared case-insensitively, as they are by the {@link ParadigmPool}.
+ */
+public class FrozenSegment
+{
+	/**
+	 * The name of the file, within the archetype directory, a frozen Archetype is written to.
+	 */
+	public static final String FILE_NAME = ".frozen";
+
+	private static final int MAGIC = 0x50465a31;
+
+	private static final int HEADER_SIZE = 8;
+
+	private static final int ENTRY_SIZE = 16;
+
+	/**
+	 * The mapping of the whole file, which is only ever read with absolute gets so it can be shared between threads.
+	 */
+	private final MappedByteBuffer buffer;
+
+	private final int count;
+
+	private FrozenSegment(final MappedByteBuffer buffer)
+	{
+		this.buffer = buffer;
+		this.count = buffer.getInt(4);
+	}
+
+	/**
+	 * Writes a segment, replacing the file atomically.
+	 *
+	 * @param file The file to write to.
+	 * @param rows The encoded rows, by Paradigm id.
+	 * @throws IOException Thrown if the segment could not be written, or would be too large to map.
+	 */
+	public static void write(final File file, final Map<String, byte[]> rows) throws IOException
+	{
+		// Each id, as bytes, alongside its row.
+		final List<byte[][]> entries = new ArrayList<>();
+		long size = HEADER_SIZE;
+		for (final Map.Entry<String, byte[]> row : rows.entrySet())
+		{
+			final byte[] id = row.getKey().getBytes(StandardCharsets.UTF_8);
+			entries.add(new byte[][] {id, row.getValue()});
+			size += ENTRY_SIZE + id.length + row.getValue().length;
+		}
+		entries.sort(Comparator.comparing((byte[][] entry) -> entry[0], FrozenSegment::compare));
+
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("The archetype is too large to be frozen.");
+		}
+
+		final File temp = new File(file.getPath() + ".tmp");
+		try (final FileOutputStream stream = new FileOutputStream(temp);
+			 final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream)))
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(entries.size());
+
+			int offset = HEADER_SIZE + entries.size() * ENTRY_SIZE;
+			for (final byte[][] entry : entries)
+			{
+				out.writeInt(offset);
+				out.writeInt(entry[0].length);
+				out.writeInt(offset + entry[0].length);
+				out.writeInt(entry[1].length);
+				offset += entry[0].length + entry[1].length;
+			}
+
+			for (final byte[][] entry : entries)
+			{
+				out.write(entry[0]);
+				out.write(entry[1]);
+			}
+
+			out.flush();
+			stream.getChannel().force(true);
+		}
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Maps a segment which has been written.
+	 *
+	 * @param file The file of the segment.
+	 * @return The {@link FrozenSegment}.
+	 * @throws IOException Thrown if the file could not be mapped, or is not a segment.
+	 */
+	public static FrozenSegment open(final File file) throws IOException
+	{
+		try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			// The mapping stays valid once the channel is closed.
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+				throw new IOException("The frozen segment " + file + " is not valid.");
+			}
+
+			return new FrozenSegment(buffer);
+		}
+	}
+
+	/**
+	 * Returns the number of Paradigms in the segment.
+	 *
+	 * @return The number of Paradigms.
+	 */
+	public int size()
+	{
+		return count;
+	}
+
+	/**
+	 * Finds the position of a Paradigm in the segment.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 * @return The position, or -1 if the Paradigm is not in the segment.
+	 */
+	public int indexOf(final String paradigmId)
+	{
+		final byte[] id = paradigmId.getBytes(StandardCharsets.UTF_8);
+		int low = 0;
+		int high = count - 1;
+		while (low <= high)
+		{
+			final int middle = (low + high) >>> 1;
+			final int entry = HEADER_SIZE + middle * ENTRY_SIZE;
+			final int comparison = compareAt(buffer.getInt(entry), buffer.getInt(entry + 4), id);
+			if (comparison < 0) {
+				low = middle + 1;
+			}
+			else if (comparison > 0) {
+				high = middle - 1;
+			}
+			else {
+				return middle;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Returns the id of the Paradigm at a position, as it was named.
+	 *
+	 * @param index The position.
+	 * @return The {@link Paradigm}'s unique identifier.
+	 */
+	public String getId(final int index)
+	{
+		final int entry = HEADER_SIZE + index * ENTRY_SIZE;
+		final byte[] id = new byte[buffer.getInt(entry + 4)];
+		buffer.get(buffer.getInt(entry), id);
+
+		return new String(id, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the ids of every Paradigm in the segment, in order.
+	 *
+	 * @return The {@link Paradigm} identifiers.
+	 */
+	public List<String> getIds()
+	{
+		final List<String> ids = new ArrayList<>(count);
+		for (int index = 0; index < count; index++)
+		{
+			ids.add(getId(index));
+		}
+
+		return ids;
+	}
+
+	/**
+	 * Returns the encoded row of the Paradigm at a position, copied straight out of the mapping.
+	 *
+	 * @param index The position.
+	 * @return The row, as written by the Archetype's codec.
+	 */
+	public byte[] getRow(final int index)
+	{
+		final int entry = HEADER_SIZE + index * ENTRY_SIZE;
+		final byte[] row = new byte[buffer.getInt(entry + 12)];
+		buffer.get(buffer.getInt(entry + 8), row);
+
+		return row;
+	}
+
+	/**
+	 * Compares an id within the mapping against another, by their lowercase bytes.
+	 *
+	 * @param offset The offset of the id within the mapping.
+	 * @param length The length of the id.
+	 * @param other  The id to compare against.
+	 * @return A negative number, zero or a positive number as the id is before, the same as or after the other.
+	 */
+	private int compareAt(final int offset, final int length, final byte[] other)
+	{
+		final int shared = Math.min(length, other.length);
+		for (int index = 0; index < shared; index++)
+		{
+			final int left = lower(buffer.get(offset + index));
+			final int right = lower(other[index]);
+			if (left != right) {
+				return left - right;
+			}
+		}
+
+		return length - other.length;
+	}
+
+	/**
+	 * Compares two ids by their lowercase bytes, which is the order they are written in.
+	 *
+	 * @param id    The id.
+	 * @param other The id to compare against.
+	 * @return A negative number, zero or a positive number as the id is before, the same as or after the other.
+	 */
+	private static int compare(final byte[] id, final byte[] other)
+	{
+		final int shared = Math.min(id.length, other.length);
+		for (int index = 0; index < shared; index++)
+		{
+			final int left = lower(id[index]);
+			final int right = lower(other[index]);
+			if (left != right) {
+				return left - right;
+			}
+		}
+
+		return id.length - other.length;
+	}
+
+	private static int lower(final byte value)
+	{
+		final int unsigned = value & 0xff;
+
+		return unsigned >= 'A' && unsigned <= 'Z' ? unsigned + ('a' - 'A') : unsigned;
+	}
+}
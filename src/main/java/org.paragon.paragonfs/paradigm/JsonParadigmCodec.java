@@ -0,0 +1,53 @@
+package org.paragon.paragonfs.paradigm;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The {@link ParadigmCodec} of an Archetype without a schema, where every Paradigm is self-describing JSON holding the
+ * type and value of each key.
+ */
+public class JsonParadigmCodec implements ParadigmCodec
+{
+	/**
+	 * Shared by every codec, as an {@link ObjectMapper} is thread-safe once configured and expensive to create.
+	 */
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper(new JsonFactory());
+
+	private static final TypeReference<Map<String, Object>> MAP_TYPE_REFERENCE = new TypeReference<Map<String, Object>>()
+	{
+	};
+
+	/**
+	 * The {@link KeyDictionary} the snapshots' key identifiers belong to.
+	 */
+	private final KeyDictionary dictionary;
+
+	/**
+	 * Initializes the {@link JsonParadigmCodec}.
+	 *
+	 * @param dictionary The {@link KeyDictionary} the snapshots' key identifiers belong to.
+	 */
+	public JsonParadigmCodec(final KeyDictionary dictionary)
+	{
+		this.dictionary = dictionary;
+	}
+
+	@Override
+	public byte[] encode(final ParadigmSnapshot snapshot) throws IOException
+	{
+		return OBJECT_MAPPER.writeValueAsBytes(snapshot.toObject(dictionary));
+	}
+
+	@Override
+	public ParadigmSnapshot decode(final byte[] bytes) throws IOException
+	{
+		final Map<String, Object> object = OBJECT_MAPPER.readValue(bytes, MAP_TYPE_REFERENCE);
+
+		return ParadigmSnapshot.fromObject(object, dictionary);
+	}
+}
@@ -0,0 +1,330 @@
+package org.paragon.paragonfs.paradigm;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The key dictionary interns the keys used within an {@link org.paragon.paragonfs.archetype.Archetype}, giving every
+ * canonical, lowercase, key a small integer identifier. {@link ParadigmSnapshot}'s then hold their values in slots
+ * indexed by those identifiers, rather than in a map per Paradigm keyed by the full strings.<br />
+ * <br />
+ * The dictionary is an append-only file with one key per line, where a key's identifier is its line number, so
+ * identifiers never change once assigned. Lookups are case-insensitive and never allocate or take a lock, they probe an
+ * immutable hash table which is replaced whenever a key is added.
+ */
+public class KeyDictionary
+{
+	/**
+	 * The name of the file, within the archetype directory, the keys are written to.
+	 */
+	public static final String FILE_NAME = ".keys";
+
+	private static final String LINE_SEPARATOR = "\n";
+
+	/**
+	 * The file the keys are stored in.
+	 */
+	private final File file;
+
+	/**
+	 * Held while keys are added.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * The current keys and the hash table over them.
+	 */
+	private volatile Table table = new Table(new String[0]);
+
+	/**
+	 * Initializes the {@link KeyDictionary} and loads any keys which already exist on disk.
+	 *
+	 * @param file The file the keys are stored in.
+	 * @throws IllegalStateException Thrown if the existing dictionary could not be read.
+	 */
+	public KeyDictionary(final File file)
+	{
+		this.file = file;
+
+		if (!file.exists()) {
+			return;
+		}
+
+		try
+		{
+			final String contents = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+
+			// A crash part way through an append can leave a partial line behind, which was never assigned.
+			final int end = contents.lastIndexOf(LINE_SEPARATOR);
+			if (end >= 0) {
+				table = new Table(contents.substring(0, end).split(LINE_SEPARATOR, -1));
+			}
+		}
+		catch (final IOException e)
+		{
+			throw new IllegalStateException("The key dictionary could not be read.", e);
+		}
+	}
+
+	/**
+	 * Returns the identifier of the key, without adding it.
+	 *
+	 * @param key The key, case-insensitive.
+	 * @return The key's identifier, or -1 if the key has never been used.
+	 */
+	public int getId(final String key)
+	{
+		return table.getId(key);
+	}
+
+	/**
+	 * Returns the identifier of the key, adding it to the dictionary first if it has never been used. A key which is
+	 * added is synced to disk before this method returns.
+	 *
+	 * @param key The key, case-insensitive.
+	 * @return The key's identifier.
+	 * @throws IOException Thrown if the key could not be written.
+	 */
+	public int intern(final String key) throws IOException
+	{
+		final int existing = table.getId(key);
+		if (existing >= 0) {
+			return existing;
+		}
+
+		return internAll(Collections.singletonList(key))[0];
+	}
+
+	/**
+	 * Returns the identifiers of the keys, adding those which have never been used to the dictionary first. The keys
+	 * which are added, such as those of a row written for the first time, are appended and synced to disk together,
+	 * and the hash table is rebuilt once, before this method returns.
+	 *
+	 * @param keys The keys, case-insensitive.
+	 * @return The keys' identifiers, in the order the keys were given.
+	 * @throws IOException Thrown if the keys could not be written.
+	 */
+	public int[] internAll(final Collection<String> keys) throws IOException
+	{
+		final int[] ids = new int[keys.size()];
+		if (!lookUp(table, keys, ids)) {
+			return ids;
+		}
+
+		lock.lock();
+
+		try
+		{
+			final Table current = table;
+			if (!lookUp(current, keys, ids)) {
+				return ids;
+			}
+
+			// The same key may be given more than once within the batch, in different cases.
+			final Map<String, Integer> added = new LinkedHashMap<>();
+			final StringBuilder lines = new StringBuilder();
+			int index = 0;
+			for (final String key : keys)
+			{
+				if (ids[index] < 0) {
+					final String name = canonicalize(key);
+					Integer id = added.get(name);
+					if (id == null) {
+						id = current.names.length + added.size();
+						added.put(name, id);
+						lines.append(name).append(LINE_SEPARATOR);
+					}
+					ids[index] = id;
+				}
+				index++;
+			}
+
+			try (final FileOutputStream stream = new FileOutputStream(file, true))
+			{
+				stream.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+				stream.getChannel().force(false);
+			}
+
+			final String[] names = Arrays.copyOf(current.names, current.names.length + added.size());
+			for (final Map.Entry<String, Integer> name : added.entrySet())
+			{
+				names[name.getValue()] = name.getKey();
+			}
+			table = new Table(names);
+
+			return ids;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Looks the keys up in a table, setting the identifier of each which is found, and -1 for the rest.
+	 *
+	 * @param current The {@link Table} to look the keys up in.
+	 * @param keys    The keys, case-insensitive.
+	 * @param ids     The array to set the identifiers in.
+	 * @return Returns true if any key was not found.
+	 */
+	private static boolean lookUp(final Table current, final Collection<String> keys, final int[] ids)
+	{
+		boolean missing = false;
+		int index = 0;
+		for (final String key : keys)
+		{
+			ids[index] = current.getId(key);
+			if (ids[index] < 0) {
+				if (key.indexOf('\n') >= 0 || key.indexOf('\r') >= 0) {
+					throw new IllegalArgumentException("The key must not contain a line break.");
+				}
+				missing = true;
+			}
+			index++;
+		}
+
+		return missing;
+	}
+
+	/**
+	 * Returns the canonical key with the identifier.
+	 *
+	 * @param id The key's identifier.
+	 * @return The canonical, lowercase, key.
+	 */
+	public String getName(final int id)
+	{
+		return table.names[id];
+	}
+
+	/**
+	 * Returns the number of keys in the dictionary, which is one more than the largest identifier.
+	 *
+	 * @return The number of keys.
+	 */
+	public int size()
+	{
+		return table.names.length;
+	}
+
+	/**
+	 * Returns the canonical form of the key, which is the key with every character lowercased. A key which is already
+	 * canonical is returned as is.
+	 *
+	 * @param key The key.
+	 * @return The canonical key.
+	 */
+	static String canonicalize(final String key)
+	{
+		for (int index = 0; index < key.length(); index++)
+		{
+			if (Character.toLowerCase(key.charAt(index)) != key.charAt(index))
+			{
+				final char[] chars = key.toCharArray();
+				for (int lower = index; lower < chars.length; lower++)
+				{
+					chars[lower] = Character.toLowerCase(chars[lower]);
+				}
+
+				return new String(chars);
+			}
+		}
+
+		return key;
+	}
+
+	/**
+	 * An immutable open addressing hash table over the keys, hashed and compared case-insensitively so a lookup never
+	 * has to lowercase the key it is given.
+	 */
+	private static class Table
+	{
+		/**
+		 * The canonical keys, indexed by their identifier.
+		 */
+		private final String[] names;
+
+		/**
+		 * The hash table, where each slot is a key's identifier plus one, or 0 when empty.
+		 */
+		private final int[] slots;
+
+		private Table(final String[] names)
+		{
+			this.names = names;
+
+			int capacity = 16;
+			while (capacity < names.length * 2)
+			{
+				capacity <<= 1;
+			}
+
+			slots = new int[capacity];
+			for (int id = 0; id < names.length; id++)
+			{
+				int slot = hash(names[id]) & (capacity - 1);
+				while (slots[slot] != 0)
+				{
+					slot = (slot + 1) & (capacity - 1);
+				}
+
+				slots[slot] = id + 1;
+			}
+		}
+
+		private int getId(final String key)
+		{
+			int slot = hash(key) & (slots.length - 1);
+			while (slots[slot] != 0)
+			{
+				final int id = slots[slot] - 1;
+				if (matches(names[id], key)) {
+					return id;
+				}
+
+				slot = (slot + 1) & (slots.length - 1);
+			}
+
+			return -1;
+		}
+
+		private static int hash(final String key)
+		{
+			int hash = 0;
+			for (int index = 0; index < key.length(); index++)
+			{
+				hash = 31 * hash + Character.toLowerCase(key.charAt(index));
+			}
+
+			// Spread the bits, as only the lowest are used to pick a slot.
+			return hash ^ (hash >>> 16);
+		}
+
+		private static boolean matches(final String name, final String key)
+		{
+			if (name.length() != key.length()) {
+				return false;
+			}
+
+			for (int index = 0; index < name.length(); index++)
+			{
+				if (name.charAt(index) != Character.toLowerCase(key.charAt(index))) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+}
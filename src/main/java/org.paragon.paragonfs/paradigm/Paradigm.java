@@ -1,29 +1,48 @@
 package org.paragon.paragonfs.paradigm;
 
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
 import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.archetype.Schema;
 import org.paragon.paragonfs.data.type.DataType;
 import org.paragon.paragonfs.data.type.DataTypeIF;
 import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.feed.ChangeType;
+import org.paragon.paragonfs.io.AtomicFileWriter;
+import org.paragon.paragonfs.io.Durability;
+import org.paragon.paragonfs.io.FlushMode;
+import org.paragon.paragonfs.io.IoScheduler;
+import org.paragon.paragonfs.io.Volume;
+import org.paragon.paragonfs.io.WriteGate;
+import org.paragon.paragonfs.metrics.LatencyHistogram;
+import org.paragon.paragonfs.metrics.ParagonFSMetrics;
 
 import java.io.File;
-import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Calendar;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * A Paradigm is as close to a file as you can get with ParagonFS. It represents a collection of key/value pairs.
+ * A Paradigm is as close to a file as you can get with ParagonFS. It represents a collection of key/value pairs.<br />
+ * <br />
+ * The contents are held in an immutable {@link ParadigmSnapshot} published through a volatile reference. Reads use
+ * whichever snapshot is current without taking any lock, so they never wait on a writer, while writers take the write
+ * lock, build the next snapshot, flush it and then swap it in.<br />
+ * <br />
+ * While a {@link ReadView} is open, each write also keeps the snapshot it replaces in memory, so reads through the view
+ * see the Paradigm as it was when the view was opened. See {@link VersionClock}.
  */
 public class Paradigm
 {
@@ -31,6 +50,11 @@ public class Paradigm
 	public static final String PARADIGM_KEY_VALUE = "value";
 	public static final String DATA = "data";
 
+	/**
+	 * The {@link DataTypeIF} classes by name, so reading a value does not have to look its class up every time.
+	 */
+	private static final ConcurrentMap<String, Class<?>> TYPE_CLASSES = new ConcurrentHashMap<>();
+
 	/**
 	 * The {@link Archetype} this Paradigm belongs to.
 	 */
@@ -47,14 +71,62 @@ public class Paradigm
 	private final String id;
 
 	/**
-	 * A {@link ReadWriteLock} used to prevent concurrency issues.
+	 * Held by writers, and while the snapshot is loaded for the first time. Readers never take it otherwise.
+	 */
+	private final ReentrantLock writeLock;
+
+	/**
+	 * The current contents of this Paradigm, or null if they have not been loaded yet.
+	 */
+	private volatile ParadigmSnapshot snapshot;
+
+	/**
+	 * The current version, linked to the versions before it which an open {@link ReadView} may still need, or null if
+	 * the snapshot has not been loaded yet.
 	 */
-	private final ReadWriteLock lock;
+	private volatile ParadigmVersion head;
 
 	/**
-	 * This is the object that this Paradigm represents.
+	 * Whether this Paradigm has been deleted, after which it can no longer be read or written.
 	 */
-	private Map<String, Object> object;
+	private volatile boolean deleted;
+
+	/**
+	 * Whether the snapshot holds updates made with {@link Durability#WRITE_BACK} which have not been flushed yet. This
+	 * is guarded by the write lock.
+	 */
+	private boolean dirty;
+
+	/**
+	 * Whether the file was last read from the cold tier, or may have been when it was loaded from a frozen segment, so
+	 * the copy there must be removed once this Paradigm is written to its own file again. This is guarded by the write
+	 * lock.
+	 */
+	private boolean cold;
+
+	/**
+	 * The {@link ExpiryBuckets} bucket this Paradigm was last recorded in, so writes within the same bucket don't
+	 * record it again. This is guarded by the write lock.
+	 */
+	private long expiryBucket = Long.MIN_VALUE;
+
+	/**
+	 * The time at which this Paradigm was last read or written, in milliseconds, which keeps it from being moved to
+	 * the cold tier.
+	 */
+	private volatile long lastAccessed;
+
+	private final LatencyHistogram readLatency;
+
+	private final LatencyHistogram writeLatency;
+
+	private final LatencyHistogram flushLatency;
+
+	private final LatencyHistogram fsyncLatency;
+
+	private final LatencyHistogram readLockWait;
+
+	private final LatencyHistogram writeLockWait;
 
 	/**
 	 * Initializes the {@link Paradigm}.
@@ -68,7 +140,15 @@ public class Paradigm
 		this.archetype = archetype;
 		this.file = file;
 		this.id = paradigmId;
-		this.lock = new ReentrantReadWriteLock(true);
+		this.writeLock = new ReentrantLock();
+
+		final ParagonFSMetrics metrics = archetype.getParagonFS().getMetrics();
+		this.readLatency = metrics.histogram(ParagonFSMetrics.PARADIGM_READ);
+		this.writeLatency = metrics.histogram(ParagonFSMetrics.PARADIGM_WRITE);
+		this.flushLatency = metrics.histogram(ParagonFSMetrics.PARADIGM_FLUSH);
+		this.fsyncLatency = metrics.histogram(ParagonFSMetrics.PARADIGM_FSYNC);
+		this.readLockWait = metrics.histogram(ParagonFSMetrics.PARADIGM_READ_LOCK_WAIT);
+		this.writeLockWait = metrics.histogram(ParagonFSMetrics.PARADIGM_WRITE_LOCK_WAIT);
 	}
 
 	/**
@@ -102,50 +182,127 @@ public class Paradigm
 	}
 
 	/**
-	 * Sets the value of a single key on the Paradigm.
+	 * Sets the value of a single key on the Paradigm, with the {@link Archetype}'s {@link Durability}.
 	 *
 	 * @param key   The key to set the value on.
 	 * @param value The value to set the key to.
 	 */
 	public void setValue(final String key, final DataTypeIF value) throws ParagonFSException
+	{
+		setValue(key, value, archetype.getDurability());
+	}
+
+	/**
+	 * Sets the value of a single key on the Paradigm.
+	 *
+	 * @param key        The key to set the value on.
+	 * @param value      The value to set the key to.
+	 * @param durability How durable the write must be before this method returns.
+	 */
+	public void setValue(final String key, final DataTypeIF value, final Durability durability) throws ParagonFSException
 	{
 		final Map<String, DataTypeIF> values = new LinkedHashMap<>();
 		values.put(key, value);
 
-		setValues(values);
+		setValues(values, durability);
 	}
 
 	/**
-	 * Sets the values of multiple keys on the Paradigm.
+	 * Sets the values of multiple keys on the Paradigm, with the {@link Archetype}'s {@link Durability}.
 	 *
 	 * @param values A map of keys and their values to set.
 	 */
 	public void setValues(final Map<String, DataTypeIF> values) throws ParagonFSException
 	{
-		// TODO validate keys are not empty, then write lock, update values, flush/sync.
+		setValues(values, archetype.getDurability());
+	}
+
+	/**
+	 * Sets the values of multiple keys on the Paradigm.
+	 *
+	 * @param values     A map of keys and their values to set.
+	 * @param durability How durable the write must be before this method returns.
+	 */
+	public void setValues(final Map<String, DataTypeIF> values, final Durability durability) throws ParagonFSException
+	{
+		if (durability == null)
+		{
+			throw new IllegalArgumentException("The durability must not be null.");
+		}
+
 		validate(values);
 
-		// Obtain a write lock.
-		lock.writeLock().lock();
+		final Schema schema = archetype.getSchema();
+		if (schema != null)
+		{
+			schema.validate(values);
+		}
+
+		// Wait for the flusher to catch up before taking the lock, as the flusher may need it.
+		final long start = System.nanoTime();
+		if (durability == Durability.WRITE_BACK)
+		{
+			archetype.getParagonFS().getWriteBackFlusher().awaitCapacity();
+		}
+
+		// Pass the write gate, which is closed while a snapshot is taken, then obtain a write lock.
+		final WriteGate writeGate = archetype.getParagonFS().getWriteGate();
+		writeGate.enter();
+		lockForWrite();
+		lastAccessed = System.currentTimeMillis();
 
 		try
 		{
-			refresh();
+			ensureNotDeleted();
+			archetype.getParadigmPool().ensureNotFrozen();
 
-			if (object == null)
+			// Keys are interned into the Archetype's dictionary, which also makes them lowercase.
+			final KeyDictionary dictionary = archetype.getKeyDictionary();
+			final int[] keyIds = dictionary.internAll(values.keySet());
+			final String[] typeNames = new String[values.size()];
+			final Object[] keyValues = new Object[values.size()];
+			int index = 0;
+			for (final Map.Entry<String, DataTypeIF> entry : values.entrySet())
 			{
-				object = getEmptyObject();
+				final DataTypeIF value = entry.getValue();
+				typeNames[index] = value == null ? null : value.getClass().getName();
+				keyValues[index] = value == null ? null : value.getValue();
+				index++;
 			}
 
-			@SuppressWarnings("unchecked")
-			final Map<String, Object> data = (Map<String, Object>) object.get(DATA);
-			for (final Map.Entry<String, DataTypeIF> entry : values.entrySet())
+			// An expired Paradigm is only waiting to be reaped, and must not come back to life.
+			final ParadigmSnapshot current = load();
+			if (isExpired(current))
 			{
-				object.put(entry.getKey(), entry.getValue());
+				throw new ParagonFSException("The paradigm has expired.");
 			}
 
-			updateMetaData();
-			flush();
+			// Build the next version, and only publish it to readers once it has been flushed.
+			final ParadigmSnapshot next = current.withValues(keyIds, typeNames, keyValues, System.currentTimeMillis());
+			if (schema != null)
+			{
+				ensureComplete(schema, next);
+			}
+
+			// The deadline is recorded first, so a failure can only fail a write which hasn't happened. A deadline
+			// left behind by a write which then fails is harmless, as the reaper checks the Paradigm has expired.
+			recordExpiry(next.getUpdated());
+
+			// The columnar segment no longer reflects this Paradigm once the write reaches the disk, and a build which
+			// read the previous version while it was flushed must not be published either.
+			archetype.getColumnarStore().invalidate();
+			flush(next, durability);
+			commit(next);
+			archetype.getColumnarStore().invalidate();
+
+			final List<String> keys = new ArrayList<>(keyIds.length);
+			for (final int keyId : keyIds)
+			{
+				keys.add(dictionary.getName(keyId));
+			}
+			archetype.getParagonFS().getChangeFeed().publish(
+				ChangeType.UPDATE, archetype.getDir().getName(), id, next.getVersion(), keys
+			);
 		}
 		catch (final IOException e)
 		{
@@ -153,7 +310,33 @@ public class Paradigm
 		}
 		finally
 		{
-			lock.writeLock().unlock();
+			writeLock.unlock();
+			writeGate.exit();
+			writeLatency.recordSince(start);
+		}
+	}
+
+	/**
+	 * Records when this Paradigm is due to expire, if its {@link Archetype} has a time-to-live, unless it is already
+	 * recorded in the same bucket.<br />
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the write lock.
+	 *
+	 * @param written The time this Paradigm was written, in milliseconds.
+	 * @throws IOException Thrown if the deadline could not be recorded.
+	 */
+	private void recordExpiry(final long written) throws IOException
+	{
+		final long timeToLive = archetype.getTimeToLive();
+		if (timeToLive <= 0)
+		{
+			return;
+		}
+
+		final long bucket = ExpiryBuckets.getBucket(written + timeToLive);
+		if (bucket != expiryBucket)
+		{
+			archetype.getExpiryBuckets().record(id, written + timeToLive);
+			expiryBucket = bucket;
 		}
 	}
 
@@ -187,74 +370,151 @@ public class Paradigm
 	}
 
 	/**
-	 * Returns an empty object, to be used when the file has not been created yet.
+	 * Ensures every key of the schema which is not nullable has a value, once the values are set.
+	 *
+	 * @param schema The {@link Archetype}'s {@link Schema}.
+	 * @param next   The snapshot about to be written.
+	 */
+	private void ensureComplete(final Schema schema, final ParadigmSnapshot next)
+	{
+		final KeyDictionary dictionary = archetype.getKeyDictionary();
+		for (final Schema.Column column : schema.getColumns())
+		{
+			if (!column.isNullable() && next.getValue(dictionary.getId(column.getName())) == null)
+			{
+				throw new IllegalArgumentException("The key " + column.getName() + " must not be null.");
+			}
+		}
+	}
+
+	/**
+	 * This will flush the snapshot onto disk, either in place or through a temporary file depending
+	 * on the {@link Archetype}'s {@link FlushMode}. Depending on the {@link Durability} the file is then synced with
+	 * {@link java.nio.channels.FileChannel#force(boolean)} to ensure it has been written to disk, or it is left to the
+	 * {@link org.paragon.paragonfs.io.BackgroundSyncer}.<br />
+	 * <br />
+	 * With {@link Durability#MEMORY} and {@link Durability#WRITE_BACK} nothing is written, and the Paradigm is pinned in
+	 * the {@link ParadigmPool} so the values are not lost to the garbage collector. With write-back the Paradigm is
+	 * also marked dirty, for the {@link WriteBackFlusher} to write later.
 	 *
-	 * @return An empty object with the version, timestamp and data maps.
+	 * @param next       The snapshot to flush.
+	 * @param durability How durable the write must be before this method returns.
+	 * @throws IOException
 	 */
-	private Map<String, Object> getEmptyObject()
+	private void flush(final ParadigmSnapshot next, final Durability durability) throws IOException
 	{
-		final Map<String, Object> object = new LinkedHashMap<>();
+		if (durability == Durability.MEMORY)
+		{
+			archetype.getParadigmPool().pin(this);
+			return;
+		}
+		else if (durability == Durability.WRITE_BACK)
+		{
+			archetype.getParadigmPool().pin(this);
+			dirty = true;
+			archetype.getParagonFS().getWriteBackFlusher().markDirty(this, next.getEstimatedSize());
+			return;
+		}
 
-		// A version of 0, it will be incremented anyways.
-		object.put("version", 0);
+		final IoScheduler scheduler = archetype.getParagonFS().getIoScheduler();
+		final Volume volume = archetype.getParagonFS().getVolume(id);
+		final long start = System.nanoTime();
+		scheduler.enter(volume);
+		try
+		{
+			final byte[] bytes = archetype.getCodec().encode(next);
+			if (cold)
+			{
+				// The fan-out directories may have been removed once the Paradigm was moved out of them.
+				Files.createDirectories(file.getParentFile().toPath());
+			}
 
-		// Add the map with the created timestamp only -- updated will be overwritten as well.
-		final Map<String, Object> timestamp = new LinkedHashMap<>();
-		timestamp.put("created", Calendar.getInstance());
-		object.put("timestamp", timestamp);
+			// A file shared with a snapshot is replaced rather than written in place, leaving the snapshot's version.
+			if (archetype.getFlushMode() == FlushMode.ATOMIC_RENAME
+				|| archetype.getParagonFS().getSnapshotter().isLinked(file))
+			{
+				archetype.getParagonFS().getAtomicFileWriter().write(file, bytes, durability);
+			}
+			else
+			{
+				flushInPlace(bytes, durability);
+			}
 
-		// Then an empty map for data.
-		object.put("data", new LinkedHashMap<>());
+			archetype.getBytesWritten().add(bytes.length);
+			archetype.getParadigmPool().unpin(this);
+			dirty = false;
 
-		return object;
+			// Writing to a Paradigm in the cold tier moves it back, now the file holds the latest version.
+			if (cold)
+			{
+				final File coldFile = archetype.getColdParadigmFile(id);
+				if (coldFile != null)
+				{
+					Files.deleteIfExists(coldFile.toPath());
+				}
+				cold = false;
+			}
+		}
+		finally
+		{
+			scheduler.exit(volume);
+			flushLatency.recordSince(start);
+		}
 	}
 
 	/**
-	 * When invoked this method will increment the version number of the object and update the updated timestamp to now.
+	 * Writes the snapshot if it holds updates made with {@link Durability#WRITE_BACK} which have not been flushed yet.
+	 * This is invoked by the {@link WriteBackFlusher}.
+	 *
+	 * @throws ParagonFSException Thrown if the snapshot could not be written.
 	 */
-	private void updateMetaData()
+	void flushWriteBack() throws ParagonFSException
 	{
-		final Integer version = (Integer) object.get("version");
+		lockForWrite();
+
+		try
+		{
+			if (deleted || !dirty)
+			{
+				return;
+			}
 
-		// Increment the version as appropriate.
-		if (version == null) {
-			object.put("version", 1);
+			flush(snapshot, Durability.DATA_SYNC);
 		}
-		else {
-			object.put("version", version + 1);
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("An error occurred while flushing the object.", e);
+		}
+		finally
+		{
+			writeLock.unlock();
 		}
-
-		@SuppressWarnings("unchecked")
-		final Map<String, Object> timestamp = (Map<String, Object>) object.get("timestamp");
-		timestamp.put("updated", Calendar.getInstance());
 	}
 
 	/**
-	 * This will flush the current state of the object onto disk. This method uses {@link FileOutputStream} and then
-	 * invokes {@link java.nio.channels.FileChannel#force(boolean)} and {@link FileDescriptor#sync()} to ensure the
-	 * file has been written to disk.
+	 * Truncates the file and writes the bytes to it, for {@link FlushMode#IN_PLACE}.
 	 *
+	 * @param bytes      The bytes to write.
+	 * @param durability How durable the write must be before this method returns.
 	 * @throws IOException
 	 */
-	private void flush() throws IOException
+	private void flushInPlace(final byte[] bytes, final Durability durability) throws IOException
 	{
-		FileOutputStream stream = null;
-		try
+		// Open the file stream and write the object.
+		try (final FileOutputStream stream = new FileOutputStream(file, false))
 		{
-			// Open the file stream and write the object.
-			stream = new FileOutputStream(file, false);
-			stream.write(getObjectMapper().writeValueAsBytes(object));
+			stream.write(bytes);
 
-			stream.getChannel().force(true);
-			stream.getFD().sync();
-		}
-		finally {
-			if (stream == null) {
-				//noinspection ReturnInsideFinallyBlock
-				return;
+			if (durability == Durability.ASYNC)
+			{
+				archetype.getParagonFS().getBackgroundSyncer().add(file);
+			}
+			else
+			{
+				final long syncStart = System.nanoTime();
+				stream.getChannel().force(durability == Durability.SYNC);
+				fsyncLatency.recordSince(syncStart);
 			}
-
-			stream.close();
 		}
 	}
 
@@ -267,13 +527,23 @@ public class Paradigm
 	 */
 	public Set<String> keySet() throws ParagonFSException
 	{
-		lock.readLock().lock();
+		final long start = System.nanoTime();
 
 		try
 		{
-			refresh();
+			final ParadigmSnapshot current = getSnapshot();
+			final KeyDictionary dictionary = archetype.getKeyDictionary();
 
-			return new LinkedHashSet<>(object.keySet());
+			final Set<String> keys = new LinkedHashSet<>();
+			for (int keyId = 0; keyId < current.getSlotCount(); keyId++)
+			{
+				if (current.contains(keyId))
+				{
+					keys.add(dictionary.getName(keyId));
+				}
+			}
+
+			return keys;
 		}
 		catch (final IOException e)
 		{
@@ -281,7 +551,7 @@ public class Paradigm
 		}
 		finally
 		{
-			lock.readLock().unlock();
+			readLatency.recordSince(start);
 		}
 	}
 
@@ -302,83 +572,597 @@ public class Paradigm
 			throw new IllegalArgumentException("The key must not be null.");
 		}
 
-		lock.readLock().lock();
+		final long start = System.nanoTime();
 
 		try
 		{
-			// Ensure the object is loaded.
-			refresh();
+			// Get the value for the key, if any, from the current snapshot.
+			return getValue(getSnapshot(), key);
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("An error occurred while refreshing the object.", e);
+		}
+		finally
+		{
+			readLatency.recordSince(start);
+		}
+	}
+
+	/**
+	 * Returns the value of the key within the Paradigm as it was when the {@link ReadView} was opened.
+	 *
+	 * @param key  The key to retrieve, case-insensitive.
+	 * @param view The {@link ReadView} to read through.
+	 * @return The value of the key, or null if the key does not exist in this Paradigm, or the Paradigm did not exist,
+	 * when the view was opened.
+	 * @throws ParagonFSException Thrown if an error occurs while trying to read from the file system.
+	 */
+	public DataTypeIF getValue(final String key, final ReadView view) throws ParagonFSException
+	{
+		if (key == null)
+		{
+			throw new IllegalArgumentException("The key must not be null.");
+		}
+
+		final long start = System.nanoTime();
+
+		try
+		{
+			final ParadigmSnapshot visible = getSnapshot(view);
+
+			return visible == null ? null : getValue(visible, key);
+		}
+		finally
+		{
+			readLatency.recordSince(start);
+		}
+	}
 
-			// Make sure the object isn't empty.
-			if (object == null || !object.containsKey(DATA))
+	/**
+	 * Returns the value of the key within a snapshot.
+	 *
+	 * @param source The snapshot to read.
+	 * @param key    The key to retrieve, case-insensitive.
+	 * @return The value of the key, or null if the key does not exist in the snapshot.
+	 */
+	private DataTypeIF getValue(final ParadigmSnapshot source, final String key) throws ParagonFSException
+	{
+		final int keyId = archetype.getKeyDictionary().getId(key);
+		final String type = source.getType(keyId);
+		if (type == null)
+		{
+			return null;
+		}
+
+		final DataTypeIF dataTypeIF = getNewTypeInstance(type);
+		dataTypeIF.setValue(source.getValue(keyId));
+
+		return dataTypeIF;
+	}
+
+	/**
+	 * Returns the version of this {@link Paradigm}, which is the number of times it has been updated.
+	 *
+	 * @return The version, or 0 if the Paradigm has not been written to yet.
+	 * @throws ParagonFSException Thrown if an error occurs while trying to read from the file system.
+	 */
+	public int getVersion() throws ParagonFSException
+	{
+		try
+		{
+			return getSnapshot().getVersion();
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("An error occurred while refreshing the object.", e);
+		}
+	}
+
+	/**
+	 * Returns the current contents of this {@link Paradigm}, loading them from the file first if they have not been
+	 * loaded yet.
+	 *
+	 * @return The current {@link ParadigmSnapshot}.
+	 * @throws ParagonFSException Thrown if an error occurs while trying to read from the file system, or if the
+	 *                            Paradigm has been deleted.
+	 */
+	public ParadigmSnapshot getCurrentSnapshot() throws ParagonFSException
+	{
+		try
+		{
+			return getSnapshot();
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("An error occurred while refreshing the object.", e);
+		}
+	}
+
+	/**
+	 * Returns the contents of this {@link Paradigm} as they were when the {@link ReadView} was opened, without waiting
+	 * on any writer.
+	 *
+	 * @param view The {@link ReadView} to read through.
+	 * @return The {@link ParadigmSnapshot}, or null if the Paradigm did not exist when the view was opened.
+	 * @throws ParagonFSException Thrown if an error occurs while trying to read from the file system.
+	 */
+	public ParadigmSnapshot getSnapshot(final ReadView view) throws ParagonFSException
+	{
+		if (view == null)
+		{
+			throw new IllegalArgumentException("The read view must not be null.");
+		}
+
+		view.ensureOpen();
+
+		ParadigmVersion current = head;
+		if (current == null && !deleted)
+		{
+			try
 			{
-				return null;
+				getSnapshot();
 			}
-
-			// Now get the value for the key, if any.
-			@SuppressWarnings("unchecked")
-			final Map<String, Object> value = (Map<String, Object>) ((Map<String, Object>) object.get(DATA)).get(key.toLowerCase());
-			if (value == null || !value.containsKey(PARADIGM_KEY_TYPE))
+			catch (final IOException e)
+			{
+				throw new ParagonFSException("An error occurred while refreshing the object.", e);
+			}
+			catch (final ParagonFSException e)
 			{
-				return null;
+				// Deleted since it was checked, in which case the deletion has been committed.
+				if (!deleted)
+				{
+					throw e;
+				}
 			}
 
-			final DataTypeIF dataTypeIF = getNewTypeInstance(value.get(PARADIGM_KEY_TYPE).toString());
-			dataTypeIF.setValue(value.get(PARADIGM_KEY_VALUE));
+			current = head;
+		}
+
+		final ParadigmVersion visible = current == null ? null : current.find(view.getReadTimestamp());
 
-			return dataTypeIF;
+		return visible == null ? null : visible.snapshot;
+	}
+
+	/**
+	 * Determines whether this {@link Paradigm} has been deleted.
+	 *
+	 * @return Returns true if the Paradigm has been deleted.
+	 */
+	public boolean isDeleted()
+	{
+		return deleted;
+	}
+
+	/**
+	 * Determines whether this {@link Paradigm} has outlived the time-to-live of its {@link Archetype}, in which case it
+	 * reads as empty until the {@link ParadigmReaper} deletes it.
+	 *
+	 * @return Returns true if the Paradigm has expired.
+	 * @throws ParagonFSException Thrown if an error occurs while trying to read from the file system, or if the
+	 *                            Paradigm has been deleted.
+	 */
+	public boolean isExpired() throws ParagonFSException
+	{
+		if (archetype.getTimeToLive() <= 0)
+		{
+			return false;
+		}
+
+		try
+		{
+			return isExpired(loadSnapshot());
 		}
 		catch (final IOException e)
 		{
 			throw new ParagonFSException("An error occurred while refreshing the object.", e);
 		}
+	}
+
+	/**
+	 * Returns when this {@link Paradigm} expires, unless it is written to before then.
+	 *
+	 * @return The time, in milliseconds, or {@link Long#MAX_VALUE} if it never expires.
+	 * @throws ParagonFSException Thrown if an error occurs while trying to read from the file system, or if the
+	 *                            Paradigm has been deleted.
+	 */
+	public long getExpiresAt() throws ParagonFSException
+	{
+		if (archetype.getTimeToLive() <= 0)
+		{
+			return Long.MAX_VALUE;
+		}
+
+		try
+		{
+			return getExpiresAt(loadSnapshot());
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("An error occurred while refreshing the object.", e);
+		}
+	}
+
+	/**
+	 * Determines whether a snapshot of this {@link Paradigm} has outlived the time-to-live of its {@link Archetype}.
+	 *
+	 * @param current The snapshot.
+	 * @return Returns true if the Paradigm has expired.
+	 */
+	private boolean isExpired(final ParadigmSnapshot current)
+	{
+		return getExpiresAt(current) <= System.currentTimeMillis();
+	}
+
+	/**
+	 * Returns when a snapshot of this {@link Paradigm} expires. A Paradigm which has never been written lives from when
+	 * its file was created.
+	 *
+	 * @param current The snapshot.
+	 * @return The time, in milliseconds, or {@link Long#MAX_VALUE} if it never expires.
+	 */
+	private long getExpiresAt(final ParadigmSnapshot current)
+	{
+		final long timeToLive = archetype.getTimeToLive();
+		final long written = current.getUpdated() > 0 ? current.getUpdated() : file.lastModified();
+
+		return timeToLive <= 0 || written <= 0 ? Long.MAX_VALUE : written + timeToLive;
+	}
+
+	/**
+	 * Loads the snapshot from the file, if it has not been loaded yet, so the following reads don't need any I/O.
+	 *
+	 * @throws ParagonFSException Thrown if an error occurs while trying to read from the file system.
+	 */
+	void preload() throws ParagonFSException
+	{
+		try
+		{
+			getSnapshot();
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("An error occurred while refreshing the object.", e);
+		}
+	}
+
+	/**
+	 * Returns the current snapshot, as readers see it, which is empty once this Paradigm has expired.
+	 *
+	 * @return The current {@link ParadigmSnapshot}.
+	 * @throws IOException
+	 * @throws ParagonFSException Thrown if the Paradigm has been deleted.
+	 */
+	private ParadigmSnapshot getSnapshot() throws IOException, ParagonFSException
+	{
+		final ParadigmSnapshot current = loadSnapshot();
+
+		return isExpired(current) ? ParadigmSnapshot.EMPTY : current;
+	}
+
+	/**
+	 * Returns the current snapshot, loading it from the file first if it has not been loaded yet. Once loaded this
+	 * never takes a lock.
+	 *
+	 * @return The current {@link ParadigmSnapshot}.
+	 * @throws IOException
+	 * @throws ParagonFSException Thrown if the Paradigm has been deleted.
+	 */
+	private ParadigmSnapshot loadSnapshot() throws IOException, ParagonFSException
+	{
+		lastAccessed = System.currentTimeMillis();
+
+		final ParadigmSnapshot current = snapshot;
+		if (current != null)
+		{
+			ensureNotDeleted();
+			return current;
+		}
+
+		// Only the first read has to wait, for the lock, while the file is loaded.
+		final long start = System.nanoTime();
+		writeLock.lock();
+		readLockWait.recordSince(start);
+
+		try
+		{
+			ensureNotDeleted();
+			return load();
+		}
 		finally
 		{
-			lock.readLock().unlock();
+			writeLock.unlock();
 		}
 	}
 
 	/**
-	 * This will load the object from the file into the map if the object is null.
+	 * This will load the snapshot from the file if it has not been loaded yet.<br />
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the write lock.
 	 *
+	 * @return The current {@link ParadigmSnapshot}.
 	 * @throws IOException
 	 */
-	private void refresh() throws IOException
+	private ParadigmSnapshot load() throws IOException
 	{
-		if (object != null)
+		if (snapshot != null)
 		{
-			return;
+			return snapshot;
 		}
-		else if (!file.exists())
+
+		// A frozen Archetype is loaded from its mapped segment, without looking at the Paradigm's own file at all, so
+		// whether it is in the cold tier is only found out once it is written, after the Archetype is thawed.
+		final byte[] frozenRow = archetype.getParadigmPool().getFrozenRow(id);
+		if (frozenRow != null)
 		{
-			return;
+			final ParadigmSnapshot loaded = archetype.getCodec().decode(frozenRow);
+			cold = true;
+			head = new ParadigmVersion(0, loaded, null);
+			snapshot = loaded;
+			return snapshot;
+		}
+
+		// A Paradigm which has been moved to the cold tier is read from there, in place.
+		File source = file;
+		if (!file.exists())
+		{
+			final File coldFile = archetype.getColdParadigmFile(id);
+			if (coldFile != null && coldFile.exists())
+			{
+				source = coldFile;
+				cold = true;
+			}
+		}
+
+		ParadigmSnapshot loaded = ParadigmSnapshot.EMPTY;
+		if (source.exists() && source.length() > 0)
+		{
+			final IoScheduler scheduler = archetype.getParagonFS().getIoScheduler();
+			final Volume volume = cold ? null : archetype.getParagonFS().getVolume(id);
+			final byte[] bytes;
+			scheduler.enter(volume);
+			try
+			{
+				bytes = Files.readAllBytes(source.toPath());
+			}
+			finally
+			{
+				scheduler.exit(volume);
+			}
+			archetype.getBytesRead().add(bytes.length);
+
+			if (bytes.length > 0)
+			{
+				loaded = archetype.getCodec().decode(bytes);
+			}
 		}
 
-		object = getObjectMapper().readValue(file, getMapTypeReference());
+		// What is on disk was committed before any open view, as otherwise this Paradigm would have been kept.
+		head = new ParadigmVersion(0, loaded, null);
+		snapshot = loaded;
+		return snapshot;
 	}
 
 	/**
-	 * Returns an instance of an {@link ObjectMapper}.
+	 * Moves the file of this {@link Paradigm} to the cold tier, if it has been idle since the cutoff. The file is
+	 * copied and synced before it is renamed into place, and the cold directories are synced before it is removed,
+	 * so a crash leaves at least one complete copy. The loaded snapshot is dropped, as it no longer needs to be held.
 	 *
-	 * @return An object mapper.
+	 * @param coldFile The file to move it to, in the cold tier.
+	 * @param cutoff   The time, in milliseconds, the Paradigm must not have been read or updated since.
+	 * @return Returns true if the Paradigm was moved.
+	 * @throws IOException Thrown if the file could not be moved.
 	 */
-	private ObjectMapper getObjectMapper()
+	boolean demote(final File coldFile, final long cutoff) throws IOException
 	{
-		final JsonFactory jsonFactory = new JsonFactory();
+		final WriteGate writeGate = archetype.getParagonFS().getWriteGate();
+		writeGate.enter();
+		lockForWrite();
 
-		return new ObjectMapper(jsonFactory);
+		try
+		{
+			if (deleted || dirty || cold || lastAccessed >= cutoff || !file.exists() || file.length() == 0
+				|| archetype.getParadigmPool().isPinned(this) || hasVersions())
+			{
+				return false;
+			}
+
+			// The file's modification time is cheap to check, while the updated time needs the file to be read.
+			if (file.lastModified() >= cutoff || load().getUpdated() >= cutoff)
+			{
+				return false;
+			}
+
+			// Every directory created for it must be synced into its own parent, as well as the file into the last.
+			final File parent = coldFile.getParentFile();
+			final List<File> created = new ArrayList<>();
+			for (File dir = parent; dir != null && !dir.exists(); dir = dir.getParentFile())
+			{
+				created.add(dir);
+			}
+			Files.createDirectories(parent.toPath());
+
+			final File temp = AtomicFileWriter.getTempFile(coldFile);
+			Files.copy(file.toPath(), temp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			try (final FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE))
+			{
+				channel.force(true);
+			}
+			Files.move(temp.toPath(), coldFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+
+			final AtomicFileWriter atomicFileWriter = archetype.getParagonFS().getAtomicFileWriter();
+			atomicFileWriter.syncDirectory(parent);
+			for (final File dir : created)
+			{
+				atomicFileWriter.syncDirectory(dir.getParentFile());
+			}
+
+			Files.delete(file.toPath());
+			atomicFileWriter.syncDirectory(file.getParentFile());
+
+			snapshot = null;
+			head = null;
+			return true;
+		}
+		finally
+		{
+			writeLock.unlock();
+			writeGate.exit();
+		}
+	}
+
+	/**
+	 * Acquires the write lock, recording how long it took.
+	 */
+	private void lockForWrite()
+	{
+		final long start = System.nanoTime();
+		writeLock.lock();
+		writeLockWait.recordSince(start);
+	}
+
+	/**
+	 * Deletes this {@link Paradigm}.
+	 *
+	 * @throws ParagonFSException Thrown if an error occurs while attempting to delete the Paradigm.
+	 * @see Archetype#delete(String)
+	 */
+	public void delete() throws ParagonFSException
+	{
+		archetype.getParadigmPool().delete(id);
+	}
+
+	/**
+	 * Makes the snapshot current as of the next commit timestamp, keeping the version it replaces if any
+	 * {@link ReadView} is open.<br />
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the write lock.
+	 *
+	 * @param next The snapshot, or null if the Paradigm has been deleted.
+	 */
+	private void commit(final ParadigmSnapshot next)
+	{
+		final VersionClock clock = archetype.getParagonFS().getVersionClock();
+		final long commitTimestamp = clock.beginCommit();
+
+		try
+		{
+			final ParadigmVersion previous = clock.hasOpenViews() ? head : null;
+			head = new ParadigmVersion(commitTimestamp, next, previous);
+			snapshot = next;
+
+			if (previous != null)
+			{
+				clock.track(this);
+			}
+		}
+		finally
+		{
+			clock.endCommit();
+		}
+	}
+
+	/**
+	 * Commits the creation of this {@link Paradigm}, so the {@link ReadView}'s opened before it see it as missing.
+	 *
+	 * @throws ParagonFSException Thrown if an error occurs while trying to read from the file system.
+	 */
+	void commitCreate() throws ParagonFSException
+	{
+		lockForWrite();
+
+		try
+		{
+			final ParadigmSnapshot created = load();
+			head = new ParadigmVersion(0, null, null);
+			commit(created);
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("An error occurred while refreshing the object.", e);
+		}
+		finally
+		{
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Determines whether this {@link Paradigm} is keeping versions before its current one.
+	 *
+	 * @return Returns true if there are older versions.
+	 */
+	boolean hasVersions()
+	{
+		final ParadigmVersion current = head;
+
+		return current != null && current.previous != null;
+	}
+
+	/**
+	 * Drops the versions no open {@link ReadView} can see any more, which is every version before the one the oldest
+	 * view sees. This is invoked by the {@link VersionClock}.
+	 *
+	 * @param oldestReadTimestamp The read timestamp of the oldest open view, or {@link Long#MAX_VALUE} if none is.
+	 */
+	void trimVersions(final long oldestReadTimestamp)
+	{
+		// The lock keeps a write from keeping a version while this decides the Paradigm no longer has any.
+		writeLock.lock();
+
+		try
+		{
+			final ParadigmVersion current = head;
+			final ParadigmVersion oldestVisible = current == null ? null : current.find(oldestReadTimestamp);
+			if (oldestVisible != null)
+			{
+				oldestVisible.previous = null;
+			}
+
+			if (!hasVersions())
+			{
+				archetype.getParagonFS().getVersionClock().untrack(this);
+				if (deleted)
+				{
+					archetype.getParadigmPool().forget(this);
+				}
+			}
+		}
+		finally
+		{
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Marks this {@link Paradigm} as deleted and drops the loaded snapshot, unless an open {@link ReadView} may still
+	 * need it. This waits for any write in progress to finish first.
+	 */
+	void markDeleted()
+	{
+		writeLock.lock();
+
+		try
+		{
+			deleted = true;
+			commit(null);
+		}
+		finally
+		{
+			writeLock.unlock();
+		}
 	}
 
 	/**
-	 * Returns a {@link TypeReference} to be used with an {@link ObjectMapper}.
+	 * Throws an exception if this {@link Paradigm} has been deleted.
 	 *
-	 * @return {@link TypeReference}
+	 * @throws ParagonFSException Thrown if the Paradigm has been deleted.
 	 */
-	private TypeReference<Map<String, Object>> getMapTypeReference()
+	private void ensureNotDeleted() throws ParagonFSException
 	{
-		return new TypeReference<Map<String, Object>>()
+		if (deleted)
 		{
-		};
+			throw new ParagonFSException("The paradigm has been deleted.");
+		}
 	}
 
 	/**
@@ -391,7 +1175,14 @@ public class Paradigm
 	{
 		try
 		{
-			return (DataTypeIF) Class.forName(className).newInstance();
+			Class<?> typeClass = TYPE_CLASSES.get(className);
+			if (typeClass == null)
+			{
+				typeClass = Class.forName(className);
+				TYPE_CLASSES.putIfAbsent(className, typeClass);
+			}
+
+			return (DataTypeIF) typeClass.newInstance();
 		}
 		catch (IllegalAccessException e)
 		{
@@ -0,0 +1,29 @@
+package org.paragon.paragonfs.paradigm;
+
+import java.io.IOException;
+
+/**
+ * Encodes a {@link ParadigmSnapshot} into the bytes of a Paradigm's file, and decodes it back again. Every
+ * {@link org.paragon.paragonfs.archetype.Archetype} has a codec, which depends on whether it has a
+ * {@link org.paragon.paragonfs.archetype.Schema}.
+ */
+public interface ParadigmCodec
+{
+	/**
+	 * Encodes the snapshot.
+	 *
+	 * @param snapshot The snapshot to encode.
+	 * @return The bytes to write.
+	 * @throws IOException Thrown if the snapshot could not be encoded.
+	 */
+	byte[] encode(ParadigmSnapshot snapshot) throws IOException;
+
+	/**
+	 * Decodes a snapshot.
+	 *
+	 * @param bytes The bytes read from the file, which are never empty.
+	 * @return The snapshot.
+	 * @throws IOException Thrown if the bytes could not be decoded.
+	 */
+	ParadigmSnapshot decode(byte[] bytes) throws IOException;
+}
@@ -0,0 +1,110 @@
+package org.paragon.paragonfs.paradigm;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.io.IoClass;
+import org.paragon.paragonfs.io.IoScheduler;
+import org.paragon.paragonfs.io.Volume;
+import org.paragon.paragonfs.io.WriteGate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The compactor reclaims the space used by deleted {@link Paradigm}'s. It runs in the background on a schedule set up
+ * by {@link ParagonFS}, but can also be invoked on demand with {@link ParagonFS#compact()}.<br />
+ * <br />
+ * For every tombstone in an {@link Archetype}'s {@link TombstoneLog} the Paradigm's file is removed, along with any
+ * fan-out directories which were left empty, and then the tombstone itself is dropped from the log.
+ */
+public class ParadigmCompactor implements Runnable
+{
+	private static final Log LOG = LogFactory.getLog(ParadigmCompactor.class);
+
+	/**
+	 * The {@link ParagonFS} this compactor is for.
+	 */
+	private final ParagonFS paragonFS;
+
+	/**
+	 * Initializes the {@link ParadigmCompactor}.
+	 *
+	 * @param paragonFS The {@link ParagonFS} to compact.
+	 */
+	public ParadigmCompactor(final ParagonFS paragonFS)
+	{
+		this.paragonFS = paragonFS;
+	}
+
+	@Override
+	public void run()
+	{
+		for (final Archetype archetype : paragonFS.list())
+		{
+			try
+			{
+				compact(archetype);
+			}
+			catch (final IOException e)
+			{
+				LOG.warn("Unable to compact the archetype " + archetype.getDir().getName() + ".", e);
+			}
+		}
+	}
+
+	/**
+	 * Reclaims every deleted {@link Paradigm} within the {@link Archetype}.
+	 *
+	 * @param archetype The {@link Archetype} to compact.
+	 * @return The number of {@link Paradigm}'s reclaimed.
+	 * @throws IOException Thrown if the tombstone log could not be rewritten.
+	 */
+	public int compact(final Archetype archetype) throws IOException
+	{
+		final IoScheduler scheduler = paragonFS.getIoScheduler();
+		final WriteGate writeGate = paragonFS.getWriteGate();
+		final List<String> reclaimed = new ArrayList<>();
+		for (final String paradigmId : archetype.getTombstoneLog().getParadigmIds())
+		{
+			// The slot is acquired before the gate is entered, so a snapshot waiting on the gate, and the writes queued
+			// behind it, never wait on the background I/O to be admitted.
+			final Volume volume = paragonFS.getVolume(paradigmId);
+			scheduler.acquire(IoClass.MAINTENANCE, volume, 0);
+			writeGate.enter();
+
+			try
+			{
+				if (archetype.getParadigmPool().reclaim(paradigmId)) {
+					reclaimed.add(paradigmId);
+				}
+			}
+			finally
+			{
+				writeGate.exit();
+				scheduler.release(IoClass.MAINTENANCE, volume);
+			}
+		}
+
+		if (reclaimed.isEmpty()) {
+			return 0;
+		}
+
+		// A snapshot between the two only sees tombstones of files which are already gone, which are reclaimed again
+		// without doing anything. The other way round would bring the Paradigms back, so the files go first.
+		writeGate.enter();
+
+		try
+		{
+			archetype.getTombstoneLog().remove(reclaimed);
+		}
+		finally
+		{
+			writeGate.exit();
+		}
+
+		return reclaimed.size();
+	}
+}
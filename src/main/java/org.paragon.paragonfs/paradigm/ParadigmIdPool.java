@@ -2,10 +2,14 @@ package org.paragon.paragonfs.paradigm;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.metrics.Gauge;
+import org.paragon.paragonfs.metrics.LatencyHistogram;
+import org.paragon.paragonfs.metrics.ParagonFSMetrics;
 
 import java.io.File;
 import java.util.LinkedList;
 import java.util.Queue;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This keeps a pool of available unique identifiers to use for new {@link Paradigm}'s.
@@ -34,7 +38,12 @@ public class ParadigmIdPool
 	 */
 	private final Queue<String> uuids;
 
-	private final Object _lock = new Object();
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * The time taken to refill the pool.
+	 */
+	private final LatencyHistogram refillLatency;
 
 	/**
 	 * Initializes the {@link ParadigmIdPool}.
@@ -45,13 +54,21 @@ public class ParadigmIdPool
 	{
 		this.paragonFS = paragonFS;
 		uuids = new LinkedList<>();
+		refillLatency = paragonFS.getMetrics().histogram(ParagonFSMetrics.ID_POOL_REFILL);
 
-		refill();
+		paragonFS.getMetrics().gauge(ParagonFSMetrics.ID_POOL_DEPTH, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getDepth();
+			}
+		});
 	}
 
 	/**
 	 * This will refill the unique identifier queue.<br />
-	 * <br /><strong>Note:</strong> This method should only be invoked within a synchronized block.
+	 * <br /><strong>Note:</strong> This method should only be invoked while holding the lock.
 	 */
 	private void refill()
 	{
@@ -59,10 +76,13 @@ public class ParadigmIdPool
 			return;
 		}
 
-		while (MAX_POOL_SIZE < uuids.size())
+		final long start = System.nanoTime();
+		while (uuids.size() < MAX_POOL_SIZE)
 		{
 			uuids.add(getNextUuid());
 		}
+
+		refillLatency.recordSince(start);
 	}
 
 	/**
@@ -88,13 +108,37 @@ public class ParadigmIdPool
 	 */
 	public String getNextParadigmId()
 	{
-		synchronized (_lock)
+		lock.lock();
+
+		try
 		{
-			// Get the next UUID then invoke refill, which won't do so unless necessary.
-			final String nextId = uuids.poll();
+			// Refill first, which won't do so unless necessary, then get the next UUID.
 			refill();
 
-			return nextId;
+			return uuids.poll();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of unique identifiers currently waiting in the pool.
+	 *
+	 * @return The depth of the pool.
+	 */
+	public int getDepth()
+	{
+		lock.lock();
+
+		try
+		{
+			return uuids.size();
+		}
+		finally
+		{
+			lock.unlock();
 		}
 	}
 }
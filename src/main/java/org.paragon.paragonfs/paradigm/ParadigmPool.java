@@ -2,12 +2,37 @@ package org.paragon.paragonfs.paradigm;
 
 import org.paragon.paragonfs.archetype.Archetype;
 import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.feed.ChangeType;
+import org.paragon.paragonfs.io.AtomicFileWriter;
+import org.paragon.paragonfs.io.Volume;
+import org.paragon.paragonfs.io.WriteGate;
+import org.paragon.paragonfs.metrics.LatencyHistogram;
+import org.paragon.paragonfs.metrics.ParagonFSMetrics;
 
 import java.io.File;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.nio.file.Paths;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The Paradigm Pool is an object which every {@link Archetype} has to ensure that there is only one instance of a
@@ -17,6 +42,17 @@ import java.util.Map;
  */
 public class ParadigmPool
 {
+	/**
+	 * The number of counters in each row of the {@link FrequencySketch}.
+	 */
+	private static final int SKETCH_WIDTH = 1 << 14;
+
+	/**
+	 * The most Paradigms the {@link FrequencySketch} ranks, which is more than the {@link CacheWarmer} warms up by
+	 * default.
+	 */
+	private static final int HOT_CANDIDATES = 1 << 14;
+
 	/**
 	 * The {@link Archetype} this Paradigm Pool is for.
 	 */
@@ -25,9 +61,65 @@ public class ParadigmPool
 	/**
 	 * A map, where the key is the Paradigm's ID and the value is the Paradigm itself.
 	 */
-	private final Map<String, WeakReference<Paradigm>> paradigms;
+	private final Map<String, ParadigmReference> paradigms;
+
+	/**
+	 * The references of the Paradigms the garbage collector has evicted, which are purged from the map.
+	 */
+	private final ReferenceQueue<Paradigm> evicted = new ReferenceQueue<>();
+
+	/**
+	 * The number of entries removed from the map, by a purge or a delete, so a load can tell the entry it saw missing
+	 * may have come and gone since. This is guarded by the lock.
+	 */
+	private long removals;
+
+	/**
+	 * Paradigms which hold values that are not on disk, and therefore must not be garbage collected. This is kept
+	 * apart from the pool's lock, as it is updated by Paradigms while they hold their own write lock.
+	 */
+	private final ConcurrentMap<String, Paradigm> pinned = new ConcurrentHashMap<>();
+
+	/**
+	 * Paradigms which have been deleted, but which an open {@link ReadView} may still see, until the
+	 * {@link VersionClock} drops their last version.
+	 */
+	private final ConcurrentMap<String, Paradigm> retired = new ConcurrentHashMap<>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Whether the Archetype is frozen, in which case every write is rejected. This is set before the segment is
+	 * written, so no write can be missing from it.
+	 */
+	private volatile boolean frozen;
+
+	/**
+	 * The segment a frozen Archetype is read from, or null if it is not frozen or not written yet.
+	 */
+	private volatile FrozenSegment frozenSegment;
+
+	/**
+	 * The Paradigm at each position of the frozen segment, once it has been looked up, which stands in for the map
+	 * while the Archetype is frozen so lookups never take the lock.
+	 */
+	private volatile AtomicReferenceArray<Paradigm> frozenParadigms;
+
+	/**
+	 * The time spent waiting to acquire the pool's lock.
+	 */
+	private final LatencyHistogram lockWait;
+
+	private final LongAdder cacheHits;
+
+	private final LongAdder cacheMisses;
 
-	private final Object _lock = new Object();
+	private final LongAdder cacheEvictions;
+
+	/**
+	 * How often each Paradigm has been looked up lately, which the {@link CacheWarmer} ranks them by.
+	 */
+	private final FrequencySketch frequency = new FrequencySketch(SKETCH_WIDTH, HOT_CANDIDATES);
 
 	/**
 	 * Initializes the Paradigm Pool.
@@ -38,17 +130,68 @@ public class ParadigmPool
 	{
 		this.archetype = archetype;
 		this.paradigms = new LinkedHashMap<>();
+
+		final ParagonFSMetrics metrics = archetype.getParagonFS().getMetrics();
+		this.lockWait = metrics.histogram(ParagonFSMetrics.POOL_LOCK_WAIT);
+		this.cacheHits = metrics.counter(ParagonFSMetrics.CACHE_HITS);
+		this.cacheMisses = metrics.counter(ParagonFSMetrics.CACHE_MISSES);
+		this.cacheEvictions = metrics.counter(ParagonFSMetrics.CACHE_EVICTIONS);
+
+		final File frozenFile = new File(archetype.getDir(), FrozenSegment.FILE_NAME);
+		if (frozenFile.exists())
+		{
+			try
+			{
+				open(FrozenSegment.open(frozenFile));
+			}
+			catch (final IOException e)
+			{
+				throw new IllegalStateException("The frozen archetype could not be read.", e);
+			}
+		}
+	}
+
+	/**
+	 * Acquires the pool's lock, recording how long it took. This is a {@link ReentrantLock} rather than a monitor as
+	 * file I/O happens while it is held, which would otherwise pin the carrier of a virtual thread.
+	 */
+	private void acquire()
+	{
+		final long waitStart = System.nanoTime();
+		lock.lock();
+		lockWait.recordSince(waitStart);
 	}
 
 	/**
 	 * Adds a Paradigm to the Paradigm Pool.<br />
-	 * <br /><strong>Note:</strong> This method must only be invoked within a synchronized block.
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the lock.
 	 *
 	 * @param paradigm The Paradigm to add to the pool
 	 */
 	private void add(final Paradigm paradigm)
 	{
-		paradigms.put(paradigm.getId().toLowerCase(), new WeakReference<>(paradigm));
+		purge();
+		paradigms.put(paradigm.getId().toLowerCase(), new ParadigmReference(paradigm, evicted));
+	}
+
+	/**
+	 * Removes the references of the Paradigms the garbage collector has evicted, unless they have been replaced
+	 * already, so the map only grows with the Paradigms which are in memory.<br />
+	 * <br /><strong>Note:</strong> This method must only be invoked while holding the lock.
+	 */
+	private void purge()
+	{
+		Reference<? extends Paradigm> reference;
+		while ((reference = evicted.poll()) != null)
+		{
+			final String key = ((ParadigmReference) reference).getParadigmId().toLowerCase();
+			if (paradigms.get(key) == reference)
+			{
+				paradigms.remove(key);
+				cacheEvictions.increment();
+				removals++;
+			}
+		}
 	}
 
 	/**
@@ -59,16 +202,57 @@ public class ParadigmPool
 	 */
 	public Paradigm create() throws ParagonFSException
 	{
-		synchronized (_lock)
+		final WriteGate writeGate = archetype.getParagonFS().getWriteGate();
+		writeGate.enter();
+		acquire();
+
+		try
 		{
+			ensureNotFrozen();
+			archetype.getColumnarStore().invalidate();
 			final String paradigmId = archetype.getParagonFS().getParadigmIdPool().getNextParadigmId();
+
+			// A Paradigm which is never written still expires, from when it was created. This is recorded first, so a
+			// failure fails the create rather than a Paradigm which already exists.
+			final long timeToLive = archetype.getTimeToLive();
+			if (timeToLive > 0)
+			{
+				archetype.getExpiryBuckets().record(paradigmId, System.currentTimeMillis() + timeToLive);
+			}
+
 			final Paradigm paradigm = archetype.getParagonFS().getParadigmUtil().create(archetype, paradigmId);
 
-			// Index it in our pool.
+			// Index it in our pool, and make sure the views already open don't see it.
 			add(paradigm);
+			if (archetype.getParagonFS().getVersionClock().hasOpenViews())
+			{
+				paradigm.commitCreate();
+			}
+			archetype.getColumnarStore().invalidate();
+			publish(ChangeType.CREATE, paradigmId);
 
 			return paradigm;
 		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("The expiry of the paradigm could not be recorded.", e);
+		}
+		finally
+		{
+			lock.unlock();
+			writeGate.exit();
+		}
+	}
+
+	/**
+	 * Records a change to a {@link Paradigm} in the {@link org.paragon.paragonfs.feed.ChangeFeed}.
+	 *
+	 * @param type       The {@link ChangeType}.
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 */
+	private void publish(final ChangeType type, final String paradigmId)
+	{
+		archetype.getParagonFS().getChangeFeed().publish(type, archetype.getDir().getName(), paradigmId, 0, null);
 	}
 
 	/**
@@ -84,22 +268,576 @@ public class ParadigmPool
 			throw new IllegalArgumentException("The paradigm ID must not be null.");
 		}
 
-		synchronized (_lock)
+		frequency.record(paradigmId);
+
+		return getUntracked(paradigmId);
+	}
+
+	/**
+	 * Returns the {@link Paradigm}, like {@link #get(String)}, without counting it as a lookup. Internal scans, such as
+	 * the reaper's, use this so they don't make every Paradigm they pass over look hot.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 * @return Returns the {@link Paradigm} or null if the Paradigm does not exist.
+	 */
+	public Paradigm getUntracked(final String paradigmId)
+	{
+		if (paradigmId == null)
+		{
+			throw new IllegalArgumentException("The paradigm ID must not be null.");
+		}
+
+		final FrozenSegment segment = frozenSegment;
+		if (segment != null)
+		{
+			return getFrozen(segment, paradigmId);
+		}
+
+		acquire();
+
+		try
 		{
-			final WeakReference<Paradigm> paradigm = paradigms.get(paradigmId);
+			final WeakReference<Paradigm> reference = paradigms.get(paradigmId.toLowerCase());
+			final Paradigm paradigm = reference == null ? null : reference.get();
 
-			if (paradigm == null || paradigm.get() == null)
+			if (paradigm == null)
 			{
+				// A reference which has been cleared means the garbage collector evicted the Paradigm.
+				if (reference != null)
+				{
+					cacheEvictions.increment();
+				}
+
+				cacheMisses.increment();
+
 				return getAndIndex(paradigmId);
 			}
 
-			return paradigm.get();
+			cacheHits.increment();
+
+			return paradigm;
+		}
+		finally
+		{
+			lock.unlock();
 		}
 	}
 
+	/**
+	 * Returns the {@link Paradigm} from the frozen segment, without taking the lock.
+	 *
+	 * @param segment    The {@link FrozenSegment}.
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 * @return Returns the {@link Paradigm} or null if the Paradigm is not in the segment.
+	 */
+	private Paradigm getFrozen(final FrozenSegment segment, final String paradigmId)
+	{
+		final int index = segment.indexOf(paradigmId);
+		if (index < 0)
+		{
+			return null;
+		}
+
+		final AtomicReferenceArray<Paradigm> instances = frozenParadigms;
+		final Paradigm paradigm = instances.get(index);
+		if (paradigm != null)
+		{
+			cacheHits.increment();
+			return paradigm;
+		}
+
+		cacheMisses.increment();
+		final String id = segment.getId(index);
+		instances.compareAndSet(index, null, new Paradigm(archetype, archetype.getParadigmFile(id), id));
+
+		// Thawed in the meantime, in which case the pool may already hold a different instance.
+		return frozenSegment == segment ? instances.get(index) : getUntracked(paradigmId);
+	}
+
+	/**
+	 * Returns the {@link Paradigm}'s looked up most often lately, as estimated by the pool's {@link FrequencySketch}.
+	 * The candidates are the Paradigms the sketch has kept as its hottest, including those evicted since.
+	 *
+	 * @param limit The most Paradigms to return.
+	 * @return The unique identifiers of the Paradigms, hottest first, leaving out those never looked up.
+	 */
+	public List<String> getHottestIds(final int limit)
+	{
+		return frequency.getHottest(limit);
+	}
+
+	/**
+	 * Returns the encoded row of a {@link Paradigm} from the frozen segment, which it is loaded from rather than from
+	 * its file while the Archetype is frozen.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 * @return The row, or null if the Archetype is not frozen or the Paradigm is not in the segment.
+	 */
+	byte[] getFrozenRow(final String paradigmId)
+	{
+		final FrozenSegment segment = frozenSegment;
+		final int index = segment == null ? -1 : segment.indexOf(paradigmId);
+
+		return index < 0 ? null : segment.getRow(index);
+	}
+
+	/**
+	 * Returns the segment the Archetype is read from while it is frozen.
+	 *
+	 * @return The {@link FrozenSegment}, or null if the Archetype is not frozen.
+	 */
+	public FrozenSegment getFrozenSegment()
+	{
+		return frozenSegment;
+	}
+
+	/**
+	 * Determines whether the Archetype is frozen, in which case every write is rejected.
+	 *
+	 * @return Returns true if the Archetype is frozen.
+	 */
+	public boolean isFrozen()
+	{
+		return frozen;
+	}
+
+	/**
+	 * Throws an exception if the Archetype is frozen.
+	 *
+	 * @throws ParagonFSException Thrown if the Archetype is frozen.
+	 */
+	void ensureNotFrozen() throws ParagonFSException
+	{
+		if (frozen)
+		{
+			throw new ParagonFSException("The archetype is frozen.");
+		}
+	}
+
+	/**
+	 * Freezes the Archetype, writing every live {@link Paradigm} to a {@link FrozenSegment} which the Paradigms are
+	 * then looked up in and loaded from. The writers in flight are waited for first, and every write after that is
+	 * rejected until the Archetype is thawed.
+	 *
+	 * @throws ParagonFSException Thrown if a Paradigm could not be read or the segment could not be written.
+	 */
+	public void freeze() throws ParagonFSException
+	{
+		final WriteGate writeGate = archetype.getParagonFS().getWriteGate();
+		writeGate.quiesce();
+
+		try
+		{
+			if (frozen)
+			{
+				return;
+			}
+
+			frozen = true;
+		}
+		finally
+		{
+			writeGate.resume();
+		}
+
+		try
+		{
+			// Updates which are only in memory are taken from the Paradigms, so they are in the segment as well.
+			final Map<String, byte[]> rows = new LinkedHashMap<>();
+			for (final String paradigmId : archetype.listParadigmIds())
+			{
+				final Paradigm paradigm = getUntracked(paradigmId);
+				if (paradigm != null && !paradigm.isExpired())
+				{
+					rows.put(paradigm.getId(), archetype.getCodec().encode(paradigm.getCurrentSnapshot()));
+				}
+			}
+
+			final File file = new File(archetype.getDir(), FrozenSegment.FILE_NAME);
+			FrozenSegment.write(file, rows);
+			open(FrozenSegment.open(file));
+		}
+		catch (final IOException e)
+		{
+			frozen = false;
+			throw new ParagonFSException("The archetype could not be frozen.", e);
+		}
+		catch (final ParagonFSException | RuntimeException e)
+		{
+			frozen = false;
+			throw e;
+		}
+	}
+
+	/**
+	 * Starts reading the Archetype from a frozen segment, keeping the instances already in the pool so there is still
+	 * only one of each Paradigm.
+	 *
+	 * @param segment The {@link FrozenSegment}.
+	 */
+	private void open(final FrozenSegment segment)
+	{
+		acquire();
+
+		try
+		{
+			final AtomicReferenceArray<Paradigm> instances = new AtomicReferenceArray<>(segment.size());
+			if (!paradigms.isEmpty())
+			{
+				for (int index = 0; index < segment.size(); index++)
+				{
+					final WeakReference<Paradigm> reference = paradigms.get(segment.getId(index).toLowerCase());
+					instances.set(index, reference == null ? null : reference.get());
+				}
+			}
+
+			frozen = true;
+			frozenParadigms = instances;
+			frozenSegment = segment;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Thaws a frozen Archetype, so it is written to and read from the Paradigms' own files again. The segment is
+	 * removed first, and the instances looked up while frozen are moved back into the pool.
+	 *
+	 * @throws ParagonFSException Thrown if the segment could not be removed.
+	 */
+	public void thaw() throws ParagonFSException
+	{
+		acquire();
+
+		try
+		{
+			if (!frozen)
+			{
+				return;
+			}
+
+			Files.deleteIfExists(new File(archetype.getDir(), FrozenSegment.FILE_NAME).toPath());
+
+			final AtomicReferenceArray<Paradigm> instances = frozenParadigms;
+			frozenSegment = null;
+			frozenParadigms = null;
+			for (int index = 0; instances != null && index < instances.length(); index++)
+			{
+				final Paradigm paradigm = instances.get(index);
+				if (paradigm != null)
+				{
+					add(paradigm);
+				}
+			}
+
+			frozen = false;
+		}
+		catch (final IOException e)
+		{
+			throw new ParagonFSException("The frozen archetype could not be removed.", e);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the {@link Paradigm} if it existed when the {@link ReadView} was opened, even if it has been deleted
+	 * since.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 * @param view       The {@link ReadView} to read through.
+	 * @return Returns the {@link Paradigm} or null if the Paradigm did not exist when the view was opened.
+	 * @throws ParagonFSException Thrown if an error occurs while trying to read from the file system.
+	 */
+	public Paradigm get(final String paradigmId, final ReadView view) throws ParagonFSException
+	{
+		Paradigm paradigm = get(paradigmId);
+		if (paradigm == null)
+		{
+			paradigm = retired.get(paradigmId.toLowerCase());
+		}
+
+		return paradigm == null || paradigm.getSnapshot(view) == null ? null : paradigm;
+	}
+
+	/**
+	 * Returns the unique identifiers of the deleted {@link Paradigm}'s which an open {@link ReadView} may still see.
+	 *
+	 * @return The {@link Paradigm} identifiers.
+	 */
+	public Set<String> getRetiredIds()
+	{
+		final Set<String> paradigmIds = new LinkedHashSet<>();
+		for (final Paradigm paradigm : retired.values())
+		{
+			paradigmIds.add(paradigm.getId());
+		}
+
+		return paradigmIds;
+	}
+
+	/**
+	 * Forgets a deleted {@link Paradigm} once no open {@link ReadView} can see it. This is invoked by the Paradigm
+	 * while it holds its own write lock.
+	 *
+	 * @param paradigm The deleted {@link Paradigm}.
+	 */
+	void forget(final Paradigm paradigm)
+	{
+		retired.remove(paradigm.getId().toLowerCase(), paradigm);
+	}
+
+	/**
+	 * Returns many {@link Paradigm}'s at once, loaded and ready to be read. The identifiers are deduplicated, and those
+	 * already in the pool are returned without any I/O. The rest are grouped by their fan-out directory and loaded
+	 * concurrently on the {@link org.paragon.paragonfs.ParagonFS}'s I/O executor, outside of the pool's lock.
+	 *
+	 * @param paradigmIds The {@link Paradigm}'s unique identifiers.
+	 * @return A map of identifiers to their {@link Paradigm}, in the order requested. Paradigms which do not exist are
+	 * left out.
+	 * @throws ParagonFSException Thrown if an error occurs while loading a Paradigm.
+	 */
+	public Map<String, Paradigm> getAll(final Collection<String> paradigmIds) throws ParagonFSException
+	{
+		final Map<String, Paradigm> result = getAllUntracked(paradigmIds);
+
+		// Each Paradigm counts as one lookup, however many times it was requested.
+		final Set<String> recorded = new HashSet<>();
+		for (final String paradigmId : paradigmIds)
+		{
+			if (recorded.add(paradigmId.toLowerCase()))
+			{
+				frequency.record(paradigmId);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns many {@link Paradigm}'s at once, like {@link #getAll(Collection)}, without counting them as lookups.
+	 * Internal scans, such as building the columnar segment, use this so they don't make every Paradigm look hot.
+	 *
+	 * @param paradigmIds The {@link Paradigm}'s unique identifiers.
+	 * @return A map of identifiers to their {@link Paradigm}, in the order requested. Paradigms which do not exist are
+	 * left out.
+	 * @throws ParagonFSException Thrown if an error occurs while loading a Paradigm.
+	 */
+	public Map<String, Paradigm> getAllUntracked(final Collection<String> paradigmIds) throws ParagonFSException
+	{
+		if (paradigmIds == null)
+		{
+			throw new IllegalArgumentException("The paradigm IDs must not be null.");
+		}
+
+		final Set<String> requested = new LinkedHashSet<>();
+		for (final String paradigmId : paradigmIds)
+		{
+			if (paradigmId == null)
+			{
+				throw new IllegalArgumentException("The paradigm ID must not be null.");
+			}
+
+			requested.add(paradigmId);
+		}
+
+		// A frozen Archetype is served from its mapped segment, which needs neither the lock nor the I/O threads.
+		if (frozenSegment != null)
+		{
+			final Map<String, Paradigm> found = new LinkedHashMap<>();
+			for (final String paradigmId : requested)
+			{
+				final Paradigm paradigm = getUntracked(paradigmId);
+				if (paradigm != null)
+				{
+					paradigm.preload();
+					found.put(paradigmId, paradigm);
+				}
+			}
+
+			return found;
+		}
+
+		// Serve everything already in the pool under a single acquisition of the lock.
+		final Map<String, Paradigm> found = new LinkedHashMap<>();
+		final List<String> missing = new ArrayList<>();
+		final Map<String, ParadigmReference> expected = new HashMap<>();
+		final long removalsAtMiss;
+		acquire();
+
+		try
+		{
+			removalsAtMiss = removals;
+			for (final String paradigmId : requested)
+			{
+				final ParadigmReference reference = paradigms.get(paradigmId.toLowerCase());
+				final Paradigm paradigm = reference == null ? null : reference.get();
+
+				if (paradigm == null)
+				{
+					// What the pool holds for it now, so the load can tell whether the pool has moved on meanwhile.
+					missing.add(paradigmId);
+					expected.put(paradigmId, reference);
+					continue;
+				}
+
+				cacheHits.increment();
+				found.put(paradigmId, paradigm);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		if (!missing.isEmpty())
+		{
+			cacheMisses.add(missing.size());
+
+			final List<Paradigm> loaded = load(missing);
+
+			// Index what was loaded, unless another thread indexed the same Paradigm in the meantime. Another instance
+			// may also have been indexed, written and garbage collected, or the Paradigm deleted, while this one was
+			// loaded, in which case this one may be stale and is looked up again instead. An entry which was missing
+			// may also have been added and removed again, which only the count of removals can tell.
+			final List<String> stale = new ArrayList<>();
+			acquire();
+
+			try
+			{
+				for (final Paradigm paradigm : loaded)
+				{
+					final ParadigmReference reference = paradigms.get(paradigm.getId().toLowerCase());
+					final Paradigm existing = reference == null ? null : reference.get();
+
+					if (existing != null)
+					{
+						found.put(paradigm.getId(), existing);
+					}
+					else if (reference == expected.get(paradigm.getId())
+						&& (reference != null || removals == removalsAtMiss))
+					{
+						add(paradigm);
+						found.put(paradigm.getId(), paradigm);
+					}
+					else
+					{
+						stale.add(paradigm.getId());
+					}
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+
+			for (final String paradigmId : stale)
+			{
+				final Paradigm paradigm = getUntracked(paradigmId);
+				if (paradigm != null)
+				{
+					paradigm.preload();
+					found.put(paradigmId, paradigm);
+				}
+			}
+		}
+
+		final Map<String, Paradigm> result = new LinkedHashMap<>();
+		for (final String paradigmId : requested)
+		{
+			if (found.containsKey(paradigmId))
+			{
+				result.put(paradigmId, found.get(paradigmId));
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Loads the {@link Paradigm}'s, grouped by the directory they are in so each group reads from a single directory,
+	 * with the groups loaded concurrently on the I/O threads of their volume.
+	 *
+	 * @param paradigmIds The identifiers of the {@link Paradigm}'s to load.
+	 * @return The {@link Paradigm}'s which exist, loaded.
+	 * @throws ParagonFSException Thrown if an error occurs while loading a Paradigm.
+	 */
+	private List<Paradigm> load(final List<String> paradigmIds) throws ParagonFSException
+	{
+		final Map<String, List<String>> groups = new TreeMap<>();
+		for (final String paradigmId : paradigmIds)
+		{
+			final String dir = archetype.getParadigmFile(paradigmId).getParent();
+			if (!groups.containsKey(dir))
+			{
+				groups.put(dir, new ArrayList<String>());
+			}
+
+			groups.get(dir).add(paradigmId);
+		}
+
+		final List<Future<List<Paradigm>>> futures = new ArrayList<>();
+		for (final List<String> group : groups.values())
+		{
+			final Volume volume = archetype.getParagonFS().getVolume(group.get(0));
+			futures.add(volume.getExecutor().submit(new Callable<List<Paradigm>>()
+			{
+				@Override
+				public List<Paradigm> call() throws ParagonFSException
+				{
+					final List<Paradigm> loaded = new ArrayList<>();
+					for (final String paradigmId : group)
+					{
+						if (!archetype.exists(paradigmId))
+						{
+							continue;
+						}
+
+						final Paradigm paradigm = new Paradigm(archetype, archetype.getParadigmFile(paradigmId), paradigmId);
+						paradigm.preload();
+						loaded.add(paradigm);
+					}
+
+					return loaded;
+				}
+			}));
+		}
+
+		final List<Paradigm> loaded = new ArrayList<>();
+		try
+		{
+			for (final Future<List<Paradigm>> future : futures)
+			{
+				loaded.addAll(future.get());
+			}
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new ParagonFSException("Interrupted while loading the paradigms.", e);
+		}
+		catch (final ExecutionException e)
+		{
+			throw new ParagonFSException("An error occurred while loading the paradigms.", e.getCause());
+		}
+		finally
+		{
+			for (final Future<List<Paradigm>> future : futures)
+			{
+				future.cancel(true);
+			}
+		}
+
+		return loaded;
+	}
+
 	/**
 	 * This method will check to see if the {@link Paradigm} exists and if it does it will load it into the pool.
-	 * <br /><br /><strong>Note:</strong> This method should only be invoked within a synchronized block.
+	 * <br /><br /><strong>Note:</strong> This method should only be invoked while holding the lock.
 	 *
 	 * @param paradigmId The Paradigm's unique identifier.
 	 * @return Returns the {@link Paradigm}, null if it does not exist.
@@ -112,15 +850,194 @@ public class ParadigmPool
 		}
 
 		// Build the Paradigm object.
-		final File paradigmFile = new File(Paths.get(
-				archetype.getDir().getAbsolutePath(),
-				archetype.getParagonFS().getParadigmUtil().getParadigmPath(paradigmId)).toString()
-		);
-		final Paradigm paradigm = new Paradigm(archetype, paradigmFile, paradigmId);
+		final Paradigm paradigm = new Paradigm(archetype, archetype.getParadigmFile(paradigmId), paradigmId);
 
 		// Then add it to the index.
 		add(paradigm);
 
 		return paradigm;
 	}
+
+	/**
+	 * Deletes the {@link Paradigm}. A tombstone is written to the {@link Archetype}'s {@link TombstoneLog} and the
+	 * Paradigm is removed from the pool right away, while the file itself is reclaimed later by the
+	 * {@link ParadigmCompactor}.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 * @return Returns true if the Paradigm was deleted, false if it did not exist.
+	 * @throws ParagonFSException Thrown if the tombstone could not be written.
+	 */
+	public boolean delete(final String paradigmId) throws ParagonFSException
+	{
+		if (paradigmId == null)
+		{
+			throw new IllegalArgumentException("The paradigm ID must not be null.");
+		}
+
+		final WriteGate writeGate = archetype.getParagonFS().getWriteGate();
+		writeGate.enter();
+		acquire();
+
+		try
+		{
+			ensureNotFrozen();
+			if (!archetype.exists(paradigmId))
+			{
+				return false;
+			}
+
+			archetype.getColumnarStore().invalidate();
+
+			// The views already open must still see the Paradigm, so it is loaded to keep its last version.
+			if (archetype.getParagonFS().getVersionClock().hasOpenViews())
+			{
+				final Paradigm loaded = getUntracked(paradigmId);
+				if (loaded != null)
+				{
+					loaded.preload();
+				}
+			}
+
+			try
+			{
+				archetype.getTombstoneLog().append(paradigmId);
+			}
+			catch (final IOException e)
+			{
+				throw new ParagonFSException("The paradigm could not be deleted.", e);
+			}
+
+			pinned.remove(paradigmId.toLowerCase());
+
+			final WeakReference<Paradigm> reference = paradigms.remove(paradigmId.toLowerCase());
+			removals++;
+			frequency.forget(paradigmId);
+			final Paradigm paradigm = reference == null ? null : reference.get();
+			if (paradigm != null)
+			{
+				cacheEvictions.increment();
+				paradigm.markDeleted();
+				if (paradigm.hasVersions())
+				{
+					retired.put(paradigmId.toLowerCase(), paradigm);
+				}
+			}
+			archetype.getColumnarStore().invalidate();
+
+			publish(ChangeType.DELETE, paradigmId);
+
+			return true;
+		}
+		finally
+		{
+			lock.unlock();
+			writeGate.exit();
+		}
+	}
+
+	/**
+	 * Keeps the {@link Paradigm} in the pool, even if nothing else references it, until it is unpinned.
+	 *
+	 * @param paradigm The {@link Paradigm} which holds values that are not on disk.
+	 */
+	void pin(final Paradigm paradigm)
+	{
+		pinned.put(paradigm.getId().toLowerCase(), paradigm);
+	}
+
+	/**
+	 * Allows the {@link Paradigm} to be garbage collected once nothing else references it.
+	 *
+	 * @param paradigm The {@link Paradigm} whose values have been written to disk.
+	 */
+	void unpin(final Paradigm paradigm)
+	{
+		pinned.remove(paradigm.getId().toLowerCase());
+	}
+
+	/**
+	 * Determines whether the {@link Paradigm} is pinned, as it holds values which are not on disk.
+	 *
+	 * @param paradigm The {@link Paradigm}.
+	 * @return Returns true if the Paradigm is pinned.
+	 */
+	boolean isPinned(final Paradigm paradigm)
+	{
+		return pinned.containsKey(paradigm.getId().toLowerCase());
+	}
+
+	/**
+	 * Removes the file of a deleted {@link Paradigm}, along with any fan-out directories left empty by doing so. This
+	 * runs within the pool's lock so a {@link Paradigm} being created in the same fan-out directory never has its
+	 * directory removed from under it.
+	 *
+	 * @param paradigmId The deleted {@link Paradigm}'s unique identifier.
+	 * @return Returns true if the Paradigm's file no longer exists.
+	 */
+	boolean reclaim(final String paradigmId)
+	{
+		acquire();
+
+		try
+		{
+			final File paradigmFile = archetype.getParadigmFile(paradigmId);
+			if (paradigmFile.exists() && !paradigmFile.delete())
+			{
+				return false;
+			}
+
+			final File coldFile = archetype.getColdParadigmFile(paradigmId);
+			if (coldFile != null && coldFile.exists() && !coldFile.delete())
+			{
+				return false;
+			}
+
+			// A write interrupted by a crash may have left its temporary file behind.
+			final File tempFile = AtomicFileWriter.getTempFile(paradigmFile);
+			if (tempFile.exists() && !tempFile.delete())
+			{
+				return false;
+			}
+
+			// Prune the abc/def/ghi directories, stopping at the first which still has something in it.
+			final File archetypeDir = archetype.getDir(archetype.getParagonFS().getVolume(paradigmId)).getAbsoluteFile();
+			File dir = paradigmFile.getAbsoluteFile().getParentFile();
+			while (dir != null && !dir.equals(archetypeDir))
+			{
+				final String[] contents = dir.list();
+				if (contents == null || contents.length > 0 || !dir.delete())
+				{
+					break;
+				}
+
+				dir = dir.getParentFile();
+			}
+
+			return true;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * The reference the pool holds to each {@link Paradigm}, which keeps the Paradigm's unique identifier as it was
+	 * named, as the pool's keys are lowercase, once the Paradigm itself has been garbage collected.
+	 */
+	private static final class ParadigmReference extends WeakReference<Paradigm>
+	{
+		private final String paradigmId;
+
+		ParadigmReference(final Paradigm paradigm, final ReferenceQueue<Paradigm> queue)
+		{
+			super(paradigm, queue);
+			this.paradigmId = paradigm.getId();
+		}
+
+		String getParadigmId()
+		{
+			return paradigmId;
+		}
+	}
 }
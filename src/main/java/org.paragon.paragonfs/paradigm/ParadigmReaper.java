@@ -0,0 +1,144 @@
+package org.paragon.paragonfs.paradigm;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.io.IoClass;
+import org.paragon.paragonfs.io.IoScheduler;
+import org.paragon.paragonfs.io.Volume;
+
+import java.io.IOException;
+
+/**
+ * The reaper deletes the {@link Paradigm}'s which have outlived the time-to-live of their {@link Archetype}, see
+ * {@link Archetype#setTimeToLive(long)}. It runs in the background every second, on a schedule set up by
+ * {@link ParagonFS}, but can also be invoked on demand with {@link #reap(Archetype, int)}.<br />
+ * <br />
+ * Only the {@link ExpiryBuckets} which have ended are read, so the work done is in proportion to the Paradigms which
+ * may have expired rather than to every Paradigm. Each is checked again before it is deleted, as it may have been
+ * written since it was recorded. Expired Paradigms already read as empty, so the reaper is throttled to a number of
+ * deletes per second, leaving the rest for the following runs rather than competing with the foreground writes.
+ */
+public class ParadigmReaper implements Runnable
+{
+	private static final Log LOG = LogFactory.getLog(ParadigmReaper.class);
+
+	/**
+	 * The default number of Paradigms deleted per second, across every Archetype.
+	 */
+	public static final int DEFAULT_MAX_DELETES_PER_SECOND = 1000;
+
+	/**
+	 * The {@link ParagonFS} this reaper is for.
+	 */
+	private final ParagonFS paragonFS;
+
+	private volatile int maxDeletesPerSecond = DEFAULT_MAX_DELETES_PER_SECOND;
+
+	/**
+	 * Initializes the {@link ParadigmReaper}.
+	 *
+	 * @param paragonFS The {@link ParagonFS} to reap.
+	 */
+	public ParadigmReaper(final ParagonFS paragonFS)
+	{
+		this.paragonFS = paragonFS;
+	}
+
+	@Override
+	public void run()
+	{
+		int remaining = maxDeletesPerSecond;
+		for (final Archetype archetype : paragonFS.list())
+		{
+			if (remaining <= 0) {
+				return;
+			}
+
+			try
+			{
+				remaining -= reap(archetype, remaining);
+			}
+			catch (final IOException | ParagonFSException e)
+			{
+				LOG.warn("Unable to reap the archetype " + archetype.getDir().getName() + ".", e);
+			}
+		}
+	}
+
+	/**
+	 * Deletes the expired {@link Paradigm}'s within the {@link Archetype}, oldest bucket first.
+	 *
+	 * @param archetype The {@link Archetype} to reap.
+	 * @param max       The most Paradigms to delete, after which the rest are left for the next run.
+	 * @return The number of {@link Paradigm}'s deleted.
+	 * @throws IOException        Thrown if a bucket could not be read or removed.
+	 * @throws ParagonFSException Thrown if a Paradigm could not be read or deleted.
+	 */
+	public int reap(final Archetype archetype, final int max) throws IOException, ParagonFSException
+	{
+		if (archetype.getTimeToLive() <= 0 || archetype.isFrozen()) {
+			return 0;
+		}
+
+		final IoScheduler scheduler = paragonFS.getIoScheduler();
+		final ExpiryBuckets buckets = archetype.getExpiryBuckets();
+		int reaped = 0;
+		for (final long bucket : buckets.getDueBuckets(System.currentTimeMillis()))
+		{
+			for (final String paradigmId : buckets.read(bucket))
+			{
+				// The bucket is kept until it has been gone through, and the Paradigms deleted so far are skipped.
+				if (reaped >= max) {
+					return reaped;
+				}
+
+				final Volume volume = paragonFS.getVolume(paradigmId);
+				scheduler.acquire(IoClass.MAINTENANCE, volume, 0);
+
+				try
+				{
+					final Paradigm paradigm = archetype.getParadigmPool().getUntracked(paradigmId);
+					if (paradigm != null && !paradigm.isDeleted() && paradigm.isExpired()
+						&& archetype.delete(paradigmId)) {
+						reaped++;
+					}
+				}
+				finally
+				{
+					scheduler.release(IoClass.MAINTENANCE, volume);
+				}
+			}
+
+			buckets.remove(bucket);
+		}
+
+		return reaped;
+	}
+
+	/**
+	 * Returns the number of Paradigms deleted per second, across every Archetype.
+	 *
+	 * @return The number of Paradigms.
+	 */
+	public int getMaxDeletesPerSecond()
+	{
+		return maxDeletesPerSecond;
+	}
+
+	/**
+	 * Sets the number of Paradigms deleted per second, across every Archetype.
+	 *
+	 * @param maxDeletesPerSecond The number of Paradigms.
+	 */
+	public void setMaxDeletesPerSecond(final int maxDeletesPerSecond)
+	{
+		if (maxDeletesPerSecond < 1) {
+			throw new IllegalArgumentException("The deletes per second must be positive.");
+		}
+
+		this.maxDeletesPerSecond = maxDeletesPerSecond;
+	}
+}
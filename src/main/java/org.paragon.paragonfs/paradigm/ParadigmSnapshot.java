@@ -0,0 +1,316 @@
+package org.paragon.paragonfs.paradigm;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable version of the contents of a {@link Paradigm}. A Paradigm publishes its current snapshot through a
+ * volatile reference, so reads never take a lock, while writers build the next snapshot from the current one and swap
+ * it in once it has been flushed.<br />
+ * <br />
+ * The values are held in slots indexed by the identifiers of their keys in the Archetype's {@link KeyDictionary}, so a
+ * snapshot is two arrays rather than a map of maps keyed by the full strings.
+ */
+public final class ParadigmSnapshot
+{
+	public static final String VERSION = "version";
+	public static final String TIMESTAMP = "timestamp";
+	public static final String CREATED = "created";
+	public static final String UPDATED = "updated";
+
+	/**
+	 * The type held in the slot of a key which was set to null, as opposed to a key which was never set at all.
+	 */
+	private static final String NULL_TYPE = "";
+
+	/**
+	 * The snapshot of a Paradigm which has not been written to yet.
+	 */
+	public static final ParadigmSnapshot EMPTY = new ParadigmSnapshot(0, 0, 0, new String[0], new Object[0]);
+
+	/**
+	 * The number of times the Paradigm has been updated.
+	 */
+	private final int version;
+
+	/**
+	 * The time at which the Paradigm was first written, in milliseconds.
+	 */
+	private final long created;
+
+	/**
+	 * The time at which the Paradigm was last written, in milliseconds.
+	 */
+	private final long updated;
+
+	/**
+	 * The class name of each value, indexed by key identifier, where null means the key is not set.
+	 */
+	private final String[] types;
+
+	/**
+	 * The values, indexed by key identifier.
+	 */
+	private final Object[] values;
+
+	/**
+	 * The estimated size of this snapshot once written, calculated the first time it is needed.
+	 */
+	private volatile long estimatedSize = -1;
+
+	private ParadigmSnapshot(final int version, final long created, final long updated, final String[] types,
+							 final Object[] values)
+	{
+		this.version = version;
+		this.created = created;
+		this.updated = updated;
+		this.types = types;
+		this.values = values;
+	}
+
+	/**
+	 * Builds a snapshot from its slots, as decoded by a {@link ParadigmCodec}.
+	 *
+	 * @param version The number of times the Paradigm has been updated.
+	 * @param created The time at which the Paradigm was first written, in milliseconds.
+	 * @param updated The time at which the Paradigm was last written, in milliseconds.
+	 * @param types   The class name of each value, indexed by key identifier, where null means the key is not set.
+	 * @param values  The values, indexed by key identifier.
+	 * @return The snapshot, which takes ownership of the arrays.
+	 */
+	static ParadigmSnapshot of(final int version, final long created, final long updated, final String[] types,
+							   final Object[] values)
+	{
+		return new ParadigmSnapshot(version, created, updated, types, values);
+	}
+
+	public int getVersion()
+	{
+		return version;
+	}
+
+	public long getCreated()
+	{
+		return created;
+	}
+
+	public long getUpdated()
+	{
+		return updated;
+	}
+
+	/**
+	 * Determines whether the key is set, even if it was set to null.
+	 *
+	 * @param keyId The key's identifier.
+	 * @return Returns true if the key is set.
+	 */
+	public boolean contains(final int keyId)
+	{
+		return keyId >= 0 && keyId < types.length && types[keyId] != null;
+	}
+
+	/**
+	 * Returns the class name of the key's value.
+	 *
+	 * @param keyId The key's identifier.
+	 * @return The class name, or null if the key is not set or was set to null.
+	 */
+	public String getType(final int keyId)
+	{
+		if (!contains(keyId)) {
+			return null;
+		}
+
+		return NULL_TYPE.equals(types[keyId]) ? null : types[keyId];
+	}
+
+	/**
+	 * Returns the key's value.
+	 *
+	 * @param keyId The key's identifier.
+	 * @return The value, or null if the key is not set.
+	 */
+	public Object getValue(final int keyId)
+	{
+		return contains(keyId) ? values[keyId] : null;
+	}
+
+	/**
+	 * Returns the number of key identifiers this snapshot has slots for. Every key which is set has an identifier
+	 * below this.
+	 *
+	 * @return The number of slots.
+	 */
+	public int getSlotCount()
+	{
+		return types.length;
+	}
+
+	/**
+	 * Returns a rough estimate of how large this snapshot is once written, without actually encoding it.
+	 *
+	 * @return The estimated size, in bytes.
+	 */
+	public long getEstimatedSize()
+	{
+		long size = estimatedSize;
+		if (size >= 0)
+		{
+			return size;
+		}
+
+		// The version and timestamps, plus the key, quoting and punctuation around each entry.
+		size = 96;
+		for (int keyId = 0; keyId < types.length; keyId++)
+		{
+			if (types[keyId] == null)
+			{
+				continue;
+			}
+
+			size += 48 + types[keyId].length() + (values[keyId] == null ? 4 : values[keyId].toString().length());
+		}
+
+		estimatedSize = size;
+		return size;
+	}
+
+	/**
+	 * Returns a new snapshot with the values applied on top of this one, the version incremented and the updated
+	 * timestamp set.
+	 *
+	 * @param keyIds     The identifiers of the keys to set.
+	 * @param typeNames  The class name of each value, or null for a null value.
+	 * @param keyValues  The values.
+	 * @param now        The time of the update, in milliseconds.
+	 * @return The new snapshot.
+	 */
+	public ParadigmSnapshot withValues(final int[] keyIds, final String[] typeNames, final Object[] keyValues,
+									   final long now)
+	{
+		int slotCount = types.length;
+		for (final int keyId : keyIds)
+		{
+			slotCount = Math.max(slotCount, keyId + 1);
+		}
+
+		final String[] nextTypes = Arrays.copyOf(types, slotCount);
+		final Object[] nextValues = Arrays.copyOf(values, slotCount);
+		for (int index = 0; index < keyIds.length; index++)
+		{
+			nextTypes[keyIds[index]] = typeNames[index] == null ? NULL_TYPE : typeNames[index];
+			nextValues[keyIds[index]] = keyValues[index];
+		}
+
+		return new ParadigmSnapshot(version + 1, version == 0 ? now : created, now, nextTypes, nextValues);
+	}
+
+	/**
+	 * Converts the snapshot into the object which is written to disk.
+	 *
+	 * @param dictionary The {@link KeyDictionary} the key identifiers belong to.
+	 * @return The object, with the version, timestamp and data maps.
+	 */
+	public Map<String, Object> toObject(final KeyDictionary dictionary)
+	{
+		final Map<String, Object> object = new LinkedHashMap<>();
+		object.put(VERSION, version);
+
+		final Map<String, Object> timestamp = new LinkedHashMap<>();
+		timestamp.put(CREATED, created);
+		timestamp.put(UPDATED, updated);
+		object.put(TIMESTAMP, timestamp);
+
+		final Map<String, Object> data = new LinkedHashMap<>();
+		for (int keyId = 0; keyId < types.length; keyId++)
+		{
+			if (types[keyId] == null)
+			{
+				continue;
+			}
+
+			final Map<String, Object> stored = new LinkedHashMap<>();
+			stored.put(Paradigm.PARADIGM_KEY_TYPE, getType(keyId));
+			stored.put(Paradigm.PARADIGM_KEY_VALUE, values[keyId]);
+			data.put(dictionary.getName(keyId), stored);
+		}
+
+		object.put(Paradigm.DATA, data);
+
+		return object;
+	}
+
+	/**
+	 * Builds a snapshot from the object read from disk. Keys which are not in the dictionary yet are added to it.
+	 *
+	 * @param object     The object, with the version, timestamp and data maps.
+	 * @param dictionary The {@link KeyDictionary} to resolve the keys with.
+	 * @return The snapshot.
+	 * @throws IOException Thrown if a new key could not be added to the dictionary.
+	 */
+	@SuppressWarnings("unchecked")
+	public static ParadigmSnapshot fromObject(final Map<String, Object> object, final KeyDictionary dictionary)
+		throws IOException
+	{
+		final Object version = object.get(VERSION);
+
+		long created = 0;
+		long updated = 0;
+		final Object timestamp = object.get(TIMESTAMP);
+		if (timestamp instanceof Map)
+		{
+			created = toMillis(((Map<String, Object>) timestamp).get(CREATED));
+			updated = toMillis(((Map<String, Object>) timestamp).get(UPDATED));
+		}
+
+		String[] types = new String[dictionary.size()];
+		Object[] values = new Object[dictionary.size()];
+		int slotCount = 0;
+		final Object storedData = object.get(Paradigm.DATA);
+		if (storedData instanceof Map)
+		{
+			for (final Map.Entry<String, Object> entry : ((Map<String, Object>) storedData).entrySet())
+			{
+				if (!(entry.getValue() instanceof Map))
+				{
+					continue;
+				}
+
+				final int keyId = dictionary.intern(entry.getKey());
+				if (keyId >= types.length)
+				{
+					types = Arrays.copyOf(types, keyId + 1);
+					values = Arrays.copyOf(values, keyId + 1);
+				}
+
+				final Map<String, Object> stored = (Map<String, Object>) entry.getValue();
+				final Object type = stored.get(Paradigm.PARADIGM_KEY_TYPE);
+				types[keyId] = type == null ? NULL_TYPE : type.toString().intern();
+				values[keyId] = stored.get(Paradigm.PARADIGM_KEY_VALUE);
+				slotCount = Math.max(slotCount, keyId + 1);
+			}
+		}
+
+		return new ParadigmSnapshot(
+			version instanceof Number ? ((Number) version).intValue() : 0,
+			created,
+			updated,
+			Arrays.copyOf(types, slotCount),
+			Arrays.copyOf(values, slotCount)
+		);
+	}
+
+	/**
+	 * Converts a stored timestamp, which is written as milliseconds, into milliseconds.
+	 *
+	 * @param timestamp The stored timestamp.
+	 * @return The timestamp in milliseconds, or 0 if it is missing.
+	 */
+	private static long toMillis(final Object timestamp)
+	{
+		return timestamp instanceof Number ? ((Number) timestamp).longValue() : 0;
+	}
+}
@@ -0,0 +1,136 @@
+package org.paragon.paragonfs.paradigm;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.io.IoClass;
+import org.paragon.paragonfs.io.IoScheduler;
+import org.paragon.paragonfs.io.Volume;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The tier migrator moves idle {@link Paradigm}'s from the data directories to the cold tier, once one has been set
+ * with {@link ParagonFS#setColdDir(File)}. It runs in the background on a schedule set up by {@link ParagonFS}, but
+ * can also be invoked on demand with {@link #migrate(Archetype)}.<br />
+ * <br />
+ * A Paradigm is idle once it has been neither updated, going by its <code>timestamp.updated</code>, nor read through
+ * the {@link ParadigmPool} for the idle time. Reads of a Paradigm in the cold tier are served from there, while
+ * writing to it moves it back to its data directory.
+ */
+public class ParadigmTierMigrator implements Runnable
+{
+	private static final Log LOG = LogFactory.getLog(ParadigmTierMigrator.class);
+
+	/**
+	 * The default number of milliseconds a Paradigm must be idle for before it is moved to the cold tier.
+	 */
+	public static final long DEFAULT_IDLE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+	/**
+	 * The {@link ParagonFS} this migrator is for.
+	 */
+	private final ParagonFS paragonFS;
+
+	private volatile long idleMillis = DEFAULT_IDLE_MILLIS;
+
+	/**
+	 * Initializes the {@link ParadigmTierMigrator}.
+	 *
+	 * @param paragonFS The {@link ParagonFS} to migrate.
+	 */
+	public ParadigmTierMigrator(final ParagonFS paragonFS)
+	{
+		this.paragonFS = paragonFS;
+	}
+
+	@Override
+	public void run()
+	{
+		if (paragonFS.getColdDir() == null) {
+			return;
+		}
+
+		for (final Archetype archetype : paragonFS.list())
+		{
+			try
+			{
+				migrate(archetype);
+			}
+			catch (final IOException e)
+			{
+				LOG.warn("Unable to migrate the archetype " + archetype.getDir().getName() + ".", e);
+			}
+		}
+	}
+
+	/**
+	 * Moves every idle {@link Paradigm} within the {@link Archetype} to the cold tier.
+	 *
+	 * @param archetype The {@link Archetype} to migrate.
+	 * @return The number of {@link Paradigm}'s moved.
+	 * @throws IOException Thrown if a Paradigm could not be moved.
+	 */
+	public int migrate(final Archetype archetype) throws IOException
+	{
+		if (paragonFS.getColdDir() == null) {
+			return 0;
+		}
+
+		final IoScheduler scheduler = paragonFS.getIoScheduler();
+		final long cutoff = System.currentTimeMillis() - idleMillis;
+		int migrated = 0;
+		for (final String paradigmId : archetype.listHotParadigmIds())
+		{
+			// Skip the Paradigms whose files have been written to since the cutoff, without loading them.
+			final File file = archetype.getParadigmFile(paradigmId);
+			if (file.lastModified() >= cutoff) {
+				continue;
+			}
+
+			final Volume volume = paragonFS.getVolume(paradigmId);
+			scheduler.acquire(IoClass.MAINTENANCE, volume, file.length());
+
+			try
+			{
+				final Paradigm paradigm = archetype.getParadigmPool().getUntracked(paradigmId);
+				if (paradigm != null && paradigm.demote(archetype.getColdParadigmFile(paradigmId), cutoff)) {
+					migrated++;
+				}
+			}
+			finally
+			{
+				scheduler.release(IoClass.MAINTENANCE, volume);
+			}
+		}
+
+		return migrated;
+	}
+
+	/**
+	 * Returns the number of milliseconds a Paradigm must be idle for before it is moved to the cold tier.
+	 *
+	 * @return The idle time, in milliseconds.
+	 */
+	public long getIdleMillis()
+	{
+		return idleMillis;
+	}
+
+	/**
+	 * Sets the number of milliseconds a Paradigm must be idle for before it is moved to the cold tier.
+	 *
+	 * @param idleMillis The idle time, in milliseconds.
+	 */
+	public void setIdleMillis(final long idleMillis)
+	{
+		if (idleMillis < 0) {
+			throw new IllegalArgumentException("The idle time must not be negative.");
+		}
+
+		this.idleMillis = idleMillis;
+	}
+}
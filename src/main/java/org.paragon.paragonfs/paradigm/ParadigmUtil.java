@@ -30,7 +30,9 @@ public class ParadigmUtil
 	}
 
 	/**
-	 * Determines whether the specified {@link Paradigm}, based on it's unique identifier, exists.
+	 * Determines whether the specified {@link Paradigm}, based on it's unique identifier, exists. A deleted Paradigm
+	 * still counts as existing until it has been reclaimed, so its identifier is never handed out again while its file
+	 * remains on disk.
 	 *
 	 * @param paradigmId The {@link Paradigm}'s unique identifier.
 	 * @return Returns true if the {@link Paradigm} exists, false otherwise.
@@ -39,7 +41,7 @@ public class ParadigmUtil
 	{
 		for (final Archetype archetype : paragonFS.list())
 		{
-			if (!archetype.exists(paradigmId))
+			if (!archetype.exists(paradigmId) && !archetype.getTombstoneLog().contains(paradigmId))
 			{
 				continue;
 			}
@@ -84,14 +86,14 @@ public class ParadigmUtil
 			throw new IllegalArgumentException("The paradigm ID must not be blank.");
 		}
 
-		final String paradigmPath = Paths.get(paragonFS.getDir().getAbsolutePath(), getParadigmPath(paradigmId)).toString();
-		final File paradigmFile = new File(paradigmPath);
+		final File paradigmFile = archetype.getParadigmFile(paradigmId);
 
 		if (paradigmFile.exists()) {
 			throw new IllegalArgumentException("The paradigm already exists.");
 		}
 
-		if (!paradigmFile.mkdirs()) {
+		final File parentDir = paradigmFile.getParentFile();
+		if (!parentDir.exists() && !parentDir.mkdirs()) {
 			throw new IllegalArgumentException("The paradigm could not be created as the parent directories do not exist.");
 		}
 
@@ -0,0 +1,49 @@
+package org.paragon.paragonfs.paradigm;
+
+/**
+ * One version in the history of a {@link Paradigm}, linked to the version before it. A Paradigm only keeps the
+ * versions before its current one while a {@link ReadView} may still need them, and the {@link VersionClock} trims
+ * the rest.
+ */
+final class ParadigmVersion
+{
+	/**
+	 * The commit timestamp from the {@link VersionClock} at which this version became current.
+	 */
+	final long commitTimestamp;
+
+	/**
+	 * The contents of the Paradigm, or null if it did not exist at this version, before it was created or after it was
+	 * deleted.
+	 */
+	final ParadigmSnapshot snapshot;
+
+	/**
+	 * The version before this one, or null once no view can see it.
+	 */
+	volatile ParadigmVersion previous;
+
+	ParadigmVersion(final long commitTimestamp, final ParadigmSnapshot snapshot, final ParadigmVersion previous)
+	{
+		this.commitTimestamp = commitTimestamp;
+		this.snapshot = snapshot;
+		this.previous = previous;
+	}
+
+	/**
+	 * Finds the version a view with the read timestamp sees, by walking back from this one.
+	 *
+	 * @param readTimestamp The view's read timestamp.
+	 * @return The version, or null if none is old enough.
+	 */
+	ParadigmVersion find(final long readTimestamp)
+	{
+		ParadigmVersion version = this;
+		while (version != null && version.commitTimestamp > readTimestamp)
+		{
+			version = version.previous;
+		}
+
+		return version;
+	}
+}
@@ -0,0 +1,58 @@
+package org.paragon.paragonfs.paradigm;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A consistent view of every {@link Paradigm} in a {@link org.paragon.paragonfs.ParagonFS}, as of the moment it was
+ * opened with {@link org.paragon.paragonfs.ParagonFS#openReadView()}. Reads through the view see each Paradigm as it
+ * was then, however many writes have happened since, across every Archetype, without ever waiting on a writer.<br />
+ * <br />
+ * The versions the view can see are kept in memory until it is closed, so a view should be closed as soon as the
+ * reads are done.
+ */
+public class ReadView implements Closeable
+{
+	private final VersionClock clock;
+
+	/**
+	 * Every version committed at or before this timestamp is seen, and none after it.
+	 */
+	private final long readTimestamp;
+
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	ReadView(final VersionClock clock, final long readTimestamp)
+	{
+		this.clock = clock;
+		this.readTimestamp = readTimestamp;
+	}
+
+	public long getReadTimestamp()
+	{
+		return readTimestamp;
+	}
+
+	/**
+	 * Ensures the view is still open.
+	 *
+	 * @throws IllegalStateException Thrown if the view has been closed.
+	 */
+	void ensureOpen()
+	{
+		if (closed.get()) {
+			throw new IllegalStateException("The read view has been closed.");
+		}
+	}
+
+	/**
+	 * Closes the view, letting the versions only it could see be garbage collected.
+	 */
+	@Override
+	public void close()
+	{
+		if (closed.compareAndSet(false, true)) {
+			clock.unpin(readTimestamp);
+		}
+	}
+}
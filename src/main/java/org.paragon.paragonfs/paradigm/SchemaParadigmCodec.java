@@ -0,0 +1,259 @@
+package org.paragon.paragonfs.paradigm;
+
+import org.paragon.paragonfs.archetype.Schema;
+import org.paragon.paragonfs.data.type.DateType;
+import org.paragon.paragonfs.data.type.DoubleType;
+import org.paragon.paragonfs.data.type.IntegerType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The {@link ParadigmCodec} of an Archetype with a {@link Schema}. Every Paradigm is written in the same fixed layout:
+ * <pre>
+ * magic (4) | version (4) | created (8) | updated (8) | column count (2) | null bitmap | fixed slots | strings
+ * </pre>
+ * Each column has a slot at the same offset in every row, whether or not it is null. Integers take 4 bytes, doubles
+ * and dates 8 bytes, and strings 8 bytes holding the offset and length of their UTF-8 bytes within the variable part
+ * at the end of the row. Nothing about the types is written, as the schema already says what they are.<br />
+ * <br />
+ * A column which is null reads the same as a column which was never set.
+ */
+public class SchemaParadigmCodec implements ParadigmCodec
+{
+	/**
+	 * The first bytes of a Paradigm written with this codec, which can never be the start of a JSON object.
+	 */
+	static final byte[] MAGIC = {'P', 'F', 'R', 1};
+
+	private static final int HEADER_SIZE = MAGIC.length + 4 + 8 + 8 + 2;
+
+	/**
+	 * The columns of the schema.
+	 */
+	private final List<Schema.Column> columns;
+
+	/**
+	 * The identifier of each column's key in the {@link KeyDictionary}.
+	 */
+	private final int[] keyIds;
+
+	/**
+	 * The class name of each column's type, as held in the snapshots.
+	 */
+	private final String[] typeNames;
+
+	/**
+	 * The offset of each column's slot, from the start of the row.
+	 */
+	private final int[] offsets;
+
+	/**
+	 * The number of key identifiers the decoded snapshots have slots for.
+	 */
+	private final int slotCount;
+
+	/**
+	 * The size of a row before the variable part.
+	 */
+	private final int fixedSize;
+
+	/**
+	 * Initializes the {@link SchemaParadigmCodec}, adding the schema's keys to the dictionary.
+	 *
+	 * @param schema     The {@link Schema} of the Archetype.
+	 * @param dictionary The {@link KeyDictionary} of the Archetype.
+	 * @throws IOException Thrown if a key could not be added to the dictionary.
+	 */
+	public SchemaParadigmCodec(final Schema schema, final KeyDictionary dictionary) throws IOException
+	{
+		columns = schema.getColumns();
+		typeNames = new String[columns.size()];
+		offsets = new int[columns.size()];
+
+		final List<String> names = new ArrayList<>(columns.size());
+		for (final Schema.Column column : columns)
+		{
+			names.add(column.getName());
+		}
+		keyIds = dictionary.internAll(names);
+
+		int offset = HEADER_SIZE + getBitmapSize();
+		int maxKeyId = -1;
+		for (int index = 0; index < columns.size(); index++)
+		{
+			final Schema.Column column = columns.get(index);
+			typeNames[index] = column.getType().getName();
+			offsets[index] = offset;
+
+			offset += column.getWidth();
+			maxKeyId = Math.max(maxKeyId, keyIds[index]);
+		}
+
+		fixedSize = offset;
+		slotCount = maxKeyId + 1;
+	}
+
+	/**
+	 * Returns the number of bytes of the null bitmap, which has a bit per column.
+	 *
+	 * @return The size of the null bitmap.
+	 */
+	private int getBitmapSize()
+	{
+		return (columns.size() + 7) / 8;
+	}
+
+	@Override
+	public byte[] encode(final ParadigmSnapshot snapshot) throws IOException
+	{
+		// Encode the strings first, as they decide the size of the row.
+		final byte[][] strings = new byte[columns.size()][];
+		int size = fixedSize;
+		for (int index = 0; index < columns.size(); index++)
+		{
+			final Object value = snapshot.getValue(keyIds[index]);
+			if (value != null && !isNumeric(index))
+			{
+				strings[index] = value.toString().getBytes(StandardCharsets.UTF_8);
+				size += strings[index].length;
+			}
+		}
+
+		final ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.put(MAGIC);
+		buffer.putInt(snapshot.getVersion());
+		buffer.putLong(snapshot.getCreated());
+		buffer.putLong(snapshot.getUpdated());
+		buffer.putShort((short) columns.size());
+
+		final int bitmapOffset = buffer.position();
+		int variableOffset = fixedSize;
+		for (int index = 0; index < columns.size(); index++)
+		{
+			final Object value = snapshot.getValue(keyIds[index]);
+			if (value == null)
+			{
+				final int bit = bitmapOffset + index / 8;
+				buffer.put(bit, (byte) (buffer.get(bit) | (1 << (index % 8))));
+				continue;
+			}
+
+			final Class<?> type = columns.get(index).getType();
+			if (type == IntegerType.class)
+			{
+				buffer.putInt(offsets[index], ((Number) value).intValue());
+			}
+			else if (type == DoubleType.class)
+			{
+				buffer.putDouble(offsets[index], ((Number) value).doubleValue());
+			}
+			else if (type == DateType.class)
+			{
+				buffer.putLong(offsets[index], value instanceof Date ? ((Date) value).getTime() : ((Number) value).longValue());
+			}
+			else
+			{
+				buffer.putInt(offsets[index], variableOffset);
+				buffer.putInt(offsets[index] + 4, strings[index].length);
+				buffer.position(variableOffset);
+				buffer.put(strings[index]);
+				variableOffset += strings[index].length;
+			}
+		}
+
+		return buffer.array();
+	}
+
+	/**
+	 * Determines whether the column holds a number or date, rather than a string.
+	 *
+	 * @param index The index of the column.
+	 * @return Returns true if the column's slot holds the value itself.
+	 */
+	private boolean isNumeric(final int index)
+	{
+		final Class<?> type = columns.get(index).getType();
+
+		return type == IntegerType.class || type == DoubleType.class || type == DateType.class;
+	}
+
+	@Override
+	public ParadigmSnapshot decode(final byte[] bytes) throws IOException
+	{
+		if (!isEncoded(bytes)) {
+			throw new IOException("The paradigm was not written with a schema.");
+		}
+
+		final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		buffer.position(MAGIC.length);
+		final int version = buffer.getInt();
+		final long created = buffer.getLong();
+		final long updated = buffer.getLong();
+
+		if (buffer.getShort() != columns.size() || bytes.length < fixedSize) {
+			throw new IOException("The paradigm was written with a different schema.");
+		}
+
+		final int bitmapOffset = buffer.position();
+		final String[] types = new String[slotCount];
+		final Object[] values = new Object[slotCount];
+		for (int index = 0; index < columns.size(); index++)
+		{
+			if ((bytes[bitmapOffset + index / 8] & (1 << (index % 8))) != 0)
+			{
+				continue;
+			}
+
+			final Class<?> type = columns.get(index).getType();
+			final Object value;
+			if (type == IntegerType.class)
+			{
+				value = buffer.getInt(offsets[index]);
+			}
+			else if (type == DoubleType.class)
+			{
+				value = buffer.getDouble(offsets[index]);
+			}
+			else if (type == DateType.class)
+			{
+				value = new Date(buffer.getLong(offsets[index]));
+			}
+			else
+			{
+				value = new String(bytes, buffer.getInt(offsets[index]), buffer.getInt(offsets[index] + 4), StandardCharsets.UTF_8);
+			}
+
+			types[keyIds[index]] = typeNames[index];
+			values[keyIds[index]] = value;
+		}
+
+		return ParadigmSnapshot.of(version, created, updated, types, values);
+	}
+
+	/**
+	 * Determines whether the bytes were written by this codec.
+	 *
+	 * @param bytes The bytes of a Paradigm's file.
+	 * @return Returns true if the bytes start with the magic bytes of this codec.
+	 */
+	static boolean isEncoded(final byte[] bytes)
+	{
+		if (bytes.length < HEADER_SIZE) {
+			return false;
+		}
+
+		for (int index = 0; index < MAGIC.length; index++)
+		{
+			if (bytes[index] != MAGIC[index]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,182 @@
+package org.paragon.paragonfs.paradigm;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The tombstone log records the unique identifiers of {@link Paradigm}'s which have been deleted but whose files have
+ * not been reclaimed yet. Every {@link org.paragon.paragonfs.archetype.Archetype} has its own log, which is an
+ * append-only file with one identifier per line.<br />
+ * <br />
+ * Deleting is then a single small append, the actual file removal happens later in the {@link ParadigmCompactor}.
+ */
+public class TombstoneLog
+{
+	/**
+	 * The name of the file, within the archetype directory, the tombstones are written to.
+	 */
+	public static final String FILE_NAME = ".tombstones";
+
+	private static final String LINE_SEPARATOR = "\n";
+
+	/**
+	 * The file the tombstones are stored in.
+	 */
+	private final File file;
+
+	/**
+	 * All the identifiers currently in the log.
+	 */
+	private final Set<String> paradigmIds = new LinkedHashSet<>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Initializes the {@link TombstoneLog} and loads any tombstones which already exist on disk.
+	 *
+	 * @param file The file the tombstones are stored in.
+	 * @throws IllegalStateException Thrown if the existing log could not be read.
+	 */
+	public TombstoneLog(final File file)
+	{
+		this.file = file;
+
+		if (!file.exists()) {
+			return;
+		}
+
+		try
+		{
+			for (final String line : FileUtils.readLines(file, StandardCharsets.UTF_8))
+			{
+				if (StringUtils.isNotBlank(line)) {
+					paradigmIds.add(line.trim());
+				}
+			}
+		}
+		catch (final IOException e)
+		{
+			throw new IllegalStateException("The tombstone log could not be read.", e);
+		}
+	}
+
+	/**
+	 * Appends a tombstone for the {@link Paradigm} to the log. The log is synced before this method returns.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 * @throws IOException Thrown if the tombstone could not be written.
+	 */
+	public void append(final String paradigmId) throws IOException
+	{
+		lock.lock();
+
+		try
+		{
+			if (paradigmIds.contains(paradigmId)) {
+				return;
+			}
+
+			try (final FileOutputStream stream = new FileOutputStream(file, true))
+			{
+				stream.write((paradigmId + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8));
+				stream.getChannel().force(false);
+			}
+
+			paradigmIds.add(paradigmId);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Determines whether there is a tombstone for the {@link Paradigm}.
+	 *
+	 * @param paradigmId The {@link Paradigm}'s unique identifier.
+	 * @return Returns true if the Paradigm has been deleted but not reclaimed yet.
+	 */
+	public boolean contains(final String paradigmId)
+	{
+		lock.lock();
+
+		try
+		{
+			return paradigmIds.contains(paradigmId);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns a copy of all the identifiers currently in the log.
+	 *
+	 * @return A set of {@link Paradigm} identifiers, in the order they were deleted.
+	 */
+	public Set<String> getParadigmIds()
+	{
+		lock.lock();
+
+		try
+		{
+			return new LinkedHashSet<>(paradigmIds);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the tombstones once their {@link Paradigm}'s have been reclaimed. The log is rewritten to a temporary
+	 * file which is then moved over the existing log, so a crash never leaves a partially written log behind.
+	 *
+	 * @param reclaimed The identifiers of the reclaimed {@link Paradigm}'s.
+	 * @throws IOException Thrown if the log could not be rewritten.
+	 */
+	public void remove(final Collection<String> reclaimed) throws IOException
+	{
+		lock.lock();
+
+		try
+		{
+			final Set<String> remaining = new LinkedHashSet<>(paradigmIds);
+			remaining.removeAll(reclaimed);
+
+			final File temp = new File(file.getParentFile(), FILE_NAME + ".tmp");
+			try (final FileOutputStream stream = new FileOutputStream(temp, false))
+			{
+				final StringBuilder builder = new StringBuilder();
+				for (final String paradigmId : remaining)
+				{
+					builder.append(paradigmId).append(LINE_SEPARATOR);
+				}
+
+				stream.write(builder.toString().getBytes(StandardCharsets.UTF_8));
+				stream.getChannel().force(false);
+			}
+
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+			paradigmIds.clear();
+			paradigmIds.addAll(remaining);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,188 @@
+package org.paragon.paragonfs.paradigm;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The clock which orders every change to the {@link Paradigm}'s of a {@link org.paragon.paragonfs.ParagonFS}, giving
+ * snapshot isolation to the {@link ReadView}'s.<br />
+ * <br />
+ * Each change is given the next commit timestamp as it becomes current, and a view is pinned to the last commit
+ * timestamp when it is opened. While any view is open, a change keeps the version it replaces, linked from the new one,
+ * so the view still finds the version it should see. Once no open view can see a version any more it is garbage
+ * collected by this clock, which runs in the background on a schedule set up by {@link org.paragon.paragonfs.ParagonFS}.
+ * With no view open, nothing but the current version is ever kept.<br />
+ * <br />
+ * Opening a view waits for the changes being committed to finish, so a view never sees a change become current after
+ * it was opened. Committing only ever waits for a view being opened.
+ */
+public class VersionClock implements Runnable
+{
+	/**
+	 * Held shared while a change is committed, and exclusively while a view is opened.
+	 */
+	private final ReentrantReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+	/**
+	 * The last commit timestamp given out.
+	 */
+	private final AtomicLong timestamp = new AtomicLong();
+
+	/**
+	 * The number of open views by read timestamp. This is guarded by its own monitor.
+	 */
+	private final TreeMap<Long, Integer> pinned = new TreeMap<>();
+
+	/**
+	 * The number of open views, which writers check without taking any lock.
+	 */
+	private volatile int openViews;
+
+	/**
+	 * The Paradigms keeping versions before their current one, which also keeps them from being garbage collected
+	 * while a view may need those versions.
+	 */
+	private final Set<Paradigm> versioned = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Opens a {@link ReadView} of every Paradigm as of now.
+	 *
+	 * @return The {@link ReadView}, which must be closed once the reads are done.
+	 */
+	public ReadView open()
+	{
+		commitLock.writeLock().lock();
+
+		try
+		{
+			final long readTimestamp = timestamp.get();
+			synchronized (pinned)
+			{
+				pinned.merge(readTimestamp, 1, Integer::sum);
+				openViews++;
+			}
+
+			return new ReadView(this, readTimestamp);
+		}
+		finally
+		{
+			commitLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Releases a read timestamp once its view has been closed.
+	 *
+	 * @param readTimestamp The view's read timestamp.
+	 */
+	void unpin(final long readTimestamp)
+	{
+		synchronized (pinned)
+		{
+			final Integer count = pinned.get(readTimestamp);
+			if (count == null) {
+				return;
+			}
+			else if (count == 1) {
+				pinned.remove(readTimestamp);
+			}
+			else {
+				pinned.put(readTimestamp, count - 1);
+			}
+			openViews--;
+		}
+	}
+
+	/**
+	 * Starts committing a change, giving it the next commit timestamp. Every call must be followed by
+	 * {@link #endCommit()}, once the change is current.
+	 *
+	 * @return The commit timestamp.
+	 */
+	long beginCommit()
+	{
+		commitLock.readLock().lock();
+
+		return timestamp.incrementAndGet();
+	}
+
+	/**
+	 * Finishes committing a change.
+	 */
+	void endCommit()
+	{
+		commitLock.readLock().unlock();
+	}
+
+	/**
+	 * Determines whether any view is open, in which case a change must keep the version it replaces.
+	 *
+	 * @return Returns true if a view is open.
+	 */
+	boolean hasOpenViews()
+	{
+		return openViews > 0;
+	}
+
+	/**
+	 * Records that a Paradigm is keeping versions before its current one, to be garbage collected.
+	 *
+	 * @param paradigm The {@link Paradigm}.
+	 */
+	void track(final Paradigm paradigm)
+	{
+		versioned.add(paradigm);
+	}
+
+	/**
+	 * Forgets a Paradigm once it only keeps its current version.
+	 *
+	 * @param paradigm The {@link Paradigm}.
+	 */
+	void untrack(final Paradigm paradigm)
+	{
+		versioned.remove(paradigm);
+	}
+
+	/**
+	 * Returns the read timestamp of the oldest open view.
+	 *
+	 * @return The read timestamp, or {@link Long#MAX_VALUE} if no view is open.
+	 */
+	public long getOldestReadTimestamp()
+	{
+		synchronized (pinned)
+		{
+			final Map.Entry<Long, Integer> oldest = pinned.firstEntry();
+
+			return oldest == null ? Long.MAX_VALUE : oldest.getKey();
+		}
+	}
+
+	/**
+	 * Returns the number of Paradigms keeping versions before their current one.
+	 *
+	 * @return The number of Paradigms.
+	 */
+	public int getVersionedCount()
+	{
+		return versioned.size();
+	}
+
+	/**
+	 * Drops every version no open view can see any more.
+	 */
+	@Override
+	public void run()
+	{
+		final long oldest = getOldestReadTimestamp();
+		for (final Paradigm paradigm : versioned)
+		{
+			paradigm.trimVersions(oldest);
+		}
+	}
+}
@@ -0,0 +1,441 @@
+package org.paragon.paragonfs.paradigm;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.io.IoClass;
+import org.paragon.paragonfs.io.IoScheduler;
+import org.paragon.paragonfs.io.Volume;
+import org.paragon.paragonfs.io.WriteGate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Flushes the {@link Paradigm}'s written with {@link org.paragon.paragonfs.io.Durability#WRITE_BACK}. Such writes only
+ * update the Paradigm in memory and mark it dirty, then this flusher writes every dirty Paradigm once per interval, so
+ * a row updated many times between flushes costs a single write.<br />
+ * <br />
+ * The amount of dirty data is bounded: once the estimated size of the dirty Paradigms goes over the budget, writers
+ * wait for the flusher to catch up before making new Paradigms dirty.
+ */
+public class WriteBackFlusher implements Runnable
+{
+	private static final Log LOG = LogFactory.getLog(WriteBackFlusher.class);
+
+	/**
+	 * The default number of milliseconds between each flush.
+	 */
+	public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+
+	/**
+	 * The default limit on the estimated size of the dirty Paradigms.
+	 */
+	public static final long DEFAULT_MAX_DIRTY_BYTES = 64L * 1024 * 1024;
+
+	/**
+	 * The gate each flush passes through, so flushes are held back while a snapshot is taken.
+	 */
+	private final WriteGate writeGate;
+
+	/**
+	 * The dirty Paradigms, oldest first, along with the estimated size of each.
+	 */
+	private final Map<Paradigm, Long> dirty = new LinkedHashMap<>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * Signalled when the flusher should run before the interval is up, because the budget has been used up or the
+	 * flusher is stopping.
+	 */
+	private final Condition flushNeeded = lock.newCondition();
+
+	/**
+	 * Signalled whenever a flush completes, waking writers waiting for the budget.
+	 */
+	private final Condition flushed = lock.newCondition();
+
+	/**
+	 * The estimated size of the dirty Paradigms.
+	 */
+	private long dirtyBytes;
+
+	/**
+	 * The estimated size of the Paradigms taken by a flush which have not been written yet. These still count towards
+	 * the budget, so writers are only let through as the flush makes progress.
+	 */
+	private long flushingBytes;
+
+	private volatile long intervalMillis = DEFAULT_INTERVAL_MILLIS;
+
+	private volatile long maxDirtyBytes = DEFAULT_MAX_DIRTY_BYTES;
+
+	private volatile boolean running;
+
+	private Thread thread;
+
+	/**
+	 * Initializes the {@link WriteBackFlusher}.
+	 *
+	 * @param writeGate The gate each flush passes through.
+	 */
+	public WriteBackFlusher(final WriteGate writeGate)
+	{
+		this.writeGate = writeGate;
+	}
+
+	/**
+	 * Starts the background thread which flushes the dirty Paradigms.
+	 */
+	public void start()
+	{
+		lock.lock();
+
+		try
+		{
+			if (running)
+			{
+				return;
+			}
+
+			running = true;
+			thread = new Thread(this, "paragonfs-write-back");
+			thread.setDaemon(true);
+			thread.start();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stops the background thread, after flushing every dirty Paradigm.
+	 */
+	public void stop()
+	{
+		final Thread stopping;
+		lock.lock();
+
+		try
+		{
+			running = false;
+			stopping = thread;
+			thread = null;
+			flushNeeded.signalAll();
+			flushed.signalAll();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		if (stopping != null)
+		{
+			try
+			{
+				stopping.join();
+			}
+			catch (final InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		flush();
+	}
+
+	@Override
+	public void run()
+	{
+		while (running)
+		{
+			lock.lock();
+
+			try
+			{
+				if (running && dirtyBytes <= maxDirtyBytes)
+				{
+					flushNeeded.await(intervalMillis, TimeUnit.MILLISECONDS);
+				}
+			}
+			catch (final InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+
+			flush();
+		}
+	}
+
+	/**
+	 * Flushes every Paradigm which is dirty right now.
+	 */
+	public void flush()
+	{
+		writeGate.enter();
+
+		try
+		{
+			flushDirty();
+		}
+		finally
+		{
+			writeGate.exit();
+		}
+	}
+
+	/**
+	 * Flushes every Paradigm which is dirty right now, having passed the gate.
+	 */
+	private void flushDirty()
+	{
+		final Map<Paradigm, Long> shares;
+		lock.lock();
+
+		try
+		{
+			shares = new LinkedHashMap<>(dirty);
+			dirty.clear();
+			flushingBytes += dirtyBytes;
+			dirtyBytes = 0;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		// Each volume flushes its own Paradigms on its own I/O threads, so the volumes are written to in parallel.
+		final List<Paradigm> paradigms = new ArrayList<>(shares.keySet());
+		final Map<Volume, List<Paradigm>> groups = new LinkedHashMap<>();
+		for (final Paradigm paradigm : paradigms)
+		{
+			final Volume volume = paradigm.getArchetype().getParagonFS().getVolume(paradigm.getId());
+			if (!groups.containsKey(volume))
+			{
+				groups.put(volume, new ArrayList<Paradigm>());
+			}
+
+			groups.get(volume).add(paradigm);
+		}
+
+		if (groups.size() <= 1)
+		{
+			flush(paradigms, shares);
+			return;
+		}
+
+		final List<Future<?>> futures = new ArrayList<>();
+		for (final Map.Entry<Volume, List<Paradigm>> group : groups.entrySet())
+		{
+			try
+			{
+				futures.add(group.getKey().getExecutor().submit(() -> flush(group.getValue(), shares)));
+			}
+			catch (final RejectedExecutionException e)
+			{
+				// The volume is shutting down, flush it on this thread instead.
+				flush(group.getValue(), shares);
+			}
+		}
+
+		for (final Future<?> future : futures)
+		{
+			try
+			{
+				future.get();
+			}
+			catch (final InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (final ExecutionException e)
+			{
+				LOG.warn("Unable to flush a volume.", e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Flushes the Paradigms, marking any which fail dirty again. Each Paradigm's share of the budget is given back once
+	 * it has been written, waking the writers waiting for it.
+	 *
+	 * @param paradigms The Paradigms to flush.
+	 * @param shares    The estimated size of each Paradigm taken by the flush.
+	 */
+	private void flush(final List<Paradigm> paradigms, final Map<Paradigm, Long> shares)
+	{
+		for (final Paradigm paradigm : paradigms)
+		{
+			// Admitted before the Paradigm's lock is taken, so a writer never waits on the scheduler through it.
+			final IoScheduler scheduler = paradigm.getArchetype().getParagonFS().getIoScheduler();
+			final Volume volume = paradigm.getArchetype().getParagonFS().getVolume(paradigm.getId());
+			scheduler.acquire(IoClass.WRITE_BACK, volume, paradigm.getFile().length());
+
+			try
+			{
+				paradigm.flushWriteBack();
+			}
+			catch (final ParagonFSException e)
+			{
+				// Mark it dirty again, so the next flush retries it rather than losing the update.
+				LOG.warn("Unable to flush the paradigm " + paradigm.getId() + ".", e);
+				markDirty(paradigm, shares.get(paradigm));
+			}
+			finally
+			{
+				scheduler.release(IoClass.WRITE_BACK, volume);
+				release(shares.get(paradigm));
+			}
+		}
+	}
+
+	/**
+	 * Gives back the share of the budget of a Paradigm the flush is done with.
+	 *
+	 * @param bytes The estimated size of the Paradigm.
+	 */
+	private void release(final long bytes)
+	{
+		lock.lock();
+
+		try
+		{
+			flushingBytes -= bytes;
+			flushed.signalAll();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until the dirty Paradigms fit within the budget. This must be invoked before a writer takes the Paradigm's
+	 * write lock, as the flusher may need that lock to make progress.
+	 *
+	 * @throws ParagonFSException Thrown if the thread is interrupted while waiting.
+	 */
+	public void awaitCapacity() throws ParagonFSException
+	{
+		lock.lock();
+
+		try
+		{
+			while (running && dirtyBytes + flushingBytes > maxDirtyBytes)
+			{
+				flushNeeded.signalAll();
+				flushed.await();
+			}
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new ParagonFSException("Interrupted while waiting to write.", e);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Marks the Paradigm as dirty. A Paradigm which is already dirty only has its estimated size updated.
+	 *
+	 * @param paradigm The Paradigm which was written.
+	 * @param bytes    The estimated size of the Paradigm.
+	 */
+	void markDirty(final Paradigm paradigm, final long bytes)
+	{
+		lock.lock();
+
+		try
+		{
+			final Long previous = dirty.put(paradigm, bytes);
+			dirtyBytes += bytes - (previous == null ? 0 : previous);
+
+			if (dirtyBytes > maxDirtyBytes)
+			{
+				flushNeeded.signalAll();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the estimated size of the dirty Paradigms, including those being flushed.
+	 *
+	 * @return The estimated size, in bytes.
+	 */
+	public long getDirtyBytes()
+	{
+		lock.lock();
+
+		try
+		{
+			return dirtyBytes + flushingBytes;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	public long getIntervalMillis()
+	{
+		return intervalMillis;
+	}
+
+	/**
+	 * Sets how often the dirty Paradigms are flushed, which takes effect after the next flush.
+	 *
+	 * @param intervalMillis The number of milliseconds between each flush.
+	 */
+	public void setIntervalMillis(final long intervalMillis)
+	{
+		if (intervalMillis <= 0)
+		{
+			throw new IllegalArgumentException("The interval must be positive.");
+		}
+
+		this.intervalMillis = intervalMillis;
+	}
+
+	public long getMaxDirtyBytes()
+	{
+		return maxDirtyBytes;
+	}
+
+	/**
+	 * Sets the limit on the estimated size of the dirty Paradigms, after which writers wait for the flusher.
+	 *
+	 * @param maxDirtyBytes The limit, in bytes.
+	 */
+	public void setMaxDirtyBytes(final long maxDirtyBytes)
+	{
+		if (maxDirtyBytes <= 0)
+		{
+			throw new IllegalArgumentException("The dirty byte limit must be positive.");
+		}
+
+		this.maxDirtyBytes = maxDirtyBytes;
+	}
+}
@@ -0,0 +1,126 @@
+package org.paragon.paragonfs.query;
+
+import org.paragon.paragonfs.columnar.ColumnValues;
+
+/**
+ * Accumulates the values of a key for one group of a {@link Query}, computing every {@link Aggregate} at once so the
+ * partial results of each chunk can be merged in any order.
+ */
+final class Accumulator
+{
+	/**
+	 * The number of values, or rows when counting rows rather than a key.
+	 */
+	private long count;
+
+	private long numericCount;
+
+	/**
+	 * The sum of the whole numbers.
+	 */
+	private long longSum;
+
+	/**
+	 * The sum of the numbers which are not whole.
+	 */
+	private double doubleSum;
+
+	/**
+	 * Whether every number so far has been a whole number.
+	 */
+	private boolean integral = true;
+
+	private Object min;
+
+	private Object max;
+
+	/**
+	 * Adds a row, when counting rows rather than the values of a key.
+	 */
+	void addRow()
+	{
+		count++;
+	}
+
+	/**
+	 * Adds a value of the key.
+	 *
+	 * @param value The value, where null is ignored.
+	 */
+	void add(final Object value)
+	{
+		if (value == null) {
+			return;
+		}
+
+		count++;
+		if (min == null || ColumnValues.compare(value, min) < 0) {
+			min = value;
+		}
+		if (max == null || ColumnValues.compare(value, max) > 0) {
+			max = value;
+		}
+
+		if (!(value instanceof Number)) {
+			return;
+		}
+
+		numericCount++;
+		if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			longSum += ((Number) value).longValue();
+		}
+		else
+		{
+			doubleSum += ((Number) value).doubleValue();
+			integral = false;
+		}
+	}
+
+	/**
+	 * Adds everything accumulated by another accumulator.
+	 *
+	 * @param other The other {@link Accumulator}.
+	 */
+	void merge(final Accumulator other)
+	{
+		count += other.count;
+		numericCount += other.numericCount;
+		longSum += other.longSum;
+		doubleSum += other.doubleSum;
+		integral &= other.integral;
+
+		if (other.min != null && (min == null || ColumnValues.compare(other.min, min) < 0)) {
+			min = other.min;
+		}
+		if (other.max != null && (max == null || ColumnValues.compare(other.max, max) > 0)) {
+			max = other.max;
+		}
+	}
+
+	/**
+	 * Returns the aggregate of the values accumulated.
+	 *
+	 * @param aggregate The {@link Aggregate}.
+	 * @return The aggregate, or null if there were no values it applies to.
+	 */
+	Object get(final Aggregate aggregate)
+	{
+		switch (aggregate)
+		{
+			case COUNT:
+				return count;
+			case MIN:
+				return min;
+			case MAX:
+				return max;
+			case SUM:
+				if (numericCount == 0) {
+					return null;
+				}
+
+				return integral ? (Object) longSum : (Object) (longSum + doubleSum);
+			default:
+				return numericCount == 0 ? null : (longSum + doubleSum) / numericCount;
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package org.paragon.paragonfs.query;
+
+/**
+ * The aggregates a {@link Query} can compute over a key, for every group of matching rows.
+ */
+public enum Aggregate
+{
+	/**
+	 * The number of matching rows which have the key, as a Long.
+	 */
+	COUNT,
+
+	/**
+	 * The sum of the key's numeric values, as a Long if every value is a whole number or a Double otherwise.
+	 */
+	SUM,
+
+	/**
+	 * The smallest value of the key.
+	 */
+	MIN,
+
+	/**
+	 * The largest value of the key.
+	 */
+	MAX,
+
+	/**
+	 * The mean of the key's numeric values, as a Double.
+	 */
+	AVG
+}
@@ -0,0 +1,35 @@
+package org.paragon.paragonfs.query;
+
+/**
+ * A condition on a single key of a {@link Query}.
+ */
+final class Filter
+{
+	private final String key;
+
+	private final Operator operator;
+
+	private final Object operand;
+
+	Filter(final String key, final Operator operator, final Object operand)
+	{
+		this.key = key;
+		this.operator = operator;
+		this.operand = operand;
+	}
+
+	String getKey()
+	{
+		return key;
+	}
+
+	Operator getOperator()
+	{
+		return operator;
+	}
+
+	Object getOperand()
+	{
+		return operand;
+	}
+}
@@ -0,0 +1,79 @@
+package org.paragon.paragonfs.query;
+
+import org.paragon.paragonfs.columnar.ColumnValues;
+
+/**
+ * The comparisons a {@link Query} can filter a key by. A row without the key never matches, whatever the operator.
+ */
+public enum Operator
+{
+	EQUAL,
+	NOT_EQUAL,
+	LESS_THAN,
+	LESS_THAN_OR_EQUAL,
+	GREATER_THAN,
+	GREATER_THAN_OR_EQUAL;
+
+	/**
+	 * Determines whether the value matches.
+	 *
+	 * @param value   The row's value, which may be null.
+	 * @param operand The value the query compares against.
+	 * @return Returns true if the value matches.
+	 */
+	boolean matches(final Object value, final Object operand)
+	{
+		if (value == null) {
+			return false;
+		}
+
+		final int comparison = ColumnValues.compare(value, operand);
+		switch (this)
+		{
+			case EQUAL:
+				return comparison == 0;
+			case NOT_EQUAL:
+				return comparison != 0;
+			case LESS_THAN:
+				return comparison < 0;
+			case LESS_THAN_OR_EQUAL:
+				return comparison <= 0;
+			case GREATER_THAN:
+				return comparison > 0;
+			default:
+				return comparison >= 0;
+		}
+	}
+
+	/**
+	 * Determines whether any value between the bounds could match, which lets a query skip a chunk whose statistics
+	 * rule it out without reading it.
+	 *
+	 * @param min     The smallest value in the chunk, or null if every value is null.
+	 * @param max     The largest value in the chunk, or null if every value is null.
+	 * @param operand The value the query compares against.
+	 * @return Returns false if no value in the chunk can match.
+	 */
+	boolean mayMatch(final Object min, final Object max, final Object operand)
+	{
+		if (min == null || max == null) {
+			return false;
+		}
+
+		switch (this)
+		{
+			case EQUAL:
+				return ColumnValues.compare(min, operand) <= 0 && ColumnValues.compare(max, operand) >= 0;
+			case NOT_EQUAL:
+				return ColumnValues.compare(min, operand) != 0 || ColumnValues.compare(max, operand) != 0;
+			case LESS_THAN:
+				return ColumnValues.compare(min, operand) < 0;
+			case LESS_THAN_OR_EQUAL:
+				return ColumnValues.compare(min, operand) <= 0;
+			case GREATER_THAN:
+				return ColumnValues.compare(max, operand) > 0;
+			default:
+				return ColumnValues.compare(max, operand) >= 0;
+		}
+	}
+}
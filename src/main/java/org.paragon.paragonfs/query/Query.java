@@ -0,0 +1,352 @@
+package org.paragon.paragonfs.query;
+
+import org.apache.commons.lang3.StringUtils;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.columnar.Column;
+import org.paragon.paragonfs.columnar.ColumnChunk;
+import org.paragon.paragonfs.columnar.ColumnarSegment;
+import org.paragon.paragonfs.columnar.ColumnarStore;
+import org.paragon.paragonfs.exception.ParagonFSException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A query over every {@link org.paragon.paragonfs.paradigm.Paradigm} within an {@link Archetype}, evaluated within
+ * ParagonFS against the Archetype's {@link ColumnarSegment} so only the results are handed back. A query is built up
+ * by chaining its clauses, and then run by one of the terminal methods:
+ * <pre>
+ * final Map&lt;Object, Object&gt; balances = archetype.query()
+ *     .where("status", Operator.EQUAL, "active")
+ *     .groupBy("region")
+ *     .aggregate(Aggregate.SUM, "balance");
+ * </pre>
+ * The work is split by chunk across the query {@link ForkJoinPool} of the ParagonFS, and a chunk is skipped without
+ * being read if the min and max of a filtered key rule it out.
+ */
+public class Query
+{
+	/**
+	 * The number of times a query is retried if the segment is rebuilt while it runs.
+	 */
+	private static final int ATTEMPTS = 3;
+
+	private final Archetype archetype;
+
+	private final List<Filter> filters = new ArrayList<>();
+
+	private List<String> projection = Collections.emptyList();
+
+	private String groupKey;
+
+	private int limit = Integer.MAX_VALUE;
+
+	/**
+	 * Initializes the {@link Query}, which matches every row until filters are added.
+	 *
+	 * @param archetype The {@link Archetype} to query.
+	 */
+	public Query(final Archetype archetype)
+	{
+		this.archetype = archetype;
+	}
+
+	/**
+	 * Adds a filter on a key. A row only matches if it matches every filter, and a row without the key never matches.
+	 *
+	 * @param key      The key, case-insensitive.
+	 * @param operator The {@link Operator} to compare the key's value with.
+	 * @param value    The value to compare against.
+	 * @return This {@link Query}.
+	 */
+	public Query where(final String key, final Operator operator, final Object value)
+	{
+		if (StringUtils.isBlank(key)) {
+			throw new IllegalArgumentException("The key must not be blank.");
+		}
+		else if (operator == null) {
+			throw new IllegalArgumentException("The operator must not be null.");
+		}
+		else if (value == null) {
+			throw new IllegalArgumentException("The value must not be null.");
+		}
+
+		filters.add(new Filter(key, operator, value));
+		return this;
+	}
+
+	/**
+	 * Sets the keys {@link #rows()} returns the values of.
+	 *
+	 * @param keys The keys, case-insensitive.
+	 * @return This {@link Query}.
+	 */
+	public Query select(final String... keys)
+	{
+		if (keys == null) {
+			throw new IllegalArgumentException("The keys must not be null.");
+		}
+
+		projection = Arrays.asList(keys.clone());
+		return this;
+	}
+
+	/**
+	 * Groups the rows by the value of a key, so {@link #aggregate(Aggregate, String)} computes the aggregate for each
+	 * value. Rows without the key are grouped under null.
+	 *
+	 * @param key The key, case-insensitive.
+	 * @return This {@link Query}.
+	 */
+	public Query groupBy(final String key)
+	{
+		if (StringUtils.isBlank(key)) {
+			throw new IllegalArgumentException("The key must not be blank.");
+		}
+
+		groupKey = key;
+		return this;
+	}
+
+	/**
+	 * Limits the number of rows, or groups, returned.
+	 *
+	 * @param limit The most rows or groups to return.
+	 * @return This {@link Query}.
+	 */
+	public Query limit(final int limit)
+	{
+		if (limit < 0) {
+			throw new IllegalArgumentException("The limit must not be negative.");
+		}
+
+		this.limit = limit;
+		return this;
+	}
+
+	/**
+	 * Returns the selected values of every matching row.
+	 *
+	 * @return A map of Paradigm identifiers to a map of the selected keys and their values, in the order of the
+	 * segment, leaving out keys the Paradigm does not have.
+	 * @throws ParagonFSException Thrown if the segment could not be built or read.
+	 */
+	public Map<String, Map<String, Object>> rows() throws ParagonFSException
+	{
+		return run(null, null).rows;
+	}
+
+	/**
+	 * Computes an aggregate over the matching rows, for each group if the query is grouped.
+	 *
+	 * @param aggregate The {@link Aggregate} to compute.
+	 * @param key       The key to aggregate, case-insensitive, which may only be null to count rows.
+	 * @return A map of each group's value, in order, to its aggregate. If the query is not grouped it holds a single
+	 * entry, under null.
+	 * @throws ParagonFSException Thrown if the segment could not be built or read.
+	 */
+	public Map<Object, Object> aggregate(final Aggregate aggregate, final String key) throws ParagonFSException
+	{
+		if (aggregate == null) {
+			throw new IllegalArgumentException("The aggregate must not be null.");
+		}
+		else if (key == null && aggregate != Aggregate.COUNT) {
+			throw new IllegalArgumentException("The key must not be null.");
+		}
+
+		final QueryTask.Result result = run(aggregate, key);
+		if (groupKey == null && result.groups.isEmpty()) {
+			result.groups.put(null, new Accumulator());
+		}
+
+		final Map<Object, Object> aggregates = new LinkedHashMap<>();
+		for (final Map.Entry<Object, Accumulator> entry : result.groups.entrySet())
+		{
+			if (aggregates.size() >= limit) {
+				break;
+			}
+
+			aggregates.put(entry.getKey(), entry.getValue().get(aggregate));
+		}
+
+		return aggregates;
+	}
+
+	/**
+	 * Counts the matching rows.
+	 *
+	 * @return The number of matching rows.
+	 * @throws ParagonFSException Thrown if the segment could not be built or read.
+	 */
+	public long count() throws ParagonFSException
+	{
+		return (Long) ungrouped(Aggregate.COUNT, null);
+	}
+
+	/**
+	 * Sums the numeric values of the key over the matching rows.
+	 *
+	 * @param key The key, case-insensitive.
+	 * @return The sum, as a Long if every value is a whole number or a Double otherwise, or null if there were none.
+	 * @throws ParagonFSException Thrown if the segment could not be built or read.
+	 */
+	public Number sum(final String key) throws ParagonFSException
+	{
+		return (Number) ungrouped(Aggregate.SUM, key);
+	}
+
+	/**
+	 * Returns the smallest value of the key over the matching rows.
+	 *
+	 * @param key The key, case-insensitive.
+	 * @return The smallest value, or null if there were none.
+	 * @throws ParagonFSException Thrown if the segment could not be built or read.
+	 */
+	public Object min(final String key) throws ParagonFSException
+	{
+		return ungrouped(Aggregate.MIN, key);
+	}
+
+	/**
+	 * Returns the largest value of the key over the matching rows.
+	 *
+	 * @param key The key, case-insensitive.
+	 * @return The largest value, or null if there were none.
+	 * @throws ParagonFSException Thrown if the segment could not be built or read.
+	 */
+	public Object max(final String key) throws ParagonFSException
+	{
+		return ungrouped(Aggregate.MAX, key);
+	}
+
+	/**
+	 * Returns the mean of the numeric values of the key over the matching rows.
+	 *
+	 * @param key The key, case-insensitive.
+	 * @return The mean, or null if there were none.
+	 * @throws ParagonFSException Thrown if the segment could not be built or read.
+	 */
+	public Double avg(final String key) throws ParagonFSException
+	{
+		return (Double) ungrouped(Aggregate.AVG, key);
+	}
+
+	/**
+	 * Computes an aggregate over every matching row, which is only possible if the query is not grouped.
+	 *
+	 * @param aggregate The {@link Aggregate} to compute.
+	 * @param key       The key to aggregate.
+	 * @return The aggregate.
+	 * @throws ParagonFSException Thrown if the segment could not be built or read.
+	 */
+	private Object ungrouped(final Aggregate aggregate, final String key) throws ParagonFSException
+	{
+		if (groupKey != null) {
+			throw new IllegalStateException("The query is grouped, use aggregate instead.");
+		}
+
+		return aggregate(aggregate, key).get(null);
+	}
+
+	/**
+	 * Runs the query against the current segment. A segment which is rebuilt while the query runs may have its files
+	 * removed, in which case the query is run again against the new segment.
+	 *
+	 * @param aggregate The {@link Aggregate} to compute, or null to return rows.
+	 * @param key       The key to aggregate.
+	 * @return The {@link QueryTask.Result} of every chunk.
+	 * @throws ParagonFSException Thrown if the segment could not be built or read.
+	 */
+	private QueryTask.Result run(final Aggregate aggregate, final String key) throws ParagonFSException
+	{
+		final ColumnarStore store = archetype.getColumnarStore();
+		for (int attempt = 1; ; attempt++)
+		{
+			final ColumnarSegment segment = store.getSegment();
+
+			try
+			{
+				final QueryTask.Plan plan = plan(segment, aggregate, key);
+				if (plan == null) {
+					return new QueryTask.Result();
+				}
+
+				return archetype.getParagonFS().getQueryPool().invoke(new QueryTask(plan, 0, plan.rowOffsets.length));
+			}
+			catch (final IOException | UncheckedIOException e)
+			{
+				if (attempt < ATTEMPTS && store.getSegment() != segment) {
+					continue;
+				}
+
+				throw new ParagonFSException("The query could not be evaluated.", e);
+			}
+		}
+	}
+
+	/**
+	 * Opens the columns the query needs.
+	 *
+	 * @param segment   The {@link ColumnarSegment} to query.
+	 * @param aggregate The {@link Aggregate} to compute, or null to return rows.
+	 * @param key       The key to aggregate.
+	 * @return The {@link QueryTask.Plan}, or null if a filtered key has no column so no row can match.
+	 * @throws IOException Thrown if a column could not be opened.
+	 */
+	private QueryTask.Plan plan(final ColumnarSegment segment, final Aggregate aggregate, final String key)
+		throws IOException
+	{
+		final QueryTask.Plan plan = new QueryTask.Plan();
+		plan.segment = segment;
+		plan.filters = new ArrayList<>(filters);
+		plan.filterColumns = new Column[filters.size()];
+		for (int index = 0; index < filters.size(); index++)
+		{
+			plan.filterColumns[index] = segment.getColumn(filters.get(index).getKey());
+			if (plan.filterColumns[index] == null) {
+				return null;
+			}
+		}
+
+		plan.aggregate = aggregate;
+		plan.aggregateKey = key;
+		plan.aggregateColumn = key == null ? null : segment.getColumn(key);
+		plan.groupColumn = aggregate == null || groupKey == null ? null : segment.getColumn(groupKey);
+		plan.projectKeys = projection.toArray(new String[projection.size()]);
+		plan.projectColumns = new Column[plan.projectKeys.length];
+		for (int index = 0; index < plan.projectKeys.length; index++)
+		{
+			plan.projectColumns[index] = segment.getColumn(plan.projectKeys[index]);
+		}
+		plan.limit = aggregate == null ? limit : Integer.MAX_VALUE;
+
+		// Every column of a segment is split into the same chunks, so any of them gives the bounds.
+		final List<ColumnChunk> chunks = segment.getKeys().isEmpty()
+			? Collections.<ColumnChunk>emptyList()
+			: segment.getColumn(segment.getKeys().iterator().next()).getChunks();
+		if (chunks.isEmpty())
+		{
+			final boolean empty = segment.getRowCount() == 0;
+			plan.rowOffsets = empty ? new int[0] : new int[]{0};
+			plan.rowCounts = empty ? new int[0] : new int[]{segment.getRowCount()};
+			return plan;
+		}
+
+		plan.rowOffsets = new int[chunks.size()];
+		plan.rowCounts = new int[chunks.size()];
+		for (int index = 0; index < chunks.size(); index++)
+		{
+			plan.rowOffsets[index] = chunks.get(index).getRowOffset();
+			plan.rowCounts[index] = chunks.get(index).getRowCount();
+		}
+
+		return plan;
+	}
+}
@@ -0,0 +1,254 @@
+package org.paragon.paragonfs.query;
+
+import org.paragon.paragonfs.columnar.Column;
+import org.paragon.paragonfs.columnar.ColumnChunk;
+import org.paragon.paragonfs.columnar.ColumnValues;
+import org.paragon.paragonfs.columnar.ColumnarSegment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Evaluates a {@link Query} over a range of the chunks of a {@link ColumnarSegment}, splitting the range in half until
+ * each task has a single chunk, and then merging the results of the halves.
+ */
+class QueryTask extends RecursiveTask<QueryTask.Result>
+{
+	private static final long serialVersionUID = 1L;
+
+	private final Plan plan;
+
+	private final int fromChunk;
+
+	private final int toChunk;
+
+	QueryTask(final Plan plan, final int fromChunk, final int toChunk)
+	{
+		this.plan = plan;
+		this.fromChunk = fromChunk;
+		this.toChunk = toChunk;
+	}
+
+	@Override
+	protected Result compute()
+	{
+		if (toChunk - fromChunk > 1)
+		{
+			final int middle = (fromChunk + toChunk) >>> 1;
+			final QueryTask left = new QueryTask(plan, fromChunk, middle);
+			final QueryTask right = new QueryTask(plan, middle, toChunk);
+			right.fork();
+
+			final Result result = left.compute();
+			result.merge(right.join(), plan.limit);
+
+			return result;
+		}
+
+		try
+		{
+			return fromChunk < toChunk ? evaluate(fromChunk) : new Result();
+		}
+		catch (final IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Evaluates the query over a single chunk, reading only the chunks of the columns it needs and skipping the chunk
+	 * entirely if the statistics of a filtered column rule it out.
+	 *
+	 * @param chunk The index of the chunk.
+	 * @return The {@link Result} of the chunk.
+	 * @throws IOException Thrown if a column could not be read.
+	 */
+	private Result evaluate(final int chunk) throws IOException
+	{
+		final Result result = new Result();
+		final int rowOffset = plan.rowOffsets[chunk];
+		final int rowCount = plan.rowCounts[chunk];
+
+		boolean[] matches = null;
+		for (int index = 0; index < plan.filters.size(); index++)
+		{
+			final Filter filter = plan.filters.get(index);
+			final ColumnChunk filterChunk = plan.filterColumns[index].getChunks().get(chunk);
+			if (!filter.getOperator().mayMatch(filterChunk.getMin(), filterChunk.getMax(), filter.getOperand())) {
+				return result;
+			}
+
+			if (matches == null)
+			{
+				matches = new boolean[rowCount];
+				Arrays.fill(matches, true);
+			}
+
+			final Object[] values = filterChunk.getValues();
+			for (int row = 0; row < rowCount; row++)
+			{
+				matches[row] &= filter.getOperator().matches(values[row], filter.getOperand());
+			}
+		}
+
+		if (plan.aggregate != null)
+		{
+			final Object[] groups = read(plan.groupColumn, chunk);
+			final Object[] values = read(plan.aggregateColumn, chunk);
+			for (int row = 0; row < rowCount; row++)
+			{
+				if (matches != null && !matches[row]) {
+					continue;
+				}
+
+				final Object group = groups == null ? null : groups[row];
+				Accumulator accumulator = result.groups.get(group);
+				if (accumulator == null)
+				{
+					accumulator = new Accumulator();
+					result.groups.put(group, accumulator);
+				}
+
+				if (plan.aggregateKey == null) {
+					accumulator.addRow();
+				}
+				else if (values != null) {
+					accumulator.add(values[row]);
+				}
+			}
+
+			return result;
+		}
+
+		final Object[][] projected = new Object[plan.projectColumns.length][];
+		for (int index = 0; index < projected.length; index++)
+		{
+			projected[index] = read(plan.projectColumns[index], chunk);
+		}
+
+		for (int row = 0; row < rowCount && result.rows.size() < plan.limit; row++)
+		{
+			if (matches != null && !matches[row]) {
+				continue;
+			}
+
+			final Map<String, Object> values = new LinkedHashMap<>();
+			for (int index = 0; index < projected.length; index++)
+			{
+				if (projected[index] != null && projected[index][row] != null) {
+					values.put(plan.projectKeys[index], projected[index][row]);
+				}
+			}
+
+			result.rows.put(plan.segment.getParadigmId(rowOffset + row), values);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Reads the values of a chunk of the column.
+	 *
+	 * @param column The {@link Column}, which may be null.
+	 * @param chunk  The index of the chunk.
+	 * @return The values, or null if there is no column.
+	 * @throws IOException Thrown if the column could not be read.
+	 */
+	private static Object[] read(final Column column, final int chunk) throws IOException
+	{
+		return column == null ? null : column.getChunks().get(chunk).getValues();
+	}
+
+	/**
+	 * Everything a {@link QueryTask} needs to evaluate a query, shared by every task of the query.
+	 */
+	static final class Plan
+	{
+		ColumnarSegment segment;
+
+		int[] rowOffsets;
+
+		int[] rowCounts;
+
+		List<Filter> filters;
+
+		/**
+		 * The column of each filter, in the same order.
+		 */
+		Column[] filterColumns;
+
+		/**
+		 * The aggregate to compute, or null if the query returns rows.
+		 */
+		Aggregate aggregate;
+
+		/**
+		 * The key to aggregate, or null to count rows.
+		 */
+		String aggregateKey;
+
+		Column aggregateColumn;
+
+		Column groupColumn;
+
+		String[] projectKeys;
+
+		/**
+		 * The column of each projected key, in the same order, where null means no row has the key.
+		 */
+		Column[] projectColumns;
+
+		int limit;
+	}
+
+	/**
+	 * The result of a range of chunks.
+	 */
+	static final class Result
+	{
+		/**
+		 * The accumulator of each group, by the group's value, when the query computes an aggregate.
+		 */
+		final TreeMap<Object, Accumulator> groups = new TreeMap<>(ColumnValues.ORDER);
+
+		/**
+		 * The projected values of each matching row, by Paradigm identifier, when the query returns rows.
+		 */
+		final Map<String, Map<String, Object>> rows = new LinkedHashMap<>();
+
+		/**
+		 * Adds the result of the range which follows this one.
+		 *
+		 * @param next  The {@link Result} of the following range.
+		 * @param limit The most rows to keep.
+		 */
+		void merge(final Result next, final int limit)
+		{
+			for (final Map.Entry<Object, Accumulator> entry : next.groups.entrySet())
+			{
+				final Accumulator accumulator = groups.get(entry.getKey());
+				if (accumulator == null) {
+					groups.put(entry.getKey(), entry.getValue());
+				}
+				else {
+					accumulator.merge(entry.getValue());
+				}
+			}
+
+			for (final Map.Entry<String, Map<String, Object>> entry : next.rows.entrySet())
+			{
+				if (rows.size() >= limit) {
+					break;
+				}
+
+				rows.put(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+}
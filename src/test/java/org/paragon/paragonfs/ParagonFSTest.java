@@ -4,9 +4,16 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InjectMocks;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.data.type.IntegerType;
+import org.paragon.paragonfs.paradigm.Paradigm;
 
+import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -44,4 +51,79 @@ public class ParagonFSTest
 			assertThat(e.getMessage(), equalTo(ParagonFS.THE_PATH_MUST_NOT_BE_EMPTY));
 		}
 	}
+
+	@Test
+	public void testParadigmsAreStripedAcrossVolumes() throws Exception
+	{
+		final File dir = Files.createTempDirectory(null).toFile();
+		final List<File> volumeDirs = Arrays.asList(
+			Files.createTempDirectory(null).toFile(), Files.createTempDirectory(null).toFile()
+		);
+
+		final ParagonFS striped = new ParagonFS(dir, volumeDirs);
+		final Archetype archetype = striped.create("users");
+		final List<String> paradigmIds = new ArrayList<>();
+		for (int index = 0; index < 30; index++)
+		{
+			final Paradigm paradigm = archetype.create();
+			final IntegerType value = new IntegerType();
+			value.setValue(index);
+			paradigm.setValue("index", value);
+			paradigmIds.add(paradigm.getId());
+		}
+		striped.close();
+
+		for (final File volumeDir : volumeDirs)
+		{
+			assertThat(new File(volumeDir, "users").isDirectory(), equalTo(true));
+		}
+
+		final ParagonFS reopened = new ParagonFS(dir, volumeDirs);
+		final Archetype users = reopened.get("users");
+		assertThat(users.listParadigmIds().size(), equalTo(30));
+		assertThat(users.get(paradigmIds.get(7)).getValue("index").getValue(), equalTo((Object) 7));
+		reopened.close();
+
+		try
+		{
+			new ParagonFS(dir);
+
+			fail("Expected an exception.");
+		}
+		catch (final IllegalArgumentException e)
+		{
+			assertThat(e.getMessage(), equalTo("The data directories must match those the ParagonFS was created with."));
+		}
+	}
+
+	@Test
+	public void testVolumesMustBeTheSameDirectoriesInOrder() throws Exception
+	{
+		final File dir = Files.createTempDirectory(null).toFile();
+		final File first = Files.createTempDirectory(null).toFile();
+		final File second = Files.createTempDirectory(null).toFile();
+
+		new ParagonFS(dir, Arrays.asList(first, second)).close();
+
+		// The same directories through another path still match.
+		final File alias = new File(new File(first, ".."), first.getName());
+		new ParagonFS(dir, Arrays.asList(alias, second)).close();
+
+		final List<List<File>> mismatches = Arrays.asList(
+			Arrays.asList(second, first), Arrays.asList(first, Files.createTempDirectory(null).toFile())
+		);
+		for (final List<File> volumeDirs : mismatches)
+		{
+			try
+			{
+				new ParagonFS(dir, volumeDirs);
+
+				fail("Expected an exception.");
+			}
+			catch (final IllegalArgumentException e)
+			{
+				assertThat(e.getMessage(), equalTo("The data directories must match those the ParagonFS was created with."));
+			}
+		}
+	}
 }
@@ -0,0 +1,138 @@
+package org.paragon.paragonfs.backup;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.data.type.IntegerType;
+import org.paragon.paragonfs.paradigm.Paradigm;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link Snapshotter}.
+ */
+public class SnapshotterTest
+{
+	private static final String BALANCE_KEY = "balance";
+
+	private ParagonFS paragonFS;
+
+	private Archetype archetype;
+
+	private final List<Paradigm> paradigms = new ArrayList<>();
+
+	@Before
+	public void setUp() throws Exception
+	{
+		paragonFS = new ParagonFS(Files.createTempDirectory(null).toFile());
+		archetype = paragonFS.create("accounts");
+
+		for (int index = 0; index < 3; index++)
+		{
+			final Paradigm paradigm = archetype.create();
+			paradigm.setValue(BALANCE_KEY, integerOf(index));
+			paradigms.add(paradigm);
+		}
+	}
+
+	@After
+	public void tearDown()
+	{
+		paragonFS.close();
+	}
+
+	@Test
+	public void testSnapshotKeepsItsVersions() throws Exception
+	{
+		final File snapshotDir = Files.createTempDirectory(null).toFile();
+		final SnapshotManifest manifest = paragonFS.snapshot(snapshotDir);
+		assertThat(manifest.getVersions("accounts").size(), equalTo(3));
+
+		final Paradigm paradigm = paradigms.get(0);
+		assertThat(paragonFS.getSnapshotter().isLinked(archetype.getParadigmFile(paradigm.getId())), equalTo(true));
+
+		// Writing in place after the snapshot must not change the snapshot's linked copy.
+		paradigm.setValue(BALANCE_KEY, integerOf(100));
+		assertThat(paragonFS.getSnapshotter().isLinked(archetype.getParadigmFile(paradigm.getId())), equalTo(false));
+
+		final ParagonFS snapshot = new ParagonFS(snapshotDir);
+		try
+		{
+			final Paradigm copy = snapshot.get("accounts").get(paradigm.getId());
+			assertThat((int) copy.getValue(BALANCE_KEY).getValue(), equalTo(0));
+			assertThat(snapshot.get("accounts").listParadigmIds().size(), equalTo(3));
+		}
+		finally
+		{
+			snapshot.close();
+		}
+
+		assertThat((int) archetype.get(paradigm.getId()).getValue(BALANCE_KEY).getValue(), equalTo(100));
+	}
+
+	@Test
+	public void testIncrementalBackupCopiesOnlyChanges() throws Exception
+	{
+		final File fullDir = Files.createTempDirectory(null).toFile();
+		final SnapshotManifest full = paragonFS.backup(fullDir, null);
+		assertThat(full.getBase(), nullValue());
+		assertThat(countParadigmFiles(fullDir), equalTo(3));
+
+		final Paradigm changed = paradigms.get(1);
+		changed.setValue(BALANCE_KEY, integerOf(50));
+		archetype.delete(paradigms.get(2).getId());
+
+		final File incrementalDir = Files.createTempDirectory(null).toFile();
+		final SnapshotManifest incremental = paragonFS.backup(incrementalDir, fullDir);
+		assertThat(incremental.getBase(), equalTo(full.getTimestamp()));
+		assertThat(countParadigmFiles(incrementalDir), equalTo(1));
+		assertThat(incremental.getVersions("accounts").size(), equalTo(2));
+		assertThat(incremental.getVersion("accounts", changed.getId()),
+			equalTo(full.getVersion("accounts", changed.getId()) + 1));
+		assertThat(incremental.getVersion("accounts", paradigms.get(2).getId()), nullValue());
+
+		// The staged snapshot is removed once the backup is done.
+		final String[] staged = new File(paragonFS.getDir(), Snapshotter.STAGING_DIR_NAME).list();
+		assertThat(staged == null ? 0 : staged.length, equalTo(0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSnapshotMustNotBeWithinTheData() throws Exception
+	{
+		paragonFS.snapshot(new File(paragonFS.getDir(), "snapshot"));
+	}
+
+	private static int countParadigmFiles(final File dir)
+	{
+		int count = 0;
+		final File[] files = dir.listFiles();
+		for (final File file : files == null ? new File[0] : files)
+		{
+			if (file.isDirectory()) {
+				count += countParadigmFiles(file);
+			}
+			else if (file.getName().endsWith(".json") && !file.getName().startsWith(".")) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	private static IntegerType integerOf(final int value)
+	{
+		final IntegerType type = new IntegerType();
+		type.setValue(value);
+
+		return type;
+	}
+}
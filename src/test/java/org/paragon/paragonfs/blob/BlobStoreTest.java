@@ -0,0 +1,139 @@
+package org.paragon.paragonfs.blob;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.data.type.BlobType;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.paradigm.Paradigm;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link BlobStore}.
+ */
+public class BlobStoreTest
+{
+	private File root;
+
+	private ParagonFS paragonFS;
+
+	private Archetype archetype;
+
+	private byte[] content;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		root = Files.createTempDirectory(null).toFile();
+		paragonFS = new ParagonFS(root);
+		archetype = paragonFS.create("attachments");
+
+		// Several chunks, and a partial one at the end.
+		content = new byte[BlobStore.CHUNK_SIZE * 3 + 1234];
+		new Random(7).nextBytes(content);
+	}
+
+	@After
+	public void tearDown()
+	{
+		paragonFS.close();
+	}
+
+	@Test
+	public void testBlobIsStreamedBack() throws Exception
+	{
+		final BlobStore store = archetype.getBlobStore();
+		final Paradigm paradigm = archetype.create();
+		paradigm.setValue("file", store.write(new ByteArrayInputStream(content)));
+		paragonFS.close();
+
+		paragonFS = new ParagonFS(root);
+		archetype = paragonFS.get("attachments");
+		final BlobType blob = (BlobType) archetype.get(paradigm.getId()).getValue("file");
+
+		assertThat(archetype.getBlobStore().length(blob), equalTo((long) content.length));
+		try (final InputStream in = archetype.getBlobStore().openStream(blob))
+		{
+			assertThat(IOUtils.toByteArray(in), equalTo(content));
+		}
+	}
+
+	@Test
+	public void testBlobIsTransferredBetweenChannels() throws Exception
+	{
+		final BlobStore store = archetype.getBlobStore();
+		final File source = new File(root, "source.bin");
+		final File target = new File(root, "target.bin");
+		Files.write(source.toPath(), content);
+
+		final BlobType blob;
+		try (final FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ))
+		{
+			blob = store.write(in);
+		}
+
+		try (final FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+			StandardOpenOption.WRITE))
+		{
+			assertThat(store.transferTo(blob, out), equalTo((long) content.length));
+		}
+		assertThat(Files.readAllBytes(target.toPath()), equalTo(content));
+	}
+
+	@Test
+	public void testUnreferencedBlobsAreCollected() throws Exception
+	{
+		final BlobStore store = archetype.getBlobStore();
+		final Paradigm paradigm = archetype.create();
+		final BlobType first = store.write(new ByteArrayInputStream(content));
+		final BlobType second = store.write(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+		paradigm.setValue("file", first);
+		paradigm.setValue("file", second);
+
+		// Both are still within the grace time.
+		assertThat(store.collect(60_000), equalTo(0));
+		assertThat(store.collect(0), equalTo(1));
+		assertThat(store.length(second), equalTo(3L));
+
+		try
+		{
+			store.length(first);
+			fail("The replaced blob should have been removed.");
+		}
+		catch (final ParagonFSException e)
+		{
+			// Expected.
+		}
+	}
+
+	@Test
+	public void testBlobIdMustBeValid() throws Exception
+	{
+		final BlobType blob = new BlobType();
+		blob.setValue("../../.schema");
+
+		try
+		{
+			archetype.getBlobStore().openStream(blob);
+			fail("A blob id outside the store should be rejected.");
+		}
+		catch (final IllegalArgumentException e)
+		{
+			// Expected.
+		}
+	}
+}
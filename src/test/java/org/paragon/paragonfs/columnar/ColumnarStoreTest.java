@@ -0,0 +1,194 @@
+package org.paragon.paragonfs.columnar;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.data.type.DataTypeIF;
+import org.paragon.paragonfs.data.type.IntegerType;
+import org.paragon.paragonfs.data.type.StringType;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ColumnarStore}.
+ */
+public class ColumnarStoreTest
+{
+	private static final int ROW_COUNT = 40;
+	private static final String[] STATUSES = {"active", "idle", "closed"};
+
+	private ParagonFS paragonFS;
+
+	private Archetype archetype;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		paragonFS = new ParagonFS(Files.createTempDirectory(null).toFile());
+		archetype = paragonFS.create("accounts");
+
+		for (int index = 0; index < ROW_COUNT; index++)
+		{
+			archetype.create();
+		}
+
+		final List<String> paradigmIds = archetype.listParadigmIds();
+		for (int row = 0; row < paradigmIds.size(); row++)
+		{
+			final Map<String, DataTypeIF> values = new HashMap<>();
+			values.put("Region", stringOf("north"));
+			values.put("status", stringOf(STATUSES[row % STATUSES.length]));
+			values.put("balance", integerOf(row));
+			archetype.get(paradigmIds.get(row)).setValues(values);
+		}
+	}
+
+	@After
+	public void tearDown()
+	{
+		paragonFS.close();
+	}
+
+	@Test
+	public void testSegmentHoldsColumns() throws Exception
+	{
+		final ColumnarSegment segment = archetype.getColumnarStore().getSegment();
+
+		assertThat(segment.getRowCount(), equalTo(ROW_COUNT));
+		assertThat(segment.getParadigmIds(), equalTo(archetype.listParadigmIds()));
+
+		final ColumnChunk region = segment.getColumn("REGION").getChunks().get(0);
+		assertThat(region.getEncoding(), equalTo(ColumnEncoding.RUN_LENGTH));
+		assertThat(region.getMin(), equalTo((Object) "north"));
+
+		final ColumnChunk status = segment.getColumn("status").getChunks().get(0);
+		assertThat(status.getEncoding(), equalTo(ColumnEncoding.DICTIONARY));
+		assertThat(status.getMax(), equalTo((Object) "idle"));
+
+		final ColumnChunk balance = segment.getColumn("balance").getChunks().get(0);
+		assertThat(balance.getEncoding(), equalTo(ColumnEncoding.PLAIN));
+		assertThat(balance.getMin(), equalTo((Object) 0));
+		assertThat(balance.getMax(), equalTo((Object) (ROW_COUNT - 1)));
+		assertThat(balance.getNullCount(), equalTo(0));
+
+		final Map<String, Object[]> values = segment.project(Arrays.asList("status", "balance", "missing"));
+		assertThat(values.get("status")[4], equalTo((Object) "idle"));
+		assertThat(values.get("balance")[7], equalTo((Object) 7));
+		assertThat(values.get("missing")[0], nullValue());
+	}
+
+	@Test
+	public void testWritesInvalidateSegment() throws Exception
+	{
+		final ColumnarStore store = archetype.getColumnarStore();
+		final ColumnarSegment first = store.getSegment();
+		assertThat(store.isCurrent(), equalTo(true));
+		assertThat(store.getSegment() == first, equalTo(true));
+
+		// A new store sees the published segment without building it again.
+		assertThat(new ColumnarStore(archetype).isCurrent(), equalTo(true));
+
+		final String deleted = first.getParadigmId(0);
+		archetype.delete(deleted);
+		archetype.get(first.getParadigmId(1)).setValue("notes", stringOf("late"));
+		assertThat(store.isCurrent(), equalTo(false));
+
+		final ColumnarSegment second = store.getSegment();
+		assertThat(second.getRowCount(), equalTo(ROW_COUNT - 1));
+		assertThat(second.getParadigmIds().contains(deleted), equalTo(false));
+
+		final Object[] notes = second.getColumn("notes").getValues();
+		assertThat(notes[0], equalTo((Object) "late"));
+		assertThat(second.getColumn("notes").getChunks().get(0).getNullCount(), equalTo(ROW_COUNT - 2));
+	}
+
+	@Test
+	public void testConcurrentWritesAreNotLostBySegment() throws Exception
+	{
+		final ColumnarStore store = archetype.getColumnarStore();
+		final String paradigmId = archetype.listParadigmIds().get(0);
+		final int writes = 200;
+		final AtomicReference<Exception> failure = new AtomicReference<>();
+
+		final Thread writer = new Thread(() ->
+		{
+			try
+			{
+				for (int value = 1; value <= writes; value++)
+				{
+					archetype.get(paradigmId).setValue("balance", integerOf(ROW_COUNT + value));
+				}
+			}
+			catch (final Exception e)
+			{
+				failure.set(e);
+			}
+		});
+		writer.start();
+
+		// Build segments while the writes land, so a build regularly overlaps a write.
+		while (writer.isAlive())
+		{
+			store.getSegment();
+		}
+		writer.join();
+		assertThat(failure.get(), nullValue());
+
+		final ColumnarSegment segment = store.getSegment();
+		final int row = segment.getParadigmIds().indexOf(paradigmId);
+		assertThat(segment.getColumn("balance").getValues()[row], equalTo((Object) (ROW_COUNT + writes)));
+	}
+
+	@Test
+	public void testExpiredRowsAreLeftOut() throws Exception
+	{
+		final ColumnarStore store = archetype.getColumnarStore();
+		final long hour = 60 * 60 * 1000L;
+		archetype.setTimeToLive(hour);
+		final ColumnarSegment all = store.getSegment();
+		assertThat(all.getRowCount(), equalTo(ROW_COUNT));
+
+		// Give the row written first a moment left to live, so the segment goes out of date once it expires.
+		final long firstWritten = all.getExpiresAt() - hour;
+		archetype.setTimeToLive(System.currentTimeMillis() - firstWritten + 500);
+		final ColumnarSegment expiring = store.getSegment();
+		assertThat(expiring.getRowCount(), equalTo(ROW_COUNT));
+
+		while (System.currentTimeMillis() < expiring.getExpiresAt())
+		{
+			Thread.sleep(10);
+		}
+		assertThat(store.getSegment().getRowCount() < ROW_COUNT, equalTo(true));
+
+		// Changing the time-to-live rebuilds the segment as well.
+		archetype.setTimeToLive(1);
+		assertThat(store.getSegment().getRowCount(), equalTo(0));
+	}
+
+	private static StringType stringOf(final String value)
+	{
+		final StringType type = new StringType();
+		type.setValue(value);
+
+		return type;
+	}
+
+	private static IntegerType integerOf(final int value)
+	{
+		final IntegerType type = new IntegerType();
+		type.setValue(value);
+
+		return type;
+	}
+}
@@ -0,0 +1,151 @@
+package org.paragon.paragonfs.feed;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.data.type.IntegerType;
+import org.paragon.paragonfs.paradigm.Paradigm;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ChangeFeed}.
+ */
+public class ChangeFeedTest
+{
+	private File dir;
+
+	private ParagonFS paragonFS;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		dir = Files.createTempDirectory(null).toFile();
+		paragonFS = new ParagonFS(dir);
+	}
+
+	@After
+	public void tearDown()
+	{
+		paragonFS.close();
+	}
+
+	@Test
+	public void testChangesAreRecordedInOrder() throws Exception
+	{
+		final Archetype archetype = paragonFS.create("accounts");
+
+		// Nothing is recorded until the feed is enabled.
+		archetype.create();
+		assertThat(paragonFS.getChangeFeed().getLastSequence(), equalTo(0L));
+
+		paragonFS.getChangeFeed().enable();
+		final Paradigm paradigm = archetype.create();
+		paradigm.setValue("Balance", integerOf(10));
+		final int version = paradigm.getCurrentSnapshot().getVersion();
+		archetype.delete(paradigm.getId());
+
+		final List<ChangeEvent> changes = paragonFS.getChangeFeed().read(1, 10);
+		assertThat(changes.size(), equalTo(3));
+		assertThat(changes.get(0).getSequence(), equalTo(1L));
+		assertThat(changes.get(0).getType(), equalTo(ChangeType.CREATE));
+		assertThat(changes.get(1).getType(), equalTo(ChangeType.UPDATE));
+		assertThat(changes.get(1).getKeys(), equalTo(Collections.singletonList("balance")));
+		assertThat(changes.get(1).getVersion(), equalTo(version));
+		assertThat(changes.get(2).getType(), equalTo(ChangeType.DELETE));
+		assertThat(changes.get(2).getArchetype(), equalTo("accounts"));
+		assertThat(changes.get(2).getParadigmId(), equalTo(paradigm.getId()));
+		assertThat(paragonFS.getChangeFeed().read(2, 1).get(0).getSequence(), equalTo(2L));
+	}
+
+	@Test
+	public void testChangesAreReadFromTheLogAfterReopening() throws Exception
+	{
+		paragonFS.getChangeFeed().enable();
+		final Archetype archetype = paragonFS.create("accounts");
+		for (int index = 0; index < 5; index++)
+		{
+			archetype.create();
+		}
+		paragonFS.close();
+
+		paragonFS = new ParagonFS(dir);
+		assertThat(paragonFS.getChangeFeed().isEnabled(), equalTo(true));
+		assertThat(paragonFS.getChangeFeed().getLastSequence(), equalTo(5L));
+
+		paragonFS.get("accounts").create();
+		final List<ChangeEvent> changes = paragonFS.getChangeFeed().read(3, 10);
+		assertThat(changes.size(), equalTo(4));
+		assertThat(changes.get(0).getSequence(), equalTo(3L));
+		assertThat(changes.get(3).getSequence(), equalTo(6L));
+	}
+
+	@Test
+	public void testFailureToRecordDoesNotFailTheWrite() throws Exception
+	{
+		paragonFS.getChangeFeed().enable();
+		final Archetype archetype = paragonFS.create("accounts");
+
+		// The log has no segment yet, so replacing its directory with a file makes the next change fail to record.
+		final File changes = new File(dir, ChangeFeed.DIR_NAME);
+		Files.delete(changes.toPath());
+		Files.createFile(changes.toPath());
+
+		final Paradigm paradigm = archetype.create();
+		paradigm.setValue("Balance", integerOf(10));
+		assertThat(paragonFS.getChangeFeed().isBroken(), equalTo(true));
+		assertThat(paragonFS.getChangeFeed().getLastSequence(), equalTo(0L));
+		assertThat(archetype.get(paradigm.getId()).getValue("balance").getValue(), equalTo((Object) 10));
+	}
+
+	@Test
+	public void testSubscriptionRedeliversFailedBatches() throws Exception
+	{
+		paragonFS.getChangeFeed().enable();
+		final Archetype archetype = paragonFS.create("accounts");
+		archetype.create();
+
+		final List<Long> delivered = Collections.synchronizedList(new ArrayList<Long>());
+		final AtomicBoolean failed = new AtomicBoolean();
+		final CountDownLatch latch = new CountDownLatch(3);
+		final ChangeSubscription subscription = paragonFS.getChangeFeed().subscribe(1, 2, changes -> {
+			if (failed.compareAndSet(false, true)) {
+				throw new IllegalStateException("Failing the first batch.");
+			}
+
+			for (final ChangeEvent change : changes)
+			{
+				delivered.add(change.getSequence());
+				latch.countDown();
+			}
+		});
+
+		archetype.create();
+		archetype.create();
+
+		assertThat(latch.await(10, TimeUnit.SECONDS), equalTo(true));
+		subscription.close();
+		assertThat(delivered.subList(0, 3), equalTo(List.of(1L, 2L, 3L)));
+		assertThat(subscription.getNextSequence(), equalTo(4L));
+	}
+
+	private static IntegerType integerOf(final int value)
+	{
+		final IntegerType type = new IntegerType();
+		type.setValue(value);
+
+		return type;
+	}
+}
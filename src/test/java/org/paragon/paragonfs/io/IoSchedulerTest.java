@@ -0,0 +1,97 @@
+package org.paragon.paragonfs.io;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.paragon.paragonfs.metrics.ParagonFSMetrics;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link IoScheduler}.
+ */
+public class IoSchedulerTest
+{
+	private IoScheduler scheduler;
+
+	private Volume volume;
+
+	@Before
+	public void setUp()
+	{
+		scheduler = new IoScheduler(new ParagonFSMetrics());
+		volume = new Volume(0, new File("."), 1);
+	}
+
+	@Test
+	public void testBackgroundDefersToForeground()
+	{
+		scheduler.setMaxDeferMillis(100);
+		scheduler.enter(volume);
+
+		final long start = System.nanoTime();
+		scheduler.acquire(IoClass.MAINTENANCE, volume, 0);
+		final long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		// The foreground I/O made while the background I/O is admitted is counted as background.
+		scheduler.enter(volume);
+		assertThat(scheduler.getForegroundInFlight(volume), equalTo(1));
+		scheduler.exit(volume);
+		scheduler.release(IoClass.MAINTENANCE, volume);
+		scheduler.exit(volume);
+
+		assertThat(waited >= 100, equalTo(true));
+		assertThat(scheduler.getForegroundInFlight(volume), equalTo(0));
+	}
+
+	@Test
+	public void testBackgroundQueueDepthIsLimited() throws Exception
+	{
+		scheduler.setBackgroundQueueDepth(1);
+		scheduler.acquire(IoClass.MAINTENANCE, volume, 0);
+
+		final AtomicBoolean admitted = new AtomicBoolean();
+		final CountDownLatch done = new CountDownLatch(1);
+		final Thread thread = new Thread(() -> {
+			scheduler.acquire(IoClass.MAINTENANCE, volume, 0);
+			admitted.set(true);
+			scheduler.release(IoClass.MAINTENANCE, volume);
+			done.countDown();
+		});
+		thread.start();
+
+		assertThat(done.await(100, TimeUnit.MILLISECONDS), equalTo(false));
+		assertThat(admitted.get(), equalTo(false));
+
+		// Another volume has a queue of its own.
+		final Volume other = new Volume(1, new File("."), 1);
+		scheduler.acquire(IoClass.MAINTENANCE, other, 0);
+		scheduler.release(IoClass.MAINTENANCE, other);
+
+		scheduler.release(IoClass.MAINTENANCE, volume);
+		assertThat(done.await(5, TimeUnit.SECONDS), equalTo(true));
+		assertThat(admitted.get(), equalTo(true));
+	}
+
+	@Test
+	public void testBackgroundIsRateLimited()
+	{
+		scheduler.setRateLimit(IoClass.MAINTENANCE, 1000);
+
+		// The first second's worth goes straight through, while the debt after it is waited on.
+		final long start = System.nanoTime();
+		scheduler.acquire(IoClass.MAINTENANCE, volume, 1000);
+		scheduler.release(IoClass.MAINTENANCE, volume);
+		scheduler.acquire(IoClass.MAINTENANCE, volume, 200);
+		scheduler.release(IoClass.MAINTENANCE, volume);
+		final long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertThat(waited >= 150, equalTo(true));
+		assertThat(scheduler.getRateLimit(IoClass.WRITE_BACK), equalTo(0L));
+	}
+}
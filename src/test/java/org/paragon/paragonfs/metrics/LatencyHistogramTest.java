@@ -0,0 +1,61 @@
+package org.paragon.paragonfs.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest
+{
+	private LatencyHistogram histogram;
+
+	@Before
+	public void setUp()
+	{
+		histogram = new LatencyHistogram();
+	}
+
+	@Test
+	public void testEmptySnapshot()
+	{
+		final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+		assertThat(snapshot.getCount(), equalTo(0L));
+		assertThat(snapshot.getP99(), equalTo(0L));
+	}
+
+	@Test
+	public void testBucketBoundsContainValue()
+	{
+		for (long value = 0; value < Long.MAX_VALUE / 3; value = value * 3 + 1)
+		{
+			final int index = LatencyHistogram.getBucketIndex(value);
+
+			assertTrue(LatencyHistogram.getBucketUpperBound(index) >= value);
+			assertTrue(LatencyHistogram.getBucketUpperBound(index) <= value + value / 8);
+		}
+	}
+
+	@Test
+	public void testPercentiles()
+	{
+		for (long value = 1; value <= 1000; value++)
+		{
+			histogram.record(value * 1000);
+		}
+
+		final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+		assertThat(snapshot.getCount(), equalTo(1000L));
+		assertThat(snapshot.getMax(), equalTo(1000000L));
+		assertTrue(snapshot.getP50() >= 500000L);
+		assertTrue(snapshot.getP50() <= 500000L + 500000L / 8);
+		assertTrue(snapshot.getP99() >= 990000L);
+		assertTrue(snapshot.getP99() <= 1000000L);
+	}
+}
@@ -0,0 +1,40 @@
+package org.paragon.paragonfs.paradigm;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link FrequencySketch}.
+ */
+public class FrequencySketchTest
+{
+	@Test
+	public void testHottestAreRankedFromBoundedCandidates()
+	{
+		final FrequencySketch sketch = new FrequencySketch(64, 4);
+		for (int lookup = 0; lookup < 10; lookup++)
+		{
+			sketch.record("Hot");
+		}
+		for (int lookup = 0; lookup < 5; lookup++)
+		{
+			sketch.record("Warm");
+		}
+		for (int index = 0; index < 20; index++)
+		{
+			sketch.record("cold-" + index);
+		}
+
+		// The candidates are pruned back to four once they reach eight, keeping the hottest as they were looked up.
+		assertThat(sketch.getHottest(2), equalTo(Arrays.asList("Hot", "Warm")));
+		assertThat(sketch.getHottest(100).size() < 8, equalTo(true));
+
+		sketch.forget("HOT");
+		assertThat(sketch.getHottest(1), equalTo(Collections.singletonList("Warm")));
+	}
+}
@@ -0,0 +1,68 @@
+package org.paragon.paragonfs.paradigm;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link KeyDictionary}.
+ */
+public class KeyDictionaryTest
+{
+	private File file;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		file = new File(Files.createTempDirectory(null).toFile(), KeyDictionary.FILE_NAME);
+	}
+
+	@Test
+	public void testKeysAreCaseInsensitive() throws Exception
+	{
+		final KeyDictionary dictionary = new KeyDictionary(file);
+
+		assertThat(dictionary.getId("Name"), equalTo(-1));
+		assertThat(dictionary.intern("Name"), equalTo(0));
+		assertThat(dictionary.intern("AGE"), equalTo(1));
+		assertThat(dictionary.intern("name"), equalTo(0));
+		assertThat(dictionary.getId("nAmE"), equalTo(0));
+		assertThat(dictionary.getName(1), equalTo("age"));
+	}
+
+	@Test
+	public void testKeysArePersisted() throws Exception
+	{
+		final KeyDictionary dictionary = new KeyDictionary(file);
+		for (int index = 0; index < 100; index++)
+		{
+			dictionary.intern("Column" + index);
+		}
+
+		final KeyDictionary reloaded = new KeyDictionary(file);
+
+		assertThat(reloaded.size(), equalTo(100));
+		assertThat(reloaded.getId("COLUMN42"), equalTo(42));
+		assertThat(reloaded.intern("column100"), equalTo(100));
+	}
+
+	@Test
+	public void testNewKeysAreInternedTogether() throws Exception
+	{
+		final KeyDictionary dictionary = new KeyDictionary(file);
+		dictionary.intern("name");
+
+		final int[] ids = dictionary.internAll(Arrays.asList("Age", "NAME", "city", "AGE"));
+
+		assertThat(ids, equalTo(new int[] {1, 0, 2, 1}));
+		assertThat(dictionary.size(), equalTo(3));
+		assertThat(new KeyDictionary(file).getId("City"), equalTo(2));
+		assertThat(Files.readAllLines(file.toPath()), equalTo(Arrays.asList("name", "age", "city")));
+	}
+}
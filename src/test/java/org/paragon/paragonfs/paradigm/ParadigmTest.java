@@ -1,8 +1,592 @@
 package org.paragon.paragonfs.paradigm;
 
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.archetype.Schema;
+import org.paragon.paragonfs.data.type.DataTypeIF;
+import org.paragon.paragonfs.data.type.IntegerType;
+import org.paragon.paragonfs.data.type.StringType;
+import org.paragon.paragonfs.exception.ParagonFSException;
+import org.paragon.paragonfs.io.AtomicFileWriter;
+import org.paragon.paragonfs.io.Durability;
+import org.paragon.paragonfs.io.FlushMode;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
 /**
  * Tests for {@link Paradigm}.
  */
 public class ParadigmTest
 {
+	private static final String ARCHETYPE_NAME = "users";
+	private static final String NAME_KEY = "name";
+	private static final String NAME_VALUE = "Paragon";
+	private static final String AGE_KEY = "age";
+	private static final int AGE_VALUE = 42;
+
+	private ParagonFS paragonFS;
+
+	private Archetype archetype;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		paragonFS = new ParagonFS(Files.createTempDirectory(null).toFile());
+		archetype = paragonFS.create(ARCHETYPE_NAME);
+	}
+
+	@After
+	public void tearDown()
+	{
+		paragonFS.close();
+	}
+
+	@Test
+	public void testSetAndGetValue() throws Exception
+	{
+		final Paradigm paradigm = archetype.create();
+		paradigm.setValue(NAME_KEY, stringOf(NAME_VALUE));
+		paradigm.setValue(AGE_KEY, integerOf(AGE_VALUE));
+
+		assertThat(paradigm.getValue(NAME_KEY).getValue().toString(), equalTo(NAME_VALUE));
+		assertThat((int) paradigm.getValue(AGE_KEY).getValue(), equalTo(AGE_VALUE));
+		assertThat(paradigm.keySet(), hasItems(NAME_KEY, AGE_KEY));
+	}
+
+	@Test
+	public void testValuesArePersisted() throws Exception
+	{
+		final Paradigm paradigm = archetype.create();
+		paradigm.setValue(NAME_KEY, stringOf(NAME_VALUE));
+		paragonFS.close();
+
+		paragonFS = new ParagonFS(paragonFS.getDir());
+		final Paradigm reloaded = paragonFS.get(ARCHETYPE_NAME).get(paradigm.getId());
+
+		assertThat(reloaded.getValue(NAME_KEY).getValue().toString(), equalTo(NAME_VALUE));
+	}
+
+	@Test
+	public void testReadsSeeCompleteVersionsDuringWrites() throws Exception
+	{
+		final Paradigm paradigm = archetype.create();
+		paradigm.setValue(AGE_KEY, integerOf(0));
+
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		final Future<Integer> reads = executor.submit(new Callable<Integer>()
+		{
+			@Override
+			public Integer call() throws Exception
+			{
+				int reads = 0;
+				int last = 0;
+				while (last < 50)
+				{
+					final int current = (int) paradigm.getValue(AGE_KEY).getValue();
+					assertThat(current >= last, equalTo(true));
+
+					last = current;
+					reads++;
+				}
+
+				return reads;
+			}
+		});
+
+		for (int age = 1; age <= 50; age++)
+		{
+			paradigm.setValue(AGE_KEY, integerOf(age), Durability.ASYNC);
+		}
+
+		assertThat(reads.get(10, TimeUnit.SECONDS) > 0, equalTo(true));
+		assertThat(paradigm.getVersion(), equalTo(51));
+		executor.shutdown();
+	}
+
+	@Test
+	public void testDeleteHidesParadigm() throws Exception
+	{
+		final Paradigm paradigm = archetype.create();
+		paradigm.setValue(NAME_KEY, stringOf(NAME_VALUE));
+
+		assertThat(archetype.delete(paradigm.getId()), equalTo(true));
+		assertThat(archetype.exists(paradigm.getId()), equalTo(false));
+		assertThat(archetype.get(paradigm.getId()), nullValue());
+		assertThat(archetype.delete(paradigm.getId()), equalTo(false));
+
+		try
+		{
+			paradigm.getValue(NAME_KEY);
+
+			fail("Expected an exception.");
+		}
+		catch (final ParagonFSException e)
+		{
+			assertThat(e.getMessage(), equalTo("The paradigm has been deleted."));
+		}
+	}
+
+	@Test
+	public void testReadViewSeesConsistentVersions() throws Exception
+	{
+		final Archetype other = paragonFS.create("accounts");
+		final Paradigm user = archetype.create();
+		user.setValue(AGE_KEY, integerOf(1));
+		final Paradigm account = other.create();
+		account.setValue(AGE_KEY, integerOf(10));
+
+		final ReadView view = paragonFS.openReadView();
+		user.setValue(AGE_KEY, integerOf(2));
+		account.setValue(AGE_KEY, integerOf(20));
+		final Paradigm created = archetype.create();
+		archetype.delete(user.getId());
+
+		// The view sees every Paradigm as it was when it was opened, across both Archetypes.
+		assertThat((int) account.getValue(AGE_KEY, view).getValue(), equalTo(10));
+		assertThat((int) account.getValue(AGE_KEY).getValue(), equalTo(20));
+		assertThat(archetype.get(created.getId(), view), nullValue());
+		assertThat(archetype.get(user.getId()), nullValue());
+		assertThat((int) archetype.get(user.getId(), view).getValue(AGE_KEY, view).getValue(), equalTo(1));
+		assertThat(archetype.listParadigmIds(view).contains(user.getId()), equalTo(true));
+		assertThat(paragonFS.getVersionClock().getVersionedCount(), equalTo(3));
+
+		// Once the view is closed the old versions are dropped.
+		view.close();
+		paragonFS.getVersionClock().run();
+		assertThat(paragonFS.getVersionClock().getVersionedCount(), equalTo(0));
+
+		try (final ReadView next = paragonFS.openReadView())
+		{
+			assertThat(archetype.get(user.getId(), next), nullValue());
+			assertThat((int) account.getValue(AGE_KEY, next).getValue(), equalTo(20));
+			assertThat(archetype.get(created.getId(), next).getId(), equalTo(created.getId()));
+		}
+	}
+
+	@Test
+	public void testCompactionReclaimsFileAndDirectories() throws Exception
+	{
+		final Paradigm paradigm = archetype.create();
+		paradigm.setValue(NAME_KEY, stringOf(NAME_VALUE));
+		paradigm.delete();
+
+		final File file = paradigm.getFile();
+		assertThat(file.exists(), equalTo(true));
+
+		paragonFS.compact();
+
+		assertThat(file.exists(), equalTo(false));
+		assertThat(archetype.getTombstoneLog().getParadigmIds().isEmpty(), equalTo(true));
+		assertThat(archetype.getDir().listFiles(File::isDirectory).length, equalTo(0));
+	}
+
+	@Test
+	public void testMemoryDurabilityIsNotWritten() throws Exception
+	{
+		archetype.setDurability(Durability.MEMORY);
+
+		final Paradigm paradigm = archetype.create();
+		paradigm.setValue(NAME_KEY, stringOf(NAME_VALUE));
+
+		assertThat(paradigm.getFile().length(), equalTo(0L));
+		assertThat(paradigm.getValue(NAME_KEY).getValue().toString(), equalTo(NAME_VALUE));
+
+		paradigm.setValue(AGE_KEY, integerOf(AGE_VALUE), Durability.DATA_SYNC);
+
+		assertThat(paradigm.getFile().length() > 0, equalTo(true));
+	}
+
+	@Test
+	public void testWriteBackIsCoalesced() throws Exception
+	{
+		// Stop the background thread, so the only flush is the one below.
+		paragonFS.getWriteBackFlusher().stop();
+		archetype.setDurability(Durability.WRITE_BACK);
+
+		final Paradigm paradigm = archetype.create();
+		for (int age = 1; age <= 10; age++)
+		{
+			paradigm.setValue(AGE_KEY, integerOf(age));
+		}
+
+		assertThat(paradigm.getFile().length(), equalTo(0L));
+		assertThat((int) paradigm.getValue(AGE_KEY).getValue(), equalTo(10));
+
+		final long written = archetype.getBytesWritten().sum();
+		paragonFS.getWriteBackFlusher().flush();
+
+		assertThat(paradigm.getFile().length() > 0, equalTo(true));
+		assertThat(archetype.getBytesWritten().sum() - written, equalTo(paradigm.getFile().length()));
+		assertThat(paragonFS.getWriteBackFlusher().getDirtyBytes(), equalTo(0L));
+	}
+
+	@Test
+	public void testAtomicRenameFlush() throws Exception
+	{
+		archetype.setFlushMode(FlushMode.ATOMIC_RENAME);
+
+		final Paradigm paradigm = archetype.create();
+		paradigm.setValue(NAME_KEY, stringOf(NAME_VALUE));
+		paradigm.setValue(AGE_KEY, integerOf(AGE_VALUE));
+
+		assertThat(AtomicFileWriter.getTempFile(paradigm.getFile()).exists(), equalTo(false));
+
+		final Paradigm reloaded = new Paradigm(archetype, paradigm.getFile(), paradigm.getId());
+
+		assertThat(reloaded.getValue(NAME_KEY).getValue().toString(), equalTo(NAME_VALUE));
+		assertThat((int) reloaded.getValue(AGE_KEY).getValue(), equalTo(AGE_VALUE));
+	}
+
+	@Test
+	public void testArchetypeInheritsDurability() throws Exception
+	{
+		paragonFS.setDurability(Durability.ASYNC);
+
+		assertThat(archetype.getDurability(), equalTo(Durability.ASYNC));
+
+		archetype.setDurability(Durability.SYNC);
+
+		assertThat(archetype.getDurability(), equalTo(Durability.SYNC));
+	}
+
+	@Test
+	public void testGetAll() throws Exception
+	{
+		final Paradigm first = archetype.create();
+		first.setValue(NAME_KEY, stringOf(NAME_VALUE));
+		final Paradigm second = archetype.create();
+		second.setValue(AGE_KEY, integerOf(AGE_VALUE));
+
+		paragonFS.close();
+		paragonFS = new ParagonFS(paragonFS.getDir());
+		archetype = paragonFS.get(ARCHETYPE_NAME);
+
+		final Paradigm cached = archetype.get(first.getId());
+		final Map<String, Paradigm> paradigms = archetype.getAll(
+			Arrays.asList(second.getId(), first.getId(), "00000000-0000-0000-0000-000000000000", second.getId())
+		);
+
+		assertThat(paradigms.keySet(), equalTo((Object) new LinkedHashSet<>(Arrays.asList(second.getId(), first.getId()))));
+		assertThat(paradigms.get(first.getId()) == cached, equalTo(true));
+		assertThat(paradigms.get(second.getId()) == archetype.get(second.getId()), equalTo(true));
+
+		final Map<String, Map<String, DataTypeIF>> values = archetype.getAll(
+			Arrays.asList(first.getId(), second.getId()), Collections.singletonList(AGE_KEY)
+		);
+
+		assertThat(values.get(first.getId()).isEmpty(), equalTo(true));
+		assertThat((int) values.get(second.getId()).get(AGE_KEY).getValue(), equalTo(AGE_VALUE));
+	}
+
+	@Test
+	public void testAsyncOperations() throws Exception
+	{
+		final Paradigm paradigm = archetype.async().create().get(10, TimeUnit.SECONDS);
+		archetype.async().setValue(paradigm.getId(), NAME_KEY, stringOf(NAME_VALUE)).get(10, TimeUnit.SECONDS);
+
+		final Paradigm fetched = archetype.async().get(paradigm.getId()).get(10, TimeUnit.SECONDS);
+
+		assertThat(fetched.getValue(NAME_KEY).getValue().toString(), equalTo(NAME_VALUE));
+		assertThat(archetype.async().delete(paradigm.getId()).get(10, TimeUnit.SECONDS), equalTo(true));
+
+		try
+		{
+			archetype.async().setValue(paradigm.getId(), NAME_KEY, stringOf(NAME_VALUE)).get(10, TimeUnit.SECONDS);
+
+			fail("Expected an exception.");
+		}
+		catch (final ExecutionException e)
+		{
+			assertThat(e.getCause() instanceof ParagonFSException, equalTo(true));
+		}
+	}
+
+	@Test
+	public void testSchemaLayout() throws Exception
+	{
+		archetype.setSchema(new Schema().add(NAME_KEY, StringType.class, false).add(AGE_KEY, IntegerType.class, true));
+
+		final Paradigm paradigm = archetype.create();
+		try
+		{
+			paradigm.setValue(AGE_KEY, integerOf(AGE_VALUE));
+
+			fail("Expected an exception.");
+		}
+		catch (final IllegalArgumentException e)
+		{
+			assertThat(e.getMessage(), equalTo("The key name must not be null."));
+		}
+
+		try
+		{
+			paradigm.setValue(NAME_KEY, integerOf(AGE_VALUE));
+
+			fail("Expected an exception.");
+		}
+		catch (final IllegalArgumentException e)
+		{
+			assertThat(e.getMessage(), equalTo("The key name must be a StringType."));
+		}
+
+		paradigm.setValue("Name", stringOf(NAME_VALUE));
+		paragonFS.close();
+
+		paragonFS = new ParagonFS(paragonFS.getDir());
+		archetype = paragonFS.get(ARCHETYPE_NAME);
+		final Paradigm reloaded = archetype.get(paradigm.getId());
+
+		assertThat(archetype.getSchema().getColumn(AGE_KEY).isNullable(), equalTo(true));
+		assertThat(Files.readAllBytes(reloaded.getFile().toPath())[0], equalTo((byte) 'P'));
+		assertThat(reloaded.getValue(NAME_KEY).getValue().toString(), equalTo(NAME_VALUE));
+		assertThat(reloaded.getValue(AGE_KEY), nullValue());
+
+		try
+		{
+			archetype.setSchema(null);
+
+			fail("Expected an exception.");
+		}
+		catch (final IllegalStateException e)
+		{
+			assertThat(e.getMessage(), equalTo("The schema can only be set on an empty archetype."));
+		}
+	}
+
+	@Test
+	public void testIdleParadigmsMoveToColdTier() throws Exception
+	{
+		final Paradigm idle = archetype.create();
+		idle.setValue(NAME_KEY, stringOf(NAME_VALUE));
+		final Paradigm busy = archetype.create();
+		busy.setValue(NAME_KEY, stringOf(NAME_VALUE));
+
+		paragonFS.setColdDir(Files.createTempDirectory(null).toFile());
+		paragonFS.getTierMigrator().setIdleMillis(50);
+		Thread.sleep(100);
+
+		// Only the Paradigm which has not been read since moves.
+		busy.getValue(NAME_KEY);
+		assertThat(paragonFS.getTierMigrator().migrate(archetype), equalTo(1));
+
+		final File coldFile = archetype.getColdParadigmFile(idle.getId());
+		assertThat(idle.getFile().exists(), equalTo(false));
+		assertThat(coldFile.exists(), equalTo(true));
+		assertThat(archetype.exists(idle.getId()), equalTo(true));
+		assertThat(archetype.listParadigmIds().size(), equalTo(2));
+		assertThat(idle.getValue(NAME_KEY).getValue(), equalTo((Object) NAME_VALUE));
+
+		// Writing to it moves it back.
+		idle.setValue(AGE_KEY, integerOf(AGE_VALUE));
+		assertThat(idle.getFile().exists(), equalTo(true));
+		assertThat(coldFile.exists(), equalTo(false));
+		assertThat(idle.getValue(NAME_KEY).getValue(), equalTo((Object) NAME_VALUE));
+	}
+
+	@Test
+	public void testCompression() throws Exception
+	{
+		final String description = StringUtils.repeat("A row which repeats itself. ", 20);
+		final Paradigm plain = archetype.create();
+		plain.setValue(NAME_KEY, stringOf(description));
+		final long plainLength = plain.getFile().length();
+
+		archetype.setCompressionLevel(Deflater.BEST_COMPRESSION);
+		final Paradigm compressed = archetype.create();
+		compressed.setValue(NAME_KEY, stringOf(description));
+		assertThat(compressed.getFile().length() < plainLength / 4, equalTo(true));
+
+		// A small row is not worth compressing, until there is a dictionary holding what it repeats.
+		final Paradigm small = archetype.create();
+		small.setValue(NAME_KEY, stringOf(NAME_VALUE));
+		final long smallLength = small.getFile().length();
+		final ParadigmCodec replaced = archetype.getCodec();
+		assertThat(archetype.trainCompressionDictionary(10) > 0, equalTo(true));
+
+		// A codec which has been replaced and closed still works for the reads which were using it.
+		final ParadigmSnapshot decoded = replaced.decode(Files.readAllBytes(compressed.getFile().toPath()));
+		assertThat(decoded.getVersion(), equalTo(compressed.getVersion()));
+		for (int index = 0; index < 3; index++)
+		{
+			final Map<String, DataTypeIF> values = new HashMap<>();
+			values.put(NAME_KEY, stringOf(NAME_VALUE + index));
+			values.put(AGE_KEY, integerOf(AGE_VALUE + index));
+			values.put("description", stringOf(description));
+			small.setValues(values);
+		}
+		paragonFS.close();
+
+		paragonFS = new ParagonFS(paragonFS.getDir());
+		final Archetype reopened = paragonFS.get(ARCHETYPE_NAME);
+		assertThat(reopened.getCompressionLevel(), equalTo(Deflater.BEST_COMPRESSION));
+		assertThat(reopened.get(plain.getId()).getValue(NAME_KEY).getValue(), equalTo((Object) description));
+		assertThat(reopened.get(compressed.getId()).getValue(NAME_KEY).getValue(), equalTo((Object) description));
+		assertThat(reopened.get(small.getId()).getValue(NAME_KEY).getValue(), equalTo((Object) (NAME_VALUE + 2)));
+		assertThat(small.getFile().length() < smallLength + 20, equalTo(true));
+	}
+
+	@Test
+	public void testExpiredParadigmsAreHiddenAndReaped() throws Exception
+	{
+		final Paradigm expired = archetype.create();
+		expired.setValue(NAME_KEY, stringOf(NAME_VALUE));
+		archetype.setTimeToLive(200);
+		Thread.sleep(300);
+
+		final Paradigm alive = archetype.create();
+		alive.setValue(NAME_KEY, stringOf(NAME_VALUE));
+
+		assertThat(expired.isExpired(), equalTo(true));
+		assertThat(expired.getValue(NAME_KEY), nullValue());
+		assertThat(archetype.getAll(Arrays.asList(expired.getId(), alive.getId())).keySet(),
+			equalTo(Collections.singleton(alive.getId())));
+		try
+		{
+			expired.setValue(NAME_KEY, stringOf(NAME_VALUE));
+			fail("An expired paradigm must not be written.");
+		}
+		catch (final ParagonFSException e)
+		{
+			// Expected.
+		}
+
+		// Record both in a bucket which has already ended, so the reaper goes through it now.
+		final ExpiryBuckets buckets = archetype.getExpiryBuckets();
+		buckets.record(expired.getId(), 0);
+		buckets.record(alive.getId(), 0);
+		assertThat(paragonFS.getReaper().reap(archetype, 10), equalTo(1));
+		assertThat(archetype.exists(expired.getId()), equalTo(false));
+		assertThat(alive.getValue(NAME_KEY).getValue().toString(), equalTo(NAME_VALUE));
+		assertThat(buckets.read(0), equalTo(Collections.<String>emptySet()));
+	}
+
+	@Test
+	public void testFrozenArchetypeIsReadOnly() throws Exception
+	{
+		final Paradigm first = archetype.create();
+		first.setValue(NAME_KEY, stringOf(NAME_VALUE));
+		final Paradigm second = archetype.create();
+		second.setValue(AGE_KEY, integerOf(AGE_VALUE), Durability.WRITE_BACK);
+
+		archetype.freeze();
+		assertThat(archetype.isFrozen(), equalTo(true));
+		assertThat(archetype.get(first.getId()), equalTo(first));
+		assertThat(archetype.listParadigmIds().size(), equalTo(2));
+		assertThat(archetype.exists("missing"), equalTo(false));
+		try
+		{
+			first.setValue(NAME_KEY, stringOf("Changed"));
+			fail("A frozen archetype must not be written.");
+		}
+		catch (final ParagonFSException e)
+		{
+			// Expected.
+		}
+		try
+		{
+			archetype.create();
+			fail("A frozen archetype must not be written.");
+		}
+		catch (final ParagonFSException e)
+		{
+			// Expected.
+		}
+		paragonFS.close();
+
+		// The Paradigms are loaded from the segment after a restart, including the write-back update.
+		paragonFS = new ParagonFS(paragonFS.getDir());
+		final Archetype reopened = paragonFS.get(ARCHETYPE_NAME);
+		assertThat(reopened.isFrozen(), equalTo(true));
+		final Paradigm frozen = reopened.get(second.getId().toUpperCase());
+		assertThat((int) frozen.getValue(AGE_KEY).getValue(), equalTo(AGE_VALUE));
+		assertThat(reopened.get(first.getId()).getValue(NAME_KEY).getValue().toString(), equalTo(NAME_VALUE));
+
+		reopened.thaw();
+		assertThat(reopened.get(second.getId()), equalTo(frozen));
+		frozen.setValue(AGE_KEY, integerOf(AGE_VALUE + 1));
+		assertThat((int) reopened.get(second.getId()).getValue(AGE_KEY).getValue(), equalTo(AGE_VALUE + 1));
+		assertThat(new File(reopened.getDir(), FrozenSegment.FILE_NAME).exists(), equalTo(false));
+	}
+
+	@Test
+	public void testHottestParadigmsAreWarmedAfterRestart() throws Exception
+	{
+		final Paradigm hot = archetype.create();
+		hot.setValue(NAME_KEY, stringOf(NAME_VALUE));
+		final Paradigm warm = archetype.create();
+		warm.setValue(NAME_KEY, stringOf(NAME_VALUE));
+		final Paradigm cold = archetype.create();
+		cold.setValue(NAME_KEY, stringOf(NAME_VALUE));
+
+		for (int lookup = 0; lookup < 5; lookup++)
+		{
+			archetype.get(hot.getId());
+		}
+		archetype.getAll(Arrays.asList(warm.getId(), warm.getId()));
+		archetype.get(warm.getId());
+
+		// Internal scans read every Paradigm, but don't count as lookups.
+		archetype.getColumnarStore().getSegment();
+		paragonFS.close();
+
+		// The list is written as the ParagonFS is closed, hottest first, leaving out what was never looked up.
+		final File hotFile = new File(archetype.getDir(), CacheWarmer.FILE_NAME);
+		assertThat(Files.readAllLines(hotFile.toPath()), equalTo(Arrays.asList(hot.getId(), warm.getId())));
+
+		paragonFS = new ParagonFS(paragonFS.getDir());
+		final CacheWarmer warmer = paragonFS.getCacheWarmer();
+		assertThat(warmer.warmUp(), equalTo(2));
+
+		// The byte budget is used up by the first Paradigm.
+		warmer.setByteBudget(1);
+		assertThat(warmer.warmUp(), equalTo(1));
+		try
+		{
+			warmer.setMaxParadigms(0);
+			fail("The number of paradigms must be positive.");
+		}
+		catch (final IllegalArgumentException e)
+		{
+			// Expected.
+		}
+	}
+
+	private static StringType stringOf(final String value)
+	{
+		final StringType type = new StringType();
+		type.setValue(value);
+
+		return type;
+	}
+
+	private static IntegerType integerOf(final int value)
+	{
+		final IntegerType type = new IntegerType();
+		type.setValue(value);
+
+		return type;
+	}
 }
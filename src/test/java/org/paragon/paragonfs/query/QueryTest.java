@@ -0,0 +1,139 @@
+package org.paragon.paragonfs.query;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.paragon.paragonfs.ParagonFS;
+import org.paragon.paragonfs.archetype.Archetype;
+import org.paragon.paragonfs.data.type.DataTypeIF;
+import org.paragon.paragonfs.data.type.DoubleType;
+import org.paragon.paragonfs.data.type.IntegerType;
+import org.paragon.paragonfs.data.type.StringType;
+import org.paragon.paragonfs.paradigm.Paradigm;
+
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link Query}.
+ */
+public class QueryTest
+{
+	private static final int ROW_COUNT = 30;
+
+	private ParagonFS paragonFS;
+
+	private Archetype archetype;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		paragonFS = new ParagonFS(Files.createTempDirectory(null).toFile());
+		archetype = paragonFS.create("orders");
+
+		// Row n is in region n % 3, with an amount of n.
+		for (int index = 0; index < ROW_COUNT; index++)
+		{
+			final Map<String, DataTypeIF> values = new HashMap<>();
+			values.put("region", stringOf("region" + (index % 3)));
+			values.put("amount", integerOf(index));
+			archetype.create().setValues(values);
+		}
+	}
+
+	@After
+	public void tearDown()
+	{
+		paragonFS.close();
+	}
+
+	@Test
+	public void testAggregates() throws Exception
+	{
+		assertThat(archetype.query().count(), equalTo((long) ROW_COUNT));
+		assertThat(archetype.query().sum("amount"), equalTo((Number) 435L));
+		assertThat(archetype.query().min("amount"), equalTo((Object) 0));
+		assertThat(archetype.query().max("AMOUNT"), equalTo((Object) 29));
+		assertThat(archetype.query().avg("amount"), equalTo(14.5));
+
+		final Query filtered = archetype.query()
+			.where("amount", Operator.GREATER_THAN_OR_EQUAL, 10)
+			.where("amount", Operator.LESS_THAN, 20);
+		assertThat(filtered.count(), equalTo(10L));
+		assertThat(filtered.sum("amount"), equalTo((Number) 145L));
+
+		assertThat(archetype.query().where("amount", Operator.GREATER_THAN, 100).count(), equalTo(0L));
+		assertThat(archetype.query().where("amount", Operator.GREATER_THAN, 100).max("amount"), nullValue());
+		assertThat(archetype.query().where("missing", Operator.EQUAL, 1).count(), equalTo(0L));
+	}
+
+	@Test
+	public void testGroupBy() throws Exception
+	{
+		final Map<Object, Object> sums = archetype.query()
+			.where("amount", Operator.NOT_EQUAL, 0)
+			.groupBy("region")
+			.aggregate(Aggregate.SUM, "amount");
+
+		assertThat(sums.size(), equalTo(3));
+		assertThat(sums.get("region0"), equalTo((Object) 135L));
+		assertThat(sums.get("region1"), equalTo((Object) 145L));
+		assertThat(sums.get("region2"), equalTo((Object) 155L));
+
+		final Map<Object, Object> counts = archetype.query().groupBy("region").limit(2).aggregate(Aggregate.COUNT, null);
+		assertThat(counts.size(), equalTo(2));
+		assertThat(counts.get("region0"), equalTo((Object) 10L));
+	}
+
+	@Test
+	public void testRowsSeeWrites() throws Exception
+	{
+		final Map<String, Map<String, Object>> rows = archetype.query()
+			.where("region", Operator.EQUAL, "region1")
+			.select("amount")
+			.limit(4)
+			.rows();
+		assertThat(rows.size(), equalTo(4));
+
+		final String paradigmId = rows.keySet().iterator().next();
+		final Paradigm paradigm = archetype.get(paradigmId);
+		paradigm.setValue("amount", doubleOf(1000.5));
+
+		final Map<String, Map<String, Object>> updated = archetype.query()
+			.where("amount", Operator.GREATER_THAN, 500)
+			.select("amount", "region")
+			.rows();
+		assertThat(updated.size(), equalTo(1));
+		assertThat(updated.get(paradigmId).get("amount"), equalTo((Object) 1000.5));
+		assertThat(updated.get(paradigmId).get("region"), equalTo((Object) "region1"));
+	}
+
+	private static StringType stringOf(final String value)
+	{
+		final StringType type = new StringType();
+		type.setValue(value);
+
+		return type;
+	}
+
+	private static IntegerType integerOf(final int value)
+	{
+		final IntegerType type = new IntegerType();
+		type.setValue(value);
+
+		return type;
+	}
+
+	private static DoubleType doubleOf(final double value)
+	{
+		final DoubleType type = new DoubleType();
+		type.setValue(value);
+
+		return type;
+	}
+}